@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.ads.mediation.sample.mediationsample;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.google.android.gms.ads.mediation.Adapter;
+import com.google.android.gms.ads.mediation.InitializationCompleteCallback;
+import com.google.android.gms.ads.mediation.MediationConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Initializes a set of mediation {@link Adapter}s at app startup. Every adapter's
+ * {@link Adapter#initialize} is started right away instead of one after the other, each adapter
+ * gets its own timeout, and startup is considered ready once every adapter has reported, timed
+ * out, or the overall startup budget ran out, whichever comes first.
+ *
+ * <p>A {@link Timeline} of the startup is reported when ready, showing how long each adapter took
+ * and which adapter gated readiness. The sample app runs it on stub adapters from
+ * {@link StartupOrchestratorDemo}; an app would add its mediation adapters instead.
+ *
+ * <p>All methods must be called on the main thread. Listener callbacks are made on the main
+ * thread.
+ */
+class AdapterStartupOrchestrator {
+
+    /**
+     * Outcome of a single adapter's initialization.
+     */
+    enum Outcome {
+        PENDING,
+        SUCCEEDED,
+        FAILED,
+        TIMED_OUT
+    }
+
+    /**
+     * Listener notified once startup is ready.
+     */
+    interface Listener {
+        void onStartupReady(Timeline timeline);
+    }
+
+    private final long mAdapterTimeoutMillis;
+    private final long mStartupBudgetMillis;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final List<Entry> mEntries = new ArrayList<>();
+
+    private Listener mListener;
+    private long mStartTimeMillis;
+    private int mPendingCount;
+    private boolean mIsStarted;
+    private boolean mIsReady;
+
+    /**
+     * @param adapterTimeoutMillis how long a single adapter may take to initialize.
+     * @param startupBudgetMillis  how long startup may take overall before it is considered
+     *                             ready regardless of pending adapters.
+     */
+    AdapterStartupOrchestrator(long adapterTimeoutMillis, long startupBudgetMillis) {
+        mAdapterTimeoutMillis = adapterTimeoutMillis;
+        mStartupBudgetMillis = startupBudgetMillis;
+    }
+
+    /**
+     * Adds an adapter to initialize. Must be called before {@link #start}.
+     */
+    AdapterStartupOrchestrator addAdapter(String name,
+                                          Adapter adapter,
+                                          List<MediationConfiguration> configurations) {
+        if (mIsStarted) {
+            throw new IllegalStateException("Adapters must be added before start() is called.");
+        }
+        mEntries.add(new Entry(name, adapter, configurations));
+        return this;
+    }
+
+    /**
+     * Starts initializing all added adapters.
+     */
+    void start(Context context, Listener listener) {
+        if (mIsStarted) {
+            throw new IllegalStateException("start() may only be called once.");
+        }
+        mIsStarted = true;
+        mListener = listener;
+        mStartTimeMillis = SystemClock.elapsedRealtime();
+        mPendingCount = mEntries.size();
+        if (mPendingCount == 0) {
+            markReady(null);
+            return;
+        }
+
+        mHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                markReady(null);
+            }
+        }, mStartupBudgetMillis);
+
+        for (final Entry entry : mEntries) {
+            mHandler.postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    complete(entry, Outcome.TIMED_OUT, "Timed out.");
+                }
+            }, mAdapterTimeoutMillis);
+
+            entry.mStartMillis = elapsedMillis();
+            try {
+                entry.mAdapter.initialize(context, new InitializationCompleteCallback() {
+                    @Override
+                    public void onInitializationSucceeded() {
+                        postComplete(entry, Outcome.SUCCEEDED, null);
+                    }
+
+                    @Override
+                    public void onInitializationFailed(String message) {
+                        postComplete(entry, Outcome.FAILED, message);
+                    }
+                }, entry.mConfigurations);
+            } catch (RuntimeException e) {
+                // One misbehaving adapter should not hold back startup.
+                complete(entry, Outcome.FAILED, e.toString());
+            }
+        }
+    }
+
+    private void postComplete(final Entry entry, final Outcome outcome, final String message) {
+        // Adapters may report from any thread.
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                complete(entry, outcome, message);
+            }
+        });
+    }
+
+    private void complete(Entry entry, Outcome outcome, String message) {
+        if (entry.mOutcome != Outcome.PENDING) {
+            return;
+        }
+        entry.mOutcome = outcome;
+        entry.mMessage = message;
+        entry.mEndMillis = elapsedMillis();
+        mPendingCount--;
+        if (mPendingCount == 0) {
+            markReady(entry);
+        }
+    }
+
+    private void markReady(Entry gatingEntry) {
+        if (mIsReady) {
+            return;
+        }
+        mIsReady = true;
+        mHandler.removeCallbacksAndMessages(null);
+
+        List<Timeline.Event> events = new ArrayList<>(mEntries.size());
+        Timeline.Event gatingEvent = null;
+        for (Entry entry : mEntries) {
+            Timeline.Event event = new Timeline.Event(entry.mName, entry.mOutcome,
+                    entry.mMessage, entry.mStartMillis, entry.mEndMillis);
+            events.add(event);
+            if (entry == gatingEntry) {
+                gatingEvent = event;
+            }
+        }
+        mListener.onStartupReady(new Timeline(events, gatingEvent, elapsedMillis()));
+    }
+
+    private long elapsedMillis() {
+        return SystemClock.elapsedRealtime() - mStartTimeMillis;
+    }
+
+    private static class Entry {
+        final String mName;
+        final Adapter mAdapter;
+        final List<MediationConfiguration> mConfigurations;
+        Outcome mOutcome = Outcome.PENDING;
+        String mMessage;
+        long mStartMillis;
+        long mEndMillis = -1;
+
+        Entry(String name, Adapter adapter, List<MediationConfiguration> configurations) {
+            mName = name;
+            mAdapter = adapter;
+            mConfigurations = configurations;
+        }
+    }
+
+    /**
+     * Timings of a completed startup, printed by {@link #toString()}. All times are in
+     * milliseconds since {@link #start} was called.
+     */
+    static class Timeline {
+        private final List<Event> mEvents;
+        private final Event mGatingEvent;
+        private final long mReadyMillis;
+
+        Timeline(List<Event> events, Event gatingEvent, long readyMillis) {
+            mEvents = events;
+            mGatingEvent = gatingEvent;
+            mReadyMillis = readyMillis;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Startup ready after ")
+                    .append(mReadyMillis).append(" ms, gated by ")
+                    .append(mGatingEvent != null ? mGatingEvent.mName : "startup budget");
+            for (Event event : mEvents) {
+                builder.append("\n  ").append(event.mName).append(": ").append(event.mOutcome);
+                // Adapters still pending when the startup budget ran out have no end time.
+                if (event.mEndMillis >= 0) {
+                    builder.append(" [").append(event.mStartMillis).append(" - ")
+                            .append(event.mEndMillis).append(" ms]");
+                }
+                if (event.mMessage != null) {
+                    builder.append(' ').append(event.mMessage);
+                }
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Initialization of a single adapter.
+         */
+        static class Event {
+            final String mName;
+            final Outcome mOutcome;
+            final String mMessage;
+            final long mStartMillis;
+            final long mEndMillis;
+
+            Event(String name, Outcome outcome, String message, long startMillis,
+                  long endMillis) {
+                mName = name;
+                mOutcome = outcome;
+                mMessage = message;
+                mStartMillis = startMillis;
+                mEndMillis = endMillis;
+            }
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package com.google.ads.mediation.sample.mediationsample;
 
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.Button;
 import android.widget.FrameLayout;
@@ -317,6 +319,27 @@ public class MainActivity extends AppCompatActivity {
         rewardedVideoAd.resume(MainActivity.this);
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        // The startup orchestrator demo is only offered in debug builds.
+        if (BuildConfig.DEBUG) {
+            getMenuInflater().inflate(R.menu.menu_main, menu);
+        }
+        return super.onCreateOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_run_startup_demo) {
+            // Logs the startup timeline of stub adapters initialized in parallel.
+            StartupOrchestratorDemo.run(getApplicationContext());
+            Toast.makeText(this, "Running startup orchestrator demo, see logcat.",
+                    Toast.LENGTH_SHORT).show();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
     private void loadRewardedVideoAd() {
         adapterVideoButton.setEnabled(false);
         rewardedVideoAd.loadAd(getString(R.string.adapter_rewarded_video_ad_unit_id),
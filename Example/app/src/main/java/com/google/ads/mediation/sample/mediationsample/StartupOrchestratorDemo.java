@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2019 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.ads.mediation.sample.mediationsample;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.android.gms.ads.mediation.Adapter;
+import com.google.android.gms.ads.mediation.InitializationCompleteCallback;
+import com.google.android.gms.ads.mediation.MediationConfiguration;
+import com.google.android.gms.ads.mediation.VersionInfo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A demo of {@link AdapterStartupOrchestrator}. Initializes a set of stub adapters that report
+ * after random delays, some failing and some never reporting, and logs the resulting startup
+ * timeline next to the time a serial initialization of the same adapters would take.
+ *
+ * <p>Only the orchestrator is exercised: the stub adapters stand in for real ones and only
+ * implement initialization, so the results say nothing about the startup, load or mapping cost of
+ * any real adapter.
+ */
+class StartupOrchestratorDemo {
+
+    private static final String TAG = StartupOrchestratorDemo.class.getSimpleName();
+
+    private static final int ADAPTER_COUNT = 15;
+    private static final int MAX_INIT_DELAY_MILLIS = 1500;
+    private static final long ADAPTER_TIMEOUT_MILLIS = 2000;
+    private static final long STARTUP_BUDGET_MILLIS = 3000;
+
+    /**
+     * Fixed so that runs are comparable.
+     */
+    private static final long SEED = 42;
+
+    private StartupOrchestratorDemo() {
+    }
+
+    /**
+     * Runs the demo and logs its results. Must be called on the main thread.
+     */
+    static void run(Context context) {
+        Random random = new Random(SEED);
+        AdapterStartupOrchestrator orchestrator =
+                new AdapterStartupOrchestrator(ADAPTER_TIMEOUT_MILLIS, STARTUP_BUDGET_MILLIS);
+        long serialMillis = 0;
+        for (int i = 0; i < ADAPTER_COUNT; i++) {
+            int delayMillis = random.nextInt(MAX_INIT_DELAY_MILLIS);
+            // One in ten adapters fails and one in twenty never reports.
+            int behavior = random.nextInt(20);
+            boolean fails = behavior < 2;
+            boolean hangs = behavior == 2;
+            serialMillis += hangs ? ADAPTER_TIMEOUT_MILLIS : delayMillis;
+            orchestrator.addAdapter("Stub" + i, new StubAdapter(delayMillis, fails, hangs),
+                    Collections.<MediationConfiguration>emptyList());
+        }
+
+        final long serialEstimateMillis = serialMillis;
+        orchestrator.start(context, new AdapterStartupOrchestrator.Listener() {
+            @Override
+            public void onStartupReady(AdapterStartupOrchestrator.Timeline timeline) {
+                Log.i(TAG, timeline.toString());
+                Log.i(TAG, "Serial initialization would take about " + serialEstimateMillis
+                        + " ms.");
+            }
+        });
+    }
+
+    /**
+     * An {@link Adapter} that reports its initialization result after a fixed delay.
+     */
+    private static class StubAdapter extends Adapter {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+        private final int mDelayMillis;
+        private final boolean mFails;
+        private final boolean mHangs;
+
+        StubAdapter(int delayMillis, boolean fails, boolean hangs) {
+            mDelayMillis = delayMillis;
+            mFails = fails;
+            mHangs = hangs;
+        }
+
+        @Override
+        public void initialize(Context context,
+                               final InitializationCompleteCallback callback,
+                               List<MediationConfiguration> configurations) {
+            if (mHangs) {
+                return;
+            }
+            mHandler.postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    if (mFails) {
+                        callback.onInitializationFailed("Stub failure.");
+                    } else {
+                        callback.onInitializationSucceeded();
+                    }
+                }
+            }, mDelayMillis);
+        }
+
+        @Override
+        public VersionInfo getVersionInfo() {
+            return new VersionInfo(0, 0, 0);
+        }
+
+        @Override
+        public VersionInfo getSDKVersionInfo() {
+            return new VersionInfo(0, 0, 0);
+        }
+    }
+}
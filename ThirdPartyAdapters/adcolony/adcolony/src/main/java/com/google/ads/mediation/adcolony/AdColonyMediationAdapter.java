@@ -30,6 +30,7 @@ import com.jirbo.adcolony.BuildConfig;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -40,21 +41,87 @@ public class AdColonyMediationAdapter extends RtbAdapter {
     private static AdColonyAppOptions appOptions = new AdColonyAppOptions();
     private static HashMap<String, String> bidResponseDetailsHashMap = new HashMap<>();
 
+    /**
+     * Whether {@link #initialize} defers configuring the AdColony SDK until it is needed.
+     */
+    private static volatile boolean sInitializeOnFirstRequest;
+
+    /**
+     * App ID recorded by a deferred {@link #initialize}, used by {@link #warmUp()}. Written after
+     * the other deferred values and read before them.
+     */
+    private static volatile String sDeferredAppId;
+
+    /**
+     * Zones recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     */
+    private static volatile ArrayList<String> sDeferredZones;
+
+    /**
+     * Activity recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     */
+    private static volatile WeakReference<Activity> sDeferredActivity;
+
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     /**
      * {@link Adapter} implementation
      */
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    /**
+     * Sets whether the AdColony SDK is configured lazily. When enabled, {@link #initialize} only
+     * records the App ID and zones and reports success. The SDK is configured by the first ad
+     * request, or by {@link #warmUp()} if it is called earlier. Must be set before the Google
+     * Mobile Ads SDK is initialized.
+     */
+    public static void setInitializeOnFirstRequest(boolean initializeOnFirstRequest) {
+        sInitializeOnFirstRequest = initializeOnFirstRequest;
+    }
+
+    /**
+     * Configures the AdColony SDK if its configuration was deferred by
+     * {@link #setInitializeOnFirstRequest(boolean)}, for example once the app is idle. Does
+     * nothing otherwise. Must be called on the main thread.
+     */
+    public static void warmUp() {
+        String appId = sDeferredAppId;
+        ArrayList<String> zones = sDeferredZones;
+        Activity activity = sDeferredActivity != null ? sDeferredActivity.get() : null;
+        sDeferredAppId = null;
+        sDeferredZones = null;
+        sDeferredActivity = null;
+        if (appId == null || zones == null || activity == null) {
+            return;
+        }
+        if (!configure(activity, appId, zones)) {
+            Log.w(TAG, "Failed to warm up the AdColony SDK.");
+        }
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String sdkVersion = AdColony.getSDKVersion();
         String splits[] = sdkVersion.split("\\.");
 
@@ -121,12 +188,16 @@ public class AdColonyMediationAdapter extends RtbAdapter {
             return;
         }
 
-        // Always set mediation network info.
-        appOptions.setMediationNetwork(AdColonyAppOptions.ADMOB, BuildConfig.VERSION_NAME);
-        boolean success = AdColony.configure((Activity) context, appOptions, appID,
-                zoneList.toArray(new String[0]));
+        if (sInitializeOnFirstRequest) {
+            // AdColony is configured by the first ad request or by warmUp().
+            sDeferredActivity = new WeakReference<>((Activity) context);
+            sDeferredZones = zoneList;
+            sDeferredAppId = appID;
+            initializationCompleteCallback.onInitializationSucceeded();
+            return;
+        }
 
-        if (success) {
+        if (configure((Activity) context, appID, zoneList)) {
             initializationCompleteCallback.onInitializationSucceeded();
         } else {
             initializationCompleteCallback.onInitializationFailed("Initialization Failed: " +
@@ -134,11 +205,28 @@ public class AdColonyMediationAdapter extends RtbAdapter {
         }
     }
 
+    private static boolean configure(Activity activity, String appID, ArrayList<String> zoneList) {
+        // Always set mediation network info.
+        appOptions.setMediationNetwork(AdColonyAppOptions.ADMOB, BuildConfig.VERSION_NAME);
+        boolean success = AdColony.configure(activity, appOptions, appID,
+                zoneList.toArray(new String[0]));
+
+        if (success) {
+            // Requests for these zones need not configure the SDK again.
+            AdColonyManager.getInstance().addConfiguredZones(zoneList);
+        }
+        return success;
+    }
+
     @Override
     public void loadInterstitialAd(
             MediationInterstitialAdConfiguration interstitialAdConfiguration,
             MediationAdLoadCallback<MediationInterstitialAd,
                     MediationInterstitialAdCallback> mediationAdLoadCallback) {
+        // Unlike rewarded requests, interstitial requests rely on initialize() having configured
+        // the SDK, so apply a deferred configuration first.
+        warmUp();
+
         String requestedZone =
                 interstitialAdConfiguration.getServerParameters().getString(AdColonyAdapterUtils.KEY_ZONE_ID);
         AdColonyInterstitialRenderer interstitialAd =
@@ -50,12 +50,12 @@ public class AdColonyRewardedRenderer implements MediationRewardedAd {
             showPostPopup = networkExtras.getBoolean("show_post_popup", false);
         }
 
-        AdColonyAdOptions adOptions = new AdColonyAdOptions()
+        final AdColonyAdOptions adOptions = new AdColonyAdOptions()
                 .enableConfirmationDialog(showPrePopup)
                 .enableResultsDialog(showPostPopup);
         ArrayList<String> listFromServerParams =
                 AdColonyManager.getInstance().parseZoneList(serverParameters);
-        String requestedZone = AdColonyManager
+        final String requestedZone = AdColonyManager
                 .getInstance().getZoneFromRequest(listFromServerParams, networkExtras);
 
         if (isRtb) {
@@ -73,26 +73,40 @@ public class AdColonyRewardedRenderer implements MediationRewardedAd {
             }
 
             // Configures the AdColony SDK, which also initializes the SDK if it has not been yet.
-            boolean adColonyConfigured =
-                    AdColonyManager.getInstance().configureAdColony(adConfiguration);
-
-            // Check if we have a valid zone and request the ad.
-            if (adColonyConfigured && !TextUtils.isEmpty(requestedZone)) {
-
-                AdColonyRewardedEventForwarder.getInstance().addListener(requestedZone,
-                        AdColonyRewardedRenderer.this);
-
-                AdColony.requestInterstitial(requestedZone,
-                        AdColonyRewardedEventForwarder.getInstance(), adOptions);
-            } else {
-                // Cannot request an ad without a valid zone.
-                adColonyConfigured = false;
-            }
-            if (!adColonyConfigured) {
-                String logMessage = "Failed to request ad from AdColony: Internal Error";
-                Log.w(TAG, logMessage);
-                mAdLoadCallback.onFailure(logMessage);
-            }
+            AdColonyManager.getInstance().configureAdColony(adConfiguration,
+                    new AdColonyManager.ConfigurationListener() {
+                        @Override
+                        public void onConfigured() {
+                            // Check if we have a valid zone and request the ad.
+                            if (TextUtils.isEmpty(requestedZone)) {
+                                // Cannot request an ad without a valid zone.
+                                onConfigurationFailed();
+                                return;
+                            }
+                            if (AdColonyRewardedEventForwarder.getInstance()
+                                    .isListenerAvailable(requestedZone)) {
+                                // Another request for this zone started while configuring.
+                                String logMessage = "Failed to load ad from AdColony: " +
+                                        "Only a maximum of one ad can be loaded per Zone ID.";
+                                Log.e(TAG, logMessage);
+                                mAdLoadCallback.onFailure(logMessage);
+                                return;
+                            }
+                            AdColonyRewardedEventForwarder.getInstance().addListener(
+                                    requestedZone, AdColonyRewardedRenderer.this);
+
+                            AdColony.requestInterstitial(requestedZone,
+                                    AdColonyRewardedEventForwarder.getInstance(), adOptions);
+                        }
+
+                        @Override
+                        public void onConfigurationFailed() {
+                            String logMessage =
+                                    "Failed to request ad from AdColony: Internal Error";
+                            Log.w(TAG, logMessage);
+                            mAdLoadCallback.onFailure(logMessage);
+                        }
+                    });
         }
     }
 
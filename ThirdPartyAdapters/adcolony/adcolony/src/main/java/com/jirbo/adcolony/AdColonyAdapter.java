@@ -52,37 +52,43 @@ public class AdColonyAdapter extends AdColonyMediationAdapter
     //region MediationInterstitialAdapter methods.
     @Override
     public void requestInterstitialAd(Context context,
-                                      MediationInterstitialListener mediationInterstitialListener,
-                                      Bundle serverParams,
+                                      final MediationInterstitialListener
+                                              mediationInterstitialListener,
+                                      final Bundle serverParams,
                                       MediationAdRequest mediationAdRequest,
-                                      Bundle mediationExtras) {
+                                      final Bundle mediationExtras) {
         _adColonyInterstitialListener =
                 new AdColonyAdListener(this, mediationInterstitialListener);
         // Initialize AdColony.
-        boolean success = AdColonyManager.getInstance()
-                .configureAdColony(context, serverParams, mediationAdRequest, mediationExtras);
-
-        // If we were unable to configure, notify the listener.
-        if (success) {
-            // Configuration is successful; retrieve zones and request interstitial ad.
-            ArrayList<String> newZoneList =
-                    AdColonyManager.getInstance().parseZoneList(serverParams);
-            String requestedZone =
-                    AdColonyManager.getInstance().getZoneFromRequest(newZoneList, mediationExtras);
-
-            if (requestedZone != null) {
-                // We have a valid zoneId; request the ad.
-                AdColony.requestInterstitial(requestedZone, _adColonyInterstitialListener);
-            } else {
-                // Zone ID couldn't be retrieved, so notify that this ad couldn't be loaded.
-                success = false;
-            }
-        }
-
-        if (!success) {
-            mediationInterstitialListener
-                    .onAdFailedToLoad(this, AdRequest.ERROR_CODE_INVALID_REQUEST);
-        }
+        AdColonyManager.getInstance().configureAdColony(context, serverParams, mediationAdRequest,
+                mediationExtras, new AdColonyManager.ConfigurationListener() {
+                    @Override
+                    public void onConfigured() {
+                        // Configuration is successful; retrieve zones and request interstitial
+                        // ad.
+                        ArrayList<String> newZoneList =
+                                AdColonyManager.getInstance().parseZoneList(serverParams);
+                        String requestedZone = AdColonyManager.getInstance()
+                                .getZoneFromRequest(newZoneList, mediationExtras);
+
+                        if (requestedZone != null) {
+                            // We have a valid zoneId; request the ad.
+                            AdColony.requestInterstitial(requestedZone,
+                                    _adColonyInterstitialListener);
+                        } else {
+                            // Zone ID couldn't be retrieved, so notify that this ad couldn't be
+                            // loaded.
+                            onConfigurationFailed();
+                        }
+                    }
+
+                    @Override
+                    public void onConfigurationFailed() {
+                        // We were unable to configure, notify the listener.
+                        mediationInterstitialListener.onAdFailedToLoad(
+                                AdColonyAdapter.this, AdRequest.ERROR_CODE_INVALID_REQUEST);
+                    }
+                });
     }
 
     @Override
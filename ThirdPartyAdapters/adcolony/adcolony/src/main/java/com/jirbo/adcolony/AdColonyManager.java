@@ -5,6 +5,8 @@ import android.app.Application;
 import android.content.Context;
 import android.location.Location;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.util.Log;
 
@@ -19,7 +21,9 @@ import com.google.android.gms.ads.mediation.MediationRewardedAdConfiguration;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 
 /**
  * A helper class used by the {@link AdColonyAdapter}.
@@ -27,12 +31,47 @@ import java.util.Date;
 public class AdColonyManager {
     private static final String TAG = AdColonyAdapter.class.getSimpleName();
 
+    /**
+     * How long zone additions are collected before the AdColony SDK is configured with all of
+     * them at once.
+     */
+    static final long CONFIGURE_BATCH_WINDOW_MILLIS = 50;
+
     private static AdColonyManager _instance = null;
-    private ArrayList<String> configuredZones;
+
+    /**
+     * Zones the AdColony SDK is, or is about to be, configured with.
+     */
+    private final HashSet<String> configuredZones = new HashSet<>();
     private boolean isConfigured = false;
 
+    /**
+     * Requests waiting for the scheduled configuration.
+     */
+    private final ArrayList<ConfigurationListener> pendingListeners = new ArrayList<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private boolean isConfigurationScheduled = false;
+    private Context pendingContext;
+    private AdColonyAppOptions pendingOptions;
+    private String pendingAppID;
+
+    private final Runnable configureRunnable = new Runnable() {
+        @Override
+        public void run() {
+            configurePendingZones();
+        }
+    };
+
+    /**
+     * Listener notified once the AdColony SDK is configured for the zones of a request.
+     */
+    public interface ConfigurationListener {
+        void onConfigured();
+
+        void onConfigurationFailed();
+    }
+
     private AdColonyManager() {
-        this.configuredZones = new ArrayList<>();
     }
 
     public static AdColonyManager getInstance() {
@@ -42,66 +81,115 @@ public class AdColonyManager {
         return _instance;
     }
 
-    private boolean configureAdColony(Context context,
-                                      AdColonyAppOptions options,
-                                      String appID,
-                                      ArrayList<String> zones) {
+    /**
+     * Records zones the AdColony SDK was configured with outside of this class, so that requests
+     * for them do not configure the SDK again.
+     */
+    public void addConfiguredZones(Collection<String> zones) {
+        configuredZones.addAll(zones);
+        isConfigured = true;
+    }
+
+    /**
+     * Makes sure the AdColony SDK is configured with {@code zones}. If they are all configured
+     * already, {@code listener} is notified right away. Otherwise the new zones are collected for
+     * {@link #CONFIGURE_BATCH_WINDOW_MILLIS}, together with the zones of any other request in that
+     * window, and the SDK is configured once for all of them before the listeners are notified.
+     * Must be called on the main thread.
+     */
+    private void configureAdColony(Context context,
+                                   AdColonyAppOptions options,
+                                   String appID,
+                                   ArrayList<String> zones,
+                                   ConfigurationListener listener) {
 
         if (!(context instanceof Activity || context instanceof Application)) {
             Log.w(TAG, "Context must be of type Activity or Application.");
-            return false;
+            listener.onConfigurationFailed();
+            return;
         }
 
         if (TextUtils.isEmpty(appID)) {
             Log.w(TAG, "A valid appId wasn't provided.");
-            return false;
+            listener.onConfigurationFailed();
+            return;
         }
 
         if (zones == null || zones.isEmpty()) {
             Log.w(TAG, "No zones provided to request ad.");
-            return false;
+            listener.onConfigurationFailed();
+            return;
         }
 
-        // Check to see if the stored list of zones is missing any values.
-        for (String zone : zones) {
-            if (!configuredZones.contains(zone)) {
-                // Not contained in our list.
-                configuredZones.add(zone);
-                isConfigured = false;
-            }
+        // Check to see if the stored set of zones is missing any values.
+        if (configuredZones.addAll(zones)) {
+            isConfigured = false;
         }
-        if (isConfigured) {
+        if (isConfigured && !isConfigurationScheduled) {
             AdColony.setAppOptions(options);
-        } else {
-            // We are requesting zones that we haven't configured with yet.
-            String[] zoneArray = configuredZones.toArray(new String[0]);
-
-            // Always set mediation network info.
-            options.setMediationNetwork(AdColonyAppOptions.ADMOB, BuildConfig.VERSION_NAME);
-            isConfigured = context instanceof Activity
-                    ? AdColony.configure((Activity) context, options, appID, zoneArray)
-                    : AdColony.configure((Application) context, options, appID, zoneArray);
+            listener.onConfigured();
+            return;
+        }
+
+        // We are requesting zones that we haven't configured with yet. Wait for other requests
+        // with new zones, so that the SDK is configured once for all of them.
+        pendingListeners.add(listener);
+        pendingContext = context;
+        pendingOptions = options;
+        pendingAppID = appID;
+        if (!isConfigurationScheduled) {
+            isConfigurationScheduled = true;
+            handler.postDelayed(configureRunnable, CONFIGURE_BATCH_WINDOW_MILLIS);
+        }
+    }
+
+    private void configurePendingZones() {
+        Context context = pendingContext;
+        AdColonyAppOptions options = pendingOptions;
+        String appID = pendingAppID;
+        ArrayList<ConfigurationListener> listeners = new ArrayList<>(pendingListeners);
+        pendingListeners.clear();
+        pendingContext = null;
+        pendingOptions = null;
+        pendingAppID = null;
+        isConfigurationScheduled = false;
+
+        String[] zoneArray = configuredZones.toArray(new String[0]);
+
+        // Always set mediation network info.
+        options.setMediationNetwork(AdColonyAppOptions.ADMOB, BuildConfig.VERSION_NAME);
+        isConfigured = context instanceof Activity
+                ? AdColony.configure((Activity) context, options, appID, zoneArray)
+                : AdColony.configure((Application) context, options, appID, zoneArray);
+
+        for (ConfigurationListener listener : listeners) {
+            if (isConfigured) {
+                listener.onConfigured();
+            } else {
+                listener.onConfigurationFailed();
+            }
         }
-        return isConfigured;
     }
 
-    boolean configureAdColony(Context context,
-                              Bundle serverParams,
-                              MediationAdRequest adRequest,
-                              Bundle networkExtras) {
+    void configureAdColony(Context context,
+                           Bundle serverParams,
+                           MediationAdRequest adRequest,
+                           Bundle networkExtras,
+                           ConfigurationListener listener) {
         String appId = serverParams.getString(AdColonyAdapterUtils.KEY_APP_ID);
         ArrayList<String> newZoneList = parseZoneList(serverParams);
         AdColonyAppOptions appOptions = buildAppOptions(adRequest);
-        return configureAdColony(context, appOptions, appId, newZoneList);
+        configureAdColony(context, appOptions, appId, newZoneList, listener);
     }
 
-    public boolean configureAdColony(MediationRewardedAdConfiguration adConfiguration) {
+    public void configureAdColony(MediationRewardedAdConfiguration adConfiguration,
+                                  ConfigurationListener listener) {
         Context context = adConfiguration.getContext();
         Bundle serverParams = adConfiguration.getServerParameters();
         String appId = serverParams.getString(AdColonyAdapterUtils.KEY_APP_ID);
         ArrayList<String> newZoneList = parseZoneList(serverParams);
         AdColonyAppOptions appOptions = buildAppOptions(adConfiguration);
-        return configureAdColony(context, appOptions, appId, newZoneList);
+        configureAdColony(context, appOptions, appId, newZoneList, listener);
     }
 
     /**
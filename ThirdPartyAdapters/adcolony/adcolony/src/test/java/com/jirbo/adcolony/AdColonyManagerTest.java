@@ -0,0 +1,172 @@
+package com.jirbo.adcolony;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.os.Bundle;
+
+import com.adcolony.sdk.AdColony;
+import com.adcolony.sdk.AdColonyAppOptions;
+import com.google.ads.mediation.adcolony.AdColonyAdapterUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.Resetter;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Tests for {@link AdColonyManager}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28,
+        shadows = AdColonyManagerTest.ShadowAdColony.class,
+        instrumentedPackages = "com.adcolony.sdk")
+public class AdColonyManagerTest {
+
+    private static final String APP_ID = "app";
+
+    /**
+     * {@link AdColonyManager} is a process-wide singleton, so every test requests zones no other
+     * test has configured yet.
+     */
+    private static int sZoneCount = 0;
+
+    @Test
+    public void configureAdColony_burstOfZonesConfiguresOnce() {
+        List<String> zones = new ArrayList<>();
+        List<RecordingListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String zone = newZone();
+            zones.add(zone);
+            listeners.add(request(zone));
+        }
+        assertEquals(0, ShadowAdColony.sConfigureCount);
+
+        ShadowLooper.idleMainLooper(
+                AdColonyManager.CONFIGURE_BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, ShadowAdColony.sConfigureCount);
+        assertTrue(ShadowAdColony.sConfiguredZones.containsAll(zones));
+        for (RecordingListener listener : listeners) {
+            assertEquals(1, listener.mConfiguredCount);
+        }
+    }
+
+    @Test
+    public void configureAdColony_configuredZonesDoNotConfigureAgain() {
+        String zone = newZone();
+        request(zone);
+        ShadowLooper.idleMainLooper(
+                AdColonyManager.CONFIGURE_BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        RecordingListener listener = request(zone);
+        ShadowLooper.idleMainLooper(
+                AdColonyManager.CONFIGURE_BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, ShadowAdColony.sConfigureCount);
+        assertEquals(1, listener.mConfiguredCount);
+    }
+
+    @Test
+    public void configureAdColony_zonesAfterWindowConfigureAgain() {
+        request(newZone());
+        request(newZone());
+        ShadowLooper.idleMainLooper(
+                AdColonyManager.CONFIGURE_BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        String lateZone = newZone();
+        RecordingListener listener = request(lateZone);
+        ShadowLooper.idleMainLooper(
+                AdColonyManager.CONFIGURE_BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertEquals(2, ShadowAdColony.sConfigureCount);
+        assertTrue(ShadowAdColony.sConfiguredZones.contains(lateZone));
+        assertEquals(1, listener.mConfiguredCount);
+    }
+
+    @Test
+    public void configureAdColony_configureFailureNotifiesWholeBurst() {
+        ShadowAdColony.sConfigureResult = false;
+        RecordingListener first = request(newZone());
+        RecordingListener second = request(newZone());
+
+        ShadowLooper.idleMainLooper(
+                AdColonyManager.CONFIGURE_BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, ShadowAdColony.sConfigureCount);
+        assertEquals(1, first.mFailedCount);
+        assertEquals(1, second.mFailedCount);
+    }
+
+    private static String newZone() {
+        return "zone" + sZoneCount++;
+    }
+
+    private static RecordingListener request(String zone) {
+        Bundle serverParams = new Bundle();
+        serverParams.putString(AdColonyAdapterUtils.KEY_APP_ID, APP_ID);
+        serverParams.putString(AdColonyAdapterUtils.KEY_ZONE_ID, zone);
+        RecordingListener listener = new RecordingListener();
+        AdColonyManager.getInstance().configureAdColony(
+                RuntimeEnvironment.application, serverParams, null, null, listener);
+        return listener;
+    }
+
+    private static class RecordingListener implements AdColonyManager.ConfigurationListener {
+        int mConfiguredCount;
+        int mFailedCount;
+
+        @Override
+        public void onConfigured() {
+            mConfiguredCount++;
+        }
+
+        @Override
+        public void onConfigurationFailed() {
+            mFailedCount++;
+        }
+    }
+
+    /**
+     * Counts calls to {@link AdColony#configure} instead of starting the AdColony SDK.
+     */
+    @Implements(AdColony.class)
+    public static class ShadowAdColony {
+        static int sConfigureCount;
+        static List<String> sConfiguredZones = new ArrayList<>();
+        static boolean sConfigureResult = true;
+
+        @Implementation
+        protected static boolean configure(Application application,
+                                           AdColonyAppOptions options,
+                                           String appId,
+                                           String... zoneIds) {
+            sConfigureCount++;
+            sConfiguredZones = Arrays.asList(zoneIds);
+            return sConfigureResult;
+        }
+
+        @Implementation
+        protected static boolean setAppOptions(AdColonyAppOptions options) {
+            return true;
+        }
+
+        @Resetter
+        public static void reset() {
+            sConfigureCount = 0;
+            sConfiguredZones = new ArrayList<>();
+            sConfigureResult = true;
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package com.applovin.mediation;
 
+import com.applovin.adview.AppLovinIncentivizedInterstitial;
 import com.applovin.sdk.AppLovinAd;
 import com.applovin.sdk.AppLovinAdClickListener;
 import com.applovin.sdk.AppLovinAdDisplayListener;
 import com.applovin.sdk.AppLovinAdRewardListener;
 import com.applovin.sdk.AppLovinAdVideoPlaybackListener;
 import com.google.android.gms.ads.mediation.MediationRewardedAdCallback;
-import com.google.ads.mediation.applovin.AppLovinMediationAdapter;
+import com.google.ads.mediation.applovin.AppLovinIncentivizedAdPool;
 import com.google.ads.mediation.applovin.AppLovinRewardItem;
 import com.google.android.gms.ads.mediation.MediationRewardedAdConfiguration;
 
@@ -27,12 +28,30 @@ public class AppLovinIncentivizedAdListener
 
     private boolean mFullyWatched;
     private AppLovinRewardItem mRewardItem;
-    private String mZoneId;
+
+    /**
+     * The pool of the zone whose ad is shown, released once the ad is dismissed. {@code null} for
+     * bidding ads.
+     */
+    private AppLovinIncentivizedAdPool mAdPool;
+
+    /**
+     * The interstitial held from {@link #mAdPool}.
+     */
+    private AppLovinIncentivizedInterstitial mInterstitial;
 
     public AppLovinIncentivizedAdListener(MediationRewardedAdConfiguration adConfiguration,
                                           MediationRewardedAdCallback mRewardedAdCallback) {
-        mZoneId = AppLovinUtils.retrieveZoneId(adConfiguration.getServerParameters());
+        this(adConfiguration, mRewardedAdCallback, null, null);
+    }
+
+    public AppLovinIncentivizedAdListener(MediationRewardedAdConfiguration adConfiguration,
+                                          MediationRewardedAdCallback mRewardedAdCallback,
+                                          AppLovinIncentivizedAdPool adPool,
+                                          AppLovinIncentivizedInterstitial interstitial) {
         this.mRewardedAdCallback = mRewardedAdCallback;
+        this.mAdPool = adPool;
+        this.mInterstitial = interstitial;
     }
 
     // Ad Display Listener.
@@ -46,7 +65,9 @@ public class AppLovinIncentivizedAdListener
     @Override
     public void adHidden(AppLovinAd ad) {
         ApplovinAdapter.log(DEBUG, "Rewarded video dismissed");
-        AppLovinMediationAdapter.INCENTIVIZED_ADS.remove(mZoneId);
+        if (mAdPool != null) {
+            mAdPool.release(mInterstitial);
+        }
         if (mFullyWatched) {
             mRewardedAdCallback.onUserEarnedReward(mRewardItem);
         }
@@ -0,0 +1,201 @@
+package com.applovin.mediation;
+
+import android.os.SystemClock;
+import android.text.TextUtils;
+
+import com.applovin.sdk.AppLovinAd;
+import com.applovin.sdk.AppLovinAdLoadListener;
+import com.applovin.sdk.AppLovinAdSize;
+import com.applovin.sdk.AppLovinSdk;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static android.util.Log.DEBUG;
+
+/*
+ * The {@link AppLovinInterstitialAdPool} class keeps interstitial ads that were loaded ahead of
+ * being shown, per SDK key and AppLovin zone.
+ *
+ * Each zone holds at most {@link #MAX_DEPTH} ads, and ads are evicted once they are older than
+ * {@link #AD_TTL_MILLIS}, so that stale ads are never shown. Once a request took an ad from a
+ * zone, or had to load one itself because the zone was empty, the zone is topped up in the
+ * background to {@link #TARGET_DEPTH} ads for the next request.
+ *
+ * Zones are independent and lock-free, so AppLovin SDK threads loading ads for one zone never wait
+ * for the main thread showing an ad of another.
+ */
+final class AppLovinInterstitialAdPool {
+
+    /**
+     * The maximum number of ads kept per zone. Ads loaded once a zone is full are dropped.
+     */
+    static final int MAX_DEPTH = 3;
+
+    /**
+     * The number of ads a zone is topped up to after a request.
+     */
+    static final int TARGET_DEPTH = 1;
+
+    /**
+     * How long a loaded ad may be kept before it is considered stale.
+     */
+    static final long AD_TTL_MILLIS = 60 * 60 * 1000;
+
+    private static final ConcurrentHashMap<String, AppLovinInterstitialAdPool> ZONE_POOLS =
+            new ConcurrentHashMap<>();
+
+    private final AppLovinSdk mSdk;
+    private final String mZoneId;
+    private final ConcurrentLinkedQueue<PooledAd> mAds = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of ads in {@link #mAds} plus the ones being added. Reserved before an ad is
+     * added, so that the depth limit holds under concurrent loads.
+     */
+    private final AtomicInteger mDepth = new AtomicInteger();
+    private final AtomicInteger mPendingTopUps = new AtomicInteger();
+
+    AppLovinInterstitialAdPool(AppLovinSdk sdk, String zoneId) {
+        mSdk = sdk;
+        mZoneId = zoneId;
+    }
+
+    /**
+     * Returns the pool of the given zone of {@code sdk}. An empty zone ID stands for the default
+     * zone.
+     */
+    static AppLovinInterstitialAdPool forZone(AppLovinSdk sdk, String zoneId) {
+        String zone = (zoneId != null) ? zoneId : "";
+        String key = sdk.getSdkKey() + ":" + zone;
+        AppLovinInterstitialAdPool pool = ZONE_POOLS.get(key);
+        if (pool == null) {
+            AppLovinInterstitialAdPool newPool = new AppLovinInterstitialAdPool(sdk, zone);
+            pool = ZONE_POOLS.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Adds a loaded ad to the zone.
+     *
+     * @return {@code false} if the zone is full and the ad was dropped.
+     */
+    boolean offer(AppLovinAd ad) {
+        evictExpiredAds();
+        while (true) {
+            int depth = mDepth.get();
+            if (depth >= MAX_DEPTH) {
+                ApplovinAdapter.log(DEBUG, "Interstitial pool for zone: " + mZoneId
+                        + " is full, dropping ad: " + ad.getAdIdNumber());
+                return false;
+            }
+            if (mDepth.compareAndSet(depth, depth + 1)) {
+                break;
+            }
+        }
+        mAds.offer(new PooledAd(ad, SystemClock.elapsedRealtime()));
+        return true;
+    }
+
+    /**
+     * Takes the oldest ad that has not expired from the zone. The ad keeps its load time, so that
+     * its holder can tell when it expires.
+     *
+     * @return the ad, or {@code null} if the zone holds none.
+     */
+    PooledAd poll() {
+        PooledAd pooledAd;
+        while ((pooledAd = mAds.poll()) != null) {
+            mDepth.decrementAndGet();
+            if (!pooledAd.isExpired(SystemClock.elapsedRealtime())) {
+                return pooledAd;
+            }
+            logEviction(pooledAd);
+        }
+        return null;
+    }
+
+    /**
+     * Loads ads in the background until the zone holds {@link #TARGET_DEPTH} ads, counting the
+     * ones that are already loading.
+     */
+    void topUp() {
+        evictExpiredAds();
+        while (true) {
+            int pendingTopUps = mPendingTopUps.get();
+            if (mDepth.get() + pendingTopUps >= TARGET_DEPTH) {
+                return;
+            }
+            if (!mPendingTopUps.compareAndSet(pendingTopUps, pendingTopUps + 1)) {
+                continue;
+            }
+
+            ApplovinAdapter.log(DEBUG, "Topping up interstitial pool for zone: " + mZoneId);
+            load(new AppLovinAdLoadListener() {
+                @Override
+                public void adReceived(AppLovinAd ad) {
+                    offer(ad);
+                    mPendingTopUps.decrementAndGet();
+                }
+
+                @Override
+                public void failedToReceiveAd(int code) {
+                    ApplovinAdapter.log(DEBUG, "Failed to top up interstitial pool for zone: "
+                            + mZoneId + " with error: " + code);
+                    mPendingTopUps.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads an interstitial ad for the zone from the AppLovin SDK, without adding it to the pool.
+     */
+    void load(AppLovinAdLoadListener listener) {
+        if (!TextUtils.isEmpty(mZoneId)) {
+            mSdk.getAdService().loadNextAdForZoneId(mZoneId, listener);
+        } else {
+            mSdk.getAdService().loadNextAd(AppLovinAdSize.INTERSTITIAL, listener);
+        }
+    }
+
+    private void evictExpiredAds() {
+        long nowMillis = SystemClock.elapsedRealtime();
+        PooledAd oldest;
+        // Ads are queued in the order they were loaded, so only the head needs to be checked.
+        while ((oldest = mAds.peek()) != null && oldest.isExpired(nowMillis)) {
+            // Only the thread that removes the ad accounts for it.
+            if (mAds.remove(oldest)) {
+                mDepth.decrementAndGet();
+                logEviction(oldest);
+            }
+        }
+    }
+
+    private void logEviction(PooledAd pooledAd) {
+        ApplovinAdapter.log(DEBUG, "Evicting expired interstitial: " + pooledAd.mAd.getAdIdNumber()
+                + " for zone: " + mZoneId);
+    }
+
+    /**
+     * An ad together with the time it loaded at.
+     */
+    static final class PooledAd {
+        final AppLovinAd mAd;
+        final long mLoadTimeMillis;
+
+        PooledAd(AppLovinAd ad, long loadTimeMillis) {
+            mAd = ad;
+            mLoadTimeMillis = loadTimeMillis;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis - mLoadTimeMillis >= AD_TTL_MILLIS;
+        }
+    }
+}
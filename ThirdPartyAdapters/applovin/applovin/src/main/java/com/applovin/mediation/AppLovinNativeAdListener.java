@@ -1,6 +1,7 @@
 package com.applovin.mediation;
 
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.util.Log;
 
 import com.applovin.nativeAds.AppLovinNativeAd;
@@ -57,34 +58,39 @@ class AppLovinNativeAdListener
     }
 
     @Override
-    public void onNativeAdImagesPrecached(AppLovinNativeAd ad) {
-        // Create a native ad.
-        Context context = mContextWeakReference.get();
-        if (context == null) {
-            Log.e(TAG, "Failed to create mapper. Context is null.");
-            notifyAdFailure(AdRequest.ERROR_CODE_INTERNAL_ERROR);
-            return;
-        }
-        if (mMediationAdRequest.isUnifiedNativeAdRequested()) {
-            final AppLovinUnifiedNativeAdMapper mapper = new AppLovinUnifiedNativeAdMapper(context,
-                    ad);
-            Log.d(TAG, "UnifiedNativeAd loaded.");
-            AppLovinSdkUtils.runOnUiThread(new Runnable() {
-                @Override
-                public void run() {
-                    mNativeListener.onAdLoaded(mAdapter, mapper);
+    public void onNativeAdImagesPrecached(final AppLovinNativeAd ad) {
+        // Decode the precached images off the main thread; the mapper creates views, so it is
+        // built once the decoded images are delivered on the UI thread.
+        AppLovinNativeImageDecoder.decode(ad, new AppLovinNativeImageDecoder.Listener() {
+            @Override
+            public void onImagesDecoded(Drawable imageDrawable, Drawable iconDrawable) {
+                // Create a native ad.
+                Context context = mContextWeakReference.get();
+                if (context == null) {
+                    Log.e(TAG, "Failed to create mapper. Context is null.");
+                    mNativeListener.onAdFailedToLoad(
+                            mAdapter, AdRequest.ERROR_CODE_INTERNAL_ERROR);
+                    return;
                 }
-            });
-        } else if (mMediationAdRequest.isAppInstallAdRequested()) {
-            final AppLovinNativeAdMapper mapper = new AppLovinNativeAdMapper(ad, context);
-            Log.d(TAG, "AppInstallAd loaded.");
-            AppLovinSdkUtils.runOnUiThread(new Runnable() {
-                @Override
-                public void run() {
+                if (mMediationAdRequest.isUnifiedNativeAdRequested()) {
+                    AppLovinUnifiedNativeAdMapper mapper = new AppLovinUnifiedNativeAdMapper(
+                            context, ad, imageDrawable, iconDrawable);
+                    Log.d(TAG, "UnifiedNativeAd loaded.");
+                    mNativeListener.onAdLoaded(mAdapter, mapper);
+                } else if (mMediationAdRequest.isAppInstallAdRequested()) {
+                    AppLovinNativeAdMapper mapper =
+                            new AppLovinNativeAdMapper(ad, context, imageDrawable, iconDrawable);
+                    Log.d(TAG, "AppInstallAd loaded.");
                     mNativeListener.onAdLoaded(mAdapter, mapper);
                 }
-            });
-        }
+            }
+
+            @Override
+            public void onImagesDecodeFailed() {
+                Log.e(TAG, "Failed to decode native ad images.");
+                mNativeListener.onAdFailedToLoad(mAdapter, AdRequest.ERROR_CODE_INTERNAL_ERROR);
+            }
+        });
     }
 
     @Override
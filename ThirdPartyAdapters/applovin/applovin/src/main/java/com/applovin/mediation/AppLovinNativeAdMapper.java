@@ -25,7 +25,8 @@ class AppLovinNativeAdMapper extends NativeAppInstallAdMapper {
      */
     private AppLovinNativeAd mNativeAd;
 
-    AppLovinNativeAdMapper(AppLovinNativeAd nativeAd, Context context) {
+    AppLovinNativeAdMapper(AppLovinNativeAd nativeAd, Context context, Drawable imageDrawable,
+                           Drawable iconDrawable) {
         mNativeAd = nativeAd;
         setHeadline(nativeAd.getTitle());
         setBody(nativeAd.getDescriptionText());
@@ -39,10 +40,7 @@ class AppLovinNativeAdMapper extends NativeAppInstallAdMapper {
 
         ArrayList<NativeAd.Image> images = new ArrayList<>(1);
         Uri imageUri = Uri.parse(nativeAd.getImageUrl());
-        Drawable imageDrawable = Drawable.createFromPath(imageUri.getPath());
-
         Uri iconUri = Uri.parse(nativeAd.getIconUrl());
-        Drawable iconDrawable = Drawable.createFromPath(iconUri.getPath());
 
         AppLovinNativeAdImage image = new AppLovinNativeAdImage(imageUri, imageDrawable);
         AppLovinNativeAdImage icon = new AppLovinNativeAdImage(iconUri, iconDrawable);
@@ -0,0 +1,139 @@
+package com.applovin.mediation;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.util.DisplayMetrics;
+
+import com.applovin.nativeAds.AppLovinNativeAd;
+import com.applovin.sdk.AppLovinSdkUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the precached image assets of an {@link AppLovinNativeAd} on a background thread,
+ * downsampled to the size they can be displayed at, and delivers them on the UI thread.
+ */
+final class AppLovinNativeImageDecoder {
+
+    /**
+     * Largest size the native ad icon is decoded at, in dp.
+     */
+    private static final int MAX_ICON_SIZE_DP = 128;
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static ExecutorService sExecutor;
+
+    /**
+     * Callbacks for {@link #decode}, invoked on the UI thread.
+     */
+    interface Listener {
+
+        void onImagesDecoded(Drawable imageDrawable, Drawable iconDrawable);
+
+        void onImagesDecodeFailed();
+    }
+
+    private AppLovinNativeImageDecoder() {
+    }
+
+    /**
+     * Decodes the main image and icon of {@code nativeAd}. The main image is decoded no larger
+     * than the screen and the icon no larger than {@link #MAX_ICON_SIZE_DP}.
+     */
+    static void decode(final AppLovinNativeAd nativeAd, final Listener listener) {
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                DisplayMetrics metrics = Resources.getSystem().getDisplayMetrics();
+                int maxIconSizePx = Math.round(MAX_ICON_SIZE_DP * metrics.density);
+                final Drawable imageDrawable = decodeFile(nativeAd.getImageUrl(),
+                        metrics.widthPixels, metrics.heightPixels);
+                final Drawable iconDrawable = decodeFile(nativeAd.getIconUrl(),
+                        maxIconSizePx, maxIconSizePx);
+
+                AppLovinSdkUtils.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (imageDrawable == null) {
+                            listener.onImagesDecodeFailed();
+                        } else {
+                            listener.onImagesDecoded(imageDrawable, iconDrawable);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (sExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "AppLovinAdapter-ImageDecode");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            // Let the thread exit when no native ads are loading.
+            executor.allowCoreThreadTimeOut(true);
+            sExecutor = executor;
+        }
+        return sExecutor;
+    }
+
+    /**
+     * Decodes the precached file behind {@code url}, or returns {@code null} if it cannot be
+     * decoded.
+     */
+    private static Drawable decodeFile(String url, int maxWidth, int maxHeight) {
+        if (url == null) {
+            return null;
+        }
+        String path = Uri.parse(url).getPath();
+        if (path == null) {
+            return null;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize =
+                calculateInSampleSize(options.outWidth, options.outHeight, maxWidth, maxHeight);
+        Bitmap bitmap = BitmapFactory.decodeFile(path, options);
+        if (bitmap == null) {
+            return null;
+        }
+        // Defaulting to a scale of 1.
+        bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
+        return new BitmapDrawable(Resources.getSystem(), bitmap);
+    }
+
+    /**
+     * Returns the largest power of two sample size that keeps both dimensions at or above the
+     * requested size.
+     */
+    private static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        while ((width / (inSampleSize * 2)) >= reqWidth
+                && (height / (inSampleSize * 2)) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+}
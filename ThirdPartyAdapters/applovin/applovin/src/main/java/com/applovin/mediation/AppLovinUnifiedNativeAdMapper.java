@@ -24,7 +24,8 @@ import java.util.ArrayList;
      */
     private AppLovinNativeAd mNativeAd;
 
-    public AppLovinUnifiedNativeAdMapper(Context context, AppLovinNativeAd nativeAd) {
+    public AppLovinUnifiedNativeAdMapper(Context context, AppLovinNativeAd nativeAd,
+                                         Drawable imageDrawable, Drawable iconDrawable) {
         mNativeAd = nativeAd;
         setHeadline(mNativeAd.getTitle());
         setBody(mNativeAd.getDescriptionText());
@@ -38,10 +39,7 @@ import java.util.ArrayList;
 
         ArrayList<NativeAd.Image> images = new ArrayList<>(1);
         Uri imageUri = Uri.parse(mNativeAd.getImageUrl());
-        Drawable imageDrawable = Drawable.createFromPath(imageUri.getPath());
-
         Uri iconUri = Uri.parse(mNativeAd.getIconUrl());
-        Drawable iconDrawable = Drawable.createFromPath(iconUri.getPath());
 
         AppLovinNativeAdImage image = new AppLovinNativeAdImage(imageUri, imageDrawable);
         AppLovinNativeAdImage icon = new AppLovinNativeAdImage(iconUri, iconDrawable);
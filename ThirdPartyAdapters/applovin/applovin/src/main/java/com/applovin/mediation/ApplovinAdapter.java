@@ -2,6 +2,7 @@ package com.applovin.mediation;
 
 import android.content.Context;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
 import android.view.View;
@@ -26,10 +27,6 @@ import com.google.android.gms.ads.mediation.OnContextChangedListener;
 
 import com.google.ads.mediation.applovin.AppLovinMediationAdapter;
 
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Queue;
-
 import static android.util.Log.DEBUG;
 import static android.util.Log.ERROR;
 
@@ -43,11 +40,6 @@ public class ApplovinAdapter extends AppLovinMediationAdapter
         OnContextChangedListener, MediationRewardedAd {
     private static final boolean LOGGING_ENABLED = true;
 
-    // Interstitial globals.
-    private static final HashMap<String, Queue<AppLovinAd>> INTERSTITIAL_AD_QUEUES =
-            new HashMap<>();
-    private static final Object INTERSTITIAL_AD_QUEUES_LOCK = new Object();
-
     // Parent objects.
     private AppLovinSdk mSdk;
     private Context mContext;
@@ -56,6 +48,12 @@ public class ApplovinAdapter extends AppLovinMediationAdapter
     // Interstitial objects.
     private MediationInterstitialListener mMediationInterstitialListener;
 
+    /**
+     * The interstitial reported as loaded, kept until it is shown so that no other request of the
+     * zone can take it in the meantime. Set on an AppLovin SDK thread and shown on the main thread.
+     */
+    private volatile AppLovinInterstitialAdPool.PooledAd mLoadedAd;
+
     // Banner objects.
     private AppLovinAdView mAdView;
 
@@ -82,104 +80,91 @@ public class ApplovinAdapter extends AppLovinMediationAdapter
         log(DEBUG, "Requesting interstitial for zone: " + mZoneId + " and placement: "
                 + mPlacement);
 
-        // Create Ad Load listener.
-        final AppLovinAdLoadListener adLoadListener = new AppLovinAdLoadListener() {
+        final AppLovinInterstitialAdPool adPool = AppLovinInterstitialAdPool.forZone(mSdk, mZoneId);
+        AppLovinInterstitialAdPool.PooledAd pooledAd = adPool.poll();
+        if (pooledAd != null) {
+            log(DEBUG, "Enqueued interstitial found. Finishing load...");
+            mLoadedAd = pooledAd;
+
+            // Have an ad ready for the next request of the zone.
+            adPool.topUp();
+
+            AppLovinSdkUtils.runOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    mMediationInterstitialListener.onAdLoaded(ApplovinAdapter.this);
+                }
+            });
+            return;
+        }
+
+        // If we don't already have enqueued ads, fetch from SDK.
+        adPool.load(new AppLovinAdLoadListener() {
             @Override
             public void adReceived(final AppLovinAd ad) {
                 log(DEBUG, "Interstitial did load ad: " + ad.getAdIdNumber() + " for zone: "
                         + mZoneId + " and placement: " + mPlacement);
 
-                synchronized (INTERSTITIAL_AD_QUEUES_LOCK) {
-                    Queue<AppLovinAd> preloadedAds = INTERSTITIAL_AD_QUEUES.get(mZoneId);
-                    if (preloadedAds == null) {
-                        preloadedAds = new LinkedList<>();
-                        INTERSTITIAL_AD_QUEUES.put(mZoneId, preloadedAds);
-                    }
-
-                    preloadedAds.offer(ad);
+                mLoadedAd = new AppLovinInterstitialAdPool.PooledAd(
+                        ad, SystemClock.elapsedRealtime());
 
-                    AppLovinSdkUtils.runOnUiThread(new Runnable() {
-                        @Override
-                        public void run() {
-                            mMediationInterstitialListener.onAdLoaded(ApplovinAdapter.this);
-                        }
-                    });
-                }
-            }
-
-            @Override
-            public void failedToReceiveAd(final int code) {
-                log(ERROR, "Interstitial failed to load with error: " + code);
+                // The zone was empty, have an ad ready for its next request.
+                adPool.topUp();
 
                 AppLovinSdkUtils.runOnUiThread(new Runnable() {
                     @Override
                     public void run() {
-                        mMediationInterstitialListener.onAdFailedToLoad(
-                                ApplovinAdapter.this, AppLovinUtils.toAdMobErrorCode(code));
+                        mMediationInterstitialListener.onAdLoaded(ApplovinAdapter.this);
                     }
                 });
             }
-        };
-
-        synchronized (INTERSTITIAL_AD_QUEUES_LOCK) {
-            final Queue<AppLovinAd> queue = INTERSTITIAL_AD_QUEUES.get(mZoneId);
-            if (queue == null || (queue != null && queue.isEmpty())) {
-                // If we don't already have enqueued ads, fetch from SDK.
 
-                if (!TextUtils.isEmpty(mZoneId)) {
-                    mSdk.getAdService().loadNextAdForZoneId(mZoneId, adLoadListener);
-                } else {
-                    mSdk.getAdService().loadNextAd(AppLovinAdSize.INTERSTITIAL, adLoadListener);
-                }
-            } else {
-                log(DEBUG, "Enqueued interstitial found. Finishing load...");
+            @Override
+            public void failedToReceiveAd(final int code) {
+                log(ERROR, "Interstitial failed to load with error: " + code);
 
                 AppLovinSdkUtils.runOnUiThread(new Runnable() {
                     @Override
                     public void run() {
-                        mMediationInterstitialListener.onAdLoaded(ApplovinAdapter.this);
+                        mMediationInterstitialListener.onAdFailedToLoad(
+                                ApplovinAdapter.this, AppLovinUtils.toAdMobErrorCode(code));
                     }
                 });
             }
-        }
+        });
     }
 
     @Override
     public void showInterstitial() {
-        synchronized (INTERSTITIAL_AD_QUEUES_LOCK) {
-            // Update mute state.
-            mSdk.getSettings().setMuted(AppLovinUtils.shouldMuteAudio(mNetworkExtras));
-
-            final Queue<AppLovinAd> queue = INTERSTITIAL_AD_QUEUES.get(mZoneId);
-            final AppLovinAd dequeuedAd = (queue != null) ? queue.poll() : null;
-
-            final AppLovinInterstitialAdDialog interstitialAd =
-                    AppLovinInterstitialAd.create(mSdk, mContext);
-
-            final AppLovinInterstitialAdListener listener =
-                    new AppLovinInterstitialAdListener(this, mMediationInterstitialListener);
-            interstitialAd.setAdDisplayListener(listener);
-            interstitialAd.setAdClickListener(listener);
-            interstitialAd.setAdVideoPlaybackListener(listener);
-
-            if (dequeuedAd != null) {
-                log(DEBUG, "Showing interstitial for zone: " + mZoneId + " placement: "
-                        + mPlacement);
-                interstitialAd.showAndRender(dequeuedAd, mPlacement);
-            } else {
-                log(DEBUG, "Attempting to show interstitial before one was loaded");
-
-                // Check if we have a default zone interstitial available.
-                if (TextUtils.isEmpty(mZoneId) && interstitialAd.isAdReadyToDisplay()) {
-                    log(DEBUG, "Showing interstitial preloaded by SDK");
-                    interstitialAd.show(mPlacement);
-                }
-                // TODO: Show ad for zone identifier if exists
-                else {
-                    mMediationInterstitialListener.onAdOpened(this);
-                    mMediationInterstitialListener.onAdClosed(this);
-                }
-            }
+        // Update mute state.
+        mSdk.getSettings().setMuted(AppLovinUtils.shouldMuteAudio(mNetworkExtras));
+
+        final AppLovinInterstitialAdPool.PooledAd loadedAd = mLoadedAd;
+        mLoadedAd = null;
+
+        final AppLovinInterstitialAdDialog interstitialAd =
+                AppLovinInterstitialAd.create(mSdk, mContext);
+
+        final AppLovinInterstitialAdListener listener =
+                new AppLovinInterstitialAdListener(this, mMediationInterstitialListener);
+        interstitialAd.setAdDisplayListener(listener);
+        interstitialAd.setAdClickListener(listener);
+        interstitialAd.setAdVideoPlaybackListener(listener);
+
+        if (loadedAd != null && !loadedAd.isExpired(SystemClock.elapsedRealtime())) {
+            log(DEBUG, "Showing interstitial for zone: " + mZoneId + " placement: "
+                    + mPlacement);
+            interstitialAd.showAndRender(loadedAd.mAd, mPlacement);
+        } else if (TextUtils.isEmpty(mZoneId) && interstitialAd.isAdReadyToDisplay()) {
+            // Check if we have a default zone interstitial available.
+            log(DEBUG, "Showing interstitial preloaded by SDK");
+            interstitialAd.show(mPlacement);
+        } else {
+            // The interstitial API has no way to report a failure to show, so no ad events are
+            // sent rather than pretending that an ad was shown.
+            log(ERROR, loadedAd != null
+                    ? "Failed to show interstitial: the loaded ad expired for zone: " + mZoneId
+                    : "Failed to show interstitial: no ad was loaded for zone: " + mZoneId);
         }
     }
     //endregion
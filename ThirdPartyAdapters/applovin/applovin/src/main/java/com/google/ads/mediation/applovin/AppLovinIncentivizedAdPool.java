@@ -0,0 +1,355 @@
+package com.google.ads.mediation.applovin;
+
+import static android.util.Log.DEBUG;
+import static com.applovin.mediation.ApplovinAdapter.log;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.applovin.adview.AppLovinIncentivizedInterstitial;
+import com.applovin.sdk.AppLovinAd;
+import com.applovin.sdk.AppLovinAdLoadListener;
+import com.applovin.sdk.AppLovinSdk;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link AppLovinIncentivizedAdPool} class preloads the incentivized interstitial of an
+ * AppLovin zone ahead of it being requested, so that a rewarded ad loads without waiting for the
+ * network once the previous one was shown.
+ *
+ * <p>The AppLovin SDK supports a single incentivized interstitial per zone at a time, so a zone
+ * never has more than one: either preloaded, or held by the request it was handed to until that
+ * request is done with it. Requests made for a zone while its interstitial is held fail. Once the
+ * interstitial is released, the next one is preloaded in the background.
+ *
+ * <p>A preloaded interstitial is considered expired {@link #AD_TTL_MILLIS} after it loaded, or as
+ * soon as the AppLovin SDK no longer reports it as ready to display. It is then replaced. A hold
+ * expires {@link #AD_TTL_MILLIS} after it was taken, so that a request whose ad is never shown
+ * does not block the zone forever.
+ *
+ * <p>Pools are kept per SDK key and zone, and are independent of each other. Thread-safe.
+ */
+public final class AppLovinIncentivizedAdPool {
+
+    /**
+     * How long a preloaded ad may be kept, or a held ad may go without being released, before it
+     * is considered stale.
+     */
+    public static final long AD_TTL_MILLIS = 60 * 60 * 1000;
+
+    private static final ConcurrentHashMap<String, AppLovinIncentivizedAdPool> POOLS =
+            new ConcurrentHashMap<>();
+
+    private final AppLovinSdk mSdk;
+    private final String mZoneId;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * The state of a zone's incentivized interstitial, see {@link #getState()}.
+     */
+    public enum State {
+        /**
+         * Neither preloaded nor loading.
+         */
+        EMPTY,
+        /**
+         * Loading, either in the background or for the request holding it.
+         */
+        LOADING,
+        /**
+         * Preloaded and waiting for a request.
+         */
+        READY,
+        /**
+         * Handed to a request that did not release it yet.
+         */
+        HELD
+    }
+
+    // Guarded by this.
+    private AppLovinIncentivizedInterstitial mHeldInterstitial;
+    private long mHoldTimeMillis;
+    private AppLovinIncentivizedInterstitial mLoadingInterstitial;
+    private AppLovinAdLoadListener mPendingListener;
+    private PreloadedAd mPreloadedAd;
+
+    // Metrics.
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mExpiredCount = new AtomicLong();
+    private final AtomicLong mExpiredHoldCount = new AtomicLong();
+
+    private final Runnable mExpiryCheckRunnable = new Runnable() {
+        @Override
+        public void run() {
+            refill();
+        }
+    };
+
+    private AppLovinIncentivizedAdPool(AppLovinSdk sdk, String zoneId) {
+        mSdk = sdk;
+        mZoneId = zoneId;
+    }
+
+    /**
+     * Returns the pool of the given zone of {@code sdk}. An empty zone ID stands for the default
+     * zone.
+     */
+    public static AppLovinIncentivizedAdPool forZone(AppLovinSdk sdk, String zoneId) {
+        String zone = (zoneId != null) ? zoneId : AppLovinMediationAdapter.DEFAULT_ZONE;
+        String key = sdk.getSdkKey() + ":" + zone;
+        AppLovinIncentivizedAdPool pool = POOLS.get(key);
+        if (pool == null) {
+            AppLovinIncentivizedAdPool newPool = new AppLovinIncentivizedAdPool(sdk, zone);
+            pool = POOLS.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Hands the zone's incentivized interstitial to a request, which holds it until it calls
+     * {@link #release}, or until the hold expires. If the interstitial is preloaded,
+     * {@code listener} is notified right away
+     * on the calling thread. Otherwise it is notified once the interstitial loads, on an AppLovin
+     * SDK thread. If the interstitial fails to load, it is released before {@code listener} is
+     * notified.
+     *
+     * @return the interstitial, or {@code null} if it is already held by another request.
+     */
+    AppLovinIncentivizedInterstitial acquire(AppLovinAdLoadListener listener) {
+        AppLovinIncentivizedInterstitial interstitial;
+        AppLovinAd preloadedAd = null;
+        boolean startLoading = false;
+        synchronized (this) {
+            long nowMillis = SystemClock.elapsedRealtime();
+            releaseExpiredHold(nowMillis);
+            if (mHeldInterstitial != null) {
+                return null;
+            }
+            evictExpiredAd(nowMillis);
+
+            if (mPreloadedAd != null) {
+                interstitial = mPreloadedAd.mInterstitial;
+                preloadedAd = mPreloadedAd.mAd;
+                mPreloadedAd = null;
+                mHitCount.incrementAndGet();
+            } else {
+                mMissCount.incrementAndGet();
+                mPendingListener = listener;
+                if (mLoadingInterstitial == null) {
+                    // Nothing is preloading, so the request loads the interstitial itself.
+                    mLoadingInterstitial = create();
+                    startLoading = true;
+                }
+                // Otherwise the request takes over the interstitial that is preloading.
+                interstitial = mLoadingInterstitial;
+            }
+            mHeldInterstitial = interstitial;
+            mHoldTimeMillis = nowMillis;
+        }
+
+        if (preloadedAd != null) {
+            mHandler.removeCallbacks(mExpiryCheckRunnable);
+            listener.adReceived(preloadedAd);
+        } else if (startLoading) {
+            load(interstitial);
+        }
+        return interstitial;
+    }
+
+    /**
+     * Releases the zone's incentivized interstitial once the request holding it is done with it,
+     * and preloads the next one in the background. Has no effect if the hold of
+     * {@code interstitial} expired in the meantime.
+     */
+    public void release(AppLovinIncentivizedInterstitial interstitial) {
+        synchronized (this) {
+            if (mHeldInterstitial != interstitial) {
+                return;
+            }
+            mHeldInterstitial = null;
+        }
+        refill();
+    }
+
+    /**
+     * Preloads the zone's incentivized interstitial in the background, unless it is already
+     * preloaded, preloading or held by a request.
+     */
+    private void refill() {
+        AppLovinIncentivizedInterstitial interstitial;
+        synchronized (this) {
+            long nowMillis = SystemClock.elapsedRealtime();
+            releaseExpiredHold(nowMillis);
+            evictExpiredAd(nowMillis);
+            if (mHeldInterstitial != null || mPreloadedAd != null
+                    || mLoadingInterstitial != null) {
+                return;
+            }
+            mLoadingInterstitial = create();
+            interstitial = mLoadingInterstitial;
+        }
+
+        log(DEBUG, "Preloading rewarded video for zone: " + mZoneId);
+        load(interstitial);
+    }
+
+    private AppLovinIncentivizedInterstitial create() {
+        // If this is a default Zone, create the incentivized ad normally
+        if (AppLovinMediationAdapter.DEFAULT_ZONE.equals(mZoneId)) {
+            return AppLovinIncentivizedInterstitial.create(mSdk);
+        }
+        // Otherwise, use the Zones API
+        return AppLovinIncentivizedInterstitial.create(mZoneId, mSdk);
+    }
+
+    private void load(final AppLovinIncentivizedInterstitial interstitial) {
+        interstitial.preload(new AppLovinAdLoadListener() {
+            @Override
+            public void adReceived(AppLovinAd ad) {
+                AppLovinAdLoadListener listener;
+                synchronized (AppLovinIncentivizedAdPool.this) {
+                    if (mLoadingInterstitial != interstitial) {
+                        // Abandoned along with an expired hold.
+                        return;
+                    }
+                    mLoadingInterstitial = null;
+                    listener = mPendingListener;
+                    mPendingListener = null;
+                    if (listener == null) {
+                        mPreloadedAd = new PreloadedAd(
+                                interstitial, ad, SystemClock.elapsedRealtime());
+                    }
+                }
+
+                if (listener != null) {
+                    listener.adReceived(ad);
+                } else {
+                    mHandler.postDelayed(mExpiryCheckRunnable, AD_TTL_MILLIS);
+                }
+            }
+
+            @Override
+            public void failedToReceiveAd(int code) {
+                AppLovinAdLoadListener listener;
+                synchronized (AppLovinIncentivizedAdPool.this) {
+                    if (mLoadingInterstitial != interstitial) {
+                        // Abandoned along with an expired hold.
+                        return;
+                    }
+                    mLoadingInterstitial = null;
+                    listener = mPendingListener;
+                    mPendingListener = null;
+                    if (listener != null) {
+                        mHeldInterstitial = null;
+                    }
+                }
+
+                if (listener != null) {
+                    listener.failedToReceiveAd(code);
+                } else {
+                    // Not retried right away, the next request for the zone loads it again.
+                    log(DEBUG, "Failed to preload rewarded video for zone: " + mZoneId
+                            + " with error: " + code);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return how many requests were served with a preloaded ad.
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * @return how many requests found no preloaded ad and had to wait for one to load.
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * @return how many preloaded ads expired before being requested.
+     */
+    public long getExpiredCount() {
+        return mExpiredCount.get();
+    }
+
+    /**
+     * @return how many held ads expired before being released.
+     */
+    public long getExpiredHoldCount() {
+        return mExpiredHoldCount.get();
+    }
+
+    /**
+     * @return the number of preloaded interstitials waiting for a request, either 0 or 1.
+     */
+    public synchronized int getDepth() {
+        return (mPreloadedAd != null) ? 1 : 0;
+    }
+
+    /**
+     * @return the current state of the zone's incentivized interstitial. An expired hold no longer
+     * counts as {@link State#HELD}.
+     */
+    public synchronized State getState() {
+        if (mHeldInterstitial != null
+                && SystemClock.elapsedRealtime() - mHoldTimeMillis < AD_TTL_MILLIS) {
+            return State.HELD;
+        }
+        if (mPreloadedAd != null) {
+            return State.READY;
+        }
+        return (mLoadingInterstitial != null) ? State.LOADING : State.EMPTY;
+    }
+
+    // Must be called while holding the lock on this.
+    private void releaseExpiredHold(long nowMillis) {
+        if (mHeldInterstitial == null || nowMillis - mHoldTimeMillis < AD_TTL_MILLIS) {
+            return;
+        }
+        mHeldInterstitial = null;
+        mExpiredHoldCount.incrementAndGet();
+        if (mPendingListener != null) {
+            // The hold never got its interstitial loaded, so the load is abandoned with it.
+            mPendingListener = null;
+            mLoadingInterstitial = null;
+        }
+        log(DEBUG, "Releasing expired hold of rewarded video for zone: " + mZoneId);
+    }
+
+    // Must be called while holding the lock on this.
+    private void evictExpiredAd(long nowMillis) {
+        if (mPreloadedAd != null && mPreloadedAd.isExpired(nowMillis)) {
+            mPreloadedAd = null;
+            mExpiredCount.incrementAndGet();
+            log(DEBUG, "Evicting expired rewarded video for zone: " + mZoneId);
+        }
+    }
+
+    private static final class PreloadedAd {
+        final AppLovinIncentivizedInterstitial mInterstitial;
+        final AppLovinAd mAd;
+        final long mLoadTimeMillis;
+
+        PreloadedAd(AppLovinIncentivizedInterstitial interstitial,
+                    AppLovinAd ad,
+                    long loadTimeMillis) {
+            mInterstitial = interstitial;
+            mAd = ad;
+            mLoadTimeMillis = loadTimeMillis;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis - mLoadTimeMillis >= AD_TTL_MILLIS
+                    || !mInterstitial.isAdReadyToDisplay();
+        }
+    }
+}
@@ -36,7 +36,6 @@ import com.google.android.gms.ads.mediation.rtb.RtbAdapter;
 import com.google.android.gms.ads.mediation.rtb.RtbSignalData;
 import com.google.android.gms.ads.mediation.rtb.SignalCallbacks;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
 import java.util.List;
 
 public class AppLovinMediationAdapter extends RtbAdapter
@@ -44,14 +43,9 @@ public class AppLovinMediationAdapter extends RtbAdapter
 
     private static final String TAG = AppLovinMediationAdapter.class.getSimpleName();
     private static WeakReference<Context> applicationContextRef;
-    private static final String DEFAULT_ZONE = "";
+    static final String DEFAULT_ZONE = "";
     private static boolean isRtbAd = true;
 
-    // Rewarded video globals.
-    public static final HashMap<String, AppLovinIncentivizedInterstitial> INCENTIVIZED_ADS =
-            new HashMap<>();
-    private static final Object INCENTIVIZED_ADS_LOCK = new Object();
-
     // Parent objects.
     private AppLovinSdk mSdk;
 
@@ -61,6 +55,7 @@ public class AppLovinMediationAdapter extends RtbAdapter
     // Rewarded Video objects.
     private MediationRewardedAdCallback mRewardedAdCallback;
     private AppLovinIncentivizedInterstitial mIncentivizedInterstitial;
+    private AppLovinIncentivizedAdPool mIncentivizedAdPool;
     private String mPlacement;
     private String mZoneId;
     private Bundle mNetworkExtras;
@@ -89,20 +84,33 @@ public class AppLovinMediationAdapter extends RtbAdapter
         initializationCompleteCallback.onInitializationSucceeded();
     }
 
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        // Adapter versions have 2 patch versions. Multiply the first patch by 100.
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = AppLovinSdk.VERSION;
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
@@ -125,39 +133,27 @@ public class AppLovinMediationAdapter extends RtbAdapter
         }
 
         if (!isRtbAd) {
-            synchronized (INCENTIVIZED_ADS_LOCK) {
-                Bundle serverParameters = adConfiguration.getServerParameters();
-                mPlacement = AppLovinUtils.retrievePlacement(serverParameters);
-                mZoneId = AppLovinUtils.retrieveZoneId(serverParameters);
-                mSdk = AppLovinUtils.retrieveSdk(serverParameters, adConfiguration.getContext());
-                mNetworkExtras = adConfiguration.getMediationExtras();
-                mMediationAdLoadCallback = mediationAdLoadCallback;
-
-                String logMessage = String.format("Requesting rewarded video for zone '%s' " +
-                        "and placement '%s'.", mZoneId, mPlacement);
-                log(DEBUG, logMessage);
-
-                // Check if incentivized ad for zone already exists.
-                if (INCENTIVIZED_ADS.containsKey(mZoneId)) {
-                    mIncentivizedInterstitial = INCENTIVIZED_ADS.get(mZoneId);
-                    mMediationAdLoadCallback.onFailure("Failed");
-                    log(ERROR, "Cannot load multiple ads with the same Zone ID. " +
-                            "Display one ad before attempting to load another.");
-                } else {
-                    // If this is a default Zone, create the incentivized ad normally
-                    if (DEFAULT_ZONE.equals(mZoneId)) {
-                        mIncentivizedInterstitial = AppLovinIncentivizedInterstitial.create(mSdk);
-                    }
-                    // Otherwise, use the Zones API
-                    else {
-                        mIncentivizedInterstitial =
-                                AppLovinIncentivizedInterstitial.create(mZoneId, mSdk);
-                    }
-                    INCENTIVIZED_ADS.put(mZoneId, mIncentivizedInterstitial);
-                }
-            }
+            Bundle serverParameters = adConfiguration.getServerParameters();
+            mPlacement = AppLovinUtils.retrievePlacement(serverParameters);
+            mZoneId = AppLovinUtils.retrieveZoneId(serverParameters);
+            mSdk = AppLovinUtils.retrieveSdk(serverParameters, adConfiguration.getContext());
+            mNetworkExtras = adConfiguration.getMediationExtras();
+            mMediationAdLoadCallback = mediationAdLoadCallback;
 
-            mIncentivizedInterstitial.preload(this);
+            String logMessage = String.format("Requesting rewarded video for zone '%s' " +
+                    "and placement '%s'.", mZoneId, mPlacement);
+            log(DEBUG, logMessage);
+
+            // The zone's incentivized ad is used right away if it was preloaded, and loaded
+            // otherwise. Only one incentivized ad per zone can be loaded at a time.
+            mIncentivizedAdPool = AppLovinIncentivizedAdPool.forZone(mSdk, mZoneId);
+            mIncentivizedInterstitial = mIncentivizedAdPool.acquire(this);
+            if (mIncentivizedInterstitial == null) {
+                mIncentivizedAdPool = null;
+                mMediationAdLoadCallback.onFailure("Failed");
+                log(ERROR, "Cannot load multiple ads with the same Zone ID. " +
+                        "Display one ad before attempting to load another.");
+            }
 
         } else {
             mMediationAdLoadCallback = mediationAdLoadCallback;
@@ -179,12 +175,15 @@ public class AppLovinMediationAdapter extends RtbAdapter
         String logMessage = String.format("Showing rewarded video for zone '%s', placement '%s'",
                 mZoneId, mPlacement);
         log(DEBUG, logMessage);
-        final AppLovinIncentivizedAdListener listener =
-                new AppLovinIncentivizedAdListener(adConfiguration, mRewardedAdCallback);
+        final AppLovinIncentivizedAdListener listener = new AppLovinIncentivizedAdListener(
+                adConfiguration, mRewardedAdCallback, mIncentivizedAdPool,
+                mIncentivizedInterstitial);
 
         if (!isRtbAd) {
             if (!mIncentivizedInterstitial.isAdReadyToDisplay()) {
                 mRewardedAdCallback.onAdFailedToShow("Ad Failed to show");
+                // Free the zone for the next request.
+                mIncentivizedAdPool.release(mIncentivizedInterstitial);
             } else {
                 mIncentivizedInterstitial.show(context, listener, listener, listener, listener);
             }
@@ -265,9 +264,6 @@ public class AppLovinMediationAdapter extends RtbAdapter
     public void failedToReceiveAd(final int code) {
         log(ERROR, "Rewarded video failed to load with error: " + code);
 
-        if (!isRtbAd) {
-            INCENTIVIZED_ADS.remove(mZoneId);
-        }
         AppLovinSdkUtils.runOnUiThread(new Runnable() {
             @Override
             public void run() {
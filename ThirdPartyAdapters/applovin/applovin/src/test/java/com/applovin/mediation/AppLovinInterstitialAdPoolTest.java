@@ -0,0 +1,260 @@
+package com.applovin.mediation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.os.SystemClock;
+
+import com.applovin.sdk.AppLovinAd;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests for {@link AppLovinInterstitialAdPool}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AppLovinInterstitialAdPoolTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final int ZONE_COUNT = 8;
+
+    private static final int OPERATION_COUNT = 20000;
+
+    private static final AtomicLong sAdIdNumber = new AtomicLong();
+
+    @Test
+    public void poll_returnsAdsInLoadOrder() {
+        AppLovinInterstitialAdPool pool = new AppLovinInterstitialAdPool(null, "zone");
+        AppLovinAd first = createAd();
+        AppLovinAd second = createAd();
+        pool.offer(first);
+        pool.offer(second);
+
+        assertSame(first, pool.poll().mAd);
+        assertSame(second, pool.poll().mAd);
+        assertNull(pool.poll());
+    }
+
+    @Test
+    public void offer_fullZoneDropsAd() {
+        AppLovinInterstitialAdPool pool = new AppLovinInterstitialAdPool(null, "zone");
+        for (int i = 0; i < AppLovinInterstitialAdPool.MAX_DEPTH; i++) {
+            assertTrue(pool.offer(createAd()));
+        }
+
+        assertFalse(pool.offer(createAd()));
+        pool.poll();
+        assertTrue(pool.offer(createAd()));
+    }
+
+    @Test
+    public void poll_skipsExpiredAds() {
+        AppLovinInterstitialAdPool pool = new AppLovinInterstitialAdPool(null, "zone");
+        pool.offer(createAd());
+        SystemClock.sleep(AppLovinInterstitialAdPool.AD_TTL_MILLIS / 2);
+        AppLovinAd fresh = createAd();
+        pool.offer(fresh);
+        SystemClock.sleep(AppLovinInterstitialAdPool.AD_TTL_MILLIS / 2);
+
+        AppLovinInterstitialAdPool.PooledAd pooledAd = pool.poll();
+        assertSame(fresh, pooledAd.mAd);
+        assertFalse(pooledAd.isExpired(SystemClock.elapsedRealtime()));
+        assertNull(pool.poll());
+    }
+
+    @Test
+    public void offer_evictsExpiredAdsToMakeRoom() {
+        AppLovinInterstitialAdPool pool = new AppLovinInterstitialAdPool(null, "zone");
+        for (int i = 0; i < AppLovinInterstitialAdPool.MAX_DEPTH; i++) {
+            pool.offer(createAd());
+        }
+        SystemClock.sleep(AppLovinInterstitialAdPool.AD_TTL_MILLIS);
+
+        AppLovinAd fresh = createAd();
+        assertTrue(pool.offer(fresh));
+        assertSame(fresh, pool.poll().mAd);
+    }
+
+    /**
+     * Compares the per-zone pools with the single {@code HashMap} of queues behind one lock that
+     * they replaced, with {@link #THREAD_COUNT} threads adding and taking ads of
+     * {@link #ZONE_COUNT} zones. Only the results are checked, the timings are reported.
+     */
+    @Test
+    public void benchmark_perZonePoolsAgainstSingleLock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            // Warm up both before measuring.
+            runSingleLock(executor);
+            runPerZonePools(executor);
+
+            long singleLockNanos = runSingleLock(executor);
+            long perZoneNanos = runPerZonePools(executor);
+
+            long operations = (long) THREAD_COUNT * OPERATION_COUNT;
+            System.out.println(String.format(
+                    "Interstitial pool contention, %d threads, %d zones: single lock %d ns/op, "
+                            + "per-zone pools %d ns/op",
+                    THREAD_COUNT, ZONE_COUNT, singleLockNanos / operations,
+                    perZoneNanos / operations));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long runSingleLock(ExecutorService executor) throws Exception {
+        final SingleLockQueues queues = new SingleLockQueues();
+        return runConcurrently(executor, new Worker() {
+            @Override
+            public void run(int thread) {
+                for (int i = 0; i < OPERATION_COUNT; i++) {
+                    String zone = "zone" + (thread + i) % ZONE_COUNT;
+                    queues.offer(zone, createAd());
+                    queues.poll(zone);
+                }
+            }
+        });
+    }
+
+    private static long runPerZonePools(ExecutorService executor) throws Exception {
+        final AppLovinInterstitialAdPool[] pools = new AppLovinInterstitialAdPool[ZONE_COUNT];
+        for (int zone = 0; zone < ZONE_COUNT; zone++) {
+            pools[zone] = new AppLovinInterstitialAdPool(null, "zone" + zone);
+        }
+        final AtomicLong offeredCount = new AtomicLong();
+        final AtomicLong polledCount = new AtomicLong();
+        long nanos = runConcurrently(executor, new Worker() {
+            @Override
+            public void run(int thread) {
+                long threadOfferedCount = 0;
+                long threadPolledCount = 0;
+                for (int i = 0; i < OPERATION_COUNT; i++) {
+                    AppLovinInterstitialAdPool pool = pools[(thread + i) % ZONE_COUNT];
+                    if (pool.offer(createAd())) {
+                        threadOfferedCount++;
+                    }
+                    if (pool.poll() != null) {
+                        threadPolledCount++;
+                    }
+                }
+                offeredCount.addAndGet(threadOfferedCount);
+                polledCount.addAndGet(threadPolledCount);
+            }
+        });
+
+        // No ad was lost or handed out twice.
+        long remainingCount = 0;
+        for (AppLovinInterstitialAdPool pool : pools) {
+            while (pool.poll() != null) {
+                remainingCount++;
+            }
+        }
+        assertEquals(offeredCount.get(), polledCount.get() + remainingCount);
+        return nanos;
+    }
+
+    /**
+     * Runs {@code worker} on {@link #THREAD_COUNT} threads at once.
+     *
+     * @return how long it took until all threads finished, in nanoseconds.
+     */
+    private static long runConcurrently(ExecutorService executor, final Worker worker)
+            throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT + 1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int thread = i;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    barrier.await();
+                    worker.run(thread);
+                    return null;
+                }
+            }));
+        }
+        barrier.await();
+        long startNanos = System.nanoTime();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    private static AppLovinAd createAd() {
+        final long adIdNumber = sAdIdNumber.incrementAndGet();
+        return (AppLovinAd) Proxy.newProxyInstance(AppLovinAd.class.getClassLoader(),
+                new Class<?>[] {AppLovinAd.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        switch (method.getName()) {
+                            case "getAdIdNumber":
+                                return adIdNumber;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            case "toString":
+                                return "AppLovinAd " + adIdNumber;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    }
+                });
+    }
+
+    private interface Worker {
+        void run(int thread);
+    }
+
+    /**
+     * The interstitial queues {@link ApplovinAdapter} used before, one per zone in a single map
+     * behind one lock.
+     */
+    private static final class SingleLockQueues {
+        private final HashMap<String, Queue<AppLovinAd>> mQueues = new HashMap<>();
+        private final Object mLock = new Object();
+
+        void offer(String zoneId, AppLovinAd ad) {
+            synchronized (mLock) {
+                Queue<AppLovinAd> queue = mQueues.get(zoneId);
+                if (queue == null) {
+                    queue = new LinkedList<>();
+                    mQueues.put(zoneId, queue);
+                }
+                queue.offer(ad);
+            }
+        }
+
+        AppLovinAd poll(String zoneId) {
+            synchronized (mLock) {
+                Queue<AppLovinAd> queue = mQueues.get(zoneId);
+                return (queue != null) ? queue.poll() : null;
+            }
+        }
+    }
+}
@@ -176,6 +176,7 @@ public class ChartboostAdapter extends ChartboostMediationAdapter
 
     @Override
     public void onDestroy() {
+        ChartboostSingleton.removeInterstitialDelegate(mChartboostInterstitialDelegate);
     }
 
     @Override
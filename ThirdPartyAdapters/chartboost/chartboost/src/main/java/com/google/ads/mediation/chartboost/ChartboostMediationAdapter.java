@@ -17,6 +17,7 @@ import com.google.android.gms.ads.mediation.MediationRewardedAdCallback;
 import com.google.android.gms.ads.mediation.MediationRewardedAdConfiguration;
 import com.google.android.gms.ads.mediation.VersionInfo;
 
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.List;
 
@@ -24,6 +25,22 @@ public class ChartboostMediationAdapter extends Adapter implements MediationRewa
 
     static final String TAG = ChartboostMediationAdapter.class.getSimpleName();
 
+    /**
+     * Whether {@link #initialize} defers starting the Chartboost SDK until it is needed.
+     */
+    private static volatile boolean sInitializeOnFirstRequest;
+
+    /**
+     * Parameters recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     * Written after {@link #sDeferredActivity} and read before it.
+     */
+    private static volatile ChartboostParams sDeferredParams;
+
+    /**
+     * Activity recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     */
+    private static volatile WeakReference<Activity> sDeferredActivity;
+
     /**
      * A Chartboost extras object used to store optional information used when loading ads.
      */
@@ -39,21 +56,62 @@ public class ChartboostMediationAdapter extends Adapter implements MediationRewa
             mAdLoadCallback;
     private MediationRewardedAdCallback mRewardedAdCallback;
 
+    /**
+     * Sets whether the Chartboost SDK is started lazily. When enabled, {@link #initialize} only
+     * records the server parameters and reports success. The SDK is started by the first ad
+     * request, or by {@link #warmUp()} if it is called earlier. Must be set before the Google
+     * Mobile Ads SDK is initialized.
+     */
+    public static void setInitializeOnFirstRequest(boolean initializeOnFirstRequest) {
+        sInitializeOnFirstRequest = initializeOnFirstRequest;
+    }
+
+    /**
+     * Starts the Chartboost SDK if its initialization was deferred by
+     * {@link #setInitializeOnFirstRequest(boolean)}, for example once the app is idle. Does
+     * nothing otherwise.
+     */
+    public static void warmUp() {
+        ChartboostParams params = sDeferredParams;
+        Activity activity = sDeferredActivity != null ? sDeferredActivity.get() : null;
+        sDeferredParams = null;
+        sDeferredActivity = null;
+        if (params == null || activity == null) {
+            return;
+        }
+        ChartboostSingleton.startChartboost(activity, params);
+    }
+
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     /**
      * {@link Adapter} implementation
      */
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = Chartboost.getSDKVersion();
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
@@ -111,6 +169,15 @@ public class ChartboostMediationAdapter extends Adapter implements MediationRewa
             return;
         }
 
+        if (sInitializeOnFirstRequest) {
+            // Chartboost is started by the first ad request or by warmUp().
+            sDeferredActivity = new WeakReference<>((Activity) context);
+            sDeferredParams = mChartboostParams;
+            mInitializationCallback = null;
+            initializationCompleteCallback.onInitializationSucceeded();
+            return;
+        }
+
         ChartboostSingleton.startChartboostRewardedVideo(
                 context, mChartboostRewardedVideoDelegate);
     }
@@ -16,6 +16,7 @@ package com.google.ads.mediation.chartboost;
 
 import android.app.Activity;
 import android.content.Context;
+import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Log;
 
@@ -23,9 +24,10 @@ import com.chartboost.sdk.Chartboost;
 import com.chartboost.sdk.ChartboostDelegate;
 import com.chartboost.sdk.Libraries.CBLogging;
 import com.chartboost.sdk.Model.CBError;
+import com.google.android.gms.ads.mediation.InitializationCompleteCallback;
 
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@link ChartboostSingleton} class is used to load Chartboost ads and manage multiple
@@ -34,23 +36,34 @@ import java.util.HashMap;
 public final class ChartboostSingleton {
 
     /**
-     * Synchronized HashMaps of {@link AbstractChartboostAdapterDelegate} weak references
-     * keyed by their Chartboost location
+     * Registries of the {@link AbstractChartboostAdapterDelegate}s currently loading or showing
+     * an ad, keyed by their Chartboost location.
      */
-    private static HashMap<String, WeakReference<AbstractChartboostAdapterDelegate>>
-            mInterstitialDelegates = new HashMap<>();
-    private static HashMap<String, WeakReference<AbstractChartboostAdapterDelegate>>
-            mRewardedDelegates = new HashMap<>();
+    private static final PlacementRegistry<AbstractChartboostAdapterDelegate>
+            mInterstitialDelegates = new PlacementRegistry<>();
+    private static final PlacementRegistry<AbstractChartboostAdapterDelegate>
+            mRewardedDelegates = new PlacementRegistry<>();
 
     /**
-     * Flag to keep track of whether or not {@link Chartboost} has initialized.
+     * Delegates of running interstitial warm-ups keyed by their Chartboost location. Held
+     * strongly, as {@link #mInterstitialDelegates} only keeps weak references. Warm-ups may be
+     * started and cancelled from any thread.
      */
-    private static boolean mIsChartboostInitialized;
+    private static final ConcurrentHashMap<String, WarmUpInterstitialDelegate> mWarmUpDelegates =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Flag to keep track of whether or not {@link Chartboost} has initialized. Set from the
+     * Chartboost delegate, read by callers of {@link #startChartboost} on any thread.
+     */
+    private static volatile boolean mIsChartboostInitialized;
 
     /**
      * Flag to keep track of whether or not {@link Chartboost} is in progress of initializing.
+     * Only raised while holding the lock on {@link ChartboostSingleton}, so that a deferred start
+     * and an ad request racing each other start {@link Chartboost} once.
      */
-    private static boolean mIsChartboostInitializing;
+    private static volatile boolean mIsChartboostInitializing;
 
     /**
      * The only instance of
@@ -73,59 +86,44 @@ public final class ChartboostSingleton {
     }
 
     /**
-     * Adds the given weak reference of {@link AbstractChartboostAdapterDelegate} to the map of
-     * Chartboost locations.
-     *
-     * @param delegate the delegate that needs to be added to {@link #mInterstitialDelegates}.
-     */
-    private static void addInterstitialDelegate(String location,
-                                                AbstractChartboostAdapterDelegate delegate) {
-        if (!TextUtils.isEmpty(location) && delegate != null) {
-            mInterstitialDelegates.put(location, new WeakReference<>(delegate));
-        }
-    }
-
-    /**
-     * Adds the given weak reference of {@link AbstractChartboostAdapterDelegate} to the map of
-     * Chartboost locations.
+     * Claims the given Chartboost location for an {@link AbstractChartboostAdapterDelegate}, so
+     * that Chartboost events for it are forwarded to the delegate. If another delegate already
+     * holds the location, waits for it to be released.
      *
-     * @param delegate the delegate that needs to be added to {@link #mRewardedDelegates}.
+     * @param delegates either {@link #mInterstitialDelegates} or {@link #mRewardedDelegates}.
+     * @param delegate  the delegate that needs to be added to {@code delegates}.
+     * @param callback  notified once the location is claimed, or could not be claimed.
      */
-    private static void addRewardedDelegate(String location,
-                                            AbstractChartboostAdapterDelegate delegate) {
-        if (!TextUtils.isEmpty(location) && delegate != null) {
-            mRewardedDelegates.put(location, new WeakReference<>(delegate));
+    private static void claimLocation(
+            PlacementRegistry<AbstractChartboostAdapterDelegate> delegates,
+            String location,
+            AbstractChartboostAdapterDelegate delegate,
+            PlacementRegistry.ClaimCallback callback) {
+        if (TextUtils.isEmpty(location)) {
+            callback.onClaimed();
+        } else {
+            delegates.claimOrWait(location, delegate, callback);
         }
     }
 
     /**
-     * Gets the weak reference of the {@link AbstractChartboostAdapterDelegate} linked to a given
-     * Chartboost location
+     * Gets the {@link AbstractChartboostAdapterDelegate} linked to a given Chartboost location
      *
      * @param location the Chartboost location
-     * @return the weak reference of the Interstitial delegate for the location
+     * @return the Interstitial delegate for the location, or {@code null} if there is none.
      */
-    private static WeakReference<AbstractChartboostAdapterDelegate> getInterstitialDelegate(
-            String location) {
-        if (!TextUtils.isEmpty(location) && mInterstitialDelegates.containsKey(location)) {
-            return mInterstitialDelegates.get(location);
-        }
-        return null;
+    private static AbstractChartboostAdapterDelegate getInterstitialDelegate(String location) {
+        return TextUtils.isEmpty(location) ? null : mInterstitialDelegates.get(location);
     }
 
     /**
-     * Gets the weak reference of the {@link AbstractChartboostAdapterDelegate} linked to a given
-     * Chartboost location
+     * Gets the {@link AbstractChartboostAdapterDelegate} linked to a given Chartboost location
      *
      * @param location the Chartboost location
-     * @return the weak reference of the Rewarded delegate for the location
+     * @return the Rewarded delegate for the location, or {@code null} if there is none.
      */
-    private static WeakReference<AbstractChartboostAdapterDelegate> getRewardedDelegate(
-            String location) {
-        if (!TextUtils.isEmpty(location) && mRewardedDelegates.containsKey(location)) {
-            return mRewardedDelegates.get(location);
-        }
-        return null;
+    private static AbstractChartboostAdapterDelegate getRewardedDelegate(String location) {
+        return TextUtils.isEmpty(location) ? null : mRewardedDelegates.get(location);
     }
 
     /**
@@ -136,25 +134,83 @@ public final class ChartboostSingleton {
      * @param adapterDelegate The adapter delegate to which to forward Chartboost callbacks.
      */
     public static void startChartboostInterstitial(
-            Context context, AbstractChartboostAdapterDelegate adapterDelegate) {
-        String location = adapterDelegate.getChartboostParams().getLocation();
-
-        // Checks if an ad has already been sent for caching for the requested location, and fail
-        // the ad request if it is.
-        WeakReference<AbstractChartboostAdapterDelegate> delegate =
-                getInterstitialDelegate(location);
-        if (delegate != null && delegate.get() != null) {
-            Log.w(ChartboostMediationAdapter.TAG,
+            final Context context, final AbstractChartboostAdapterDelegate adapterDelegate) {
+        final String location = adapterDelegate.getChartboostParams().getLocation();
+
+        AbstractChartboostAdapterDelegate delegate = getInterstitialDelegate(location);
+        if (delegate instanceof WarmUpInterstitialDelegate) {
+            // The ad being cached by a warm-up is handed over to this request.
+            ((WarmUpInterstitialDelegate) delegate)
+                    .finish("Superseded by an ad request for the same location.");
+        }
+
+        // Claim the location for this adapter delegate so that the events from Chartboost SDK
+        // can be forwarded. If an ad has already been sent for caching for the requested
+        // location, the ad request waits for it to be consumed.
+        claimLocation(mInterstitialDelegates, location, adapterDelegate,
+                new PlacementRegistry.ClaimCallback() {
+                    @Override
+                    public void onClaimed() {
+                        startChartboost((Activity) context, adapterDelegate.getChartboostParams(),
+                                adapterDelegate);
+                    }
+
+                    @Override
+                    public void onClaimFailed(String errorMessage) {
+                        Log.w(ChartboostMediationAdapter.TAG, errorMessage);
+                        adapterDelegate.didFailToLoadInterstitial(location,
+                                CBError.CBImpressionError.NO_AD_FOUND);
+                    }
+                });
+    }
+
+    /**
+     * This method will initialize the Chartboost SDK if needed and cache an interstitial ad for
+     * the location in the given server parameters, so that the first ad request for it can be
+     * served from cache. An ad request for the same location made while the ad is caching takes
+     * over the warm-up.
+     *
+     * @param activity         required to initialize {@link Chartboost}.
+     * @param serverParameters the Chartboost server parameters configured in the AdMob UI.
+     * @param callback         notified once the ad is cached, failed to cache or was taken over
+     *                         by an ad request, unless the warm-up is cancelled first.
+     */
+    public static void warmUpInterstitial(Activity activity,
+                                          Bundle serverParameters,
+                                          InitializationCompleteCallback callback) {
+        ChartboostParams params =
+                ChartboostAdapterUtils.createChartboostParams(serverParameters, null);
+        if (!ChartboostAdapterUtils.isValidChartboostParams(params)) {
+            callback.onInitializationFailed("Invalid server parameters.");
+            return;
+        }
+
+        String location = params.getLocation();
+        AbstractChartboostAdapterDelegate delegate = getInterstitialDelegate(location);
+        if (delegate != null && !(delegate instanceof WarmUpInterstitialDelegate)) {
+            callback.onInitializationFailed(
                     "An ad has already been requested for the location: " + location);
-            adapterDelegate.didFailToLoadInterstitial(location,
-                    CBError.CBImpressionError.NO_AD_FOUND);
             return;
         }
 
-        // Add this adapter delegate to mAdapterDelegates so that the events from
-        // Chartboost SDK can be forwarded.
-        addInterstitialDelegate(location, adapterDelegate);
-        startChartboost((Activity) context, adapterDelegate.getChartboostParams(), adapterDelegate);
+        WarmUpInterstitialDelegate warmUpDelegate =
+                new WarmUpInterstitialDelegate(params, callback);
+        mWarmUpDelegates.put(location, warmUpDelegate);
+        startChartboostInterstitial(activity, warmUpDelegate);
+    }
+
+    /**
+     * This method will cancel all running interstitial warm-ups. Ads that are already caching
+     * stay in Chartboost's cache once cached, but the warm-up callbacks are not notified.
+     */
+    public static void cancelWarmUp() {
+        for (Map.Entry<String, WarmUpInterstitialDelegate> entry : mWarmUpDelegates.entrySet()) {
+            // Only cancels the warm-ups removed here, not ones started concurrently.
+            if (mWarmUpDelegates.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().mCallback = null;
+                removeInterstitialDelegate(entry.getValue());
+            }
+        }
     }
 
     /**
@@ -165,25 +221,39 @@ public final class ChartboostSingleton {
      * @param adapterDelegate The adapter delegate to which to forward Chartboost callbacks.
      */
     public static void startChartboostRewardedVideo(
-            Context context, AbstractChartboostAdapterDelegate adapterDelegate) {
-        String location = adapterDelegate.getChartboostParams().getLocation();
-
-        // Checks if an ad has already been sent for caching for the requested location, and fail
-        // the ad request if it is.
-        WeakReference<AbstractChartboostAdapterDelegate> delegate =
-                getRewardedDelegate(location);
-        if (delegate != null && delegate.get() != null) {
-            Log.w(ChartboostMediationAdapter.TAG,
-                    "An ad has already been requested for the location: " + location);
-            adapterDelegate.didFailToLoadRewardedVideo(location,
-                    CBError.CBImpressionError.NO_AD_FOUND);
-            return;
-        }
+            final Context context, final AbstractChartboostAdapterDelegate adapterDelegate) {
+        final String location = adapterDelegate.getChartboostParams().getLocation();
+
+        // Claim the location for this adapter delegate so that the events from Chartboost SDK
+        // can be forwarded. If an ad has already been sent for caching for the requested
+        // location, the ad request waits for it to be consumed.
+        claimLocation(mRewardedDelegates, location, adapterDelegate,
+                new PlacementRegistry.ClaimCallback() {
+                    @Override
+                    public void onClaimed() {
+                        startChartboost((Activity) context, adapterDelegate.getChartboostParams(),
+                                adapterDelegate);
+                    }
+
+                    @Override
+                    public void onClaimFailed(String errorMessage) {
+                        Log.w(ChartboostMediationAdapter.TAG, errorMessage);
+                        adapterDelegate.didFailToLoadRewardedVideo(location,
+                                CBError.CBImpressionError.NO_AD_FOUND);
+                    }
+                });
+    }
 
-        // Add this adapter delegate to mAdapterDelegates so that the events from
-        // Chartboost SDK can be forwarded.
-        addRewardedDelegate(location, adapterDelegate);
-        startChartboost((Activity) context, adapterDelegate.getChartboostParams(), adapterDelegate);
+    /**
+     * This method will initialize the Chartboost SDK if it is not already initialized, without
+     * waiting for an ad request.
+     *
+     * @param activity required to initialize {@link Chartboost}.
+     * @param params   The Chartboost params containing server parameters to be used to start
+     *                 {@link Chartboost}.
+     */
+    static void startChartboost(Activity activity, ChartboostParams params) {
+        startChartboost(activity, params, null);
     }
 
     /**
@@ -193,10 +263,12 @@ public final class ChartboostSingleton {
      * @param activity        required to initialize {@link Chartboost}.
      * @param params          The Chartboost params containing server parameters and network extras
      *                        to be used to start {@link Chartboost}.
-     * @param adapterDelegate The adapter delegate to which to forward initialization callbacks.
+     * @param adapterDelegate The adapter delegate to which to forward initialization callbacks,
+     *                        or {@code null} if none.
      */
-    private static void startChartboost(Activity activity, ChartboostParams params,
-                                        AbstractChartboostAdapterDelegate adapterDelegate) {
+    private static synchronized void startChartboost(
+            Activity activity, ChartboostParams params,
+            AbstractChartboostAdapterDelegate adapterDelegate) {
         if (mIsChartboostInitializing) {
             return;
         }
@@ -224,7 +296,7 @@ public final class ChartboostSingleton {
             Chartboost.onCreate(activity);
             Chartboost.onStart(activity);
             Chartboost.onResume(activity);
-        } else {
+        } else if (adapterDelegate != null) {
             adapterDelegate.didInitialize();
         }
     }
@@ -261,6 +333,22 @@ public final class ChartboostSingleton {
         Chartboost.showInterstitial(delegate.getChartboostParams().getLocation());
     }
 
+    /**
+     * This method will stop forwarding interstitial events to a delegate, for example once its
+     * adapter is destroyed. If the delegate is waiting for its location, it leaves the queue, and
+     * if it holds the location, the location is handed over to the next request waiting for it.
+     *
+     * @param delegate the delegate that no longer loads or shows ads.
+     */
+    protected static void removeInterstitialDelegate(AbstractChartboostAdapterDelegate delegate) {
+        String location = delegate.getChartboostParams().getLocation();
+        if (TextUtils.isEmpty(location)) {
+            return;
+        }
+        mInterstitialDelegates.cancelWait(location, delegate);
+        mInterstitialDelegates.release(location, delegate);
+    }
+
     /**
      * This method will check if {@link Chartboost} already has rewarded video ads loaded, if so,
      * will send the necessary callbacks, else will request {@link Chartboost} to start caching
@@ -309,18 +397,12 @@ public final class ChartboostSingleton {
             mIsChartboostInitializing = false;
             mIsChartboostInitialized = true;
 
-            for (WeakReference<AbstractChartboostAdapterDelegate> reference :
-                    mInterstitialDelegates.values()) {
-                if (reference.get() != null) {
-                    reference.get().didInitialize();
-                }
+            for (AbstractChartboostAdapterDelegate delegate : mInterstitialDelegates.getHolders()) {
+                delegate.didInitialize();
             }
 
-            for (WeakReference<AbstractChartboostAdapterDelegate> reference :
-                    mRewardedDelegates.values()) {
-                if (reference.get() != null) {
-                    reference.get().didInitialize();
-                }
+            for (AbstractChartboostAdapterDelegate delegate : mRewardedDelegates.getHolders()) {
+                delegate.didInitialize();
             }
         }
 
@@ -329,10 +411,9 @@ public final class ChartboostSingleton {
             // Interstitial ad has been loaded from the Chartboost API servers and cached locally.
             super.didCacheInterstitial(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getInterstitialDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didCacheInterstitial(location);
+            AbstractChartboostAdapterDelegate delegate = getInterstitialDelegate(location);
+            if (delegate != null) {
+                delegate.didCacheInterstitial(location);
             }
         }
 
@@ -341,12 +422,11 @@ public final class ChartboostSingleton {
             // Interstitial ad has attempted to load from the Chartboost API servers but failed.
             super.didFailToLoadInterstitial(location, error);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getInterstitialDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didFailToLoadInterstitial(location, error);
+            AbstractChartboostAdapterDelegate delegate = getInterstitialDelegate(location);
+            if (delegate != null) {
+                delegate.didFailToLoadInterstitial(location, error);
+                mInterstitialDelegates.release(location, delegate);
             }
-            mInterstitialDelegates.remove(location);
         }
 
         @Override
@@ -354,10 +434,9 @@ public final class ChartboostSingleton {
             // Interstitial ad has been displayed on the screen.
             super.didDisplayInterstitial(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getInterstitialDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didDisplayInterstitial(location);
+            AbstractChartboostAdapterDelegate delegate = getInterstitialDelegate(location);
+            if (delegate != null) {
+                delegate.didDisplayInterstitial(location);
             }
         }
 
@@ -366,12 +445,11 @@ public final class ChartboostSingleton {
             // Interstitial ad has been dismissed.
             super.didDismissInterstitial(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getInterstitialDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didDismissInterstitial(location);
+            AbstractChartboostAdapterDelegate delegate = getInterstitialDelegate(location);
+            if (delegate != null) {
+                delegate.didDismissInterstitial(location);
+                mInterstitialDelegates.release(location, delegate);
             }
-            mInterstitialDelegates.remove(location);
         }
 
         @Override
@@ -379,10 +457,9 @@ public final class ChartboostSingleton {
             // Interstitial ad has been clicked.
             super.didClickInterstitial(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getInterstitialDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didClickInterstitial(location);
+            AbstractChartboostAdapterDelegate delegate = getInterstitialDelegate(location);
+            if (delegate != null) {
+                delegate.didClickInterstitial(location);
             }
         }
 
@@ -397,10 +474,9 @@ public final class ChartboostSingleton {
             // Rewarded video has been loaded from the Chartboost API servers and cached locally.
             super.didCacheRewardedVideo(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getRewardedDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didCacheRewardedVideo(location);
+            AbstractChartboostAdapterDelegate delegate = getRewardedDelegate(location);
+            if (delegate != null) {
+                delegate.didCacheRewardedVideo(location);
             }
         }
 
@@ -408,12 +484,11 @@ public final class ChartboostSingleton {
         public void didFailToLoadRewardedVideo(String location, CBError.CBImpressionError error) {
             super.didFailToLoadRewardedVideo(location, error);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getRewardedDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didFailToLoadRewardedVideo(location, error);
+            AbstractChartboostAdapterDelegate delegate = getRewardedDelegate(location);
+            if (delegate != null) {
+                delegate.didFailToLoadRewardedVideo(location, error);
+                mRewardedDelegates.release(location, delegate);
             }
-            mRewardedDelegates.remove(location);
         }
 
         @Override
@@ -421,10 +496,9 @@ public final class ChartboostSingleton {
             // Rewarded video has been clicked.
             super.didClickRewardedVideo(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getRewardedDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didClickRewardedVideo(location);
+            AbstractChartboostAdapterDelegate delegate = getRewardedDelegate(location);
+            if (delegate != null) {
+                delegate.didClickRewardedVideo(location);
             }
         }
 
@@ -433,10 +507,9 @@ public final class ChartboostSingleton {
             // Rewarded video has been displayed on the screen.
             super.didDisplayRewardedVideo(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getRewardedDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didDisplayRewardedVideo(location);
+            AbstractChartboostAdapterDelegate delegate = getRewardedDelegate(location);
+            if (delegate != null) {
+                delegate.didDisplayRewardedVideo(location);
             }
         }
 
@@ -445,10 +518,9 @@ public final class ChartboostSingleton {
             // Rewarded video has been viewed completely and user is eligible for reward.
             super.didCompleteRewardedVideo(location, reward);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getRewardedDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didCompleteRewardedVideo(location, reward);
+            AbstractChartboostAdapterDelegate delegate = getRewardedDelegate(location);
+            if (delegate != null) {
+                delegate.didCompleteRewardedVideo(location, reward);
             }
         }
 
@@ -457,12 +529,76 @@ public final class ChartboostSingleton {
             // Rewarded video has been dismissed.
             super.didDismissRewardedVideo(location);
 
-            WeakReference<AbstractChartboostAdapterDelegate> reference =
-                    getRewardedDelegate(location);
-            if (reference != null && reference.get() != null) {
-                reference.get().didDismissRewardedVideo(location);
+            AbstractChartboostAdapterDelegate delegate = getRewardedDelegate(location);
+            if (delegate != null) {
+                delegate.didDismissRewardedVideo(location);
+                mRewardedDelegates.release(location, delegate);
+            }
+        }
+    }
+
+    /**
+     * The {@link WarmUpInterstitialDelegate} caches an interstitial ad on behalf of
+     * {@link #warmUpInterstitial}, without an adapter to forward it to.
+     */
+    private static final class WarmUpInterstitialDelegate
+            extends AbstractChartboostAdapterDelegate {
+
+        private final ChartboostParams mChartboostParams;
+        // Cleared by cancelWarmUp(), which may run on any thread.
+        private volatile InitializationCompleteCallback mCallback;
+
+        WarmUpInterstitialDelegate(ChartboostParams params,
+                                   InitializationCompleteCallback callback) {
+            mChartboostParams = params;
+            mCallback = callback;
+        }
+
+        @Override
+        public ChartboostParams getChartboostParams() {
+            return mChartboostParams;
+        }
+
+        @Override
+        public void didInitialize() {
+            super.didInitialize();
+            if (mCallback != null) {
+                loadInterstitialAd(this);
+            }
+        }
+
+        @Override
+        public void didCacheInterstitial(String location) {
+            super.didCacheInterstitial(location);
+            finish(null);
+        }
+
+        @Override
+        public void didFailToLoadInterstitial(String location, CBError.CBImpressionError error) {
+            super.didFailToLoadInterstitial(location, error);
+            finish("Failed to cache an interstitial ad: " + error);
+        }
+
+        /**
+         * Notifies the warm-up callback, if it was not notified yet, and frees the location for
+         * ad requests.
+         */
+        void finish(String errorMessage) {
+            String location = mChartboostParams.getLocation();
+            mWarmUpDelegates.remove(location, this);
+            mInterstitialDelegates.release(location, this);
+            InitializationCompleteCallback callback = mCallback;
+            mCallback = null;
+            if (callback == null) {
+                return;
+            }
+            if (errorMessage != null) {
+                Log.w(ChartboostMediationAdapter.TAG,
+                        "Failed to warm up Chartboost: " + errorMessage);
+                callback.onInitializationFailed(errorMessage);
+            } else {
+                callback.onInitializationSucceeded();
             }
-            mRewardedDelegates.remove(location);
         }
     }
 }
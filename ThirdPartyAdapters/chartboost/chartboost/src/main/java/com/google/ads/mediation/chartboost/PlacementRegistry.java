@@ -0,0 +1,361 @@
+package com.google.ads.mediation.chartboost;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of which object currently holds a placement, for example the adapter that is
+ * loading an ad for it, so that SDK callbacks for the placement can be routed to that object and
+ * duplicate requests can be rejected.
+ *
+ * <p>Holders are referenced weakly. Entries of holders that were garbage collected are purged
+ * through a {@link ReferenceQueue} on every access, and a placement whose holder was collected
+ * counts as free. A {@code null} placement ID is never held by anyone.
+ *
+ * <p>Requests for a placement that is already held can wait for it through
+ * {@link #claimOrWait}. Waiters are served in FIFO order as soon as the placement is released, or
+ * its holder is collected, and fail once the wait queue of the placement is full or their
+ * deadline passes. Waiters hold their holder strongly until then, so a holder that goes away while
+ * waiting, for example an adapter being destroyed, must leave the queue through
+ * {@link #cancelWait}.
+ *
+ * <p>Thread-safe. Claiming and releasing a placement are atomic, so SDK callback threads may use
+ * the registry concurrently with the adapters. Waiters are notified on the main thread.
+ *
+ * @param <V> the type of the holders.
+ */
+final class PlacementRegistry<V> {
+
+    private static final int DEFAULT_MAX_WAITERS = 3;
+    private static final long DEFAULT_WAIT_TIMEOUT_MILLIS = 30 * 1000;
+
+    /**
+     * Callback for {@link #claimOrWait}.
+     */
+    interface ClaimCallback {
+        /**
+         * The placement is now held by the holder that asked for it.
+         */
+        void onClaimed();
+
+        /**
+         * The placement could not be claimed, and is not held by the holder that asked for it.
+         */
+        void onClaimFailed(String errorMessage);
+    }
+
+    private final ConcurrentHashMap<String, Entry<V>> mEntries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> mClearedEntries = new ReferenceQueue<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final int mMaxWaiters;
+    private final long mWaitTimeoutMillis;
+
+    /**
+     * Wait queues keyed by placement ID. Guarded by itself.
+     */
+    private final HashMap<String, ArrayDeque<Waiter>> mWaiters = new HashMap<>();
+
+    /**
+     * Waiters that were handed their placement but not notified yet. Guarded by {@link #mWaiters}.
+     */
+    private final ArrayList<Waiter> mServedWaiters = new ArrayList<>();
+
+    PlacementRegistry() {
+        this(DEFAULT_MAX_WAITERS, DEFAULT_WAIT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxWaiters        how many requests may wait for a single placement.
+     * @param waitTimeoutMillis how long a request may wait for a placement before it fails.
+     */
+    PlacementRegistry(int maxWaiters, long waitTimeoutMillis) {
+        mMaxWaiters = maxWaiters;
+        mWaitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Claims {@code placementId} for {@code holder}, unless another live holder already holds it.
+     *
+     * @return {@code true} if {@code holder} now holds the placement, including when it already
+     * did.
+     */
+    boolean claim(String placementId, V holder) {
+        if (placementId == null) {
+            return true;
+        }
+        purgeClearedEntries();
+        return claimEntry(placementId, holder);
+    }
+
+    /**
+     * Claims {@code placementId} for {@code holder} like {@link #claim}. If another live holder
+     * already holds it, waits for it to be released behind the requests that are already waiting
+     * for it.
+     *
+     * <p>{@code callback} is notified right away on the calling thread if the placement is free or
+     * the wait queue of the placement is full, and on the main thread otherwise.
+     */
+    void claimOrWait(String placementId, V holder, ClaimCallback callback) {
+        if (claim(placementId, holder)) {
+            callback.onClaimed();
+            return;
+        }
+
+        Waiter waiter = new Waiter(placementId, holder, callback);
+        synchronized (mWaiters) {
+            ArrayDeque<Waiter> waiters = mWaiters.get(placementId);
+            if (waiters == null) {
+                waiters = new ArrayDeque<>();
+                mWaiters.put(placementId, waiters);
+            }
+            if (waiters.size() >= mMaxWaiters) {
+                waiter = null;
+            } else {
+                waiters.add(waiter);
+            }
+        }
+        if (waiter == null) {
+            callback.onClaimFailed(
+                    "Too many requests are waiting for placement: " + placementId);
+            return;
+        }
+
+        mHandler.postDelayed(waiter, mWaitTimeoutMillis);
+        // The placement may have been released before the waiter was queued.
+        serveNextWaiter(placementId);
+    }
+
+    /**
+     * Takes {@code holder} out of the wait queue of {@code placementId}, so that its
+     * {@link ClaimCallback} is not notified anymore. Does not free the placement if it was already
+     * handed over to {@code holder}; call {@link #release} for that.
+     *
+     * @return {@code true} if {@code holder} was waiting for the placement.
+     */
+    boolean cancelWait(String placementId, V holder) {
+        if (placementId == null) {
+            return false;
+        }
+        Waiter cancelledWaiter = null;
+        synchronized (mWaiters) {
+            for (int i = 0; i < mServedWaiters.size(); i++) {
+                Waiter waiter = mServedWaiters.get(i);
+                if (waiter.mPlacementId.equals(placementId) && waiter.mHolder == holder) {
+                    mServedWaiters.remove(i);
+                    return true;
+                }
+            }
+
+            ArrayDeque<Waiter> waiters = mWaiters.get(placementId);
+            if (waiters == null) {
+                return false;
+            }
+            for (Waiter waiter : waiters) {
+                if (waiter.mHolder == holder) {
+                    cancelledWaiter = waiter;
+                    break;
+                }
+            }
+            if (cancelledWaiter == null) {
+                return false;
+            }
+            waiters.remove(cancelledWaiter);
+            if (waiters.isEmpty()) {
+                mWaiters.remove(placementId);
+            }
+        }
+        mHandler.removeCallbacks(cancelledWaiter);
+        return true;
+    }
+
+    private boolean claimEntry(String placementId, V holder) {
+        Entry<V> newEntry = new Entry<>(placementId, holder, mClearedEntries);
+        while (true) {
+            Entry<V> entry = mEntries.putIfAbsent(placementId, newEntry);
+            if (entry == null) {
+                return true;
+            }
+            V currentHolder = entry.get();
+            if (currentHolder != null) {
+                return currentHolder == holder;
+            }
+            if (mEntries.replace(placementId, entry, newEntry)) {
+                return true;
+            }
+            // Another thread changed the entry in the meantime, look at it again.
+        }
+    }
+
+    /**
+     * Makes {@code holder} hold {@code placementId}, replacing its current holder if any.
+     */
+    void put(String placementId, V holder) {
+        if (placementId == null) {
+            return;
+        }
+        purgeClearedEntries();
+        mEntries.put(placementId, new Entry<>(placementId, holder, mClearedEntries));
+    }
+
+    /**
+     * @return the live holder of {@code placementId}, or {@code null} if it is free.
+     */
+    V get(String placementId) {
+        if (placementId == null) {
+            return null;
+        }
+        purgeClearedEntries();
+        Entry<V> entry = mEntries.get(placementId);
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * @return {@code true} if a live holder holds {@code placementId}.
+     */
+    boolean isClaimed(String placementId) {
+        return get(placementId) != null;
+    }
+
+    /**
+     * Frees {@code placementId} if it is held by {@code holder}, leaving it untouched if another
+     * holder claimed it in the meantime. The placement is handed over to the next waiter, if any.
+     *
+     * @return {@code true} if the placement was freed.
+     */
+    boolean release(String placementId, V holder) {
+        if (placementId == null) {
+            return false;
+        }
+        purgeClearedEntries();
+        Entry<V> entry = mEntries.get(placementId);
+        if (entry == null || entry.get() != holder || !mEntries.remove(placementId, entry)) {
+            return false;
+        }
+        serveNextWaiter(placementId);
+        return true;
+    }
+
+    /**
+     * Frees {@code placementId} regardless of its holder. The placement is handed over to the
+     * next waiter, if any.
+     *
+     * @return the holder that held the placement, or {@code null} if it was free.
+     */
+    V remove(String placementId) {
+        if (placementId == null) {
+            return null;
+        }
+        purgeClearedEntries();
+        Entry<V> entry = mEntries.remove(placementId);
+        serveNextWaiter(placementId);
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * @return a snapshot of the live holders of all placements.
+     */
+    List<V> getHolders() {
+        purgeClearedEntries();
+        List<V> holders = new ArrayList<>(mEntries.size());
+        for (Entry<V> entry : mEntries.values()) {
+            V holder = entry.get();
+            if (holder != null) {
+                holders.add(holder);
+            }
+        }
+        return holders;
+    }
+
+    private void purgeClearedEntries() {
+        Reference<? extends V> reference;
+        while ((reference = mClearedEntries.poll()) != null) {
+            Entry<?> entry = (Entry<?>) reference;
+            // Only removes the entry if it was not replaced since.
+            if (mEntries.remove(entry.mPlacementId, entry)) {
+                serveNextWaiter(entry.mPlacementId);
+            }
+        }
+    }
+
+    /**
+     * Hands {@code placementId} over to its first waiter if the placement is free.
+     */
+    private void serveNextWaiter(String placementId) {
+        final Waiter waiter;
+        synchronized (mWaiters) {
+            ArrayDeque<Waiter> waiters = mWaiters.get(placementId);
+            if (waiters == null || waiters.isEmpty()
+                    || !claimEntry(placementId, waiters.peek().mHolder)) {
+                return;
+            }
+            waiter = waiters.poll();
+            if (waiters.isEmpty()) {
+                mWaiters.remove(placementId);
+            }
+            mServedWaiters.add(waiter);
+        }
+        mHandler.removeCallbacks(waiter);
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mWaiters) {
+                    if (!mServedWaiters.remove(waiter)) {
+                        // Cancelled in the meantime.
+                        return;
+                    }
+                }
+                waiter.mCallback.onClaimed();
+            }
+        });
+    }
+
+    /**
+     * A request waiting for a placement. Runs when its deadline passes.
+     */
+    private final class Waiter implements Runnable {
+        final String mPlacementId;
+        final V mHolder;
+        final ClaimCallback mCallback;
+
+        Waiter(String placementId, V holder, ClaimCallback callback) {
+            mPlacementId = placementId;
+            mHolder = holder;
+            mCallback = callback;
+        }
+
+        @Override
+        public void run() {
+            // The holder may have been collected without anyone accessing the registry since.
+            purgeClearedEntries();
+            synchronized (mWaiters) {
+                ArrayDeque<Waiter> waiters = mWaiters.get(mPlacementId);
+                if (waiters == null || !waiters.remove(this)) {
+                    // Served in the meantime.
+                    return;
+                }
+                if (waiters.isEmpty()) {
+                    mWaiters.remove(mPlacementId);
+                }
+            }
+            mCallback.onClaimFailed("Timed out waiting for placement: " + mPlacementId);
+        }
+    }
+
+    private static final class Entry<V> extends WeakReference<V> {
+        final String mPlacementId;
+
+        Entry(String placementId, V holder, ReferenceQueue<? super V> queue) {
+            super(holder, queue);
+            mPlacementId = placementId;
+        }
+    }
+}
@@ -33,14 +33,15 @@ public class DuAdAdapter implements MediationBannerAdapter, MediationInterstitia
     static final String KEY_BANNER_CLOSE_STYLE = "BANNER_CLOSE_STYLE";
 
     private BannerAdView mBannerAdView;
+    private DuAdMediation.ConfigurationListener mConfigurationListener;
 
     @Override
-    public void requestBannerAd(Context context,
+    public void requestBannerAd(final Context context,
                                 final MediationBannerListener listener,
                                 Bundle serverParameters,
                                 AdSize adSize,
                                 MediationAdRequest mediationAdRequest,
-                                Bundle mediationExtras) {
+                                final Bundle mediationExtras) {
 
         if (!DuAdMediation.checkClassExist("com.duapps.ad.banner.BannerAdView")) {
             String message = "The version of the DU Ad SDK included in this app does not "
@@ -56,29 +57,36 @@ public class DuAdAdapter implements MediationBannerAdapter, MediationInterstitia
             return;
         }
 
-        int pid = DuAdMediation.getValidPid(serverParameters);
+        final int pid = DuAdMediation.getValidPid(serverParameters);
         String appId = serverParameters.getString(DuAdMediation.KEY_APP_ID);
         if (pid < 0) {
             listener.onAdFailedToLoad(this, AdRequest.ERROR_CODE_INVALID_REQUEST);
             return;
         }
 
-        DuAdMediation.configureSDKForNonVideo(context, mediationExtras, appId, pid);
-        DuAdMediation.debugLog(TAG, "Requesting Banner Ad with Placement ID " + pid);
-        mBannerAdView = new BannerAdView(context, pid, 5,
-                new DapCustomBannerEventForwarder(DuAdAdapter.this, listener));
-        DuAdExtrasBundleBuilder.BannerStyle bannerStyle = null;
-        DuAdExtrasBundleBuilder.BannerCloseStyle bannerCloseStyle = null;
-        if (mediationExtras != null) {
-            bannerStyle = (DuAdExtrasBundleBuilder.BannerStyle) mediationExtras
-                    .getSerializable(KEY_BANNER_STYLE);
-            bannerCloseStyle = (DuAdExtrasBundleBuilder.BannerCloseStyle) mediationExtras
-                    .getSerializable(KEY_BANNER_CLOSE_STYLE);
-        }
-
-        mBannerAdView.setBgStyle(getStyle(bannerStyle));
-        mBannerAdView.setCloseStyle(getCloseStyle(bannerCloseStyle));
-        mBannerAdView.load();
+        mConfigurationListener = new DuAdMediation.ConfigurationListener() {
+            @Override
+            public void onConfigured() {
+                mConfigurationListener = null;
+                DuAdMediation.debugLog(TAG, "Requesting Banner Ad with Placement ID " + pid);
+                mBannerAdView = new BannerAdView(context, pid, 5,
+                        new DapCustomBannerEventForwarder(DuAdAdapter.this, listener));
+                DuAdExtrasBundleBuilder.BannerStyle bannerStyle = null;
+                DuAdExtrasBundleBuilder.BannerCloseStyle bannerCloseStyle = null;
+                if (mediationExtras != null) {
+                    bannerStyle = (DuAdExtrasBundleBuilder.BannerStyle) mediationExtras
+                            .getSerializable(KEY_BANNER_STYLE);
+                    bannerCloseStyle = (DuAdExtrasBundleBuilder.BannerCloseStyle) mediationExtras
+                            .getSerializable(KEY_BANNER_CLOSE_STYLE);
+                }
+
+                mBannerAdView.setBgStyle(getStyle(bannerStyle));
+                mBannerAdView.setCloseStyle(getCloseStyle(bannerCloseStyle));
+                mBannerAdView.load();
+            }
+        };
+        DuAdMediation.configureSDKForNonVideo(
+                context, mediationExtras, appId, pid, mConfigurationListener);
     }
 
     @Override
@@ -112,11 +120,11 @@ public class DuAdAdapter implements MediationBannerAdapter, MediationInterstitia
     private InterstitialAd mInterstitial;
 
     @Override
-    public void requestInterstitialAd(Context context,
-                                      MediationInterstitialListener listener,
+    public void requestInterstitialAd(final Context context,
+                                      final MediationInterstitialListener listener,
                                       Bundle serverParameters,
                                       MediationAdRequest mediationAdRequest,
-                                      Bundle mediationExtras) {
+                                      final Bundle mediationExtras) {
 
         if (!DuAdMediation.checkClassExist("com.duapps.ad.InterstitialAd")) {
             String message = "The version of the DU Ad SDK included in this app does not "
@@ -132,26 +140,32 @@ public class DuAdAdapter implements MediationBannerAdapter, MediationInterstitia
             return;
         }
 
-        int pid = DuAdMediation.getValidPid(serverParameters);
+        final int pid = DuAdMediation.getValidPid(serverParameters);
         String appId = serverParameters.getString(DuAdMediation.KEY_APP_ID);
         if (pid < 0) {
             listener.onAdFailedToLoad(this, AdRequest.ERROR_CODE_INVALID_REQUEST);
             return;
         }
 
-        DuAdMediation.configureSDKForNonVideo(context, mediationExtras, appId, pid);
-        DuAdMediation.debugLog(TAG, "Requesting Interstitial Ad with Placement ID " + pid);
-        DuAdExtrasBundleBuilder.InterstitialAdType type = null;
-        if (mediationExtras != null) {
-            type = (DuAdExtrasBundleBuilder.InterstitialAdType) mediationExtras
-                    .getSerializable(KEY_INTERSTITIAL_TYPE);
-        }
-
-        mInterstitial = new InterstitialAd(context, pid, getType(type));
-        mInterstitial.setInterstitialListener(
-                new DapCustomInterstitialEventForwarder(DuAdAdapter.this, listener));
-        mInterstitial.load();
-
+        mConfigurationListener = new DuAdMediation.ConfigurationListener() {
+            @Override
+            public void onConfigured() {
+                mConfigurationListener = null;
+                DuAdMediation.debugLog(TAG, "Requesting Interstitial Ad with Placement ID " + pid);
+                DuAdExtrasBundleBuilder.InterstitialAdType type = null;
+                if (mediationExtras != null) {
+                    type = (DuAdExtrasBundleBuilder.InterstitialAdType) mediationExtras
+                            .getSerializable(KEY_INTERSTITIAL_TYPE);
+                }
+
+                mInterstitial = new InterstitialAd(context, pid, getType(type));
+                mInterstitial.setInterstitialListener(
+                        new DapCustomInterstitialEventForwarder(DuAdAdapter.this, listener));
+                mInterstitial.load();
+            }
+        };
+        DuAdMediation.configureSDKForNonVideo(
+                context, mediationExtras, appId, pid, mConfigurationListener);
     }
 
     private InterstitialAd.Type getType(DuAdExtrasBundleBuilder.InterstitialAdType type) {
@@ -178,6 +192,10 @@ public class DuAdAdapter implements MediationBannerAdapter, MediationInterstitia
     public void onDestroy() {
         DuAdMediation.debugLog(TAG, "onDestroy");
         DuAdMediation.removeAllCallbacks();
+        if (mConfigurationListener != null) {
+            DuAdMediation.cancelConfiguration(mConfigurationListener);
+            mConfigurationListener = null;
+        }
         mBannerAdView = null;
         mInterstitial = null;
     }
@@ -35,14 +35,6 @@ import androidx.annotation.Nullable;
 import android.text.TextUtils;
 import android.util.Log;
 
-import com.duapps.ad.base.DuAdNetwork;
-import com.duapps.ad.video.DuVideoAdSDK;
-
-import org.json.JSONException;
-import org.json.JSONStringer;
-
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
@@ -73,10 +65,7 @@ public class DuAdMediation {
     public static final String KEY_ALL_PLACEMENT_ID = "ALL_PID";
     public static final String KEY_ALL_VIDEO_PLACEMENT_ID = "ALL_V_PID";
 
-    private static String sdkAppID = "";
-
-    private static HashSet<Integer> initializedNonVideoPlacements = new HashSet<>();
-    private static HashSet<Integer> initializedVideoPlacements = new HashSet<>();
+    private static volatile String sdkAppID = "";
     private static Handler handler;
 
     public static void runOnUIThread(Runnable runnable) {
@@ -100,100 +89,92 @@ public class DuAdMediation {
         }
     }
 
+    /**
+     * Listener notified once the DU Ad and DU Video SDKs are configured with a placement.
+     */
+    public interface ConfigurationListener {
+        void onConfigured();
+    }
+
+    /**
+     * Configures the SDKs with a native, banner or interstitial placement and notifies
+     * {@code listener} once they are. Unknown placements are batched, see
+     * {@link DuAdPlacementRegistry}.
+     */
     public static void configureSDKForNonVideo(Context context,
                                                Bundle mediationExtras,
                                                String appID,
-                                               int placementID) {
-        if (TextUtils.isEmpty(sdkAppID)) {
-            sdkAppID = appID;
-        } else if (!sdkAppID.equals(appID)){
-            debugLog(TAG, "Already configured with App ID: '" + sdkAppID + "'. "
-                    + "Ignoring attempt to configure using App ID: " + appID);
+                                               int placementID,
+                                               ConfigurationListener listener) {
+        if (!acceptAppID(appID)) {
+            listener.onConfigured();
             return;
         }
 
+        DuAdPlacementRegistry registry = DuAdPlacementRegistry.getInstance();
         if (mediationExtras != null) {
-            ArrayList<Integer> nativePlacements =
-                    mediationExtras.getIntegerArrayList(KEY_ALL_PLACEMENT_ID);
-            if (nativePlacements != null) {
-                initializedNonVideoPlacements.addAll(nativePlacements);
-            }
-        }
-
-        if (!initializedNonVideoPlacements.contains(placementID)) {
-            initializedNonVideoPlacements.add(placementID);
-            context = context.getApplicationContext();
-
-            String initJsonConfig = buildJsonFromPlacements(
-                    initializedNonVideoPlacements, initializedVideoPlacements);
-            debugLog(TAG, "Configuring with placements: " + initJsonConfig);
-            context = setAppIdInMeta(context, sdkAppID);
-            DuAdNetwork.init(context, initJsonConfig);
-            DuVideoAdSDK.init(context, initJsonConfig);
+            registry.addPlacements(
+                    mediationExtras.getIntegerArrayList(KEY_ALL_PLACEMENT_ID), false);
         }
+        registry.register(context, sdkAppID, placementID, false, listener);
     }
 
+    /**
+     * Configures the SDKs with a rewarded video placement and notifies {@code listener} once they
+     * are. Unknown placements are batched, see {@link DuAdPlacementRegistry}.
+     */
     public static void configureSDKForVideo(Context context,
                                             Bundle mediationExtras,
                                             String appID,
-                                            int placementID) {
-        if (TextUtils.isEmpty(sdkAppID)) {
-            sdkAppID = appID;
-        } else if (!sdkAppID.equals(appID)){
-            debugLog(TAG, "Already configured with App ID: '" + sdkAppID + "'. "
-                    + "Ignoring attempt to configure using App ID: " + appID);
+                                            int placementID,
+                                            ConfigurationListener listener) {
+        if (!acceptAppID(appID)) {
+            listener.onConfigured();
             return;
         }
 
+        DuAdPlacementRegistry registry = DuAdPlacementRegistry.getInstance();
         if (mediationExtras != null) {
-            ArrayList<Integer> videoPlacements =
-                    mediationExtras.getIntegerArrayList(KEY_ALL_VIDEO_PLACEMENT_ID);
-            if (videoPlacements != null) {
-                initializedVideoPlacements.addAll(videoPlacements);
-            }
+            registry.addPlacements(
+                    mediationExtras.getIntegerArrayList(KEY_ALL_VIDEO_PLACEMENT_ID), true);
         }
+        registry.register(context, sdkAppID, placementID, true, listener);
+    }
 
-        if (!initializedVideoPlacements.contains(placementID)) {
-            initializedVideoPlacements.add(placementID);
-            context = context.getApplicationContext();
-
-            String initJsonConfig = buildJsonFromPlacements(
-                    initializedNonVideoPlacements, initializedVideoPlacements);
-            debugLog(TAG, "Configuring with placements: " + initJsonConfig);
-            context = setAppIdInMeta(context, appID);
-            DuAdNetwork.init(context, initJsonConfig);
-            DuVideoAdSDK.init(context, initJsonConfig);
-        }
+    /**
+     * Stops {@code listener} from being notified, if the SDKs are still being configured for it.
+     */
+    public static void cancelConfiguration(ConfigurationListener listener) {
+        DuAdPlacementRegistry.getInstance().unregister(listener);
     }
 
     public static void initializeSDK(Context context,
                                      String appID,
                                      HashSet<Integer> nativePlacementIDs,
                                      HashSet<Integer> videoPlacementIDs) {
-        if (TextUtils.isEmpty(sdkAppID)) {
-            sdkAppID = appID;
-        } else if (!sdkAppID.equals(appID)){
-            debugLog(TAG, "Already configured with App ID: '" + sdkAppID + "'. "
-                    + "Ignoring attempt to configure using App ID: " + appID);
+        if (!acceptAppID(appID)) {
             return;
         }
 
-        if (!(initializedNonVideoPlacements.containsAll(nativePlacementIDs)
-                && initializedVideoPlacements.containsAll(videoPlacementIDs))) {
-            initializedNonVideoPlacements.addAll(nativePlacementIDs);
-            initializedVideoPlacements.addAll(videoPlacementIDs);
-            context = context.getApplicationContext();
+        DuAdPlacementRegistry.getInstance()
+                .initialize(context, sdkAppID, nativePlacementIDs, videoPlacementIDs);
+    }
 
-            String initJsonConfig = buildJsonFromPlacements(
-                    initializedNonVideoPlacements, initializedVideoPlacements);
-            debugLog(TAG, "Configuring with placements: " + initJsonConfig);
-            context = setAppIdInMeta(context, sdkAppID);
-            DuAdNetwork.init(context, initJsonConfig);
-            DuVideoAdSDK.init(context, initJsonConfig);
+    /**
+     * @return {@code false} if the SDKs are already configured with a different App ID.
+     */
+    private static synchronized boolean acceptAppID(String appID) {
+        if (TextUtils.isEmpty(sdkAppID)) {
+            sdkAppID = appID;
+        } else if (!sdkAppID.equals(appID)) {
+            debugLog(TAG, "Already configured with App ID: '" + sdkAppID + "'. "
+                    + "Ignoring attempt to configure using App ID: " + appID);
+            return false;
         }
+        return true;
     }
 
-    private static Context setAppIdInMeta(Context context, String appId) {
+    static Context setAppIdInMeta(Context context, String appId) {
         boolean appIdNotFound = true;
 
         try {
@@ -223,35 +204,6 @@ public class DuAdMediation {
         return context;
     }
 
-    private static String buildJsonFromPlacements(@NonNull Collection<Integer> nativePlacements,
-                                                  @NonNull Collection<Integer> videoPlacements) {
-        try {
-            JSONStringer array = new JSONStringer().object();
-
-            if (nativePlacements.size() > 0) {
-                array.key("native").array();
-                for (Integer pid : nativePlacements) {
-                    array.object().key("pid").value(pid).endObject();
-                }
-                array.endArray();
-            }
-
-            if (videoPlacements.size() > 0) {
-                array.key("video").array();
-                for (Integer pid : videoPlacements) {
-                    array.object().key("pid").value(pid).endObject();
-                }
-                array.endArray();
-            }
-
-            array.endObject();
-            return array.toString();
-        } catch (JSONException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
     public static boolean checkClassExist(String className) {
         try {
             Class.forName(className);
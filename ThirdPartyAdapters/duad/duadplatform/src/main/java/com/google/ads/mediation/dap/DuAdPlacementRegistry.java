@@ -0,0 +1,222 @@
+package com.google.ads.mediation.dap;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.Nullable;
+
+import com.duapps.ad.base.DuAdNetwork;
+import com.duapps.ad.video.DuVideoAdSDK;
+
+import org.json.JSONException;
+import org.json.JSONStringer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps track of the placements the DU Ad and DU Video SDKs are configured with.
+ *
+ * <p>The SDKs can only learn about new placements by being initialized again with all placements.
+ * Placements the SDKs do not know yet are therefore collected for {@link #BATCH_WINDOW_MILLIS} and
+ * the SDKs are initialized once for all of them. Requests for known placements never cause the SDKs
+ * to be initialized again.
+ *
+ * <p>Thread-safe.
+ */
+final class DuAdPlacementRegistry {
+
+    private static final String TAG = DuAdPlacementRegistry.class.getSimpleName();
+
+    /**
+     * How long to wait for more unknown placements before initializing the SDKs.
+     */
+    private static final long BATCH_WINDOW_MILLIS = 50;
+
+    private static final DuAdPlacementRegistry sInstance = new DuAdPlacementRegistry();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Placements the SDKs are initialized with.
+     */
+    private final IntSet mNativePlacements = new IntSet();
+    private final IntSet mVideoPlacements = new IntSet();
+
+    /**
+     * Placements to add the next time the SDKs are initialized.
+     */
+    private final IntSet mPendingNativePlacements = new IntSet();
+    private final IntSet mPendingVideoPlacements = new IntSet();
+
+    /**
+     * Listeners waiting for the next initialization.
+     */
+    private final List<DuAdMediation.ConfigurationListener> mListeners = new ArrayList<>();
+
+    /**
+     * The configuration the SDKs were last initialized with.
+     */
+    private String mConfigJson;
+
+    private Context mContext;
+    private String mAppId;
+    private boolean mIsInitializationScheduled;
+
+    private final Runnable mInitializeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            initializePendingPlacements();
+        }
+    };
+
+    private DuAdPlacementRegistry() {
+    }
+
+    static DuAdPlacementRegistry getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Adds placements to initialize the SDKs with the next time they are initialized, without
+     * scheduling an initialization.
+     */
+    synchronized void addPlacements(@Nullable Collection<Integer> placementIds, boolean isVideo) {
+        if (placementIds == null) {
+            return;
+        }
+        for (Integer placementId : placementIds) {
+            if (placementId != null) {
+                addPendingPlacement(placementId, isVideo);
+            }
+        }
+    }
+
+    /**
+     * Notifies {@code listener} once the SDKs are initialized with {@code placementId}. If they
+     * already are, {@code listener} is notified right away on the calling thread. Otherwise the
+     * placement is batched with other unknown placements and {@code listener} is notified on the
+     * main thread.
+     */
+    void register(Context context,
+                  String appId,
+                  int placementId,
+                  boolean isVideo,
+                  DuAdMediation.ConfigurationListener listener) {
+        synchronized (this) {
+            if (addPendingPlacement(placementId, isVideo)) {
+                mContext = context.getApplicationContext();
+                mAppId = appId;
+                mListeners.add(listener);
+                if (!mIsInitializationScheduled) {
+                    mIsInitializationScheduled = true;
+                    mHandler.postDelayed(mInitializeRunnable, BATCH_WINDOW_MILLIS);
+                }
+                return;
+            }
+        }
+        listener.onConfigured();
+    }
+
+    /**
+     * Initializes the SDKs right away if any of the given placements, or any batched placement, is
+     * unknown to them.
+     */
+    void initialize(Context context,
+                    String appId,
+                    Collection<Integer> nativePlacementIds,
+                    Collection<Integer> videoPlacementIds) {
+        synchronized (this) {
+            addPlacements(nativePlacementIds, false);
+            addPlacements(videoPlacementIds, true);
+            mContext = context.getApplicationContext();
+            mAppId = appId;
+        }
+        initializePendingPlacements();
+    }
+
+    /**
+     * Stops {@code listener} from being notified, if it is still waiting.
+     */
+    synchronized void unregister(DuAdMediation.ConfigurationListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * @return {@code true} if the SDKs are not initialized with {@code placementId} yet.
+     */
+    private boolean addPendingPlacement(int placementId, boolean isVideo) {
+        if (isVideo) {
+            if (mVideoPlacements.contains(placementId)) {
+                return false;
+            }
+            mPendingVideoPlacements.add(placementId);
+            return true;
+        }
+        if (mNativePlacements.contains(placementId)) {
+            return false;
+        }
+        mPendingNativePlacements.add(placementId);
+        return true;
+    }
+
+    private void initializePendingPlacements() {
+        List<DuAdMediation.ConfigurationListener> listeners;
+        synchronized (this) {
+            mHandler.removeCallbacks(mInitializeRunnable);
+            mIsInitializationScheduled = false;
+
+            boolean changed = mNativePlacements.addAll(mPendingNativePlacements);
+            changed |= mVideoPlacements.addAll(mPendingVideoPlacements);
+            mPendingNativePlacements.clear();
+            mPendingVideoPlacements.clear();
+
+            if (changed) {
+                mConfigJson = buildJsonFromPlacements(mNativePlacements, mVideoPlacements);
+                DuAdMediation.debugLog(TAG, "Configuring with placements: " + mConfigJson);
+                // Initialized while holding the lock, so that no request for a newly added
+                // placement goes ahead before the SDKs know about it.
+                Context context = DuAdMediation.setAppIdInMeta(mContext, mAppId);
+                DuAdNetwork.init(context, mConfigJson);
+                DuVideoAdSDK.init(context, mConfigJson);
+            }
+
+            listeners = new ArrayList<>(mListeners);
+            mListeners.clear();
+        }
+
+        for (DuAdMediation.ConfigurationListener listener : listeners) {
+            listener.onConfigured();
+        }
+    }
+
+    private static String buildJsonFromPlacements(IntSet nativePlacements,
+                                                  IntSet videoPlacements) {
+        try {
+            JSONStringer array = new JSONStringer().object();
+
+            if (nativePlacements.size() > 0) {
+                array.key("native").array();
+                for (int i = 0; i < nativePlacements.size(); i++) {
+                    array.object().key("pid").value(nativePlacements.get(i)).endObject();
+                }
+                array.endArray();
+            }
+
+            if (videoPlacements.size() > 0) {
+                array.key("video").array();
+                for (int i = 0; i < videoPlacements.size(); i++) {
+                    array.object().key("pid").value(videoPlacements.get(i)).endObject();
+                }
+                array.endArray();
+            }
+
+            array.endObject();
+            return array.toString();
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
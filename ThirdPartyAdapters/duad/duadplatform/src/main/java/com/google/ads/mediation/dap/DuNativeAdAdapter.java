@@ -21,13 +21,15 @@ public class DuNativeAdAdapter implements MediationNativeAdapter {
     private static final String TAG = DuNativeAdAdapter.class.getSimpleName();
     public static final String KEY_SOURCE = "source";
     private DuNativeAd nativeAd;
+    private DapCustomNativeEventForwarder nativeAdForwarder;
+    private DuAdMediation.ConfigurationListener configurationListener;
 
     // region MediationNativeAdapter implementation
     @Override
-    public void requestNativeAd(Context context,
-                                MediationNativeListener listener,
+    public void requestNativeAd(final Context context,
+                                final MediationNativeListener listener,
                                 Bundle serverParameters,
-                                NativeMediationAdRequest mediationAdRequest,
+                                final NativeMediationAdRequest mediationAdRequest,
                                 Bundle mediationExtras) {
         if (context == null) {
             listener.onAdFailedToLoad(this, AdRequest.ERROR_CODE_INVALID_REQUEST);
@@ -42,27 +44,43 @@ public class DuNativeAdAdapter implements MediationNativeAdapter {
             return;
         }
 
-        int pid = getValidPid(serverParameters);
+        final int pid = getValidPid(serverParameters);
         String appId = serverParameters.getString(DuAdMediation.KEY_APP_ID);
         if (pid < 0) {
             listener.onAdFailedToLoad(this, AdRequest.ERROR_CODE_INVALID_REQUEST);
             return;
         }
 
-        DuAdMediation.configureSDKForNonVideo(context, mediationExtras, appId, pid);
-        nativeAd = new DuNativeAd(context, pid);
-        nativeAd.setMobulaAdListener(new DapCustomNativeEventForwarder(
-                context,DuNativeAdAdapter.this, listener, mediationAdRequest));
-        nativeAd.load();
+        configurationListener = new DuAdMediation.ConfigurationListener() {
+            @Override
+            public void onConfigured() {
+                configurationListener = null;
+                nativeAd = new DuNativeAd(context, pid);
+                nativeAdForwarder = new DapCustomNativeEventForwarder(
+                        context, DuNativeAdAdapter.this, listener, mediationAdRequest);
+                nativeAd.setMobulaAdListener(nativeAdForwarder);
+                nativeAd.load();
+            }
+        };
+        DuAdMediation.configureSDKForNonVideo(
+                context, mediationExtras, appId, pid, configurationListener);
     }
 
     @Override
     public void onDestroy() {
         DuAdMediation.debugLog(TAG, "DuNativeAdAdapter onDestroy");
+        if (configurationListener != null) {
+            DuAdMediation.cancelConfiguration(configurationListener);
+            configurationListener = null;
+        }
         if (nativeAd != null) {
             nativeAd.destory();
             nativeAd = null;
         }
+        if (nativeAdForwarder != null) {
+            nativeAdForwarder.destroy();
+            nativeAdForwarder = null;
+        }
     }
 
     @Override
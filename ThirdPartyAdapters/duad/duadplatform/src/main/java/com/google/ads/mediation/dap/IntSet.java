@@ -0,0 +1,111 @@
+package com.google.ads.mediation.dap;
+
+import java.util.Arrays;
+
+/**
+ * A set of {@code int}s that does not box its values. Values are kept in insertion order and can
+ * be iterated with {@link #size()} and {@link #get(int)}.
+ *
+ * <p>Not thread-safe.
+ */
+final class IntSet {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The values, in insertion order.
+     */
+    private int[] mValues = new int[INITIAL_CAPACITY];
+    private int mSize;
+
+    /**
+     * Open-addressed hash table holding the index into {@link #mValues} plus one, or 0 for an empty
+     * slot. Always twice as long as {@link #mValues}, so that it is at most half full.
+     */
+    private int[] mTable = new int[INITIAL_CAPACITY * 2];
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @return the value added {@code index}th.
+     */
+    int get(int index) {
+        if (index >= mSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mSize);
+        }
+        return mValues[index];
+    }
+
+    boolean contains(int value) {
+        return mTable[slotOf(value)] != 0;
+    }
+
+    /**
+     * @return {@code true} if the set did not already contain {@code value}.
+     */
+    boolean add(int value) {
+        int slot = slotOf(value);
+        if (mTable[slot] != 0) {
+            return false;
+        }
+        if (mSize == mValues.length) {
+            grow();
+            slot = slotOf(value);
+        }
+        mValues[mSize++] = value;
+        mTable[slot] = mSize;
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the set changed.
+     */
+    boolean addAll(IntSet other) {
+        boolean changed = false;
+        for (int i = 0; i < other.mSize; i++) {
+            changed |= add(other.mValues[i]);
+        }
+        return changed;
+    }
+
+    void clear() {
+        Arrays.fill(mTable, 0);
+        mSize = 0;
+    }
+
+    /**
+     * @return the slot holding {@code value}, or the empty slot where it would be added.
+     */
+    private int slotOf(int value) {
+        int mask = mTable.length - 1;
+        int slot = hash(value) & mask;
+        while (true) {
+            int entry = mTable[slot];
+            if (entry == 0 || mValues[entry - 1] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        mValues = Arrays.copyOf(mValues, mValues.length * 2);
+        mTable = new int[mValues.length * 2];
+        int mask = mTable.length - 1;
+        for (int i = 0; i < mSize; i++) {
+            int slot = hash(mValues[i]) & mask;
+            while (mTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            mTable[slot] = i + 1;
+        }
+    }
+
+    private static int hash(int value) {
+        // Placement IDs are often sequential. Spread them over the table.
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
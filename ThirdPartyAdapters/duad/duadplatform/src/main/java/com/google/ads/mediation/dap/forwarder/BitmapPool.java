@@ -0,0 +1,217 @@
+package com.google.ads.mediation.dap.forwarder;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of decoded native ad bitmaps that are no longer displayed, reused through
+ * {@link android.graphics.BitmapFactory.Options#inBitmap} to avoid allocating a new bitmap for
+ * every decode.
+ *
+ * <p>Bitmaps may be shared between ads, so each holder calls {@link #retain} when it starts using
+ * a bitmap and {@link #release} when it is done. A bitmap enters the pool only once its last
+ * holder has released it. Pooled bitmaps are bucketed by allocation size and the pool is bounded
+ * by a byte budget, evicting the oldest bitmaps first.
+ *
+ * <p>Reusing a bitmap for a differently sized image requires API level 19, so the pool holds
+ * nothing on older devices.
+ */
+final class BitmapPool {
+
+    /**
+     * A pooled bitmap is only reused for an image needing more than 1 / MAX_SIZE_MULTIPLE of its
+     * bytes.
+     */
+    private static final int MAX_SIZE_MULTIPLE = 2;
+
+    private static BitmapPool sInstance;
+
+    // Weak keys so that bitmaps whose holders never release them can still be collected. Bitmap
+    // does not override equals(), so keys are compared by identity.
+    private final WeakHashMap<Bitmap, Integer> mRefCounts = new WeakHashMap<>();
+    private final TreeMap<Integer, ArrayDeque<Bitmap>> mBuckets = new TreeMap<>();
+    // Oldest first, with constant time removal of bitmaps taken out of their bucket.
+    private final LinkedHashSet<Bitmap> mInsertionOrder = new LinkedHashSet<>();
+    private long mMaxSize;
+    private long mSize;
+    private int mHitCount;
+    private int mMissCount;
+
+    static synchronized BitmapPool getInstance() {
+        if (sInstance == null) {
+            // Use 1/16th of available heap size.
+            sInstance = new BitmapPool(Runtime.getRuntime().maxMemory() / 16);
+        }
+        return sInstance;
+    }
+
+    BitmapPool(long maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * Sets the byte budget of the pool, evicting pooled bitmaps if needed.
+     */
+    synchronized void setMaxSize(long maxSize) {
+        mMaxSize = maxSize;
+        trimToSize(mMaxSize);
+    }
+
+    /**
+     * Records a new holder of {@code bitmap}.
+     */
+    synchronized void retain(Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+        Integer count = mRefCounts.get(bitmap);
+        mRefCounts.put(bitmap, count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Retains the bitmap behind {@code drawable}, if it has one.
+     */
+    void retain(Drawable drawable) {
+        if (drawable instanceof BitmapDrawable) {
+            retain(((BitmapDrawable) drawable).getBitmap());
+        }
+    }
+
+    /**
+     * Records that a holder of {@code bitmap} no longer uses it. When no holders are left, the
+     * bitmap is added to the pool.
+     */
+    synchronized void release(Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+        Integer count = mRefCounts.get(bitmap);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            mRefCounts.put(bitmap, count - 1);
+            return;
+        }
+        mRefCounts.remove(bitmap);
+        put(bitmap);
+    }
+
+    /**
+     * Releases the bitmap behind {@code drawable}, if it has one.
+     */
+    void release(Drawable drawable) {
+        if (drawable instanceof BitmapDrawable) {
+            release(((BitmapDrawable) drawable).getBitmap());
+        }
+    }
+
+    /**
+     * Removes and returns a pooled bitmap that can hold {@code byteCount} bytes, or returns
+     * {@code null} if there is none.
+     */
+    synchronized Bitmap get(int byteCount) {
+        Map.Entry<Integer, ArrayDeque<Bitmap>> entry = mBuckets.ceilingEntry(byteCount);
+        if (entry == null || entry.getKey() > (long) byteCount * MAX_SIZE_MULTIPLE) {
+            mMissCount++;
+            return null;
+        }
+        Bitmap bitmap = entry.getValue().poll();
+        if (entry.getValue().isEmpty()) {
+            mBuckets.remove(entry.getKey());
+        }
+        mInsertionOrder.remove(bitmap);
+        mSize -= entry.getKey();
+        mHitCount++;
+        return bitmap;
+    }
+
+    /**
+     * Returns a bitmap taken from the pool that a decode did not end up using.
+     */
+    synchronized void putBack(Bitmap bitmap) {
+        put(bitmap);
+    }
+
+    synchronized void clear() {
+        trimToSize(0);
+    }
+
+    synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    synchronized long size() {
+        return mSize;
+    }
+
+    private void put(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT
+                || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        int byteCount = getAllocationByteCount(bitmap);
+        if (byteCount > mMaxSize || !mInsertionOrder.add(bitmap)) {
+            return;
+        }
+        ArrayDeque<Bitmap> bucket = mBuckets.get(byteCount);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            mBuckets.put(byteCount, bucket);
+        }
+        bucket.add(bitmap);
+        mSize += byteCount;
+        trimToSize(mMaxSize);
+    }
+
+    private void trimToSize(long maxSize) {
+        Iterator<Bitmap> iterator = mInsertionOrder.iterator();
+        while (mSize > maxSize && iterator.hasNext()) {
+            Bitmap oldest = iterator.next();
+            iterator.remove();
+            int byteCount = getAllocationByteCount(oldest);
+            ArrayDeque<Bitmap> bucket = mBuckets.get(byteCount);
+            // Buckets are in insertion order too, so this is the head of the bucket.
+            bucket.remove(oldest);
+            if (bucket.isEmpty()) {
+                mBuckets.remove(byteCount);
+            }
+            mSize -= byteCount;
+        }
+    }
+
+    /**
+     * @return the number of bytes needed to decode a {@code width} by {@code height} image into a
+     * bitmap of the given {@code config}, to look up a pooled bitmap before decoding.
+     */
+    static int getByteCount(int width, int height, Bitmap.Config config) {
+        int bytesPerPixel;
+        if (config == Bitmap.Config.ALPHA_8) {
+            bytesPerPixel = 1;
+        } else if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) {
+            bytesPerPixel = 2;
+        } else {
+            bytesPerPixel = 4;
+        }
+        return width * height * bytesPerPixel;
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static int getAllocationByteCount(Bitmap bitmap) {
+        return bitmap.getAllocationByteCount();
+    }
+}
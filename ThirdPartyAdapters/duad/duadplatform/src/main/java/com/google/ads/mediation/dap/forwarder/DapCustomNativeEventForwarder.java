@@ -21,6 +21,7 @@ public class DapCustomNativeEventForwarder implements DuAdListener {
     private final MediationNativeAdapter mAdapter;
     private final NativeMediationAdRequest mMediationAdRequest;
     private final Context mContext;
+    private DuNativeAdMapper mMapper;
 
     public DapCustomNativeEventForwarder(Context context,
                                          MediationNativeAdapter adapter,
@@ -52,6 +53,7 @@ public class DapCustomNativeEventForwarder implements DuAdListener {
         mapper.mapNativeAd(new DuNativeAdMapper.NativeAdMapperListener() {
             @Override
             public void onMappingSuccess() {
+                mMapper = mapper;
                 if (mNativeListener != null) {
                     mNativeListener.onAdLoaded(mAdapter, mapper);
                     DuAdMediation.debugLog(TAG, "onMappingSuccess ");
@@ -78,6 +80,16 @@ public class DapCustomNativeEventForwarder implements DuAdListener {
         }
     }
 
+    /**
+     * Releases the resources of the loaded ad, if any. Called when the adapter is destroyed.
+     */
+    public void destroy() {
+        if (mMapper != null) {
+            mMapper.destroy();
+            mMapper = null;
+        }
+    }
+
     private int getAdMobErrorCode(int duAdErrorCode){
         switch (duAdErrorCode){
             case 2000: // SERVER_ERROR_CODE: Server Error
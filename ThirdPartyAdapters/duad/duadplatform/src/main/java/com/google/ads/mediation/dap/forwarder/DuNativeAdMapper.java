@@ -8,6 +8,7 @@ import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.AsyncTask;
+import android.os.Build;
 import android.os.Bundle;
 import android.util.DisplayMetrics;
 import android.view.View;
@@ -19,13 +20,18 @@ import com.google.ads.mediation.dap.DuNativeAdAdapter;
 import com.google.android.gms.ads.formats.NativeAdOptions;
 import com.google.android.gms.ads.mediation.NativeAppInstallAdMapper;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -38,7 +44,11 @@ public class DuNativeAdMapper extends NativeAppInstallAdMapper {
     private NativeAdMapperListener mNativeAdMapperListener;
 
     private static final int DRAWABLE_FUTURE_TIMEOUT_SECONDS = 10;
+    private static final int DOWNLOAD_BUFFER_SIZE = 16 * 1024;
+    private static final int CONNECTION_TIMEOUT_MILLIS =
+            (int) TimeUnit.SECONDS.toMillis(DRAWABLE_FUTURE_TIMEOUT_SECONDS);
     private DuMediaVIew mDuMediaView;
+    private boolean mIsIconReleased;
 
     public DuNativeAdMapper(Context context, DuNativeAd nativeAd, NativeAdOptions nativeAdOptions) {
         mContext = context;
@@ -85,6 +95,18 @@ public class DuNativeAdMapper extends NativeAppInstallAdMapper {
         mNativeAd.unregisterView();
     }
 
+    /**
+     * Lets the decoded icon be reused for other ads. Called once the ad is destroyed rather than
+     * from {@link #untrackView}, since the ad may be tracked again and its views may still draw
+     * the icon.
+     */
+    void destroy() {
+        if (!mIsIconReleased && getIcon() != null) {
+            BitmapPool.getInstance().release(getIcon().getDrawable());
+            mIsIconReleased = true;
+        }
+    }
+
     public interface NativeAdMapperListener {
         void onMappingSuccess();
         void onMappingFailed();
@@ -100,35 +122,82 @@ public class DuNativeAdMapper extends NativeAppInstallAdMapper {
         @Override
         protected Boolean doInBackground(Object... params) {
             DuNativeAdMapper mapper = (DuNativeAdMapper) params[0];
-            ExecutorService executorService = Executors.newCachedThreadPool();
+            ExecutorService executorService = ImageDecodeExecutor.getInstance();
 
             // Download icon image
             DuNativeMappedImage iconImage = (DuNativeMappedImage) mapper.getIcon();
             Uri uri = iconImage.getUri();
-            Future<Drawable> drawableFuture = getDrawableFuture(uri, executorService);
+            IconLoader iconLoader =
+                    new IconLoader(uri, ImageDiskCache.getInstance(mapper.mContext));
+            Future<Drawable> drawableFuture = null;
             Drawable drawable = null;
             DuAdMediation.debugLog(TAG, "start to download icon image: " + uri);
             try {
+                ImagePipelineMetrics.recordRequest();
+                drawableFuture = executorService.submit(iconLoader);
                 drawable = drawableFuture.get(DRAWABLE_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException exception) {
+            } catch (InterruptedException | ExecutionException | TimeoutException
+                    | RejectedExecutionException exception) {
+                if (exception instanceof TimeoutException) {
+                    ImagePipelineMetrics.recordTimeout();
+                }
+                if (drawableFuture != null) {
+                    // Free up the shared executor for other ads. Interrupting the thread alone
+                    // does not stop a blocked socket read.
+                    drawableFuture.cancel(true);
+                    iconLoader.abort();
+                }
                 return false;
             }
+            // Keep the icon out of the bitmap pool until the ad releases it.
+            BitmapPool.getInstance().retain(drawable);
             iconImage.setDrawable(drawable);
 
             return true;
         }
 
-        private Future<Drawable> getDrawableFuture(final Uri uri, ExecutorService executorService) {
-            return executorService.submit(new Callable<Drawable>() {
-                @Override
-                public Drawable call() throws Exception {
-                    InputStream in = new URL(uri.toString()).openStream();
-                    Bitmap bitmap = BitmapFactory.decodeStream(in);
+        private static Bitmap decodeAndRecord(byte[] data) {
+            long startNanos = System.nanoTime();
+            Bitmap bitmap = decode(data);
+            if (bitmap != null) {
+                ImagePipelineMetrics.recordDecode(
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), bitmap);
+            }
+            return bitmap;
+        }
 
-                    bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
-                    return new BitmapDrawable(Resources.getSystem(), bitmap);
+        private static Bitmap decode(byte[] data) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            // Mutable so that the bitmap can be reused once it is released to the pool.
+            options.inMutable = true;
+            BitmapPool bitmapPool = BitmapPool.getInstance();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+                options.inJustDecodeBounds = true;
+                BitmapFactory.decodeByteArray(data, 0, data.length, options);
+                if (options.outWidth <= 0 || options.outHeight <= 0) {
+                    return null;
                 }
-            });
+                options.inJustDecodeBounds = false;
+                options.inBitmap = bitmapPool.get(BitmapPool.getByteCount(
+                        options.outWidth, options.outHeight, options.inPreferredConfig));
+            }
+
+            Bitmap bitmap;
+            try {
+                bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+            } catch (IllegalArgumentException e) {
+                if (options.inBitmap == null) {
+                    throw e;
+                }
+                // The pooled bitmap could not be reused for this image.
+                bitmapPool.putBack(options.inBitmap);
+                options.inBitmap = null;
+                bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+            }
+            if (bitmap == null && options.inBitmap != null) {
+                bitmapPool.putBack(options.inBitmap);
+            }
+            return bitmap;
         }
 
         @Override
@@ -140,5 +209,91 @@ public class DuNativeAdMapper extends NativeAppInstallAdMapper {
                 mDrawableListener.onMappingFailed();
             }
         }
+
+        /**
+         * Loads the icon from the disk cache or the network, and decodes it. Aborting the loader
+         * closes its connection so that a blocked read returns immediately.
+         */
+        private static class IconLoader implements Callable<Drawable> {
+            private final Uri mUri;
+            private final ImageDiskCache mDiskCache;
+            private volatile HttpURLConnection mConnection;
+            private volatile boolean mIsAborted;
+
+            IconLoader(Uri uri, ImageDiskCache diskCache) {
+                mUri = uri;
+                mDiskCache = diskCache;
+            }
+
+            @Override
+            public Drawable call() throws Exception {
+                String url = mUri.toString();
+                byte[] data = mDiskCache.get(url);
+                Bitmap bitmap = null;
+                if (data != null) {
+                    ImagePipelineMetrics.recordDiskCacheHit();
+                    bitmap = decodeAndRecord(data);
+                } else {
+                    ImagePipelineMetrics.recordDiskCacheMiss();
+                }
+                if (bitmap == null) {
+                    DuAdMediation.debugLog(TAG, "icon image not in disk cache: " + mUri);
+                    data = download(url);
+                    bitmap = decodeAndRecord(data);
+                    if (bitmap == null) {
+                        throw new IOException("Unable to decode icon");
+                    }
+                    mDiskCache.put(url, data);
+                }
+
+                bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
+                return new BitmapDrawable(Resources.getSystem(), bitmap);
+            }
+
+            /**
+             * Called from another thread once the icon is no longer needed.
+             */
+            void abort() {
+                mIsAborted = true;
+                HttpURLConnection connection = mConnection;
+                if (connection != null) {
+                    connection.disconnect();
+                }
+            }
+
+            private byte[] download(String url) throws IOException {
+                long startNanos = System.nanoTime();
+                URLConnection connection = new URL(url).openConnection();
+                connection.setConnectTimeout(CONNECTION_TIMEOUT_MILLIS);
+                connection.setReadTimeout(CONNECTION_TIMEOUT_MILLIS);
+                if (connection instanceof HttpURLConnection) {
+                    mConnection = (HttpURLConnection) connection;
+                }
+                try {
+                    if (mIsAborted) {
+                        throw new InterruptedIOException("Native ad icon download aborted.");
+                    }
+                    InputStream in = connection.getInputStream();
+                    ImagePipelineMetrics.recordTimeToFirstByte(
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    try {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                        }
+                        ImagePipelineMetrics.recordBytesRead(out.size());
+                        return out.toByteArray();
+                    } finally {
+                        in.close();
+                    }
+                } finally {
+                    if (mConnection != null) {
+                        mConnection.disconnect();
+                    }
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.google.ads.mediation.dap.forwarder;
+
+import com.google.ads.mediation.dap.DuAdMediation;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A process-wide, bounded executor used to fetch and decode native ad images.
+ */
+public final class ImageDecodeExecutor {
+
+    private static final String TAG = ImageDecodeExecutor.class.getSimpleName();
+    private static final int POOL_SIZE = 4;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    private static final String THREAD_NAME_PREFIX = "DuAdAdapter-ImageDecode-";
+
+    private static ThreadPoolExecutor sExecutor;
+
+    private ImageDecodeExecutor() {
+    }
+
+    /**
+     * Returns the shared executor, creating it if it has not been created yet or has been shut
+     * down.
+     */
+    public static synchronized ExecutorService getInstance() {
+        if (sExecutor == null || sExecutor.isShutdown()) {
+            sExecutor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(QUEUE_CAPACITY),
+                    new NamedThreadFactory(), new OverflowHandler());
+            // Let idle threads exit so the pool costs nothing when no ads are loading.
+            sExecutor.allowCoreThreadTimeOut(true);
+        }
+        return sExecutor;
+    }
+
+    /**
+     * Removes cancelled tasks from the work queue. Idle threads exit on their own after
+     * {@link #KEEP_ALIVE_SECONDS}.
+     */
+    public static synchronized void trim() {
+        if (sExecutor != null) {
+            sExecutor.purge();
+        }
+    }
+
+    /**
+     * Shuts down the shared executor. Queued tasks are dropped and running tasks are interrupted.
+     * A later call to {@link #getInstance()} creates a new executor.
+     */
+    public static synchronized void shutdown() {
+        if (sExecutor != null) {
+            sExecutor.shutdownNow();
+            sExecutor = null;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger mCount = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + mCount.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+
+    /**
+     * Rejects tasks once the queue is full rather than running them on the submitting thread,
+     * which is usually the serial {@link android.os.AsyncTask} thread shared by the whole app.
+     * Callers treat the rejection as a failed image load.
+     */
+    private static class OverflowHandler implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            DuAdMediation.debugLog(TAG, "Native ad image task rejected.");
+            throw new RejectedExecutionException("Image decode executor is saturated.");
+        }
+    }
+}
@@ -39,23 +39,36 @@ public class DuAdMediationAdapter extends Adapter
             mAdLoadCallback;
     private MediationRewardedAdCallback mRewardedAdCallback;
 
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     /**
      * {@link Adapter} implementation
      */
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 10000
-                + Integer.parseInt(splits[3]) * 100
-                + Integer.parseInt(splits[4]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = DuVideoAdSDK.getVersionName();
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
@@ -156,13 +169,13 @@ public class DuAdMediationAdapter extends Adapter
             mediationAdLoadCallback.onFailure(logMessage);
             return;
         }
-        Activity activity = (Activity) context;
+        final Activity activity = (Activity) context;
 
         DuAdMediation.setDebug(mediationRewardedAdConfiguration.isTestRequest());
         Bundle serverParameters = mediationRewardedAdConfiguration.getServerParameters();
         Bundle networkExtras = mediationRewardedAdConfiguration.getMediationExtras();
 
-        int placementID = DuAdMediation.getValidPid(serverParameters);
+        final int placementID = DuAdMediation.getValidPid(serverParameters);
         if (placementID < 0) {
             String logMessage =
                     "Failed to request ad from DU Ad Platform: Missing or Invalid Placement ID.";
@@ -180,13 +193,17 @@ public class DuAdMediationAdapter extends Adapter
             return;
         }
 
-        DuAdMediation.configureSDKForVideo(context, networkExtras, appID, placementID);
-
         mAdLoadCallback = mediationAdLoadCallback;
-        mRewardedAd = DuVideoAdsManager.getVideoAd(activity, placementID);
-        mRewardedAd.addListener(DuAdMediationAdapter.this);
-        mRewardedAd.load();
-        mIsLoading = true;
+        DuAdMediation.configureSDKForVideo(context, networkExtras, appID, placementID,
+                new DuAdMediation.ConfigurationListener() {
+                    @Override
+                    public void onConfigured() {
+                        mRewardedAd = DuVideoAdsManager.getVideoAd(activity, placementID);
+                        mRewardedAd.addListener(DuAdMediationAdapter.this);
+                        mRewardedAd.load();
+                        mIsLoading = true;
+                    }
+                });
     }
 
     @Override
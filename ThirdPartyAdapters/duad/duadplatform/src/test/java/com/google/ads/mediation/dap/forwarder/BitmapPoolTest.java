@@ -0,0 +1,137 @@
+package com.google.ads.mediation.dap.forwarder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.graphics.Bitmap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests for {@link BitmapPool}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class BitmapPoolTest {
+
+    /**
+     * Size of a 10x10 ARGB_8888 bitmap, in bytes.
+     */
+    private static final int SMALL_SIZE = 10 * 10 * 4;
+
+    private BitmapPool mPool;
+
+    @Before
+    public void setUp() {
+        mPool = new BitmapPool(3 * SMALL_SIZE);
+    }
+
+    @Test
+    public void release_poolsBitmapOnceLastHolderReleases() {
+        Bitmap bitmap = createBitmap(10);
+        mPool.retain(bitmap);
+        mPool.retain(bitmap);
+
+        mPool.release(bitmap);
+        assertEquals(0, mPool.size());
+
+        mPool.release(bitmap);
+        assertEquals(SMALL_SIZE, mPool.size());
+        assertSame(bitmap, mPool.get(SMALL_SIZE));
+        assertEquals(0, mPool.size());
+    }
+
+    @Test
+    public void release_ignoresBitmapsNeverRetained() {
+        mPool.release(createBitmap(10));
+
+        assertEquals(0, mPool.size());
+    }
+
+    @Test
+    public void get_onlyReusesBitmapsUpToTwiceTheNeededSize() {
+        release(createBitmap(10));
+
+        assertNull(mPool.get(SMALL_SIZE / 2 - 1));
+        assertEquals(1, mPool.getMissCount());
+        assertEquals(SMALL_SIZE, mPool.size());
+    }
+
+    @Test
+    public void get_returnsSmallestBitmapThatFits() {
+        Bitmap large = createBitmap(12);
+        Bitmap small = createBitmap(10);
+        release(large);
+        release(small);
+
+        assertSame(small, mPool.get(SMALL_SIZE - 1));
+        assertSame(large, mPool.get(SMALL_SIZE));
+        assertEquals(2, mPool.getHitCount());
+    }
+
+    @Test
+    public void put_evictsOldestBitmapsFirst() {
+        Bitmap first = createBitmap(10);
+        Bitmap second = createBitmap(10);
+        Bitmap third = createBitmap(10);
+        Bitmap fourth = createBitmap(10);
+        release(first);
+        release(second);
+        release(third);
+
+        release(fourth);
+
+        assertEquals(3 * SMALL_SIZE, mPool.size());
+        assertSame(second, mPool.get(SMALL_SIZE));
+        assertSame(third, mPool.get(SMALL_SIZE));
+        assertSame(fourth, mPool.get(SMALL_SIZE));
+        assertNull(mPool.get(SMALL_SIZE));
+    }
+
+    @Test
+    public void get_removesBitmapFromEvictionOrder() {
+        Bitmap first = createBitmap(10);
+        Bitmap second = createBitmap(10);
+        release(first);
+        release(second);
+        assertSame(first, mPool.get(SMALL_SIZE));
+
+        mPool.setMaxSize(SMALL_SIZE);
+        assertEquals(SMALL_SIZE, mPool.size());
+        mPool.clear();
+
+        assertEquals(0, mPool.size());
+        assertNull(mPool.get(SMALL_SIZE));
+    }
+
+    @Test
+    public void putBack_sameBitmapIsPooledOnce() {
+        Bitmap bitmap = createBitmap(10);
+        mPool.putBack(bitmap);
+        mPool.putBack(bitmap);
+
+        assertEquals(SMALL_SIZE, mPool.size());
+    }
+
+    @Test
+    public void getByteCount_dependsOnConfig() {
+        assertEquals(400, BitmapPool.getByteCount(10, 10, Bitmap.Config.ARGB_8888));
+        assertEquals(200, BitmapPool.getByteCount(10, 10, Bitmap.Config.RGB_565));
+        assertEquals(100, BitmapPool.getByteCount(10, 10, Bitmap.Config.ALPHA_8));
+        assertEquals(400, BitmapPool.getByteCount(10, 10, null));
+    }
+
+    private void release(Bitmap bitmap) {
+        mPool.retain(bitmap);
+        mPool.release(bitmap);
+    }
+
+    private static Bitmap createBitmap(int size) {
+        return Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    }
+}
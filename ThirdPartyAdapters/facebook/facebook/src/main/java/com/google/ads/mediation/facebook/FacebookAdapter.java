@@ -64,6 +64,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.google.ads.mediation.facebook.FacebookExtras.LAZY_IMAGE_DRAWABLES;
 import static com.google.ads.mediation.facebook.FacebookExtras.NATIVE_BANNER;
 
 /**
@@ -86,6 +87,11 @@ public final class FacebookAdapter extends FacebookMediationAdapter
     private RelativeLayout mWrappedAdView;
     private InterstitialAd mInterstitialAd;
     private boolean isNativeBanner;
+
+    /**
+     * Whether native ad images are mapped to {@link LazyNativeAdImage}s.
+     */
+    private boolean mUseLazyImageDrawables;
     private AtomicBoolean didInterstitialAdClose = new AtomicBoolean();
 
     /**
@@ -467,6 +473,7 @@ public final class FacebookAdapter extends FacebookMediationAdapter
 
         if (mediationExtras != null) {
             isNativeBanner = mediationExtras.getBoolean(NATIVE_BANNER);
+            mUseLazyImageDrawables = mediationExtras.getBoolean(LAZY_IMAGE_DRAWABLES);
         }
         if (isNativeBanner) {
             mNativeBannerAd = new NativeBannerAd(context, placementID);
@@ -872,7 +879,7 @@ public final class FacebookAdapter extends FacebookMediationAdapter
 
                 setHeadline(mNativeBannerAd.getAdHeadline());
                 setBody(mNativeBannerAd.getAdBodyText());
-                setIcon(new FacebookAdapterNativeAdImage(Uri.parse(mNativeBannerAd.getAdIcon().toString())));
+                setIcon(createNativeAdImage(Uri.parse(mNativeBannerAd.getAdIcon().toString())));
                 setCallToAction(mNativeBannerAd.getAdCallToAction());
                 Bundle extras = new Bundle();
                 extras.putCharSequence(KEY_ID, mNativeBannerAd.getId());
@@ -891,11 +898,11 @@ public final class FacebookAdapter extends FacebookMediationAdapter
                 // action).
                 setHeadline(mNativeAd.getAdHeadline());
                 List<com.google.android.gms.ads.formats.NativeAd.Image> images = new ArrayList<>();
-                images.add(new FacebookAdapterNativeAdImage(
+                images.add(createNativeAdImage(
                         Uri.parse(mNativeAd.getAdCoverImage().toString())));
                 setImages(images);
                 setBody(mNativeAd.getAdBodyText());
-                setIcon(new FacebookAdapterNativeAdImage(Uri.parse(mNativeAd.getAdIcon().toString())));
+                setIcon(createNativeAdImage(Uri.parse(mNativeAd.getAdIcon().toString())));
                 setCallToAction(mNativeAd.getAdCallToAction());
 
                 mMediaView.setListener(new MediaViewListener() {
@@ -1021,6 +1028,7 @@ public final class FacebookAdapter extends FacebookMediationAdapter
                     iconview = (ImageView) clickableAssets.getValue();
                 }
             }
+            LazyNativeAdImage.prefetch(getIcon(), getImages());
             if (isNativeBanner) {
                 mNativeBannerAd.registerViewForInteraction(view, iconview);
             } else {
@@ -1108,7 +1116,7 @@ public final class FacebookAdapter extends FacebookMediationAdapter
 
                 setHeadline(mNativeBannerAd.getAdHeadline());
                 setBody(mNativeBannerAd.getAdBodyText());
-                setIcon(new FacebookAdapterNativeAdImage(Uri.parse(mNativeBannerAd.getAdIcon().toString())));
+                setIcon(createNativeAdImage(Uri.parse(mNativeBannerAd.getAdIcon().toString())));
                 setCallToAction(mNativeBannerAd.getAdCallToAction());
                 setAdvertiser(mNativeBannerAd.getAdvertiserName());
 
@@ -1128,11 +1136,11 @@ public final class FacebookAdapter extends FacebookMediationAdapter
                 // action).
                 setHeadline(mNativeAd.getAdHeadline());
                 List<com.google.android.gms.ads.formats.NativeAd.Image> images = new ArrayList<>();
-                images.add(new FacebookAdapterNativeAdImage(
+                images.add(createNativeAdImage(
                         Uri.parse(mNativeAd.getAdCoverImage().toString())));
                 setImages(images);
                 setBody(mNativeAd.getAdBodyText());
-                setIcon(new FacebookAdapterNativeAdImage(Uri.parse(mNativeAd.getAdIcon().toString())));
+                setIcon(createNativeAdImage(Uri.parse(mNativeAd.getAdIcon().toString())));
                 setCallToAction(mNativeAd.getAdCallToAction());
                 setAdvertiser(mNativeAd.getAdvertiserName());
 
@@ -1258,6 +1266,7 @@ public final class FacebookAdapter extends FacebookMediationAdapter
                     iconview = (ImageView) clickableAssets.getValue();
                 }
             }
+            LazyNativeAdImage.prefetch(getIcon(), getImages());
             if (isNativeBanner) {
                 mNativeBannerAd.registerViewForInteraction(view, iconview);
             } else {
@@ -1282,6 +1291,17 @@ public final class FacebookAdapter extends FacebookMediationAdapter
         }
     }
 
+    /**
+     * Creates the image mapped for {@code uri}, which provides a drawable only if
+     * {@link FacebookExtras#setLazyImageDrawables(boolean)} was enabled for the request.
+     */
+    private com.google.android.gms.ads.formats.NativeAd.Image createNativeAdImage(Uri uri) {
+        if (mUseLazyImageDrawables) {
+            return new LazyNativeAdImage(uri);
+        }
+        return new FacebookAdapterNativeAdImage(uri);
+    }
+
     /**
      * The {@link FacebookAdapterNativeAdImage} class is a subclass of
      * {@link com.google.android.gms.ads.formats.NativeAd.Image} used by the {@link FacebookAdapter}
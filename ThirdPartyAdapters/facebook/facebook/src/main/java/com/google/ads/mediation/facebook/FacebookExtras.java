@@ -5,16 +5,28 @@ import android.os.Bundle;
 
 public class FacebookExtras {
     public static String NATIVE_BANNER = "native_banner";
+    public static String LAZY_IMAGE_DRAWABLES = "lazy_image_drawables";
     private static boolean _nativeBanner;
+    private static boolean _lazyImageDrawables;
 
     public FacebookExtras setNativeBanner(boolean nativeBanner) {
         _nativeBanner = nativeBanner;
         return this;
     }
 
+    /**
+     * Sets whether native ad images should provide drawables, decoded in the background on first
+     * use, instead of only their URIs. See {@link LazyNativeAdImage}.
+     */
+    public FacebookExtras setLazyImageDrawables(boolean lazyImageDrawables) {
+        _lazyImageDrawables = lazyImageDrawables;
+        return this;
+    }
+
     public Bundle build() {
         Bundle bundle = new Bundle();
         bundle.putBoolean(NATIVE_BANNER, _nativeBanner);
+        bundle.putBoolean(LAZY_IMAGE_DRAWABLES, _lazyImageDrawables);
         return bundle;
     }
 }
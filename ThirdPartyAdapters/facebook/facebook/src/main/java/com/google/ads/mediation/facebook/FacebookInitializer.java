@@ -9,13 +9,43 @@ import java.util.ArrayList;
 
 class FacebookInitializer implements AudienceNetworkAds.InitListener {
 
-    private static FacebookInitializer instance;
-    private boolean mIsInitializing = false;
-    private boolean mIsInitialized = false;
+    private static final String INITIALIZATION_TIMEOUT_MESSAGE =
+            "The Facebook SDK did not initialize in time. Retrying in the background.";
 
-    private ArrayList<Listener> mListeners;
+    private static FacebookInitializer instance;
 
-    static FacebookInitializer getInstance() {
+    private final InitializationCoordinator mCoordinator = new InitializationCoordinator();
+
+    private volatile Context mInitContext;
+    private volatile ArrayList<String> mInitPlacements;
+
+    private final InitializationWatchdog mWatchdog = new InitializationWatchdog("Facebook",
+            new InitializationWatchdog.Callback() {
+                @Override
+                public void onTimeout() {
+                    mCoordinator.fail(INITIALIZATION_TIMEOUT_MESSAGE);
+                }
+
+                @Override
+                public void onRetry() {
+                    // Requests fail right away while retrying, so nothing waits for the result.
+                    boolean shouldInitialize =
+                            mCoordinator.register(new InitializationCoordinator.Callback() {
+                                @Override
+                                public void onSuccess() {
+                                }
+
+                                @Override
+                                public void onFailure(String message) {
+                                }
+                            });
+                    if (shouldInitialize) {
+                        startInitialization(mInitContext, mInitPlacements);
+                    }
+                }
+            });
+
+    static synchronized FacebookInitializer getInstance() {
         if (instance == null) {
             instance = new FacebookInitializer();
         }
@@ -23,7 +53,6 @@ class FacebookInitializer implements AudienceNetworkAds.InitListener {
     }
 
     private FacebookInitializer() {
-        mListeners = new ArrayList<>();
     }
 
     void initialize(Context context, String placementId, Listener listener) {
@@ -33,20 +62,39 @@ class FacebookInitializer implements AudienceNetworkAds.InitListener {
         getInstance().initialize(context, placements, listener);
     }
 
-    void initialize(Context context, ArrayList<String> placements, Listener listener) {
-        if (mIsInitializing) {
-            mListeners.add(listener);
+    /**
+     * Initializes the Facebook SDK if needed and notifies {@code listener} once it is initialized.
+     * If the SDK does not initialize in time, {@code listener} is failed and further requests fail
+     * right away until a background retry succeeds.
+     */
+    void initialize(Context context, ArrayList<String> placements, final Listener listener) {
+        if (mWatchdog.isDegraded()) {
+            listener.onInitializeError(INITIALIZATION_TIMEOUT_MESSAGE);
             return;
         }
 
-        if (mIsInitialized) {
-            listener.onInitializeSuccess();
+        boolean shouldInitialize = mCoordinator.register(new InitializationCoordinator.Callback() {
+            @Override
+            public void onSuccess() {
+                listener.onInitializeSuccess();
+            }
+
+            @Override
+            public void onFailure(String message) {
+                listener.onInitializeError(message);
+            }
+        });
+        if (!shouldInitialize) {
             return;
         }
 
-        mIsInitializing = true;
+        mInitContext = context.getApplicationContext();
+        mInitPlacements = placements;
+        startInitialization(context, placements);
+    }
 
-        getInstance().mListeners.add(listener);
+    private void startInitialization(Context context, ArrayList<String> placements) {
+        mWatchdog.start();
         AudienceNetworkAds.buildInitSettings(context)
                 .withMediationService("GOOGLE:"+ BuildConfig.VERSION_NAME)
                 .withPlacementIds(placements)
@@ -56,17 +104,12 @@ class FacebookInitializer implements AudienceNetworkAds.InitListener {
 
     @Override
     public void onInitialized(AudienceNetworkAds.InitResult initResult) {
-        mIsInitializing = false;
-        mIsInitialized = initResult.isSuccess();
-
-        for (Listener listener : mListeners) {
-            if (initResult.isSuccess()) {
-                listener.onInitializeSuccess();
-            } else {
-                listener.onInitializeError(initResult.getMessage());
-            }
+        mWatchdog.stop();
+        if (initResult.isSuccess()) {
+            mCoordinator.succeed();
+        } else {
+            mCoordinator.fail(initResult.getMessage());
         }
-        mListeners.clear();
     }
 
     interface Listener {
@@ -47,18 +47,33 @@ public class FacebookMediationAdapter extends RtbAdapter {
     public static final String PLACEMENT_PARAMETER = "pubid";
     public static final String RTB_PLACEMENT_PARAMETER = "placement_id";
 
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = com.facebook.ads.BuildConfig.VERSION_NAME;
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
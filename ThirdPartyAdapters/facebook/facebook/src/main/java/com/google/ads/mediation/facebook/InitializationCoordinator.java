@@ -0,0 +1,147 @@
+package com.google.ads.mediation.facebook;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Coordinates a one-time SDK initialization that may be requested concurrently from several
+ * threads. Exactly one caller is told to start the initialization; every other caller is queued
+ * and each queued callback is notified exactly once when the initialization completes.
+ *
+ * <p>Registration is lock-free. If an initialization fails, the next caller starts a new attempt.
+ */
+final class InitializationCoordinator {
+
+    enum State {
+        UNINITIALIZED,
+        INITIALIZING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    interface Callback {
+        void onSuccess();
+
+        void onFailure(String message);
+    }
+
+    private final AtomicReference<Attempt> mAttempt = new AtomicReference<>();
+
+    State getState() {
+        Attempt attempt = mAttempt.get();
+        return attempt == null ? State.UNINITIALIZED : attempt.mState.get();
+    }
+
+    /**
+     * Registers {@code callback} to be notified when the SDK is initialized. If the SDK is already
+     * initialized, {@code callback} is notified immediately on the calling thread.
+     *
+     * @return {@code true} if the caller must start the SDK initialization and later report its
+     * result through {@link #succeed()} or {@link #fail(String)}.
+     */
+    boolean register(Callback callback) {
+        while (true) {
+            Attempt attempt = mAttempt.get();
+            if (attempt == null || attempt.mState.get() == State.FAILED) {
+                Attempt newAttempt = new Attempt(callback);
+                if (mAttempt.compareAndSet(attempt, newAttempt)) {
+                    return true;
+                }
+                continue;
+            }
+            if (attempt.mState.get() == State.SUCCEEDED) {
+                callback.onSuccess();
+                return false;
+            }
+            if (attempt.enqueue(callback)) {
+                return false;
+            }
+            // The attempt completed while registering. Look at its result again.
+        }
+    }
+
+    /**
+     * Marks the current initialization as succeeded and notifies the queued callbacks. Has no
+     * effect if it was already completed.
+     */
+    void succeed() {
+        Attempt attempt = mAttempt.get();
+        if (attempt != null) {
+            attempt.complete(State.SUCCEEDED, null);
+        }
+    }
+
+    /**
+     * Marks the current initialization as failed and notifies the queued callbacks. Has no effect
+     * if it was already completed.
+     */
+    void fail(String message) {
+        Attempt attempt = mAttempt.get();
+        if (attempt != null) {
+            attempt.complete(State.FAILED, message);
+        }
+    }
+
+    /**
+     * A single initialization attempt. Waiters are kept in a lock-free stack which is swapped for
+     * {@link #COMPLETED} when the attempt completes, so that no waiter can be added afterwards.
+     */
+    private static final class Attempt {
+        private static final Waiter COMPLETED = new Waiter(null, null);
+
+        private final AtomicReference<Waiter> mWaiters;
+        private final AtomicReference<State> mState =
+                new AtomicReference<>(State.INITIALIZING);
+
+        Attempt(Callback first) {
+            mWaiters = new AtomicReference<>(new Waiter(first, null));
+        }
+
+        /**
+         * @return {@code false} if the attempt already completed.
+         */
+        boolean enqueue(Callback callback) {
+            while (true) {
+                Waiter head = mWaiters.get();
+                if (head == COMPLETED) {
+                    return false;
+                }
+                if (mWaiters.compareAndSet(head, new Waiter(callback, head))) {
+                    return true;
+                }
+            }
+        }
+
+        void complete(State state, String message) {
+            // The result is published before the waiters are taken, so that a caller failing to
+            // enqueue sees it.
+            if (!mState.compareAndSet(State.INITIALIZING, state)) {
+                return;
+            }
+            Waiter head = mWaiters.getAndSet(COMPLETED);
+
+            // Notify in registration order.
+            Waiter reversed = null;
+            for (Waiter waiter = head; waiter != null && waiter != COMPLETED;
+                 waiter = waiter.mNext) {
+                reversed = new Waiter(waiter.mCallback, reversed);
+            }
+            for (Waiter waiter = reversed; waiter != null; waiter = waiter.mNext) {
+                if (state == State.SUCCEEDED) {
+                    waiter.mCallback.onSuccess();
+                } else {
+                    waiter.mCallback.onFailure(message);
+                }
+            }
+        }
+    }
+
+    private static final class Waiter {
+        final Callback mCallback;
+        final Waiter mNext;
+
+        Waiter(Callback callback, Waiter next) {
+            mCallback = callback;
+            mNext = next;
+        }
+    }
+}
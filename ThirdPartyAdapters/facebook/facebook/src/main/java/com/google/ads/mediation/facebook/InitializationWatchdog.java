@@ -0,0 +1,120 @@
+package com.google.ads.mediation.facebook;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+/**
+ * Puts a deadline on an SDK initialization so that requests waiting for it do not hang when the
+ * SDK never reports a result.
+ *
+ * <p>Each initialization attempt is reported through {@link #start()} and {@link #stop()}. If an
+ * attempt does not stop before the deadline, the network is marked as degraded and
+ * {@link Callback#onTimeout()} is called so that waiting requests can be failed. A new attempt is
+ * then requested through {@link Callback#onRetry()} with exponential backoff until one stops in
+ * time. While degraded, new requests should fail right away instead of waiting.
+ *
+ * <p>Callbacks are made on the main thread.
+ */
+final class InitializationWatchdog {
+
+    private static final String TAG = InitializationWatchdog.class.getSimpleName();
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 10 * 1000;
+    private static final long INITIAL_BACKOFF_MILLIS = 5 * 1000;
+    private static final long MAX_BACKOFF_MILLIS = 5 * 60 * 1000;
+
+    interface Callback {
+        /**
+         * The current attempt did not complete before the deadline.
+         */
+        void onTimeout();
+
+        /**
+         * A new attempt should be started, calling {@link #start()} again. If it cannot be
+         * started, {@link #stop()} should be called so that the network is no longer degraded.
+         */
+        void onRetry();
+    }
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final String mNetworkName;
+    private final long mTimeoutMillis;
+    private final Callback mCallback;
+
+    private volatile boolean mIsDegraded;
+    private boolean mIsAttemptRunning;
+    private long mBackoffMillis = INITIAL_BACKOFF_MILLIS;
+
+    private final Runnable mTimeoutRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onDeadline();
+        }
+    };
+
+    private final Runnable mRetryRunnable = new Runnable() {
+        @Override
+        public void run() {
+            Log.d(TAG, "Retrying " + mNetworkName + " SDK initialization.");
+            mCallback.onRetry();
+        }
+    };
+
+    InitializationWatchdog(String networkName, Callback callback) {
+        this(networkName, DEFAULT_TIMEOUT_MILLIS, callback);
+    }
+
+    InitializationWatchdog(String networkName, long timeoutMillis, Callback callback) {
+        mNetworkName = networkName;
+        mTimeoutMillis = timeoutMillis;
+        mCallback = callback;
+    }
+
+    /**
+     * @return {@code true} if the last attempt timed out and no attempt has completed since.
+     */
+    boolean isDegraded() {
+        return mIsDegraded;
+    }
+
+    /**
+     * Starts the deadline of a new attempt.
+     */
+    synchronized void start() {
+        mIsAttemptRunning = true;
+        mHandler.removeCallbacks(mTimeoutRunnable);
+        mHandler.postDelayed(mTimeoutRunnable, mTimeoutMillis);
+    }
+
+    /**
+     * Stops watching, once the SDK reported a result or no further attempt can be made. Clears
+     * the degraded state and resets the backoff.
+     */
+    synchronized void stop() {
+        mIsAttemptRunning = false;
+        mHandler.removeCallbacks(mTimeoutRunnable);
+        mHandler.removeCallbacks(mRetryRunnable);
+        mIsDegraded = false;
+        mBackoffMillis = INITIAL_BACKOFF_MILLIS;
+    }
+
+    private void onDeadline() {
+        long backoffMillis;
+        synchronized (this) {
+            if (!mIsAttemptRunning) {
+                // Stopped on another thread while the deadline was passing.
+                return;
+            }
+            mIsAttemptRunning = false;
+            mIsDegraded = true;
+            backoffMillis = mBackoffMillis;
+            mBackoffMillis = Math.min(mBackoffMillis * 2, MAX_BACKOFF_MILLIS);
+            mHandler.removeCallbacks(mRetryRunnable);
+            mHandler.postDelayed(mRetryRunnable, backoffMillis);
+        }
+        Log.w(TAG, mNetworkName + " SDK did not initialize within " + mTimeoutMillis
+                + " ms. Retrying in " + backoffMillis + " ms.");
+        mCallback.onTimeout();
+    }
+}
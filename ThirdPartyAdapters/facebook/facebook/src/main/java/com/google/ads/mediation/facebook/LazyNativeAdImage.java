@@ -0,0 +1,102 @@
+package com.google.ads.mediation.facebook;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Looper;
+
+import com.google.android.gms.ads.formats.NativeAd;
+
+import java.util.List;
+
+/**
+ * A {@link NativeAd.Image} that only downloads and decodes its image the first time
+ * {@link #getDrawable()} is called, so that apps which render the image themselves from
+ * {@link #getUri()} pay no decode cost.
+ *
+ * <p>Called off the main thread, {@link #getDrawable()} blocks until the image is decoded. On the
+ * main thread it never blocks: it starts a background load and returns {@code null} until the
+ * image is available. Calling {@link #prefetch()} when the ad is bound makes the drawable
+ * available by the time it is usually needed.
+ */
+public final class LazyNativeAdImage extends NativeAd.Image {
+
+    /**
+     * An Uri from which the image can be obtained.
+     */
+    private final Uri mUri;
+
+    /**
+     * The drawable for the image, once decoded.
+     */
+    private volatile Drawable mDrawable;
+
+    public LazyNativeAdImage(Uri uri) {
+        mUri = uri;
+    }
+
+    /**
+     * Starts loading the image in the background, if it is not loaded yet.
+     */
+    public void prefetch() {
+        if (mDrawable == null && mUri != null) {
+            NativeImageLoader.getInstance().prefetch(mUri.toString());
+        }
+    }
+
+    /**
+     * Calls {@link #prefetch()} on the given icon and images that are {@link LazyNativeAdImage}s.
+     */
+    public static void prefetch(NativeAd.Image icon, List<NativeAd.Image> images) {
+        if (icon instanceof LazyNativeAdImage) {
+            ((LazyNativeAdImage) icon).prefetch();
+        }
+        if (images != null) {
+            for (NativeAd.Image image : images) {
+                if (image instanceof LazyNativeAdImage) {
+                    ((LazyNativeAdImage) image).prefetch();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Drawable getDrawable() {
+        Drawable drawable = mDrawable;
+        if (drawable != null || mUri == null) {
+            return drawable;
+        }
+
+        NativeImageLoader loader = NativeImageLoader.getInstance();
+        String url = mUri.toString();
+        Bitmap bitmap;
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            bitmap = loader.getCached(url);
+            if (bitmap == null) {
+                loader.prefetch(url);
+                return null;
+            }
+        } else {
+            bitmap = loader.load(url);
+            if (bitmap == null) {
+                return null;
+            }
+        }
+        drawable = new BitmapDrawable(Resources.getSystem(), bitmap);
+        mDrawable = drawable;
+        return drawable;
+    }
+
+    @Override
+    public Uri getUri() {
+        return mUri;
+    }
+
+    @Override
+    public double getScale() {
+        // Default scale is 1.
+        return 1;
+    }
+}
@@ -0,0 +1,197 @@
+package com.google.ads.mediation.facebook;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.google.ads.mediation.facebook.FacebookMediationAdapter.TAG;
+
+/**
+ * Downloads and decodes the images behind {@link LazyNativeAdImage}s on background threads.
+ * Decoded bitmaps are kept in a memory cache shared by all native ads in the process, and
+ * concurrent loads of the same URL share a single download.
+ */
+final class NativeImageLoader {
+
+    private static final int POOL_SIZE = 2;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    private static final int TIMEOUT_MILLIS = 10000;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static NativeImageLoader sInstance;
+
+    private final LruCache<String, Bitmap> mCache;
+    private final HashMap<String, Future<Bitmap>> mInFlight = new HashMap<>();
+    private final ThreadPoolExecutor mExecutor;
+
+    static synchronized NativeImageLoader getInstance() {
+        if (sInstance == null) {
+            // Use 1/8th of available heap size.
+            sInstance = new NativeImageLoader((int) (Runtime.getRuntime().maxMemory() / 8));
+        }
+        return sInstance;
+    }
+
+    private NativeImageLoader(int maxCacheSize) {
+        mCache = new LruCache<String, Bitmap>(maxCacheSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        };
+        mExecutor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "FacebookAdapter-ImageLoader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Let the threads exit when no images are loading.
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the bitmap for {@code url} if it is already decoded, without starting a load.
+     */
+    Bitmap getCached(String url) {
+        return mCache.get(url);
+    }
+
+    /**
+     * Starts loading {@code url} in the background unless it is cached or already loading.
+     */
+    void prefetch(String url) {
+        if (mCache.get(url) == null) {
+            submit(url);
+        }
+    }
+
+    /**
+     * Loads {@code url}, blocking the calling thread until it is decoded. Must not be called on
+     * the main thread.
+     *
+     * @return the decoded bitmap, or {@code null} if the image could not be loaded.
+     */
+    Bitmap load(String url) {
+        Bitmap bitmap = mCache.get(url);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        Future<Bitmap> future = submit(url);
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "Failed to load native ad image: " + url, e);
+        }
+        return null;
+    }
+
+    private synchronized Future<Bitmap> submit(final String url) {
+        Future<Bitmap> future = mInFlight.get(url);
+        if (future != null) {
+            return future;
+        }
+        FutureTask<Bitmap> task = new FutureTask<Bitmap>(new Callable<Bitmap>() {
+            @Override
+            public Bitmap call() throws IOException {
+                Bitmap bitmap = downloadAndDecode(url);
+                mCache.put(url, bitmap);
+                return bitmap;
+            }
+        }) {
+            @Override
+            protected void done() {
+                synchronized (NativeImageLoader.this) {
+                    mInFlight.remove(url);
+                }
+            }
+        };
+        mInFlight.put(url, task);
+        try {
+            mExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            mInFlight.remove(url);
+            Log.w(TAG, "Failed to schedule native ad image load: " + url, e);
+            return null;
+        }
+        return task;
+    }
+
+    private static Bitmap downloadAndDecode(String url) throws IOException {
+        byte[] data;
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        InputStream in = connection.getInputStream();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            data = out.toByteArray();
+        } finally {
+            in.close();
+        }
+
+        // Decode no larger than the screen.
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Unable to decode image bounds.");
+        }
+        DisplayMetrics metrics = Resources.getSystem().getDisplayMetrics();
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight,
+                metrics.widthPixels, metrics.heightPixels);
+        Bitmap bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        if (bitmap == null) {
+            throw new IOException("Unable to decode image.");
+        }
+        // Defaulting to a scale of 1.
+        bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
+        return bitmap;
+    }
+
+    /**
+     * Returns the largest power of two sample size that keeps both dimensions at or above the
+     * requested size.
+     */
+    private static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        while ((width / (inSampleSize * 2)) >= reqWidth
+                && (height / (inSampleSize * 2)) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+}
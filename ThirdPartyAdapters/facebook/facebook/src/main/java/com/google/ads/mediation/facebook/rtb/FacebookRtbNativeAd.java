@@ -24,6 +24,7 @@ import com.facebook.ads.NativeAdLayout;
 import com.facebook.ads.NativeAdListener;
 import com.google.ads.mediation.facebook.FacebookAdapter;
 import com.google.ads.mediation.facebook.FacebookMediationAdapter;
+import com.google.ads.mediation.facebook.LazyNativeAdImage;
 import com.google.android.gms.ads.formats.UnifiedNativeAdAssetNames;
 import com.google.android.gms.ads.mediation.MediationAdLoadCallback;
 import com.google.android.gms.ads.mediation.MediationNativeAdCallback;
@@ -37,6 +38,7 @@ import java.util.Map;
 
 import static com.google.ads.mediation.facebook.FacebookAdapter.*;
 import static com.google.ads.mediation.facebook.FacebookAdapter.TAG;
+import static com.google.ads.mediation.facebook.FacebookExtras.LAZY_IMAGE_DRAWABLES;
 
 public class FacebookRtbNativeAd extends UnifiedNativeAdMapper {
 
@@ -166,10 +168,18 @@ public class FacebookRtbNativeAd extends UnifiedNativeAdMapper {
         // action).
         setHeadline(mNativeAd.getAdHeadline());
         List<com.google.android.gms.ads.formats.NativeAd.Image> images = new ArrayList<>();
-        images.add(new FacebookAdapterNativeAdImage(null));
-        setImages(images);
+        Bundle mediationExtras = adConfiguration.getMediationExtras();
+        if (mediationExtras != null && mediationExtras.getBoolean(LAZY_IMAGE_DRAWABLES)) {
+            images.add(new LazyNativeAdImage(
+                    Uri.parse(mNativeAd.getAdCoverImage().toString())));
+            setImages(images);
+            setIcon(new LazyNativeAdImage(Uri.parse(mNativeAd.getAdIcon().toString())));
+        } else {
+            images.add(new FacebookAdapterNativeAdImage(null));
+            setImages(images);
+            setIcon(new FacebookAdapterNativeAdImage(null));
+        }
         setBody(mNativeAd.getAdBodyText());
-        setIcon(new FacebookAdapterNativeAdImage(null));
         setCallToAction(mNativeAd.getAdCallToAction());
         setAdvertiser(mNativeAd.getAdvertiserName());
 
@@ -272,6 +282,7 @@ public class FacebookRtbNativeAd extends UnifiedNativeAdMapper {
 
         }
 
+        LazyNativeAdImage.prefetch(getIcon(), getImages());
         mNativeAd.registerViewForInteraction(view, mMediaView, iconview, assetViews);
     }
 
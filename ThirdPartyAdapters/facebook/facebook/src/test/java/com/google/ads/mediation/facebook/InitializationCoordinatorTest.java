@@ -0,0 +1,167 @@
+package com.google.ads.mediation.facebook;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link InitializationCoordinator}.
+ */
+public class InitializationCoordinatorTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final int ROUND_COUNT = 500;
+
+    @Test
+    public void register_firstCallerStartsAndOthersWait() {
+        InitializationCoordinator coordinator = new InitializationCoordinator();
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        assertTrue(coordinator.register(first));
+        assertFalse(coordinator.register(second));
+        assertEquals(InitializationCoordinator.State.INITIALIZING, coordinator.getState());
+        assertEquals(0, second.mSuccessCount.get());
+
+        coordinator.succeed();
+
+        assertEquals(InitializationCoordinator.State.SUCCEEDED, coordinator.getState());
+        assertEquals(1, first.mSuccessCount.get());
+        assertEquals(1, second.mSuccessCount.get());
+    }
+
+    @Test
+    public void register_afterSuccessNotifiesImmediately() {
+        InitializationCoordinator coordinator = new InitializationCoordinator();
+        coordinator.register(new RecordingCallback());
+        coordinator.succeed();
+        RecordingCallback late = new RecordingCallback();
+
+        assertFalse(coordinator.register(late));
+        assertEquals(1, late.mSuccessCount.get());
+    }
+
+    @Test
+    public void register_afterFailureStartsNewAttempt() {
+        InitializationCoordinator coordinator = new InitializationCoordinator();
+        RecordingCallback first = new RecordingCallback();
+        coordinator.register(first);
+        coordinator.fail("error");
+        RecordingCallback retry = new RecordingCallback();
+
+        assertTrue(coordinator.register(retry));
+        assertEquals(1, first.mFailureCount.get());
+        assertEquals(0, retry.mFailureCount.get());
+        assertEquals(InitializationCoordinator.State.INITIALIZING, coordinator.getState());
+    }
+
+    @Test
+    public void succeed_notifiesInRegistrationOrderOnlyOnce() {
+        InitializationCoordinator coordinator = new InitializationCoordinator();
+        final List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final int index = i;
+            coordinator.register(new RecordingCallback() {
+                @Override
+                public void onSuccess() {
+                    order.add(index);
+                }
+            });
+        }
+
+        coordinator.succeed();
+        coordinator.succeed();
+        coordinator.fail("late");
+
+        assertEquals(5, order.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+        assertEquals(InitializationCoordinator.State.SUCCEEDED, coordinator.getState());
+    }
+
+    /**
+     * Races {@link #THREAD_COUNT} threads registering with the same coordinator, while the thread
+     * told to start the initialization completes it right away.
+     */
+    @Test
+    public void register_concurrentCallersStartOnceAndAreEachNotifiedOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            for (int round = 0; round < ROUND_COUNT; round++) {
+                final boolean isFailing = round % 2 == 1;
+                final InitializationCoordinator coordinator = new InitializationCoordinator();
+                final CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT);
+                final AtomicInteger startCount = new AtomicInteger();
+                final RecordingCallback[] callbacks = new RecordingCallback[THREAD_COUNT];
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < THREAD_COUNT; i++) {
+                    final RecordingCallback callback = new RecordingCallback();
+                    callbacks[i] = callback;
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            barrier.await();
+                            if (coordinator.register(callback)) {
+                                startCount.incrementAndGet();
+                                if (isFailing) {
+                                    coordinator.fail("error");
+                                } else {
+                                    coordinator.succeed();
+                                }
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+
+                int notifiedCount = 0;
+                for (RecordingCallback callback : callbacks) {
+                    int count = callback.mSuccessCount.get() + callback.mFailureCount.get();
+                    assertTrue("Callback notified more than once", count <= 1);
+                    notifiedCount += count;
+                }
+                if (isFailing) {
+                    // Callers arriving after a failure start their own attempt, which also fails.
+                    assertTrue(startCount.get() >= 1);
+                } else {
+                    assertEquals(1, startCount.get());
+                }
+                assertEquals(THREAD_COUNT, notifiedCount);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class RecordingCallback implements InitializationCoordinator.Callback {
+        final AtomicInteger mSuccessCount = new AtomicInteger();
+        final AtomicInteger mFailureCount = new AtomicInteger();
+
+        @Override
+        public void onSuccess() {
+            mSuccessCount.incrementAndGet();
+        }
+
+        @Override
+        public void onFailure(String message) {
+            mFailureCount.incrementAndGet();
+        }
+    }
+}
@@ -77,6 +77,69 @@ public class FyberMediationAdapter extends Adapter
      */
     static final String KEY_SPOT_ID = "spotId";
 
+    private static final String INITIALIZATION_TIMEOUT_MESSAGE =
+            "The Fyber SDK did not initialize in time. Retrying in the background.";
+
+    /**
+     * AdMob's initialization callbacks waiting for Fyber's configuration.
+     */
+    private static final ArrayList<InitializationCompleteCallback> sInitializationCallbacks =
+            new ArrayList<>();
+
+    /**
+     * The context and app id Fyber was last initialized with, used to retry the initialization.
+     */
+    private static Context sInitContext;
+    private static String sInitAppId;
+
+    private static final IAConfigManager.OnConfigurationReadyAndValidListener
+            sConfigurationListener = new IAConfigManager.OnConfigurationReadyAndValidListener() {
+        @Override
+        public void onConfigurationReadyAndValid(IAConfigManager iaConfigManager, boolean success,
+                                                 Exception e) {
+            // Can be called more than once
+            IAConfigManager.removeListener(this);
+            sWatchdog.stop();
+
+            ArrayList<InitializationCompleteCallback> callbacks =
+                    new ArrayList<>(sInitializationCallbacks);
+            sInitializationCallbacks.clear();
+            for (InitializationCompleteCallback callback : callbacks) {
+                if (success) {
+                    callback.onInitializationSucceeded();
+                } else {
+                    callback.onInitializationFailed("Fyber SDK initialization failed");
+                }
+            }
+        }
+    };
+
+    private static final InitializationWatchdog sWatchdog = new InitializationWatchdog("Fyber",
+            new InitializationWatchdog.Callback() {
+                @Override
+                public void onTimeout() {
+                    // The configuration listener stays registered, so that a late configuration
+                    // still ends the degraded state.
+                    ArrayList<InitializationCompleteCallback> callbacks =
+                            new ArrayList<>(sInitializationCallbacks);
+                    sInitializationCallbacks.clear();
+                    for (InitializationCompleteCallback callback : callbacks) {
+                        callback.onInitializationFailed(INITIALIZATION_TIMEOUT_MESSAGE);
+                    }
+                }
+
+                @Override
+                public void onRetry() {
+                    if (sInitContext == null || TextUtils.isEmpty(sInitAppId)) {
+                        IAConfigManager.removeListener(sConfigurationListener);
+                        sWatchdog.stop();
+                        return;
+                    }
+                    sWatchdog.start();
+                    InneractiveAdManager.initialize(sInitContext, sInitAppId);
+                }
+            });
+
     /**
      * Fyber's Spot object for the banner
      */
@@ -166,59 +229,63 @@ public class FyberMediationAdapter extends Adapter
                 Log.w(TAG, message);
         }
 
+        sInitContext = context.getApplicationContext();
+        sInitAppId = appIdForInitialization;
         InneractiveAdManager.initialize(context, appIdForInitialization);
 
         waitForInitializationStatusAndReport(completionCallback);
     }
 
     /**
-     * A helper for checking out Fyber's initialization status
+     * A helper for checking out Fyber's initialization status. If Fyber does not report its
+     * status in time, the callback is failed and later callbacks fail right away until a
+     * background retry succeeds.
      * @param completionCallback Admob's initialization callback
      */
     private void waitForInitializationStatusAndReport(final InitializationCompleteCallback completionCallback) {
-        if (completionCallback != null) {
-            IAConfigManager.addListener(new IAConfigManager.OnConfigurationReadyAndValidListener() {
-                @Override
-                public void onConfigurationReadyAndValid(IAConfigManager iaConfigManager, boolean success, Exception e) {
-                    // Can be called more than once
-                    if (completionCallback != null) {
-                        if (success) {
-                            completionCallback.onInitializationSucceeded();
-                        } else {
-                            completionCallback.onInitializationFailed("Fyber SDK initialization failed");
-                        }
-                    }
+        if (completionCallback == null) {
+            return;
+        }
 
-                    IAConfigManager.removeListener(this);
-                }
-            });
+        if (sWatchdog.isDegraded()) {
+            completionCallback.onInitializationFailed(INITIALIZATION_TIMEOUT_MESSAGE);
+            return;
         }
-    }
 
-    public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = 0;
-        int minor = 0;
-        int micro = 0;
-        if (splits.length > 2) {
-            major = Integer.parseInt(splits[0]);
-            minor = Integer.parseInt(splits[1]);
-            micro = Integer.parseInt(splits[2]) * 100;
-            if (splits.length > 3) {
-                micro += Integer.parseInt(splits[3]);
-            }
-        } else if (splits.length == 2) {
-            major = Integer.parseInt(splits[0]);
-            minor = Integer.parseInt(splits[1]);
-        } else if (splits.length == 1) {
-            major = Integer.parseInt(splits[0]);
+        sInitializationCallbacks.add(completionCallback);
+        if (sInitializationCallbacks.size() == 1) {
+            sWatchdog.start();
+            IAConfigManager.addListener(sConfigurationListener);
         }
+    }
 
-        return new VersionInfo(major, minor, micro);
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
+    @Override
+    public VersionInfo getVersionInfo() {
+        return ADAPTER_VERSION_INFO;
     }
 
+    @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String sdkVersion = InneractiveAdManager.getVersion();
         String splits[] = sdkVersion.split("\\.");
         int major = 0;
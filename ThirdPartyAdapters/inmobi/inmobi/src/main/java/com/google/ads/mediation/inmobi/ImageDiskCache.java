@@ -0,0 +1,437 @@
+package com.google.ads.mediation.inmobi;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size bounded, least recently used disk cache for encoded native ad images, so that images
+ * survive app restarts.
+ *
+ * <p>Entries are stored as one file per URL, named after the URL's MD5 hash. The cache state is
+ * recorded in an append-only journal that is read once when the cache is first used and compacted
+ * when it grows too large. Entries are written to a temporary file and renamed into place, so a
+ * crash can never leave a partially written entry visible; leftover temporary files and files not
+ * in the journal are deleted on startup.
+ *
+ * <p>All methods do disk I/O and must not be called on the main thread.
+ */
+final class ImageDiskCache {
+
+    private static final String DIRECTORY_NAME = "inmobi_adapter_images";
+    private static final long DEFAULT_MAX_SIZE_BYTES = 10 * 1024 * 1024;
+
+    private static final String JOURNAL_FILE = "journal";
+    private static final String JOURNAL_FILE_TEMP = "journal.tmp";
+    private static final String JOURNAL_HEADER = "ImageDiskCache 1";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final Charset JOURNAL_CHARSET = Charset.forName("US-ASCII");
+
+    private static final char OP_PUT = 'P';
+    private static final char OP_REMOVE = 'D';
+    private static final char OP_READ = 'R';
+
+    /**
+     * The journal is compacted once it holds this many records that no longer affect the state.
+     */
+    private static final int REDUNDANT_OP_COMPACT_THRESHOLD = 2000;
+
+    private static ImageDiskCache sInstance;
+
+    private final File mDirectory;
+    private final long mMaxSize;
+
+    // Last argument true for LRU ordering. Maps keys to entry sizes in bytes.
+    private final LinkedHashMap<String, Long> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long mSize;
+    private int mRedundantOps;
+    private Writer mJournalWriter;
+    private boolean mIsDisabled;
+
+    /**
+     * Returns the shared disk cache. This does not touch the disk; the journal is read on the
+     * first {@link #get} or {@link #put}.
+     */
+    static synchronized ImageDiskCache getInstance(Context context) {
+        if (sInstance == null) {
+            File directory = new File(context.getApplicationContext().getCacheDir(),
+                    DIRECTORY_NAME);
+            sInstance = new ImageDiskCache(directory, DEFAULT_MAX_SIZE_BYTES);
+        }
+        return sInstance;
+    }
+
+    ImageDiskCache(File directory, long maxSize) {
+        mDirectory = directory;
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * @return the cached bytes for {@code url}, or {@code null} if they are not cached.
+     */
+    byte[] get(String url) {
+        String key = keyFor(url);
+        File file;
+        synchronized (this) {
+            if (!ensureOpen() || mEntries.get(key) == null) {
+                return null;
+            }
+            appendToJournal(OP_READ, key, -1);
+            file = new File(mDirectory, key);
+        }
+
+        try {
+            return readFile(file);
+        } catch (IOException e) {
+            // The file was evicted or damaged since the lookup.
+            remove(url);
+            return null;
+        }
+    }
+
+    /**
+     * Stores {@code data} for {@code url}, evicting least recently used entries if needed.
+     */
+    void put(String url, byte[] data) {
+        if (data.length > mMaxSize) {
+            return;
+        }
+        synchronized (this) {
+            if (!ensureOpen()) {
+                return;
+            }
+        }
+
+        String key = keyFor(url);
+        File temp = new File(mDirectory,
+                key + "." + Thread.currentThread().getId() + TEMP_FILE_SUFFIX);
+        try {
+            writeFile(temp, data);
+        } catch (IOException e) {
+            Log.w(InMobiMediationAdapter.TAG, "Failed to write native ad image to the disk cache.", e);
+            temp.delete();
+            return;
+        }
+
+        synchronized (this) {
+            if (mIsDisabled || !temp.renameTo(new File(mDirectory, key))) {
+                temp.delete();
+                return;
+            }
+            Long previous = mEntries.put(key, (long) data.length);
+            if (previous != null) {
+                mSize -= previous;
+                mRedundantOps++;
+            }
+            mSize += data.length;
+            appendToJournal(OP_PUT, key, data.length);
+            trimToSize();
+            compactJournalIfNeeded();
+        }
+    }
+
+    /**
+     * Removes the entry for {@code url}, if any.
+     */
+    synchronized void remove(String url) {
+        if (!ensureOpen()) {
+            return;
+        }
+        removeEntry(keyFor(url));
+        compactJournalIfNeeded();
+    }
+
+    /**
+     * @return the number of bytes currently held by the cache.
+     */
+    synchronized long size() {
+        return mSize;
+    }
+
+    private boolean ensureOpen() {
+        if (mJournalWriter != null) {
+            return true;
+        }
+        if (mIsDisabled) {
+            return false;
+        }
+
+        try {
+            if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+                throw new IOException("Unable to create " + mDirectory);
+            }
+            boolean isJournalClean = readJournal();
+            deleteUntrackedFiles();
+            if (!isJournalClean || mRedundantOps >= REDUNDANT_OP_COMPACT_THRESHOLD) {
+                rebuildJournal();
+            } else {
+                mJournalWriter = openJournalWriter(new File(mDirectory, JOURNAL_FILE), true);
+            }
+            trimToSize();
+            return true;
+        } catch (IOException e) {
+            Log.w(InMobiMediationAdapter.TAG, "Native ad image disk cache is unavailable.", e);
+            mIsDisabled = true;
+            mEntries.clear();
+            mSize = 0;
+            return false;
+        }
+    }
+
+    /**
+     * Replays the journal into {@link #mEntries}.
+     *
+     * @return {@code false} if the journal is missing, from another version, ends with a
+     * partially written record or refers to missing files, in which case it needs to be
+     * rewritten.
+     */
+    private boolean readJournal() throws IOException {
+        File journal = new File(mDirectory, JOURNAL_FILE);
+        if (!journal.exists()) {
+            return false;
+        }
+
+        boolean isClean = true;
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(journal), JOURNAL_CHARSET));
+        try {
+            if (!JOURNAL_HEADER.equals(reader.readLine())) {
+                return false;
+            }
+            int lineCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!replayJournalLine(line)) {
+                    // A crash while appending; everything before this record is still valid.
+                    isClean = false;
+                    break;
+                }
+                lineCount++;
+            }
+            mRedundantOps = lineCount - mEntries.size();
+        } finally {
+            reader.close();
+        }
+
+        // Drop entries whose files were lost or do not have the recorded size.
+        Iterator<Map.Entry<String, Long>> iterator = mEntries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            File file = new File(mDirectory, entry.getKey());
+            if (file.length() != entry.getValue()) {
+                mSize -= entry.getValue();
+                file.delete();
+                iterator.remove();
+                isClean = false;
+            }
+        }
+        return isClean;
+    }
+
+    private boolean replayJournalLine(String line) {
+        String[] parts = line.split(" ");
+        if (parts.length < 2 || parts[0].length() != 1) {
+            return false;
+        }
+        String key = parts[1];
+        switch (parts[0].charAt(0)) {
+            case OP_PUT:
+                if (parts.length != 3) {
+                    return false;
+                }
+                long size;
+                try {
+                    size = Long.parseLong(parts[2]);
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                Long previous = mEntries.put(key, size);
+                if (previous != null) {
+                    mSize -= previous;
+                }
+                mSize += size;
+                return true;
+            case OP_REMOVE:
+                Long removed = mEntries.remove(key);
+                if (removed != null) {
+                    mSize -= removed;
+                }
+                return true;
+            case OP_READ:
+                // Updates the access order.
+                mEntries.get(key);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void deleteUntrackedFiles() {
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.equals(JOURNAL_FILE) && !mEntries.containsKey(name)) {
+                // Includes temporary files left behind by a crash during a write.
+                file.delete();
+            }
+        }
+    }
+
+    private void rebuildJournal() throws IOException {
+        if (mJournalWriter != null) {
+            mJournalWriter.close();
+            mJournalWriter = null;
+        }
+
+        File temp = new File(mDirectory, JOURNAL_FILE_TEMP);
+        Writer writer = openJournalWriter(temp, false);
+        try {
+            writer.write(JOURNAL_HEADER);
+            writer.write('\n');
+            for (Map.Entry<String, Long> entry : mEntries.entrySet()) {
+                writeJournalLine(writer, OP_PUT, entry.getKey(), entry.getValue());
+            }
+        } finally {
+            writer.close();
+        }
+
+        File journal = new File(mDirectory, JOURNAL_FILE);
+        if (!temp.renameTo(journal)) {
+            throw new IOException("Unable to replace " + journal);
+        }
+        mRedundantOps = 0;
+        mJournalWriter = openJournalWriter(journal, true);
+    }
+
+    private void compactJournalIfNeeded() {
+        if (mRedundantOps < REDUNDANT_OP_COMPACT_THRESHOLD
+                || mRedundantOps < mEntries.size()) {
+            return;
+        }
+        try {
+            rebuildJournal();
+        } catch (IOException e) {
+            Log.w(InMobiMediationAdapter.TAG, "Failed to compact the native ad image disk cache.", e);
+            mIsDisabled = true;
+        }
+    }
+
+    private void trimToSize() {
+        // Least recently accessed item will be the first one iterated.
+        Iterator<Map.Entry<String, Long>> iterator = mEntries.entrySet().iterator();
+        while (mSize > mMaxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            String key = entry.getKey();
+            mSize -= entry.getValue();
+            iterator.remove();
+            new File(mDirectory, key).delete();
+            appendToJournal(OP_REMOVE, key, -1);
+            mRedundantOps += 2;
+        }
+    }
+
+    private void removeEntry(String key) {
+        Long size = mEntries.remove(key);
+        if (size == null) {
+            return;
+        }
+        mSize -= size;
+        new File(mDirectory, key).delete();
+        appendToJournal(OP_REMOVE, key, -1);
+        mRedundantOps += 2;
+    }
+
+    private void appendToJournal(char op, String key, long size) {
+        if (mJournalWriter == null) {
+            return;
+        }
+        try {
+            writeJournalLine(mJournalWriter, op, key, size);
+            mJournalWriter.flush();
+            if (op == OP_READ) {
+                mRedundantOps++;
+            }
+        } catch (IOException e) {
+            Log.w(InMobiMediationAdapter.TAG, "Failed to update the native ad image disk cache.", e);
+        }
+    }
+
+    private static void writeJournalLine(Writer writer, char op, String key, long size)
+            throws IOException {
+        writer.write(op);
+        writer.write(' ');
+        writer.write(key);
+        if (size >= 0) {
+            writer.write(' ');
+            writer.write(Long.toString(size));
+        }
+        writer.write('\n');
+    }
+
+    private static Writer openJournalWriter(File file, boolean append) throws IOException {
+        return new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file, append), JOURNAL_CHARSET));
+    }
+
+    private static void writeFile(File file, byte[] data) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < data.length) {
+                int read = in.read(data, offset, data.length - offset);
+                if (read == -1) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+                offset += read;
+            }
+            return data;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String keyFor(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] hash = digest.digest(url.getBytes("UTF-8"));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+                builder.append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            // Every Android device supports MD5 and UTF-8.
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+}
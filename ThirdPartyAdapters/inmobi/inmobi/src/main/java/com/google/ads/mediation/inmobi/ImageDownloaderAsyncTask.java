@@ -1,21 +1,26 @@
 package com.google.ads.mediation.inmobi;
 
+import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.os.AsyncTask;
 import android.util.DisplayMetrics;
+import android.util.Log;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.HashMap;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -30,12 +35,37 @@ class ImageDownloaderAsyncTask extends AsyncTask<Object, Void, HashMap<String, D
 
     private static final long DRAWABLE_FUTURE_TIMEOUT_SECONDS = 10;
 
+    private static final int CONNECTION_TIMEOUT_MILLIS =
+            (int) TimeUnit.SECONDS.toMillis(DRAWABLE_FUTURE_TIMEOUT_SECONDS);
+
+    /**
+     * Largest size the native ad icon is decoded at, in dp.
+     */
+    private static final int MAX_ICON_SIZE_DP = 128;
+
     private final DrawableDownloadListener mListener;
 
-    private final InMobiMemoryCache mMemoryCache = new InMobiMemoryCache();
+    private final InMobiMemoryCache mMemoryCache;
 
-    public ImageDownloaderAsyncTask(DrawableDownloadListener listener) {
+    private final SampledBitmapDecoder mIconDecoder;
+
+    private final ImageDiskCache mDiskCache;
+
+    public ImageDownloaderAsyncTask(Context context, DrawableDownloadListener listener) {
+        this(context, listener, MAX_ICON_SIZE_DP);
+    }
+
+    /**
+     * @param context       used to locate the disk cache.
+     * @param maxIconSizeDp the largest size the icon is displayed at, in dp. Larger icons are
+     *                      downsampled when decoded.
+     */
+    public ImageDownloaderAsyncTask(Context context, DrawableDownloadListener listener,
+                                    int maxIconSizeDp) {
         mListener = listener;
+        mMemoryCache = InMobiMemoryCache.getInstance(context);
+        mDiskCache = ImageDiskCache.getInstance(context);
+        mIconDecoder = SampledBitmapDecoder.forMaxSizeDp(maxIconSizeDp, false);
     }
 
     /**
@@ -55,44 +85,80 @@ class ImageDownloaderAsyncTask extends AsyncTask<Object, Void, HashMap<String, D
     @Override
     protected HashMap<String, Drawable> doInBackground(Object... params) {
         HashMap<String, URL> urlsMap = (HashMap<String, URL>) params[0];
-        ExecutorService executorService = Executors.newCachedThreadPool();
-        Drawable imageDrawable;
-        Drawable iconDrawable;
+        ExecutorService executorService = ImageDecodeExecutor.getInstance();
+        if (isCancelled()) {
+            return null;
+        }
+        Future<Bitmap> iconBitmapFuture = null;
+        Bitmap iconBitmap;
 
         try {
-            if (null != mMemoryCache.get(String.valueOf(urlsMap.get(KEY_ICON))))
-                iconDrawable = mMemoryCache.get(String.valueOf(urlsMap.get(KEY_ICON)));
-            else {
-                iconDrawable = getDrawableFuture(urlsMap.get(KEY_ICON), executorService).get
-                        (DRAWABLE_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-                mMemoryCache.put(String.valueOf(urlsMap.get(KEY_ICON)), iconDrawable);
+            String iconKey = mIconDecoder.getKey(String.valueOf(urlsMap.get(KEY_ICON)));
+            // The icon stays out of the bitmap pool until the ad releases it.
+            iconBitmap = mMemoryCache.getAndRetain(iconKey);
+            if (iconBitmap != null) {
+                ImagePipelineMetrics.recordMemoryCacheHit();
+            } else {
+                ImagePipelineMetrics.recordMemoryCacheMiss();
+                iconBitmapFuture =
+                        getBitmapFuture(urlsMap.get(KEY_ICON), mIconDecoder, executorService);
+                // The bitmap comes retained on behalf of this ad.
+                iconBitmap =
+                        iconBitmapFuture.get(DRAWABLE_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                mMemoryCache.put(iconKey, iconBitmap);
             }
 
             HashMap<String, Drawable> drawableHashMap = new HashMap<>();
-            drawableHashMap.put(KEY_ICON, iconDrawable);
+            drawableHashMap.put(KEY_ICON, createDrawable(iconBitmap));
 
             return drawableHashMap;
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        } catch (InterruptedException | ExecutionException | TimeoutException
+                | RejectedExecutionException | CancellationException e) {
             e.printStackTrace();
+            if (e instanceof TimeoutException) {
+                ImagePipelineMetrics.recordTimeout();
+            }
+            if (iconBitmapFuture != null) {
+                // Free up the shared executor for other ads.
+                iconBitmapFuture.cancel(true);
+            }
             return null;
         }
     }
 
-    private Future<Drawable> getDrawableFuture(final URL url, ExecutorService executorService) {
-        return executorService.submit(new Callable<Drawable>() {
-
-            @Override
+    /**
+     * Wraps a possibly cached {@link Bitmap} in a {@link Drawable} owned by this ad alone.
+     */
+    private static Drawable createDrawable(Bitmap bitmap) {
+        return new BitmapDrawable(Resources.getSystem(), bitmap);
+    }
 
-            public Drawable call() throws Exception {
-                InputStream in = url.openStream();
-                Bitmap bitmap = BitmapFactory.decodeStream(in);
-                // Defaulting to a scale of 1.
-                bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
-                return new BitmapDrawable(Resources.getSystem(), bitmap);
-            }
+    private Future<Bitmap> getBitmapFuture(URL url,
+                                           SampledBitmapDecoder decoder,
+                                           ExecutorService executorService) {
+        ImagePipelineMetrics.recordRequest();
+        // Concurrent requests for the same image share a single download and decode.
+        return ImageRequestCoalescer.submit(decoder.getKey(url.toString()),
+                new BitmapLoader(url, decoder, mDiskCache), executorService);
+    }
 
-        });
+    /**
+     * Cancels the download. Pending image work no longer needed by any other ad is dropped, open
+     * connections are closed and the {@link DrawableDownloadListener} is not called.
+     */
+    void cancelDownload() {
+        cancel(true);
+    }
 
+    @Override
+    protected void onCancelled(HashMap<String, Drawable> stringDrawableHashMap) {
+        Log.d(InMobiMediationAdapter.TAG, "Native ad image download cancelled.");
+        if (stringDrawableHashMap != null) {
+            // The ad will never use the images.
+            for (Drawable drawable : stringDrawableHashMap.values()) {
+                BitmapPool.getInstance().release(drawable);
+            }
+        }
     }
 
     /**
@@ -118,6 +184,99 @@ class ImageDownloaderAsyncTask extends AsyncTask<Object, Void, HashMap<String, D
     }
 
 
+    /**
+     * Loads a single image from the disk cache or the network, and decodes it. Aborting the
+     * loader closes its connection so that a blocked read returns immediately.
+     */
+    private static class BitmapLoader extends ImageRequestCoalescer.Loader {
+        private final URL mUrl;
+        private final SampledBitmapDecoder mDecoder;
+        private final ImageDiskCache mDiskCache;
+        private volatile HttpURLConnection mConnection;
+        private volatile boolean mIsAborted;
+
+        BitmapLoader(URL url, SampledBitmapDecoder decoder, ImageDiskCache diskCache) {
+            mUrl = url;
+            mDecoder = decoder;
+            mDiskCache = diskCache;
+        }
+
+        @Override
+        public Bitmap call() throws Exception {
+            Bitmap bitmap = decodeFromDiskCache();
+            if (bitmap == null) {
+                byte[] data = download();
+                bitmap = decode(data);
+                mDiskCache.put(mUrl.toString(), data);
+            }
+            // Defaulting to a scale of 1.
+            bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
+            return bitmap;
+        }
+
+        @Override
+        void abort() {
+            mIsAborted = true;
+            HttpURLConnection connection = mConnection;
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+        private Bitmap decodeFromDiskCache() {
+            byte[] data = mDiskCache.get(mUrl.toString());
+            if (data == null) {
+                ImagePipelineMetrics.recordDiskCacheMiss();
+                return null;
+            }
+            ImagePipelineMetrics.recordDiskCacheHit();
+            try {
+                return decode(data);
+            } catch (IOException e) {
+                // The cached copy is unusable, download the image again.
+                mDiskCache.remove(mUrl.toString());
+                return null;
+            }
+        }
+
+        private Bitmap decode(byte[] data) throws IOException {
+            long startNanos = System.nanoTime();
+            Bitmap bitmap = mDecoder.decode(data);
+            ImagePipelineMetrics.recordDecode(
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), bitmap);
+            return bitmap;
+        }
+
+        private byte[] download() throws IOException {
+            long startNanos = System.nanoTime();
+            URLConnection connection = mUrl.openConnection();
+            connection.setConnectTimeout(CONNECTION_TIMEOUT_MILLIS);
+            connection.setReadTimeout(CONNECTION_TIMEOUT_MILLIS);
+            if (connection instanceof HttpURLConnection) {
+                mConnection = (HttpURLConnection) connection;
+            }
+            try {
+                if (mIsAborted) {
+                    throw new InterruptedIOException("Native ad image download aborted.");
+                }
+                InputStream in = connection.getInputStream();
+                ImagePipelineMetrics.recordTimeToFirstByte(
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                try {
+                    byte[] data = SampledBitmapDecoder.readFully(in);
+                    ImagePipelineMetrics.recordBytesRead(data.length);
+                    return data;
+                } finally {
+                    in.close();
+                }
+            } finally {
+                if (mConnection != null) {
+                    mConnection.disconnect();
+                }
+            }
+        }
+    }
+
     interface DrawableDownloadListener {
         // A success callback.
         void onDownloadSuccess(HashMap<String, Drawable> drawableMap);
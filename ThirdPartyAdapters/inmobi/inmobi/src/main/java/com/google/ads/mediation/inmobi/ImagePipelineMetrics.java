@@ -0,0 +1,239 @@
+package com.google.ads.mediation.inmobi;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide counters describing the cost of loading native ad images: how many images were
+ * requested, how many bytes were read, how long downloads and decodes took, how much memory the
+ * decoded bitmaps use and how often the caches were hit.
+ *
+ * <p>Recording a value only updates primitive counters and fixed-bucket histograms, so it does not
+ * allocate. Use {@link #snapshot()} to read the metrics, or {@link #dump()} to log them.
+ */
+public final class ImagePipelineMetrics {
+
+    /**
+     * Upper bounds, in milliseconds, of the latency histogram buckets. The last bucket counts
+     * everything slower than the last bound.
+     */
+    private static final long[] BUCKET_BOUNDS_MILLIS =
+            {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    private static final int REQUESTS = 0;
+    private static final int BYTES_READ = 1;
+    private static final int DECODES = 2;
+    private static final int DECODED_BITMAP_BYTES = 3;
+    private static final int MEMORY_CACHE_HITS = 4;
+    private static final int MEMORY_CACHE_MISSES = 5;
+    private static final int DISK_CACHE_HITS = 6;
+    private static final int DISK_CACHE_MISSES = 7;
+    private static final int TIMEOUTS = 8;
+    private static final int COUNTER_COUNT = 9;
+
+    private static final AtomicLongArray sCounters = new AtomicLongArray(COUNTER_COUNT);
+    private static final AtomicLongArray sTimeToFirstByte =
+            new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+    private static final AtomicLongArray sDecodeLatency =
+            new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+
+    private ImagePipelineMetrics() {
+    }
+
+    static void recordRequest() {
+        sCounters.incrementAndGet(REQUESTS);
+    }
+
+    static void recordBytesRead(long byteCount) {
+        sCounters.addAndGet(BYTES_READ, byteCount);
+    }
+
+    /**
+     * Records the time from opening a connection until the response started arriving.
+     */
+    static void recordTimeToFirstByte(long millis) {
+        sTimeToFirstByte.incrementAndGet(bucketFor(millis));
+    }
+
+    static void recordDecode(long millis, Bitmap bitmap) {
+        sCounters.incrementAndGet(DECODES);
+        sCounters.addAndGet(DECODED_BITMAP_BYTES, (long) bitmap.getRowBytes() * bitmap.getHeight());
+        sDecodeLatency.incrementAndGet(bucketFor(millis));
+    }
+
+    static void recordMemoryCacheHit() {
+        sCounters.incrementAndGet(MEMORY_CACHE_HITS);
+    }
+
+    static void recordMemoryCacheMiss() {
+        sCounters.incrementAndGet(MEMORY_CACHE_MISSES);
+    }
+
+    static void recordDiskCacheHit() {
+        sCounters.incrementAndGet(DISK_CACHE_HITS);
+    }
+
+    static void recordDiskCacheMiss() {
+        sCounters.incrementAndGet(DISK_CACHE_MISSES);
+    }
+
+    /**
+     * Records an image load that did not finish within the download timeout.
+     */
+    static void recordTimeout() {
+        sCounters.incrementAndGet(TIMEOUTS);
+    }
+
+    /**
+     * @return the current values of all metrics.
+     */
+    public static Snapshot snapshot() {
+        long[] counters = new long[COUNTER_COUNT];
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            counters[i] = sCounters.get(i);
+        }
+        return new Snapshot(counters, copy(sTimeToFirstByte), copy(sDecodeLatency));
+    }
+
+    /**
+     * Logs the current values of all metrics.
+     */
+    public static void dump() {
+        Log.i(InMobiMediationAdapter.TAG, snapshot().toString());
+    }
+
+    /**
+     * Resets all metrics to zero.
+     */
+    public static void reset() {
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            sCounters.set(i, 0);
+        }
+        for (int i = 0; i < sTimeToFirstByte.length(); i++) {
+            sTimeToFirstByte.set(i, 0);
+            sDecodeLatency.set(i, 0);
+        }
+    }
+
+    private static int bucketFor(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            if (millis <= BUCKET_BOUNDS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MILLIS.length;
+    }
+
+    private static long[] copy(AtomicLongArray array) {
+        long[] values = new long[array.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i);
+        }
+        return values;
+    }
+
+    /**
+     * An immutable copy of the metrics. Counters are read one at a time, so a snapshot taken
+     * while images are loading may be off by the loads in progress.
+     */
+    public static final class Snapshot {
+        private final long[] mCounters;
+        private final long[] mTimeToFirstByte;
+        private final long[] mDecodeLatency;
+
+        private Snapshot(long[] counters, long[] timeToFirstByte, long[] decodeLatency) {
+            mCounters = counters;
+            mTimeToFirstByte = timeToFirstByte;
+            mDecodeLatency = decodeLatency;
+        }
+
+        public long getRequestCount() {
+            return mCounters[REQUESTS];
+        }
+
+        public long getBytesRead() {
+            return mCounters[BYTES_READ];
+        }
+
+        public long getDecodeCount() {
+            return mCounters[DECODES];
+        }
+
+        public long getDecodedBitmapBytes() {
+            return mCounters[DECODED_BITMAP_BYTES];
+        }
+
+        public long getMemoryCacheHitCount() {
+            return mCounters[MEMORY_CACHE_HITS];
+        }
+
+        public long getMemoryCacheMissCount() {
+            return mCounters[MEMORY_CACHE_MISSES];
+        }
+
+        public long getDiskCacheHitCount() {
+            return mCounters[DISK_CACHE_HITS];
+        }
+
+        public long getDiskCacheMissCount() {
+            return mCounters[DISK_CACHE_MISSES];
+        }
+
+        public long getTimeoutCount() {
+            return mCounters[TIMEOUTS];
+        }
+
+        /**
+         * @return the upper bound, in milliseconds, of each histogram bucket but the last, which
+         * has no upper bound.
+         */
+        public long[] getBucketBoundsMillis() {
+            return BUCKET_BOUNDS_MILLIS.clone();
+        }
+
+        /**
+         * @return the number of downloads whose time to first byte fell in each bucket.
+         */
+        public long[] getTimeToFirstByteHistogram() {
+            return mTimeToFirstByte.clone();
+        }
+
+        /**
+         * @return the number of decodes whose latency fell in each bucket.
+         */
+        public long[] getDecodeLatencyHistogram() {
+            return mDecodeLatency.clone();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Native ad image metrics:")
+                    .append("\n  requests: ").append(getRequestCount())
+                    .append("\n  bytes read: ").append(getBytesRead())
+                    .append("\n  decodes: ").append(getDecodeCount())
+                    .append("\n  decoded bitmap bytes: ").append(getDecodedBitmapBytes())
+                    .append("\n  memory cache hits/misses: ").append(getMemoryCacheHitCount())
+                    .append('/').append(getMemoryCacheMissCount())
+                    .append("\n  disk cache hits/misses: ").append(getDiskCacheHitCount())
+                    .append('/').append(getDiskCacheMissCount())
+                    .append("\n  timeouts: ").append(getTimeoutCount());
+            appendHistogram(builder, "time to first byte", mTimeToFirstByte);
+            appendHistogram(builder, "decode latency", mDecodeLatency);
+            return builder.toString();
+        }
+
+        private static void appendHistogram(StringBuilder builder, String name, long[] buckets) {
+            builder.append("\n  ").append(name).append(" (ms):");
+            for (int i = 0; i < buckets.length; i++) {
+                if (i < BUCKET_BOUNDS_MILLIS.length) {
+                    builder.append(" <=").append(BUCKET_BOUNDS_MILLIS[i]);
+                } else {
+                    builder.append(" >").append(BUCKET_BOUNDS_MILLIS[i - 1]);
+                }
+                builder.append(':').append(buckets[i]);
+            }
+        }
+    }
+}
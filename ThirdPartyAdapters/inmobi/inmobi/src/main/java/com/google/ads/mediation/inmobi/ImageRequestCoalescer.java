@@ -0,0 +1,230 @@
+package com.google.ads.mediation.inmobi;
+
+import android.graphics.Bitmap;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes concurrent requests for the same image URL share a single download and decode.
+ *
+ * <p>Each caller gets its own {@link Future}. Cancelling it only detaches that caller; the
+ * shared work is cancelled, and its {@link Loader} aborted, once every caller waiting on it has
+ * cancelled.
+ *
+ * <p>The shared bitmap is retained in the {@link BitmapPool} once per caller before any of them
+ * can see it, so that one caller releasing it early cannot hand it to the pool while another is
+ * about to use it. The reference of a caller is released for it if it cancels before getting the
+ * bitmap; once {@link Future#get} returned the bitmap, the caller owns the reference and must
+ * release it.
+ */
+final class ImageRequestCoalescer {
+
+    private static final ConcurrentHashMap<String, Flight> sInFlight = new ConcurrentHashMap<>();
+
+    private ImageRequestCoalescer() {
+    }
+
+    /**
+     * Returns a future for the image at {@code key}. If a request for the same key is already in
+     * flight the caller joins it, otherwise {@code loader} is submitted to {@code executor}.
+     *
+     * @throws RejectedExecutionException if {@code executor} does not accept the work.
+     */
+    static Future<Bitmap> submit(String key, Loader loader, Executor executor) {
+        while (true) {
+            Flight flight = sInFlight.get(key);
+            if (flight == null) {
+                // The flight is published with its creator already counted as a waiter, so that
+                // callers joining and cancelling in the meantime cannot abandon it.
+                Flight created = new Flight(key, loader);
+                flight = sInFlight.putIfAbsent(key, created);
+                if (flight == null) {
+                    try {
+                        executor.execute(created);
+                    } catch (RejectedExecutionException e) {
+                        sInFlight.remove(key, created);
+                        throw e;
+                    }
+                    return new Waiter(created);
+                }
+            }
+            if (flight.acquire()) {
+                return new Waiter(flight);
+            }
+            // The flight was abandoned by all of its waiters. Remove it and start a new one.
+            sInFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return the number of distinct images currently being loaded.
+     */
+    static int inFlightCount() {
+        return sInFlight.size();
+    }
+
+    /**
+     * Loads a single image.
+     */
+    abstract static class Loader implements Callable<Bitmap> {
+
+        /**
+         * Called from another thread when the load is no longer needed, to unblock any I/O that
+         * {@link #call()} is blocked on. Interrupting the loading thread alone does not stop
+         * blocking socket reads.
+         */
+        abstract void abort();
+    }
+
+    /**
+     * The shared download and decode for a single key.
+     */
+    private static final class Flight extends FutureTask<Bitmap> {
+        private final String mKey;
+        private final Loader mLoader;
+        private int mWaiters = 1;
+        private boolean mAbandoned;
+
+        /**
+         * The loaded bitmap, retained once for each waiter. Set before the flight completes.
+         */
+        private Bitmap mBitmap;
+
+        /**
+         * Creates a flight held by a single waiter, its creator.
+         */
+        Flight(String key, Loader loader) {
+            super(loader);
+            mKey = key;
+            mLoader = loader;
+        }
+
+        synchronized boolean acquire() {
+            if (mAbandoned) {
+                return false;
+            }
+            mWaiters++;
+            if (mBitmap != null) {
+                // Joined after the bitmap loaded, but before the flight left the in-flight map.
+                BitmapPool.getInstance().retain(mBitmap);
+            }
+            return true;
+        }
+
+        /**
+         * Detaches a waiter that has not gotten the bitmap, dropping its reference to it.
+         */
+        void release() {
+            Bitmap bitmap;
+            boolean isAbandoned;
+            synchronized (this) {
+                mWaiters--;
+                bitmap = mBitmap;
+                isAbandoned = mWaiters == 0 && bitmap == null && !isDone();
+                if (isAbandoned) {
+                    mAbandoned = true;
+                }
+            }
+            BitmapPool.getInstance().release(bitmap);
+            if (isAbandoned && cancel(true)) {
+                mLoader.abort();
+            }
+        }
+
+        @Override
+        protected void set(Bitmap bitmap) {
+            synchronized (this) {
+                if (mAbandoned) {
+                    // Being cancelled, no waiter is left to use the bitmap.
+                    return;
+                }
+                if (bitmap != null) {
+                    // One reference per waiter, taken before any of them can see the bitmap.
+                    BitmapPool bitmapPool = BitmapPool.getInstance();
+                    for (int i = 0; i < mWaiters; i++) {
+                        bitmapPool.retain(bitmap);
+                    }
+                    mBitmap = bitmap;
+                }
+            }
+            super.set(bitmap);
+        }
+
+        @Override
+        protected void done() {
+            sInFlight.remove(mKey, this);
+        }
+    }
+
+    /**
+     * A single caller's view of a {@link Flight}.
+     */
+    private static final class Waiter implements Future<Bitmap> {
+        private final Flight mFlight;
+        private boolean mCancelled;
+        private boolean mIsBitmapHandedOut;
+
+        Waiter(Flight flight) {
+            mFlight = flight;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            synchronized (this) {
+                if (mCancelled || mIsBitmapHandedOut) {
+                    return false;
+                }
+                mCancelled = true;
+            }
+            mFlight.release();
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return mCancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return isCancelled() || mFlight.isDone();
+        }
+
+        @Override
+        public Bitmap get() throws InterruptedException, ExecutionException {
+            checkNotCancelled();
+            return handOut(mFlight.get());
+        }
+
+        @Override
+        public Bitmap get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            checkNotCancelled();
+            return handOut(mFlight.get(timeout, unit));
+        }
+
+        private void checkNotCancelled() {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+        }
+
+        /**
+         * Passes the reference of this waiter on to its caller.
+         */
+        private synchronized Bitmap handOut(Bitmap bitmap) {
+            checkNotCancelled();
+            mIsBitmapHandedOut = true;
+            return bitmap;
+        }
+    }
+}
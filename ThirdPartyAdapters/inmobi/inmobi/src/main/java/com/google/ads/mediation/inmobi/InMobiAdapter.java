@@ -59,6 +59,9 @@ public final class InMobiAdapter extends InMobiMediationAdapter
 
     private InMobiNative mAdNative;
 
+    private InMobiUnifiedNativeAdMapper mUnifiedNativeAdMapper;
+    private InMobiAppInstallNativeAdMapper mAppInstallNativeAdMapper;
+
     public static Boolean isAppInitialized() {
         return sIsAppInitialized;
     }
@@ -96,6 +99,14 @@ public final class InMobiAdapter extends InMobiMediationAdapter
     //region MediationAdapter implementation.
     @Override
     public void onDestroy() {
+        if (mUnifiedNativeAdMapper != null) {
+            mUnifiedNativeAdMapper.cancelImageDownload();
+            mUnifiedNativeAdMapper = null;
+        }
+        if (mAppInstallNativeAdMapper != null) {
+            mAppInstallNativeAdMapper.cancelImageDownload();
+            mAppInstallNativeAdMapper = null;
+        }
     }
 
     @Override
@@ -461,21 +472,21 @@ public final class InMobiAdapter extends InMobiMediationAdapter
                         }
 
                         if (mediationAdRequest.isUnifiedNativeAdRequested()) {
-                            InMobiUnifiedNativeAdMapper inMobiUnifiedNativeAdMapper =
+                            mUnifiedNativeAdMapper =
                                     new InMobiUnifiedNativeAdMapper(InMobiAdapter.this,
                                             imNativeAd,
                                             mIsOnlyUrl,
                                             mNativeListener);
-                            inMobiUnifiedNativeAdMapper.mapUnifiedNativeAd(context);
+                            mUnifiedNativeAdMapper.mapUnifiedNativeAd(context);
                         } else if (mediationAdRequest.isAppInstallAdRequested()) {
 
-                            InMobiAppInstallNativeAdMapper inMobiAppInstallNativeAdMapper =
+                            mAppInstallNativeAdMapper =
                                     new InMobiAppInstallNativeAdMapper(
                                             InMobiAdapter.this,
                                             imNativeAd,
                                             mIsOnlyUrl,
                                             mNativeListener);
-                            inMobiAppInstallNativeAdMapper.mapAppInstallAd(context);
+                            mAppInstallNativeAdMapper.mapAppInstallAd(context);
                         }
                     }
 
@@ -51,6 +51,14 @@ class InMobiAppInstallNativeAdMapper extends NativeAppInstallAdMapper {
      * InMobi adapter instance.
      */
     private final InMobiAdapter mInMobiAdapter;
+    /**
+     * Task downloading the image assets, if any.
+     */
+    private ImageDownloaderAsyncTask mImageDownloaderTask;
+    /**
+     * Flag to check whether the icon bitmap has been released to the bitmap pool.
+     */
+    private boolean mIsIconReleased;
 
     public InMobiAppInstallNativeAdMapper(InMobiAdapter inMobiAdapter,
                                           InMobiNative inMobiNative,
@@ -163,7 +171,8 @@ class InMobiAppInstallNativeAdMapper extends NativeAppInstallAdMapper {
 
         // Download drawables.
         if (!this.mIsOnlyURL) {
-            new ImageDownloaderAsyncTask(new ImageDownloaderAsyncTask.DrawableDownloadListener() {
+            mImageDownloaderTask = new ImageDownloaderAsyncTask(context,
+                    new ImageDownloaderAsyncTask.DrawableDownloadListener() {
                 @Override
                 public void onDownloadSuccess(HashMap<String, Drawable> drawableMap) {
                     Drawable iconDrawable = drawableMap.get(ImageDownloaderAsyncTask.KEY_ICON);
@@ -189,7 +198,8 @@ class InMobiAppInstallNativeAdMapper extends NativeAppInstallAdMapper {
                     mMediationNativeListener.onAdFailedToLoad(mInMobiAdapter, AdRequest
                             .ERROR_CODE_NO_FILL);
                 }
-            }).execute(map);
+            });
+            mImageDownloaderTask.execute(map);
         } else {
             mMediationNativeListener
                     .onAdLoaded(mInMobiAdapter, InMobiAppInstallNativeAdMapper.this);
@@ -216,5 +226,21 @@ class InMobiAppInstallNativeAdMapper extends NativeAppInstallAdMapper {
     @Override
     public void untrackView(View view) {
         mInMobiNative.destroy();
+
+        // The ad's views are gone, let the decoded icon be reused for other ads.
+        if (!mIsOnlyURL && !mIsIconReleased && getIcon() != null) {
+            BitmapPool.getInstance().release(getIcon().getDrawable());
+            mIsIconReleased = true;
+        }
+    }
+
+    /**
+     * Cancels any image download still in progress, so that no callbacks are sent afterwards.
+     */
+    void cancelImageDownload() {
+        if (mImageDownloaderTask != null) {
+            mImageDownloaderTask.cancelDownload();
+            mImageDownloaderTask = null;
+        }
     }
 }
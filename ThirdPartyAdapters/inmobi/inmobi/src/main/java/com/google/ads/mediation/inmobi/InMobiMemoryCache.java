@@ -1,92 +1,191 @@
 package com.google.ads.mediation.inmobi;
 
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
 import android.graphics.Bitmap;
-import android.graphics.drawable.BitmapDrawable;
-import android.graphics.drawable.Drawable;
 import android.util.Log;
 
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * This class is used to cache images loaded/shown by InMobi adapter.
+ * This class is used to cache images loaded/shown by InMobi adapter. A single instance is shared
+ * by all native ads in the process. Entries are keyed by image URL and the cache is bounded by the
+ * number of bytes used by the decoded bitmaps. Cached bitmaps are retained in the
+ * {@link BitmapPool} until they are evicted.
+ *
+ * <p>Only bitmaps are cached. Each ad wraps them in its own drawable, since drawable state such as
+ * bounds and alpha is not shared safely between views.
+ *
+ * <p>The cache is trimmed when the system asks the application to reduce its memory usage.
  */
-class InMobiMemoryCache {
+class InMobiMemoryCache implements ComponentCallbacks2 {
     private static final String TAG = "MemoryCache";
-    private final Map<String, Drawable> mCache = Collections.synchronizedMap(
-            new LinkedHashMap<String, Drawable>(10, 1.5f, true)); // Last argument true for LRU
-    // ordering.
-    private long mSize = 0; // Current allocated size.
-    private long mLimit = 1000000; // Max memory in bytes.
-
-    InMobiMemoryCache() {
-        // Use 25% of available heap size.
-        setLimit(Runtime.getRuntime().maxMemory() / 4);
+
+    /**
+     * Number of independently locked segments. Must be a power of two.
+     */
+    private static final int SEGMENT_COUNT = 8;
+
+    private static InMobiMemoryCache sInstance;
+
+    private final Segment[] mSegments;
+
+    private final long mLimit;
+
+    static synchronized InMobiMemoryCache getInstance(Context context) {
+        if (sInstance == null) {
+            // Use 12.5% of available heap size.
+            sInstance = new InMobiMemoryCache(Runtime.getRuntime().maxMemory() / 8);
+            context.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
     }
 
-    private void setLimit(long new_limit) {
-        mLimit = new_limit;
-        Log.i(TAG, "MemoryCache will use up to " + mLimit / 1024. / 1024. + "MB");
+    InMobiMemoryCache(long limit) {
+        this(limit, SEGMENT_COUNT);
     }
 
-    public Drawable get(String id) {
-        try {
-            if (!mCache.containsKey(id))
-                return null;
-            // NullPointerException sometimes happen here
-            // http://code.google.com/p/osmdroid/issues/detail?id=78
-            return mCache.get(id);
-        } catch (NullPointerException ex) {
-            ex.printStackTrace();
+    /**
+     * @param segmentCount number of independently locked segments. Must be a power of two.
+     */
+    InMobiMemoryCache(long limit, int segmentCount) {
+        mLimit = limit;
+        mSegments = new Segment[segmentCount];
+        long segmentLimit = Math.max(1, limit / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            mSegments[i] = new Segment(segmentLimit);
+        }
+        Log.i(TAG, "MemoryCache will use up to " + limit / 1024. / 1024. + "MB");
+    }
+
+    public Bitmap get(String id) {
+        if (id == null) {
             return null;
         }
+        return segmentFor(id).get(id, false);
     }
 
-    void put(String id, Drawable drawable) {
-        try {
-            if (mCache.containsKey(id))
-                mSize -= getSizeInBytes(((BitmapDrawable) mCache.get(id)).getBitmap());
-            mCache.put(id, drawable);
-            mSize += getSizeInBytes(((BitmapDrawable) drawable).getBitmap());
-            checkSize();
-            Log.d(TAG, "Drawable used from cache");
-        } catch (Throwable th) {
-            th.printStackTrace();
+    /**
+     * Like {@link #get}, but also retains the bitmap in the {@link BitmapPool} on behalf of the
+     * caller, atomically with the lookup so that a concurrent eviction cannot pool it first.
+     */
+    Bitmap getAndRetain(String id) {
+        if (id == null) {
+            return null;
         }
+        return segmentFor(id).get(id, true);
     }
 
-    private void checkSize() {
-        Log.i(TAG, "cache size=" + mSize + " length=" + mCache.size());
-        if (mSize > mLimit) {
-            Iterator<Map.Entry<String, Drawable>> iter = mCache.entrySet().iterator();//least
-            // recently accessed item will be the first one iterated
-            while (iter.hasNext()) {
-                Map.Entry<String, Drawable> entry = iter.next();
-                mSize -= getSizeInBytes(((BitmapDrawable) entry.getValue()).getBitmap());
-                iter.remove();
-                if (mSize <= mLimit)
-                    break;
-            }
-            Log.i(TAG, "Clean cache. New size " + mCache.size());
+    void put(String id, Bitmap bitmap) {
+        if (id == null || bitmap == null) {
+            return;
         }
+        segmentFor(id).put(id, bitmap);
     }
 
     public void clear() {
-        try {
-            // NullPointerException sometimes happen here
-            // http://code.google.com/p/osmdroid/issues/detail?id=78
-            mCache.clear();
-            mSize = 0;
-        } catch (NullPointerException ex) {
-            ex.printStackTrace();
+        trimToSize(0);
+    }
+
+    /**
+     * @return the number of bytes currently held by the cache.
+     */
+    long size() {
+        long size = 0;
+        for (Segment segment : mSegments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            // The app is in the background list, its native ads are not on screen.
+            clear();
+        } else if (level >= TRIM_MEMORY_UI_HIDDEN || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            trimToSize(mLimit / 2);
         }
     }
 
-    private long getSizeInBytes(Bitmap bitmap) {
-        if (bitmap == null)
-            return 0;
-        return bitmap.getRowBytes() * bitmap.getHeight();
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    private void trimToSize(long size) {
+        long segmentSize = size / mSegments.length;
+        for (Segment segment : mSegments) {
+            segment.trimToSize(segmentSize);
+        }
+    }
+
+    private Segment segmentFor(String id) {
+        int hash = id.hashCode();
+        hash ^= (hash >>> 16);
+        return mSegments[hash & (mSegments.length - 1)];
+    }
+
+    private static long getSizeInBytes(Bitmap bitmap) {
+        return (long) bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /**
+     * An access ordered, byte bounded LRU map guarded by its own lock.
+     */
+    private static final class Segment {
+        // Last argument true for LRU ordering.
+        private final LinkedHashMap<String, Bitmap> mCache =
+                new LinkedHashMap<>(16, 0.75f, true);
+        private final long mLimit;
+        private long mSize = 0;
+
+        Segment(long limit) {
+            mLimit = limit;
+        }
+
+        synchronized Bitmap get(String id, boolean retain) {
+            Bitmap bitmap = mCache.get(id);
+            if (retain && bitmap != null) {
+                BitmapPool.getInstance().retain(bitmap);
+            }
+            return bitmap;
+        }
+
+        synchronized void put(String id, Bitmap bitmap) {
+            BitmapPool.getInstance().retain(bitmap);
+            Bitmap previous = mCache.put(id, bitmap);
+            if (previous != null) {
+                mSize -= getSizeInBytes(previous);
+                BitmapPool.getInstance().release(previous);
+            }
+            mSize += getSizeInBytes(bitmap);
+            trimToSize(mLimit);
+        }
+
+        synchronized long size() {
+            return mSize;
+        }
+
+        synchronized void trimToSize(long limit) {
+            if (mSize <= limit) {
+                return;
+            }
+            // Least recently accessed item will be the first one iterated.
+            Iterator<Map.Entry<String, Bitmap>> iter = mCache.entrySet().iterator();
+            while (iter.hasNext() && mSize > limit) {
+                Map.Entry<String, Bitmap> entry = iter.next();
+                mSize -= getSizeInBytes(entry.getValue());
+                BitmapPool.getInstance().release(entry.getValue());
+                iter.remove();
+            }
+        }
     }
 }
@@ -0,0 +1,155 @@
+package com.google.ads.mediation.inmobi;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.util.DisplayMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes native ad images no larger than needed for a target size. A bounds-only pass is run
+ * first and the power of two {@link BitmapFactory.Options#inSampleSize} that keeps the image at
+ * least as large as the target is used for the real decode. When available, a released bitmap
+ * from the {@link BitmapPool} is reused for the decoded pixels.
+ */
+final class SampledBitmapDecoder {
+
+    private static final String MIME_TYPE_JPEG = "image/jpeg";
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final int mMaxWidth;
+    private final int mMaxHeight;
+    private final boolean mPreferRgb565;
+    private final BitmapPool mBitmapPool;
+
+    /**
+     * @param maxWidth     the widest the decoded image needs to be, in pixels.
+     * @param maxHeight    the tallest the decoded image needs to be, in pixels.
+     * @param preferRgb565 whether opaque (JPEG) images should be decoded to
+     *                     {@link Bitmap.Config#RGB_565}, halving their memory use.
+     * @param bitmapPool   pool to take reusable bitmaps from, or {@code null} to always allocate
+     *                     new bitmaps.
+     */
+    SampledBitmapDecoder(int maxWidth, int maxHeight, boolean preferRgb565,
+                         BitmapPool bitmapPool) {
+        mMaxWidth = maxWidth;
+        mMaxHeight = maxHeight;
+        mPreferRgb565 = preferRgb565;
+        mBitmapPool = bitmapPool;
+    }
+
+    /**
+     * Creates a decoder that bounds images to a square of {@code maxSizeDp} on the device screen,
+     * or to the screen size if {@code maxSizeDp} is not positive.
+     */
+    static SampledBitmapDecoder forMaxSizeDp(int maxSizeDp, boolean preferRgb565) {
+        DisplayMetrics metrics = Resources.getSystem().getDisplayMetrics();
+        BitmapPool bitmapPool = BitmapPool.getInstance();
+        if (maxSizeDp <= 0) {
+            return new SampledBitmapDecoder(
+                    metrics.widthPixels, metrics.heightPixels, preferRgb565, bitmapPool);
+        }
+        int maxSizePx = Math.round(maxSizeDp * metrics.density);
+        return new SampledBitmapDecoder(maxSizePx, maxSizePx, preferRgb565, bitmapPool);
+    }
+
+    /**
+     * @return a key identifying images decoded from {@code url} by this decoder. Decoders with
+     * different targets produce different bitmaps for the same URL.
+     */
+    String getKey(String url) {
+        return url + "#" + mMaxWidth + "x" + mMaxHeight + (mPreferRgb565 ? "-565" : "");
+    }
+
+    /**
+     * Reads {@code in} fully and decodes it.
+     *
+     * @throws IOException if the stream cannot be read or does not contain a decodable image.
+     */
+    Bitmap decode(InputStream in) throws IOException {
+        return decode(readFully(in));
+    }
+
+    /**
+     * Decodes an encoded image.
+     *
+     * @throws IOException if {@code data} does not contain a decodable image.
+     */
+    Bitmap decode(byte[] data) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Unable to decode image bounds.");
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = calculateInSampleSize(
+                options.outWidth, options.outHeight, mMaxWidth, mMaxHeight);
+        if (mPreferRgb565 && MIME_TYPE_JPEG.equals(options.outMimeType)) {
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+        }
+        // Mutable so that the bitmap can be reused once it is released to the pool.
+        options.inMutable = true;
+        if (mBitmapPool != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            int width = divideRoundingUp(options.outWidth, options.inSampleSize);
+            int height = divideRoundingUp(options.outHeight, options.inSampleSize);
+            options.inBitmap = mBitmapPool.get(
+                    BitmapPool.getByteCount(width, height, options.inPreferredConfig));
+        }
+
+        Bitmap bitmap;
+        try {
+            bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        } catch (IllegalArgumentException e) {
+            if (options.inBitmap == null) {
+                throw e;
+            }
+            // The pooled bitmap could not be reused for this image.
+            mBitmapPool.putBack(options.inBitmap);
+            options.inBitmap = null;
+            bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        }
+        if (bitmap == null) {
+            if (options.inBitmap != null) {
+                mBitmapPool.putBack(options.inBitmap);
+            }
+            throw new IOException("Unable to decode image.");
+        }
+        return bitmap;
+    }
+
+    private static int divideRoundingUp(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Returns the largest power of two sample size that keeps both dimensions at or above the
+     * requested size.
+     */
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return inSampleSize;
+        }
+        while ((width / (inSampleSize * 2)) >= reqWidth
+                && (height / (inSampleSize * 2)) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,201 @@
+package com.google.ads.mediation.inmobi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.graphics.Bitmap;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests for {@link ImageRequestCoalescer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ImageRequestCoalescerTest {
+
+    private static final String KEY = "https://example.com/icon.png";
+
+    private QueuedExecutor mQueuedExecutor;
+
+    private ExecutorService mThreadExecutor;
+
+    @Before
+    public void setUp() {
+        mQueuedExecutor = new QueuedExecutor();
+        mThreadExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        mThreadExecutor.shutdownNow();
+    }
+
+    @Test
+    public void submit_sameKeySharesSingleLoad() throws Exception {
+        FakeLoader loader = new FakeLoader();
+
+        Future<Bitmap> first = ImageRequestCoalescer.submit(KEY, loader, mQueuedExecutor);
+        Future<Bitmap> second =
+                ImageRequestCoalescer.submit(KEY, new FakeLoader(), mQueuedExecutor);
+        assertEquals(1, mQueuedExecutor.mTasks.size());
+        mQueuedExecutor.runAll();
+
+        assertEquals(1, loader.mCallCount.get());
+        assertSame(first.get(), second.get());
+        assertEquals(0, ImageRequestCoalescer.inFlightCount());
+    }
+
+    @Test
+    public void cancel_notLastWaiterKeepsFlight() throws Exception {
+        FakeLoader loader = new FakeLoader();
+        Future<Bitmap> first = ImageRequestCoalescer.submit(KEY, loader, mQueuedExecutor);
+        Future<Bitmap> second = ImageRequestCoalescer.submit(KEY, loader, mQueuedExecutor);
+
+        assertTrue(first.cancel(true));
+        mQueuedExecutor.runAll();
+
+        assertFalse(loader.mIsAborted);
+        assertEquals(1, loader.mCallCount.get());
+        assertSame(loader.mBitmap, second.get());
+    }
+
+    @Test
+    public void cancel_lastWaiterAbortsQueuedFlight() {
+        FakeLoader loader = new FakeLoader();
+        Future<Bitmap> first = ImageRequestCoalescer.submit(KEY, loader, mQueuedExecutor);
+        Future<Bitmap> second = ImageRequestCoalescer.submit(KEY, loader, mQueuedExecutor);
+
+        first.cancel(true);
+        second.cancel(true);
+        mQueuedExecutor.runAll();
+
+        assertTrue(loader.mIsAborted);
+        assertEquals(0, loader.mCallCount.get());
+        assertEquals(0, ImageRequestCoalescer.inFlightCount());
+    }
+
+    @Test
+    public void cancel_lastWaiterAbortsRunningLoad() throws Exception {
+        BlockingLoader loader = new BlockingLoader();
+        Future<Bitmap> first = ImageRequestCoalescer.submit(KEY, loader, mThreadExecutor);
+        Future<Bitmap> second = ImageRequestCoalescer.submit(KEY, loader, mThreadExecutor);
+        assertTrue(loader.mStarted.await(5, TimeUnit.SECONDS));
+
+        first.cancel(true);
+        assertEquals(1, loader.mAborted.getCount());
+        second.cancel(true);
+
+        assertTrue(loader.mAborted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, ImageRequestCoalescer.inFlightCount());
+    }
+
+    @Test
+    public void submit_afterFlightAbandonedStartsNewLoad() throws Exception {
+        FakeLoader abandonedLoader = new FakeLoader();
+        ImageRequestCoalescer.submit(KEY, abandonedLoader, mQueuedExecutor).cancel(true);
+
+        FakeLoader loader = new FakeLoader();
+        Future<Bitmap> future = ImageRequestCoalescer.submit(KEY, loader, mQueuedExecutor);
+        mQueuedExecutor.runAll();
+
+        assertEquals(0, abandonedLoader.mCallCount.get());
+        assertSame(loader.mBitmap, future.get());
+        assertNotSame(abandonedLoader.mBitmap, loader.mBitmap);
+    }
+
+    @Test
+    public void submit_rejectedByExecutorLeavesNoFlight() {
+        Executor rejectingExecutor = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                throw new RejectedExecutionException();
+            }
+        };
+
+        try {
+            ImageRequestCoalescer.submit(KEY, new FakeLoader(), rejectingExecutor);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+            // Expected.
+        }
+        assertEquals(0, ImageRequestCoalescer.inFlightCount());
+    }
+
+    /**
+     * Queues tasks until {@link #runAll} is called.
+     */
+    private static class QueuedExecutor implements Executor {
+        final List<Runnable> mTasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            mTasks.add(runnable);
+        }
+
+        void runAll() {
+            for (Runnable task : mTasks) {
+                task.run();
+            }
+            mTasks.clear();
+        }
+    }
+
+    private static class FakeLoader extends ImageRequestCoalescer.Loader {
+        final Bitmap mBitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        final AtomicInteger mCallCount = new AtomicInteger();
+        volatile boolean mIsAborted;
+
+        @Override
+        public Bitmap call() {
+            mCallCount.incrementAndGet();
+            return mBitmap;
+        }
+
+        @Override
+        void abort() {
+            mIsAborted = true;
+        }
+    }
+
+    /**
+     * Blocks in {@link #call()} until aborted, like a stalled download.
+     */
+    private static class BlockingLoader extends ImageRequestCoalescer.Loader {
+        final CountDownLatch mStarted = new CountDownLatch(1);
+        final CountDownLatch mAborted = new CountDownLatch(1);
+
+        @Override
+        public Bitmap call() throws Exception {
+            mStarted.countDown();
+            mAborted.await();
+            throw new InterruptedIOException("Aborted.");
+        }
+
+        @Override
+        void abort() {
+            mAborted.countDown();
+        }
+    }
+}
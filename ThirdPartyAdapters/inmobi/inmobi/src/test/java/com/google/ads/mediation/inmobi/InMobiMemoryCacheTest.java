@@ -0,0 +1,148 @@
+package com.google.ads.mediation.inmobi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests for {@link InMobiMemoryCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class InMobiMemoryCacheTest {
+
+    /**
+     * Size of a 10x10 ARGB_8888 bitmap, in bytes.
+     */
+    private static final int BITMAP_SIZE = 10 * 10 * 4;
+
+    private static final int CAPACITY = 4;
+
+    private InMobiMemoryCache mCache;
+
+    @Before
+    public void setUp() {
+        // A single segment, so that eviction follows a single LRU order.
+        mCache = new InMobiMemoryCache(CAPACITY * BITMAP_SIZE, 1);
+    }
+
+    @Test
+    public void get_returnsCachedBitmap() {
+        Bitmap bitmap = createBitmap();
+        mCache.put("a", bitmap);
+
+        assertSame(bitmap, mCache.get("a"));
+        assertSame(bitmap, mCache.getAndRetain("a"));
+        assertNull(mCache.get("b"));
+        assertNull(mCache.get(null));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedFirst() {
+        mCache.put("a", createBitmap());
+        mCache.put("b", createBitmap());
+        mCache.put("c", createBitmap());
+        mCache.put("d", createBitmap());
+        // Accessing "a" makes "b" the least recently used entry.
+        mCache.get("a");
+
+        mCache.put("e", createBitmap());
+        assertNull(mCache.get("b"));
+        assertNotNull(mCache.get("a"));
+
+        mCache.put("f", createBitmap());
+        assertNull(mCache.get("c"));
+        assertNotNull(mCache.get("d"));
+        assertEquals(CAPACITY * BITMAP_SIZE, mCache.size());
+    }
+
+    @Test
+    public void put_replacingEntryKeepsSize() {
+        mCache.put("a", createBitmap());
+        mCache.put("a", createBitmap());
+
+        assertEquals(BITMAP_SIZE, mCache.size());
+    }
+
+    @Test
+    public void hitRate_workingSetThatFits() {
+        // 4 images requested 10 times each only miss on their first request.
+        assertEquals(36, countHits(CAPACITY, 10));
+    }
+
+    @Test
+    public void hitRate_workingSetLargerThanCache() {
+        // Cycling through 5 images evicts each one right before it is requested again.
+        assertEquals(0, countHits(CAPACITY + 1, 10));
+    }
+
+    @Test
+    public void onTrimMemory_uiHiddenKeepsMostRecentHalf() {
+        mCache.put("a", createBitmap());
+        mCache.put("b", createBitmap());
+        mCache.put("c", createBitmap());
+        mCache.put("d", createBitmap());
+
+        mCache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        assertEquals(CAPACITY / 2 * BITMAP_SIZE, mCache.size());
+        assertNull(mCache.get("a"));
+        assertNull(mCache.get("b"));
+        assertNotNull(mCache.get("c"));
+        assertNotNull(mCache.get("d"));
+    }
+
+    @Test
+    public void onTrimMemory_backgroundClearsCache() {
+        mCache.put("a", createBitmap());
+        mCache.put("b", createBitmap());
+
+        mCache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+
+        assertEquals(0, mCache.size());
+        assertNull(mCache.get("a"));
+    }
+
+    @Test
+    public void onTrimMemory_runningModerateKeepsEverything() {
+        mCache.put("a", createBitmap());
+
+        mCache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        assertNotNull(mCache.get("a"));
+    }
+
+    /**
+     * Requests {@code imageCount} images in turn, {@code rounds} times, caching each miss.
+     *
+     * @return the number of requests served from the cache.
+     */
+    private int countHits(int imageCount, int rounds) {
+        int hits = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int image = 0; image < imageCount; image++) {
+                String key = "image" + image;
+                if (mCache.get(key) != null) {
+                    hits++;
+                } else {
+                    mCache.put(key, createBitmap());
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static Bitmap createBitmap() {
+        return Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    }
+}
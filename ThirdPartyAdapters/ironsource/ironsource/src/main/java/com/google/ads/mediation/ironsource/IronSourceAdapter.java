@@ -7,10 +7,10 @@ import android.text.TextUtils;
 import android.util.Log;
 
 import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.mediation.InitializationCompleteCallback;
 import com.google.android.gms.ads.mediation.MediationAdRequest;
 import com.google.android.gms.ads.mediation.MediationInterstitialAdapter;
 import com.google.android.gms.ads.mediation.MediationInterstitialListener;
-import com.google.ads.mediation.ironsource.IronSourceMediationAdapter.INSTANCE_STATE;
 
 import com.ironsource.mediationsdk.IronSource;
 import com.ironsource.mediationsdk.logger.IronSourceError;
@@ -48,19 +48,42 @@ public class IronSourceAdapter
             new ArrayList<>(Collections.singletonList(IronSource.AD_UNIT.INTERSTITIAL));
 
     /**
-     * Holds the interstitial instance state
+     * Initializes the IronSource SDK if needed and loads an interstitial ad for the instance in
+     * the given server parameters, so that the first ad request for it can be served right away.
+     * An ad request for the same instance made while the ad is loading takes over the load.
+     *
+     * @param activity         required to initialize the IronSource SDK.
+     * @param serverParameters the IronSource server parameters configured in the AdMob UI.
+     * @param callback         notified once the ad is loaded, failed to load or was taken over by
+     *                         an ad request, unless the warm-up is cancelled first.
      */
-    private INSTANCE_STATE mState = INSTANCE_STATE.START;
+    public static void warmUpInterstitial(Activity activity,
+                                          Bundle serverParameters,
+                                          InitializationCompleteCallback callback) {
+        String appKey = serverParameters.getString(IronSourceAdapterUtils.KEY_APP_KEY);
+        if (TextUtils.isEmpty(appKey)) {
+            callback.onInitializationFailed(String.format("IronSource warm-up failed, make sure "
+                    + "that the '%s' server parameter is added", IronSourceAdapterUtils.KEY_APP_KEY));
+            return;
+        }
 
-    /**
-     * This is the id of interstitial instance requested.
-     */
-    INSTANCE_STATE getInstanceState() {
-        return mState;
+        String instanceId = serverParameters.getString(
+                IronSourceAdapterUtils.KEY_INSTANCE_ID, DEFAULT_INSTANCE_ID);
+        try {
+            if (!mDidInitInterstitial.getAndSet(true)) {
+                IronSourceManager.getInstance().initIronSourceSDK(activity, appKey, mAdUnitsToInit);
+            }
+            IronSourceManager.getInstance().warmUpInterstitial(instanceId, callback);
+        } catch (Exception e) {
+            callback.onInitializationFailed("IronSource warm-up failed, " + e.getMessage());
+        }
     }
 
-    void setInstanceState(IronSourceMediationAdapter.INSTANCE_STATE mState) {
-        this.mState = mState;
+    /**
+     * Cancels all running interstitial warm-ups. Their callbacks are no longer notified.
+     */
+    public static void cancelWarmUp() {
+        IronSourceManager.getInstance().cancelInterstitialWarmUps();
     }
 
     //region MediationInterstitialAdapter implementation.
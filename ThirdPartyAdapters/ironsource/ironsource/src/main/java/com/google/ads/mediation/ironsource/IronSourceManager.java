@@ -2,9 +2,11 @@ package com.google.ads.mediation.ironsource;
 
 import android.app.Activity;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import android.text.TextUtils;
 import android.util.Log;
 
+import com.google.android.gms.ads.mediation.InitializationCompleteCallback;
 import com.ironsource.mediationsdk.IronSource;
 import com.ironsource.mediationsdk.logger.IronSourceError;
 import com.ironsource.mediationsdk.sdk.ISDemandOnlyInterstitialListener;
@@ -12,8 +14,10 @@ import com.ironsource.mediationsdk.sdk.ISDemandOnlyRewardedVideoListener;
 import com.google.ads.mediation.ironsource.IronSourceMediationAdapter.INSTANCE_STATE;
 
 import java.lang.ref.WeakReference;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.ads.mediation.ironsource.IronSourceAdapterUtils.ADAPTER_VERSION_NAME;
 import static com.google.ads.mediation.ironsource.IronSourceAdapterUtils.MEDIATION_NAME;
@@ -26,9 +30,15 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
 
     private static final IronSourceManager instance = new IronSourceManager();
 
-    private ConcurrentHashMap<String, WeakReference<IronSourceMediationAdapter>> availableInstances;
+    private ConcurrentHashMap<String, Instance<IronSourceMediationAdapter>> availableInstances;
 
-    private ConcurrentHashMap<String, WeakReference<IronSourceAdapter>> availableInterstitialInstances;
+    private ConcurrentHashMap<String, Instance<IronSourceAdapter>> availableInterstitialInstances;
+
+    /**
+     * Interstitial warm-ups that are loading, keyed by instance ID. Guarded by itself, so that a
+     * load result and an ad request taking over the warm-up are never both missed.
+     */
+    private final HashMap<String, InterstitialWarmUp> interstitialWarmUps = new HashMap<>();
 
     static IronSourceManager getInstance() {
         return instance;
@@ -60,91 +70,95 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
             return;
         }
 
-        if (canLoadInterstitialInstance(instanceId)) {
-            changeInterstitialInstanceState(ironSourceAdapter, INSTANCE_STATE.LOCKED);
-            registerISInterstitialAdapter(instanceId, weakAdapter);
-            IronSource.loadISDemandOnlyInterstitial(instanceId);
-        } else {
+        if (!getOrCreateInstance(availableInterstitialInstances, instanceId).lock(weakAdapter)) {
             ironSourceAdapter.onInterstitialAdLoadFailed(instanceId, new IronSourceError(IronSourceError.ERROR_CODE_GENERIC,
                     "interstitial instance already exists, couldn't load another one at the same time!"));
-        }
-    }
-
-    void loadRewardedVideo(String instanceId, @NonNull WeakReference<IronSourceMediationAdapter> weakAdapter) {
-
-        if (instanceId == null || weakAdapter == null) {
-            log("loadRewardedVideo - instanceId / weakAdapter is null");
             return;
         }
+        log(String.format("IronSourceManager locked interstitial instance %s", instanceId));
 
-        IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-        if (ironSourceMediationAdapter == null) {
-            log("loadRewardedVideo - ironSourceMediationAdapter is null");
-            return;
+        // The adapter is registered for the instance by now, so a warm-up load result that is
+        // not picked up by the warm-up is forwarded to it.
+        InterstitialWarmUp warmUp;
+        synchronized (interstitialWarmUps) {
+            warmUp = interstitialWarmUps.remove(instanceId);
         }
-
-        if (canLoadRewardedVideoInstance(instanceId)) {
-            changeRewardedInstanceState(ironSourceMediationAdapter, INSTANCE_STATE.LOCKED);
-            registerISRewardedVideoAdapter(instanceId, weakAdapter);
-            IronSource.loadISDemandOnlyRewardedVideo(instanceId);
-        } else {
-            ironSourceMediationAdapter.onRewardedVideoAdLoadFailed(instanceId, new IronSourceError(IronSourceError.ERROR_CODE_GENERIC,
-                    "instance already exists, couldn't load another one in the same time!"));
+        if (warmUp != null) {
+            // A warm-up is already loading this instance, its result is forwarded to this
+            // adapter.
+            warmUp.finish("Superseded by an ad request for the same instance.");
+            return;
         }
+        IronSource.loadISDemandOnlyInterstitial(instanceId);
     }
 
-
-    private boolean canLoadInterstitialInstance(String instanceId) {
-        if (!isIsInterstitialAdapterRegistered(instanceId)) {
-            return true;
+    void warmUpInterstitial(String instanceId, @NonNull InitializationCompleteCallback callback) {
+        boolean canWarmUp;
+        synchronized (interstitialWarmUps) {
+            Instance<IronSourceAdapter> instance = availableInterstitialInstances.get(instanceId);
+            canWarmUp = (instance == null || !instance.isLocked())
+                    && !interstitialWarmUps.containsKey(instanceId);
+            if (canWarmUp) {
+                interstitialWarmUps.put(instanceId, new InterstitialWarmUp(callback));
+            }
         }
-
-        if (isRegisteredInterstitialAdapterCanLoad(instanceId)) {
-            return true;
+        if (!canWarmUp) {
+            callback.onInitializationFailed(
+                    "interstitial instance is already loading, couldn't warm it up!");
+            return;
         }
-        return false;
-
+        log(String.format("IronSourceManager warming up interstitial instance %s", instanceId));
+        IronSource.loadISDemandOnlyInterstitial(instanceId);
     }
 
-    private boolean canLoadRewardedVideoInstance(String instanceId) {
-
-        if (!isISRewardedVideoAdapterRegistered(instanceId)) {
-            return true;
-        }
-        if (isRegisteredRewardedVideoAdapterCanLoad(instanceId)) {
-            return true;
+    /**
+     * Stops notifying interstitial warm-ups. Instances that are still loading are handed over to
+     * ad requests for them, as if they were still warming up.
+     */
+    void cancelInterstitialWarmUps() {
+        synchronized (interstitialWarmUps) {
+            for (InterstitialWarmUp warmUp : interstitialWarmUps.values()) {
+                warmUp.callback = null;
+            }
         }
-        return false;
     }
 
-    private boolean isRegisteredInterstitialAdapterCanLoad(String instanceId) {
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
-        if (weakAdapter == null) {
-            return true;
+    /**
+     * @return {@code true} if the load result of {@code instanceId} was for a warm-up.
+     */
+    private boolean finishInterstitialWarmUp(String instanceId,
+                                             @Nullable IronSourceError ironSourceError) {
+        InterstitialWarmUp warmUp;
+        synchronized (interstitialWarmUps) {
+            warmUp = interstitialWarmUps.remove(instanceId);
         }
-        IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-        if (ironSourceAdapter == null) {
-            return true;
-        }
-        if (!ironSourceAdapter.getInstanceState().equals(INSTANCE_STATE.CAN_LOAD)) {
+        if (warmUp == null) {
             return false;
         }
+        warmUp.finish(ironSourceError != null ? ironSourceError.getErrorMessage() : null);
         return true;
     }
 
-    private boolean isRegisteredRewardedVideoAdapterCanLoad(String instanceId) {
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-        if (weakAdapter == null) {
-            return true;
+    void loadRewardedVideo(String instanceId, @NonNull WeakReference<IronSourceMediationAdapter> weakAdapter) {
+
+        if (instanceId == null || weakAdapter == null) {
+            log("loadRewardedVideo - instanceId / weakAdapter is null");
+            return;
         }
+
         IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
         if (ironSourceMediationAdapter == null) {
-            return true;
+            log("loadRewardedVideo - ironSourceMediationAdapter is null");
+            return;
         }
-        if (!ironSourceMediationAdapter.getInstanceState().equals(INSTANCE_STATE.CAN_LOAD)) {
-            return false;
+
+        if (!getOrCreateInstance(availableInstances, instanceId).lock(weakAdapter)) {
+            ironSourceMediationAdapter.onRewardedVideoAdLoadFailed(instanceId, new IronSourceError(IronSourceError.ERROR_CODE_GENERIC,
+                    "instance already exists, couldn't load another one in the same time!"));
+            return;
         }
-        return true;
+        log(String.format("IronSourceManager locked rewarded instance %s", instanceId));
+        IronSource.loadISDemandOnlyRewardedVideo(instanceId);
     }
 
     void showRewardedVideo(String instanceId) {
@@ -155,70 +169,52 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
         IronSource.showISDemandOnlyInterstitial(instanceId);
     }
 
-    private void registerISInterstitialAdapter(@NonNull String instanceId,
-                                               @NonNull WeakReference<IronSourceAdapter> weakAdapter) {
-        if (weakAdapter == null) {
-            log("registerISInterstitialAdapter - weakAdapter is null");
-            return;
-        }
-        IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-        if (ironSourceAdapter == null) {
-            log("registerISInterstitialAdapter - ironSourceMediationAdapter is null");
-            return;
-        }
-        availableInterstitialInstances.put(instanceId, weakAdapter);
-    }
-
-    private void registerISRewardedVideoAdapter(@NonNull String instanceId,
-                                                @NonNull WeakReference<IronSourceMediationAdapter> weakAdapter) {
-        if (weakAdapter == null) {
-            log("registerISRewardedVideoAdapter - weakAdapter is null");
-            return;
-        }
-
-        IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-
-        if (ironSourceMediationAdapter == null) {
-            log("registerISRewardedVideoAdapter - ironSourceMediationAdapter is null");
-            return;
+    /**
+     * Gets the {@link Instance} of {@code instanceId}, creating it if needed.
+     */
+    private static <T> Instance<T> getOrCreateInstance(
+            ConcurrentHashMap<String, Instance<T>> instances, String instanceId) {
+        Instance<T> instance = instances.get(instanceId);
+        if (instance == null) {
+            Instance<T> newInstance = new Instance<>();
+            instance = instances.putIfAbsent(instanceId, newInstance);
+            if (instance == null) {
+                instance = newInstance;
+            }
         }
-
-        availableInstances.put(instanceId, weakAdapter);
+        return instance;
     }
 
-    private boolean isIsInterstitialAdapterRegistered(@NonNull String instanceId) {
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
-        if (weakAdapter != null) {
-            IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-            if (ironSourceAdapter != null) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * @return the adapter {@code instanceId} was last locked by, or {@code null} if there is none
+     * or it was garbage collected.
+     */
+    @Nullable
+    private static <T> T getAdapter(ConcurrentHashMap<String, Instance<T>> instances,
+                                    String instanceId) {
+        Instance<T> instance = instances.get(instanceId);
+        return instance != null ? instance.getAdapter() : null;
     }
 
-    private boolean isISRewardedVideoAdapterRegistered(@NonNull String instanceId) {
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                return true;
-            }
+    /**
+     * Allows the next load of {@code instanceId}, once its ad failed to load or is consumed. Its
+     * adapter must be read before, as another load may lock the instance right after.
+     */
+    private void unlock(ConcurrentHashMap<String, ? extends Instance<?>> instances,
+                        String instanceId) {
+        Instance<?> instance = instances.get(instanceId);
+        if (instance != null && instance.unlock()) {
+            log(String.format("IronSourceManager unlocked instance %s", instanceId));
         }
-        return false;
     }
 
     @Override
     public void onRewardedVideoAdLoadSuccess(String instanceId) {
         log(String.format("IronSourceManager got RV Load success for instance %s", instanceId));
 
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                ironSourceMediationAdapter.onRewardedVideoAdLoadSuccess(instanceId);
-            }
+        IronSourceMediationAdapter ironSourceMediationAdapter = getAdapter(availableInstances, instanceId);
+        if (ironSourceMediationAdapter != null) {
+            ironSourceMediationAdapter.onRewardedVideoAdLoadSuccess(instanceId);
         }
     }
 
@@ -226,53 +222,20 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
     public void onRewardedVideoAdLoadFailed(String instanceId, IronSourceError ironSourceError) {
         log(String.format("IronSourceManager got RV Load failed for instance %s", instanceId));
 
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                changeRewardedInstanceState(ironSourceMediationAdapter,
-                        IronSourceMediationAdapter.INSTANCE_STATE.CAN_LOAD);
-                ironSourceMediationAdapter.onRewardedVideoAdLoadFailed(instanceId, ironSourceError);
-            }
-        }
-    }
-
-    private void changeRewardedInstanceState(IronSourceMediationAdapter ironSourceMediationAdapter,
-                                     INSTANCE_STATE newState) {
-
-        if (ironSourceMediationAdapter == null) {
-            log("changeRewardedInstanceState - IronSourceMediationAdapter is null");
-            return;
+        IronSourceMediationAdapter ironSourceMediationAdapter = getAdapter(availableInstances, instanceId);
+        unlock(availableInstances, instanceId);
+        if (ironSourceMediationAdapter != null) {
+            ironSourceMediationAdapter.onRewardedVideoAdLoadFailed(instanceId, ironSourceError);
         }
-
-        log(String.format("IronSourceManager change state to %s", newState));
-        ironSourceMediationAdapter.setInstanceState(newState);
-
-    }
-
-    private void changeInterstitialInstanceState(IronSourceAdapter ironSourceAdapter,
-                                                INSTANCE_STATE newState) {
-        if (ironSourceAdapter == null) {
-            log("changeInterstitialInstanceState - IronSourceAdapter is null");
-            return;
-        }
-
-        log(String.format("IronSourceManager change state to %s", newState));
-        ironSourceAdapter.setInstanceState(newState);
     }
 
     @Override
     public void onRewardedVideoAdOpened(String instanceId) {
         log(String.format("IronSourceManager got RV ad opened for instance %s", instanceId));
 
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                ironSourceMediationAdapter.onRewardedVideoAdOpened(instanceId);
-            }
+        IronSourceMediationAdapter ironSourceMediationAdapter = getAdapter(availableInstances, instanceId);
+        if (ironSourceMediationAdapter != null) {
+            ironSourceMediationAdapter.onRewardedVideoAdOpened(instanceId);
         }
     }
 
@@ -284,15 +247,10 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
     public void onRewardedVideoAdClosed(String instanceId) {
         log(String.format("IronSourceManager got RV ad closed for instance %s", instanceId));
 
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                changeRewardedInstanceState(ironSourceMediationAdapter,
-                        IronSourceMediationAdapter.INSTANCE_STATE.CAN_LOAD);
-                ironSourceMediationAdapter.onRewardedVideoAdClosed(instanceId);
-            }
+        IronSourceMediationAdapter ironSourceMediationAdapter = getAdapter(availableInstances, instanceId);
+        unlock(availableInstances, instanceId);
+        if (ironSourceMediationAdapter != null) {
+            ironSourceMediationAdapter.onRewardedVideoAdClosed(instanceId);
         }
     }
 
@@ -300,15 +258,10 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
     public void onRewardedVideoAdShowFailed(String instanceId, IronSourceError ironSourceError) {
         log(String.format("IronSourceManager got RV show failed for instance %s", instanceId));
 
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                changeRewardedInstanceState(ironSourceMediationAdapter,
-                        IronSourceMediationAdapter.INSTANCE_STATE.CAN_LOAD);
-                ironSourceMediationAdapter.onRewardedVideoAdShowFailed(instanceId, ironSourceError);
-            }
+        IronSourceMediationAdapter ironSourceMediationAdapter = getAdapter(availableInstances, instanceId);
+        unlock(availableInstances, instanceId);
+        if (ironSourceMediationAdapter != null) {
+            ironSourceMediationAdapter.onRewardedVideoAdShowFailed(instanceId, ironSourceError);
         }
     }
 
@@ -316,13 +269,9 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
     public void onRewardedVideoAdClicked(String instanceId) {
         log(String.format("IronSourceManager got RV ad clicked for instance %s", instanceId));
 
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                ironSourceMediationAdapter.onRewardedVideoAdClicked(instanceId);
-            }
+        IronSourceMediationAdapter ironSourceMediationAdapter = getAdapter(availableInstances, instanceId);
+        if (ironSourceMediationAdapter != null) {
+            ironSourceMediationAdapter.onRewardedVideoAdClicked(instanceId);
         }
     }
 
@@ -330,13 +279,9 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
     public void onRewardedVideoAdRewarded(String instanceId) {
         log(String.format("IronSourceManager got RV ad rewarded for instance %s", instanceId));
 
-        WeakReference<IronSourceMediationAdapter> weakAdapter = availableInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceMediationAdapter ironSourceMediationAdapter = weakAdapter.get();
-            if (ironSourceMediationAdapter != null) {
-                ironSourceMediationAdapter.onRewardedVideoAdRewarded(instanceId);
-            }
+        IronSourceMediationAdapter ironSourceMediationAdapter = getAdapter(availableInstances, instanceId);
+        if (ironSourceMediationAdapter != null) {
+            ironSourceMediationAdapter.onRewardedVideoAdRewarded(instanceId);
         }
     }
 
@@ -344,13 +289,13 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
     public void onInterstitialAdReady(String instanceId) {
         log(String.format("IronSourceManager got interstitial Load success for instance %s", instanceId));
 
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
+        if (finishInterstitialWarmUp(instanceId, null)) {
+            return;
+        }
 
-        if (weakAdapter != null) {
-            IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-            if (ironSourceAdapter != null) {
-                ironSourceAdapter.onInterstitialAdReady(instanceId);
-            }
+        IronSourceAdapter ironSourceAdapter = getAdapter(availableInterstitialInstances, instanceId);
+        if (ironSourceAdapter != null) {
+            ironSourceAdapter.onInterstitialAdReady(instanceId);
         }
     }
 
@@ -358,80 +303,163 @@ class IronSourceManager implements ISDemandOnlyRewardedVideoListener, ISDemandOn
     public void onInterstitialAdLoadFailed(String instanceId, IronSourceError ironSourceError) {
         log(String.format("IronSourceManager got interstitial Load failed for instance %s", instanceId));
 
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-            if (ironSourceAdapter != null) {
-                changeInterstitialInstanceState(ironSourceAdapter,
-                        IronSourceMediationAdapter.INSTANCE_STATE.CAN_LOAD);
-                ironSourceAdapter.onInterstitialAdLoadFailed(instanceId, ironSourceError);
-
-            }
-
+        if (finishInterstitialWarmUp(instanceId, ironSourceError)) {
+            return;
         }
 
+        IronSourceAdapter ironSourceAdapter = getAdapter(availableInterstitialInstances, instanceId);
+        unlock(availableInterstitialInstances, instanceId);
+        if (ironSourceAdapter != null) {
+            ironSourceAdapter.onInterstitialAdLoadFailed(instanceId, ironSourceError);
+        }
     }
 
     @Override
     public void onInterstitialAdOpened(String instanceId) {
         log(String.format("IronSourceManager got interstitial ad opened for instance %s", instanceId));
 
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-            if (ironSourceAdapter != null) {
-                ironSourceAdapter.onInterstitialAdOpened(instanceId);
-            }
+        IronSourceAdapter ironSourceAdapter = getAdapter(availableInterstitialInstances, instanceId);
+        if (ironSourceAdapter != null) {
+            ironSourceAdapter.onInterstitialAdOpened(instanceId);
         }
-
     }
 
     @Override
     public void onInterstitialAdClosed(String instanceId) {
         log(String.format("IronSourceManager got interstitial ad closed for instance %s", instanceId));
 
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-            if (ironSourceAdapter != null) {
-                changeInterstitialInstanceState(ironSourceAdapter,
-                        IronSourceMediationAdapter.INSTANCE_STATE.CAN_LOAD);
-                ironSourceAdapter.onInterstitialAdClosed(instanceId);
-            }
+        IronSourceAdapter ironSourceAdapter = getAdapter(availableInterstitialInstances, instanceId);
+        unlock(availableInterstitialInstances, instanceId);
+        if (ironSourceAdapter != null) {
+            ironSourceAdapter.onInterstitialAdClosed(instanceId);
         }
-
     }
 
     @Override
     public void onInterstitialAdShowFailed(String instanceId, IronSourceError ironSourceError) {
         log(String.format("IronSourceManager got interstitial show failed for instance %s", instanceId));
 
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
-
-        if (weakAdapter != null) {
-            IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-            if (ironSourceAdapter != null) {
-                changeInterstitialInstanceState(ironSourceAdapter,
-                        IronSourceMediationAdapter.INSTANCE_STATE.CAN_LOAD);
-                ironSourceAdapter.onInterstitialAdShowFailed(instanceId, ironSourceError);
-            }
+        IronSourceAdapter ironSourceAdapter = getAdapter(availableInterstitialInstances, instanceId);
+        unlock(availableInterstitialInstances, instanceId);
+        if (ironSourceAdapter != null) {
+            ironSourceAdapter.onInterstitialAdShowFailed(instanceId, ironSourceError);
         }
-
     }
 
     @Override
     public void onInterstitialAdClicked(String instanceId) {
         log(String.format("IronSourceManager got interstitial ad clicked for instance %s", instanceId));
 
-        WeakReference<IronSourceAdapter> weakAdapter = availableInterstitialInstances.get(instanceId);
+        IronSourceAdapter ironSourceAdapter = getAdapter(availableInterstitialInstances, instanceId);
+        if (ironSourceAdapter != null) {
+            ironSourceAdapter.onInterstitialAdClicked(instanceId);
+        }
+    }
+
+    /**
+     * The {@link INSTANCE_STATE} of an IronSource instance, together with the adapter that last
+     * locked it. Both are swapped together with compare-and-set, so that only one of several
+     * concurrent loads can lock an instance, and callbacks reach its adapter with a single read.
+     */
+    static final class Instance<T> {
+
+        private final AtomicReference<Snapshot<T>> snapshot =
+                new AtomicReference<>(new Snapshot<T>(INSTANCE_STATE.START, null));
+
+        /**
+         * Moves the instance from {@link INSTANCE_STATE#START} or {@link INSTANCE_STATE#CAN_LOAD}
+         * to {@link INSTANCE_STATE#LOCKED} for {@code weakAdapter}. An instance whose adapter was
+         * garbage collected while locked can be locked again.
+         *
+         * @return {@code false} if another adapter holds the lock.
+         */
+        boolean lock(WeakReference<T> weakAdapter) {
+            Snapshot<T> locked = new Snapshot<>(INSTANCE_STATE.LOCKED, weakAdapter);
+            while (true) {
+                Snapshot<T> current = snapshot.get();
+                if (current.isLocked()) {
+                    return false;
+                }
+                if (snapshot.compareAndSet(current, locked)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Moves the instance from {@link INSTANCE_STATE#LOCKED} to
+         * {@link INSTANCE_STATE#CAN_LOAD}. The adapter is kept, so that the remaining callbacks
+         * of its ad still reach it.
+         *
+         * @return {@code true} if the instance was locked.
+         */
+        boolean unlock() {
+            while (true) {
+                Snapshot<T> current = snapshot.get();
+                if (current.state != INSTANCE_STATE.LOCKED) {
+                    return false;
+                }
+                Snapshot<T> unlocked = new Snapshot<>(INSTANCE_STATE.CAN_LOAD, current.weakAdapter);
+                if (snapshot.compareAndSet(current, unlocked)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isLocked() {
+            return snapshot.get().isLocked();
+        }
 
-        if (weakAdapter != null) {
-            IronSourceAdapter ironSourceAdapter = weakAdapter.get();
-            if (ironSourceAdapter != null) {
-                ironSourceAdapter.onInterstitialAdClicked(instanceId);
+        @Nullable
+        T getAdapter() {
+            return snapshot.get().getAdapter();
+        }
+
+        private static final class Snapshot<T> {
+            final INSTANCE_STATE state;
+            @Nullable
+            final WeakReference<T> weakAdapter;
+
+            Snapshot(INSTANCE_STATE state, @Nullable WeakReference<T> weakAdapter) {
+                this.state = state;
+                this.weakAdapter = weakAdapter;
+            }
+
+            @Nullable
+            T getAdapter() {
+                return weakAdapter != null ? weakAdapter.get() : null;
+            }
+
+            boolean isLocked() {
+                return state == INSTANCE_STATE.LOCKED && getAdapter() != null;
+            }
+        }
+    }
+
+    /**
+     * An interstitial instance loaded ahead of the first ad request for it.
+     */
+    private static final class InterstitialWarmUp {
+
+        /**
+         * Cleared once the warm-up is cancelled.
+         */
+        volatile InitializationCompleteCallback callback;
+
+        InterstitialWarmUp(InitializationCompleteCallback callback) {
+            this.callback = callback;
+        }
+
+        void finish(@Nullable String errorMessage) {
+            InitializationCompleteCallback callback = this.callback;
+            this.callback = null;
+            if (callback == null) {
+                return;
+            }
+            if (errorMessage != null) {
+                callback.onInitializationFailed(errorMessage);
+            } else {
+                callback.onInitializationSucceeded();
             }
         }
     }
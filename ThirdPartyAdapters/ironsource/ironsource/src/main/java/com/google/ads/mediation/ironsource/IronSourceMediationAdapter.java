@@ -38,6 +38,22 @@ public class IronSourceMediationAdapter extends Adapter
     private final static List<IronSource.AD_UNIT> mAdUnitsToInit =
             new ArrayList<>(Collections.singletonList(IronSource.AD_UNIT.REWARDED_VIDEO));
 
+    /**
+     * Whether {@link #initialize} defers initializing the IronSource SDK until it is needed.
+     */
+    private static volatile boolean sInitializeOnFirstRequest;
+
+    /**
+     * App key recorded by a deferred {@link #initialize}, used by {@link #warmUp()}. Written after
+     * {@link #sDeferredActivity} and read before it.
+     */
+    private static volatile String sDeferredAppKey;
+
+    /**
+     * Activity recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     */
+    private static volatile WeakReference<Activity> sDeferredActivity;
+
     /**
      * Mediation listener used to forward rewarded ad events from
      * IronSource SDK to Google Mobile Ads SDK while ad is presented
@@ -50,35 +66,42 @@ public class IronSourceMediationAdapter extends Adapter
      */
     private MediationAdLoadCallback<MediationRewardedAd, MediationRewardedAdCallback> mMediationAdLoadCallback;
 
-    /**
-     * Holds the instance state
-     */
-    private INSTANCE_STATE mState = INSTANCE_STATE.START;
-
     /**
      * This is the id of the rewarded video instance requested.
      */
     private String mInstanceID;
 
-    INSTANCE_STATE getInstanceState() {
-        return mState;
-    }
-
-    void setInstanceState(INSTANCE_STATE mState) {
-        this.mState = mState;
-    }
-
     enum INSTANCE_STATE {
         START, //Initial state when instance wasn't loaded yet
         CAN_LOAD, //If load is called on an instance with this state, pass it forward to IronSource SDK
         LOCKED, //if load is called on an instance with this state, report load fail
     }
 
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     /**
      * MediationRewardedAd implementation.
      */
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String sdkVersion = IronSourceUtils.getSDKVersion();
         String splits[] = sdkVersion.split("\\.");
         int major = 0;
@@ -99,13 +122,35 @@ public class IronSourceMediationAdapter extends Adapter
 
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        // Adapter versions have 2 patch versions. Multiply the first patch by 100.
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
+    }
+
+    /**
+     * Sets whether the IronSource SDK is initialized lazily for rewarded ads. When enabled,
+     * {@link #initialize} only records the app key and reports success. The SDK is initialized by
+     * the first rewarded ad request, or by {@link #warmUp()} if it is called earlier. Must be set
+     * before the Google Mobile Ads SDK is initialized.
+     */
+    public static void setInitializeOnFirstRequest(boolean initializeOnFirstRequest) {
+        sInitializeOnFirstRequest = initializeOnFirstRequest;
+    }
+
+    /**
+     * Initializes the IronSource SDK if its initialization was deferred by
+     * {@link #setInitializeOnFirstRequest(boolean)}, for example once the app is idle. Does
+     * nothing otherwise.
+     */
+    public static void warmUp() {
+        String appKey = sDeferredAppKey;
+        Activity activity = sDeferredActivity != null ? sDeferredActivity.get() : null;
+        sDeferredAppKey = null;
+        sDeferredActivity = null;
+        if (appKey == null || activity == null) {
+            return;
+        }
+        if (!mDidInitRewardedVideo.getAndSet(true)) {
+            IronSourceManager.getInstance().initIronSourceSDK(activity, appKey, mAdUnitsToInit);
+        }
     }
 
     @Override
@@ -153,6 +198,13 @@ public class IronSourceMediationAdapter extends Adapter
                         "IronSource initialization Failed: Missing or Invalid App Key.");
                 return;
             }
+            if (sInitializeOnFirstRequest) {
+                // IronSource is initialized by the first rewarded ad request or by warmUp().
+                sDeferredActivity = new WeakReference<>((Activity) context);
+                sDeferredAppKey = appKey;
+                initializationCompleteCallback.onInitializationSucceeded();
+                return;
+            }
             if (!mDidInitRewardedVideo.getAndSet(true)) {
                 IronSourceManager.getInstance().initIronSourceSDK((Activity) context, appKey, mAdUnitsToInit);
             }
@@ -0,0 +1,174 @@
+package com.google.ads.mediation.ironsource;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IronSourceManager.Instance}.
+ */
+public class IronSourceManagerInstanceTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final int ROUND_COUNT = 500;
+
+    private IronSourceManager.Instance<Object> mInstance;
+
+    private ExecutorService mExecutor;
+
+    @Before
+    public void setUp() {
+        mInstance = new IronSourceManager.Instance<>();
+        mExecutor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void lock_lockedInstanceRejectsOtherAdapters() {
+        Object first = new Object();
+        Object second = new Object();
+
+        assertTrue(mInstance.lock(new WeakReference<>(first)));
+        assertFalse(mInstance.lock(new WeakReference<>(second)));
+
+        assertTrue(mInstance.isLocked());
+        assertSame(first, mInstance.getAdapter());
+    }
+
+    @Test
+    public void unlock_keepsAdapterUntilNextLock() {
+        Object first = new Object();
+        Object second = new Object();
+        mInstance.lock(new WeakReference<>(first));
+
+        assertTrue(mInstance.unlock());
+        assertFalse(mInstance.unlock());
+        assertFalse(mInstance.isLocked());
+        assertSame(first, mInstance.getAdapter());
+
+        assertTrue(mInstance.lock(new WeakReference<>(second)));
+        assertSame(second, mInstance.getAdapter());
+    }
+
+    @Test
+    public void unlock_neverLockedInstance() {
+        assertFalse(mInstance.unlock());
+        assertNull(mInstance.getAdapter());
+    }
+
+    @Test
+    public void lock_collectedAdapterCanBeLockedAgain() {
+        WeakReference<Object> collected = new WeakReference<>(new Object());
+        mInstance.lock(collected);
+        collected.clear();
+
+        assertFalse(mInstance.isLocked());
+        Object adapter = new Object();
+        assertTrue(mInstance.lock(new WeakReference<>(adapter)));
+        assertSame(adapter, mInstance.getAdapter());
+    }
+
+    /**
+     * Races {@link #THREAD_COUNT} threads locking a free instance.
+     */
+    @Test
+    public void lock_concurrentLocksHaveOneWinner() throws Exception {
+        for (int round = 0; round < ROUND_COUNT; round++) {
+            final IronSourceManager.Instance<Object> instance = new IronSourceManager.Instance<>();
+            final CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT);
+            Object[] adapters = new Object[THREAD_COUNT];
+            List<Future<Boolean>> locks = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                adapters[i] = new Object();
+                locks.add(mExecutor.submit(lock(instance, adapters[i], barrier)));
+            }
+
+            Object winner = null;
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                if (locks.get(i).get(10, TimeUnit.SECONDS)) {
+                    assertNull("More than one lock succeeded", winner);
+                    winner = adapters[i];
+                }
+            }
+            assertSame(winner, instance.getAdapter());
+            assertTrue(instance.isLocked());
+        }
+    }
+
+    /**
+     * Races an unlock of a locked instance against locks of other adapters. At most one of them
+     * takes the instance over, and the instance always reports the adapter that locked it last.
+     */
+    @Test
+    public void unlock_concurrentLocksHandOverToOneAdapter() throws Exception {
+        for (int round = 0; round < ROUND_COUNT; round++) {
+            final IronSourceManager.Instance<Object> instance = new IronSourceManager.Instance<>();
+            Object holder = new Object();
+            instance.lock(new WeakReference<>(holder));
+            final CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT);
+            Object[] adapters = new Object[THREAD_COUNT - 1];
+            List<Future<Boolean>> locks = new ArrayList<>();
+            for (int i = 0; i < adapters.length; i++) {
+                adapters[i] = new Object();
+                locks.add(mExecutor.submit(lock(instance, adapters[i], barrier)));
+            }
+            Future<Boolean> unlock = mExecutor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    barrier.await();
+                    return instance.unlock();
+                }
+            });
+
+            assertTrue(unlock.get(10, TimeUnit.SECONDS));
+            Object winner = null;
+            for (int i = 0; i < adapters.length; i++) {
+                if (locks.get(i).get(10, TimeUnit.SECONDS)) {
+                    assertNull("More than one lock succeeded", winner);
+                    winner = adapters[i];
+                }
+            }
+            if (winner != null) {
+                assertTrue(instance.isLocked());
+                assertSame(winner, instance.getAdapter());
+            } else {
+                // Every lock ran before the unlock.
+                assertFalse(instance.isLocked());
+                assertSame(holder, instance.getAdapter());
+            }
+        }
+    }
+
+    private static Callable<Boolean> lock(final IronSourceManager.Instance<Object> instance,
+                                          final Object adapter,
+                                          final CyclicBarrier barrier) {
+        final WeakReference<Object> weakAdapter = new WeakReference<>(adapter);
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                barrier.await();
+                return instance.lock(weakAdapter);
+            }
+        };
+    }
+}
@@ -37,21 +37,36 @@ public class MaioMediationAdapter extends Adapter
             mAdLoadCallback;
     private MediationRewardedAdCallback mRewardedAdCallback;
 
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     /**
      * {@link Adapter} implementation
      */
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = MaioAds.getSdkVersion();
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
@@ -98,6 +113,11 @@ public class MaioMediationAdapter extends Adapter
                 public void onMaioInitialized() {
                     initializationCompleteCallback.onInitializationSucceeded();
                 }
+
+                @Override
+                public void onMaioInitializationFailed(String message) {
+                    initializationCompleteCallback.onInitializationFailed(message);
+                }
             });
         } else {
             initializationCompleteCallback.onInitializationFailed(
@@ -146,6 +166,12 @@ public class MaioMediationAdapter extends Adapter
             public void onMaioInitialized() {
                 MaioAdsManager.getManager(mMediaID).loadAd(mZoneID, MaioMediationAdapter.this);
             }
+
+            @Override
+            public void onMaioInitializationFailed(String message) {
+                Log.w(TAG, message);
+                mAdLoadCallback.onFailure(message);
+            }
         });
     }
 
@@ -27,7 +27,9 @@ public class Interstitial extends MaioMediationAdapter
     //region MediationInterstitialAdapter implementation
     @Override
     public void onDestroy() {
-
+        if (!TextUtils.isEmpty(mMediaID)) {
+            MaioAdsManager.getManager(mMediaID).removeListener(mZoneID, Interstitial.this);
+        }
     }
 
     @Override
@@ -76,6 +78,13 @@ public class Interstitial extends MaioMediationAdapter
             public void onMaioInitialized() {
                 MaioAdsManager.getManager(mMediaID).loadAd(mZoneID, Interstitial.this);
             }
+
+            @Override
+            public void onMaioInitializationFailed(String message) {
+                Log.w(TAG, message);
+                mMediationInterstitialListener.onAdFailedToLoad(Interstitial.this,
+                        AdRequest.ERROR_CODE_NETWORK_ERROR);
+            }
         });
     }
 
@@ -23,11 +23,40 @@ import jp.maio.sdk.android.MaioAdsListenerInterface;
 public class MaioAdsManager implements MaioAdsListenerInterface {
 
     private static final HashMap<String, MaioAdsManager> mInstances = new HashMap<>();
+
+    private static final String INITIALIZATION_TIMEOUT_MESSAGE =
+            "The maio SDK did not initialize in time. Retrying in the background.";
+
     private ArrayList<InitializationListener> mInitListeners = new ArrayList<>();
 
     private MaioAdsInstance mMaioInstance;
     private String mMediaID;
 
+    private WeakReference<Activity> mInitActivity;
+    private final InitializationWatchdog mWatchdog = new InitializationWatchdog("maio",
+            new InitializationWatchdog.Callback() {
+                @Override
+                public void onTimeout() {
+                    ArrayList<InitializationListener> listeners = new ArrayList<>(mInitListeners);
+                    mInitListeners.clear();
+                    for (InitializationListener listener : listeners) {
+                        listener.onMaioInitializationFailed(INITIALIZATION_TIMEOUT_MESSAGE);
+                    }
+                }
+
+                @Override
+                public void onRetry() {
+                    Activity activity = mInitActivity != null ? mInitActivity.get() : null;
+                    if (activity == null) {
+                        // The next request starts a new attempt.
+                        mWatchdog.stop();
+                        mInitState = InitializationStatus.UNINITIALIZED;
+                        return;
+                    }
+                    startInitialization(activity);
+                }
+            });
+
     private enum InitializationStatus {
         UNINITIALIZED,
         INITIALIZING,
@@ -36,7 +65,8 @@ public class MaioAdsManager implements MaioAdsListenerInterface {
 
     private InitializationStatus mInitState;
 
-    private HashMap<String, WeakReference<MaioAdsListenerInterface>> mListeners;
+    private final PlacementRegistry<MaioAdsListenerInterface> mListeners =
+            new PlacementRegistry<>();
 
     public static final String KEY_MEDIA_ID = "mediaId";
     public static final String KEY_ZONE_ID = "zoneId";
@@ -50,29 +80,41 @@ public class MaioAdsManager implements MaioAdsListenerInterface {
 
     private MaioAdsManager(String mediaID) {
         this.mMediaID = mediaID;
-        this.mListeners = new HashMap<>();
         this.mInitState = InitializationStatus.UNINITIALIZED;
     }
 
+    /**
+     * Initializes the maio SDK if needed and notifies {@code listener} once it is initialized. If
+     * the SDK does not initialize in time, {@code listener} is failed and further requests fail
+     * right away until a background retry succeeds.
+     */
     public void initialize(Activity activity, InitializationListener listener) {
         if (mInitState == InitializationStatus.INITIALIZED) {
             listener.onMaioInitialized();
             return;
         }
 
+        if (mWatchdog.isDegraded()) {
+            listener.onMaioInitializationFailed(INITIALIZATION_TIMEOUT_MESSAGE);
+            return;
+        }
+
         mInitListeners.add(listener);
         if (mInitState != InitializationStatus.INITIALIZING) {
             mInitState = InitializationStatus.INITIALIZING;
-
-            this.mMaioInstance = MaioAds.initWithNonDefaultMediaId(activity, this.mMediaID,
-                    MaioAdsManager.this);
+            mInitActivity = new WeakReference<>(activity);
+            startInitialization(activity);
         }
     }
 
-    private boolean hasListener(String zoneID) {
-        return !TextUtils.isEmpty(zoneID)
-                && this.mListeners.containsKey(zoneID)
-                && this.mListeners.get(zoneID).get() != null;
+    private void startInitialization(Activity activity) {
+        mWatchdog.start();
+        this.mMaioInstance = MaioAds.initWithNonDefaultMediaId(activity, this.mMediaID,
+                MaioAdsManager.this);
+    }
+
+    private MaioAdsListenerInterface getListener(String zoneID) {
+        return TextUtils.isEmpty(zoneID) ? null : this.mListeners.get(zoneID);
     }
 
     private boolean canShowAd(String zoneID) {
@@ -81,22 +123,51 @@ public class MaioAdsManager implements MaioAdsListenerInterface {
                 && this.mMaioInstance.canShow(zoneID);
     }
 
-    public void loadAd(String zoneID, MaioAdsListenerInterface listener) {
-        if (hasListener(zoneID)) {
-            Log.e(MaioMediationAdapter.TAG,
-                    "An ad has already been requested for zone ID: " + zoneID);
-            listener.onFailed(FailNotificationReason.AD_STOCK_OUT, zoneID);
+    /**
+     * Requests an ad from {@code zoneID}. If an ad has already been requested for it, the request
+     * waits for that ad to be consumed first.
+     */
+    public void loadAd(final String zoneID, final MaioAdsListenerInterface listener) {
+        if (TextUtils.isEmpty(zoneID)) {
+            loadClaimedAd(zoneID, listener);
             return;
         }
 
+        this.mListeners.claimOrWait(zoneID, listener, new PlacementRegistry.ClaimCallback() {
+            @Override
+            public void onClaimed() {
+                loadClaimedAd(zoneID, listener);
+            }
+
+            @Override
+            public void onClaimFailed(String errorMessage) {
+                Log.e(MaioMediationAdapter.TAG, errorMessage);
+                listener.onFailed(FailNotificationReason.AD_STOCK_OUT, zoneID);
+            }
+        });
+    }
+
+    private void loadClaimedAd(String zoneID, MaioAdsListenerInterface listener) {
         Log.d(MaioMediationAdapter.TAG, "Requesting ad from zone ID: " + zoneID);
-        mListeners.put(zoneID, new WeakReference<>(listener));
 
         if (canShowAd(zoneID)) {
             listener.onChangedCanShow(zoneID, true);
         }
     }
 
+    /**
+     * Stops forwarding events of {@code zoneID} to {@code listener}, for example once its adapter
+     * is destroyed. If the listener is waiting for the zone, it leaves the queue, and if it holds
+     * the zone, the zone is handed over to the next request waiting for it.
+     */
+    public void removeListener(String zoneID, MaioAdsListenerInterface listener) {
+        if (TextUtils.isEmpty(zoneID)) {
+            return;
+        }
+        this.mListeners.cancelWait(zoneID, listener);
+        this.mListeners.release(zoneID, listener);
+    }
+
     public boolean showAd(String zoneID) {
         if (canShowAd(zoneID)) {
             this.mMaioInstance.show(zoneID);
@@ -112,7 +183,9 @@ public class MaioAdsManager implements MaioAdsListenerInterface {
     // region MaioAdsListenerInterface implementation
     @Override
     public void onInitialized() {
+        mWatchdog.stop();
         mInitState = InitializationStatus.INITIALIZED;
+        mInitActivity = null;
 
         for (InitializationListener listener : mInitListeners) {
             listener.onMaioInitialized();
@@ -122,57 +195,66 @@ public class MaioAdsManager implements MaioAdsListenerInterface {
 
     @Override
     public void onChangedCanShow(String zoneId, boolean isAvailable) {
-        if (hasListener(zoneId)) {
-            this.mListeners.get(zoneId).get().onChangedCanShow(zoneId, isAvailable);
+        MaioAdsListenerInterface listener = getListener(zoneId);
+        if (listener != null) {
+            listener.onChangedCanShow(zoneId, isAvailable);
         }
     }
 
     @Override
     public void onFailed(FailNotificationReason reason, String zoneId) {
-        if (hasListener(zoneId)) {
-            this.mListeners.get(zoneId).get().onFailed(reason, zoneId);
+        MaioAdsListenerInterface listener = getListener(zoneId);
+        if (listener != null) {
+            listener.onFailed(reason, zoneId);
+            this.mListeners.release(zoneId, listener);
         }
-        this.mListeners.remove(zoneId);
     }
 
     @Override
     public void onOpenAd(String zoneId) {
-        if (hasListener(zoneId)) {
-            this.mListeners.get(zoneId).get().onOpenAd(zoneId);
+        MaioAdsListenerInterface listener = getListener(zoneId);
+        if (listener != null) {
+            listener.onOpenAd(zoneId);
         }
     }
 
     @Override
     public void onStartedAd(String zoneId) {
-        if (hasListener(zoneId)) {
-            this.mListeners.get(zoneId).get().onStartedAd(zoneId);
+        MaioAdsListenerInterface listener = getListener(zoneId);
+        if (listener != null) {
+            listener.onStartedAd(zoneId);
         }
     }
 
     @Override
     public void onClickedAd(String zoneId) {
-        if (hasListener(zoneId)) {
-            this.mListeners.get(zoneId).get().onClickedAd(zoneId);
+        MaioAdsListenerInterface listener = getListener(zoneId);
+        if (listener != null) {
+            listener.onClickedAd(zoneId);
         }
     }
 
     @Override
     public void onFinishedAd(int playtime, boolean skipped, int duration, String zoneId) {
-        if (hasListener(zoneId)) {
-            this.mListeners.get(zoneId).get().onFinishedAd(playtime, skipped, duration, zoneId);
+        MaioAdsListenerInterface listener = getListener(zoneId);
+        if (listener != null) {
+            listener.onFinishedAd(playtime, skipped, duration, zoneId);
         }
     }
 
     @Override
     public void onClosedAd(String zoneId) {
-        if (hasListener(zoneId)) {
-            this.mListeners.get(zoneId).get().onClosedAd(zoneId);
+        MaioAdsListenerInterface listener = getListener(zoneId);
+        if (listener != null) {
+            listener.onClosedAd(zoneId);
+            this.mListeners.release(zoneId, listener);
         }
-        this.mListeners.remove(zoneId);
     }
     // endregion
 
     public interface InitializationListener {
         void onMaioInitialized();
+
+        void onMaioInitializationFailed(String message);
     }
 }
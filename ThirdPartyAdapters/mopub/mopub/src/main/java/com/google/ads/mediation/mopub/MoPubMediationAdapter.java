@@ -20,7 +20,6 @@ import com.mopub.common.MoPub;
 import com.mopub.common.MoPubReward;
 import com.mopub.common.Preconditions;
 import com.mopub.common.SdkConfiguration;
-import com.mopub.common.SdkInitializationListener;
 import com.mopub.mobileads.MoPubErrorCode;
 import com.mopub.mobileads.MoPubRewardedVideoListener;
 import com.mopub.mobileads.MoPubRewardedVideoManager;
@@ -49,18 +48,33 @@ public class MoPubMediationAdapter extends Adapter
             mAdLoadCallback;
     private MediationRewardedAdCallback mRewardedAdCallback;
 
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = MoPub.SDK_VERSION;
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
@@ -98,11 +112,16 @@ public class MoPubMediationAdapter extends Adapter
 
         SdkConfiguration sdkConfiguration = new SdkConfiguration.Builder(adUnitID).build();
         MoPubSingleton.getInstance().initializeMoPubSDK((Activity) context, sdkConfiguration,
-                new SdkInitializationListener() {
+                new MoPubSingleton.InitializationListener() {
             @Override
             public void onInitializationFinished() {
                 initializationCompleteCallback.onInitializationSucceeded();
             }
+
+            @Override
+            public void onInitializationFailed(String message) {
+                initializationCompleteCallback.onInitializationFailed(message);
+            }
         });
     }
 
@@ -19,7 +19,6 @@ import com.mopub.mobileads.dfp.adapters.MoPubAdapter;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -28,9 +27,39 @@ public class MoPubSingleton implements MoPubRewardedVideoListener {
     private static MoPubSingleton instance;
     private static boolean isInitializing;
 
-    private ArrayList<SdkInitializationListener> mInitListeners = new ArrayList<>();
-    private static HashMap<String, WeakReference<MoPubRewardedVideoListener>> mListeners =
-            new HashMap<>();
+    private static final String INITIALIZATION_TIMEOUT_MESSAGE =
+            "The MoPub SDK did not initialize in time. Retrying in the background.";
+
+    private ArrayList<InitializationListener> mInitListeners = new ArrayList<>();
+    private WeakReference<Context> mInitContext;
+    private SdkConfiguration mInitConfiguration;
+
+    private static final PlacementRegistry<MoPubRewardedVideoListener> mListeners =
+            new PlacementRegistry<>();
+
+    private final InitializationWatchdog mWatchdog = new InitializationWatchdog("MoPub",
+            new InitializationWatchdog.Callback() {
+                @Override
+                public void onTimeout() {
+                    ArrayList<InitializationListener> listeners = new ArrayList<>(mInitListeners);
+                    mInitListeners.clear();
+                    for (InitializationListener listener : listeners) {
+                        listener.onInitializationFailed(INITIALIZATION_TIMEOUT_MESSAGE);
+                    }
+                }
+
+                @Override
+                public void onRetry() {
+                    Context context = mInitContext != null ? mInitContext.get() : null;
+                    if (context == null) {
+                        // The next request starts a new attempt.
+                        mWatchdog.stop();
+                        isInitializing = false;
+                        return;
+                    }
+                    startInitialization(context, mInitConfiguration);
+                }
+            });
 
     public static MoPubSingleton getInstance() {
         if (instance == null) {
@@ -39,19 +68,15 @@ public class MoPubSingleton implements MoPubRewardedVideoListener {
         return instance;
     }
 
-    private boolean hasListener(String adUnitID) {
-        return (!TextUtils.isEmpty(adUnitID)
-                && mListeners.containsKey(adUnitID)
-                && mListeners.get(adUnitID).get() != null);
+    private MoPubRewardedVideoListener getListener(String adUnitID) {
+        return TextUtils.isEmpty(adUnitID) ? null : mListeners.get(adUnitID);
     }
 
     void adExpired(String adUnitID, MoPubRewardedVideoListener listener) {
-        // Verify if the passed MoPubRewardedVideoListener instance matches the registered
-        // instance for the given MoPub Ad Unit ID before removing from the list of listeners.
-        if (hasListener(adUnitID)
-                && listener != null
-                && listener.equals(mListeners.get(adUnitID).get())) {
-            mListeners.remove(adUnitID);
+        // Only remove the passed MoPubRewardedVideoListener instance if it is still the
+        // registered instance for the given MoPub Ad Unit ID.
+        if (!TextUtils.isEmpty(adUnitID) && listener != null) {
+            mListeners.release(adUnitID, listener);
         }
     }
 
@@ -69,54 +94,96 @@ public class MoPubSingleton implements MoPubRewardedVideoListener {
         }
     }
 
+    /**
+     * Initializes the MoPub SDK if needed and notifies {@code listener} once it is initialized. If
+     * the SDK does not initialize in time, {@code listener} is failed and further requests fail
+     * right away until a background retry succeeds.
+     */
     public void initializeMoPubSDK(Context context,
                                    SdkConfiguration configuration,
-                                   SdkInitializationListener listener) {
+                                   InitializationListener listener) {
         if (MoPub.isSdkInitialized()) {
             MoPubRewardedVideos.setRewardedVideoListener(MoPubSingleton.this);
             listener.onInitializationFinished();
             return;
         }
 
+        if (mWatchdog.isDegraded()) {
+            listener.onInitializationFailed(INITIALIZATION_TIMEOUT_MESSAGE);
+            return;
+        }
+
         mInitListeners.add(listener);
         if (!isInitializing) {
             isInitializing = true;
+            mInitContext = new WeakReference<>(context);
+            mInitConfiguration = configuration;
+            startInitialization(context, configuration);
+        }
+    }
 
-            MoPub.initializeSdk(context, configuration, new SdkInitializationListener() {
-                @Override
-                public void onInitializationFinished() {
-                    MoPubLog.d("MoPub SDK initialized.");
+    private void startInitialization(Context context, SdkConfiguration configuration) {
+        mWatchdog.start();
+        MoPub.initializeSdk(context, configuration, new SdkInitializationListener() {
+            @Override
+            public void onInitializationFinished() {
+                MoPubLog.d("MoPub SDK initialized.");
+                mWatchdog.stop();
 
-                    MoPubRewardedVideos.setRewardedVideoListener(MoPubSingleton.this);
-                    for (SdkInitializationListener initListener : mInitListeners) {
-                        initListener.onInitializationFinished();
-                    }
-                    mInitListeners.clear();
-                    isInitializing = false;
+                MoPubRewardedVideos.setRewardedVideoListener(MoPubSingleton.this);
+                for (InitializationListener initListener : mInitListeners) {
+                    initListener.onInitializationFinished();
                 }
-            });
-        }
+                mInitListeners.clear();
+                isInitializing = false;
+                mInitContext = null;
+                mInitConfiguration = null;
+            }
+        });
     }
 
-    public void loadRewardedAd(Context context,
+    /**
+     * Loads a rewarded video for {@code adUnitID}. If an ad has already been requested for it, the
+     * request waits for that ad to be consumed first.
+     */
+    public void loadRewardedAd(final Context context,
                                final String adUnitID,
                                final MoPubRewardedVideoManager.RequestParameters requestParameters,
                                final MoPubRewardedVideoListener listener) {
-        if (hasListener(adUnitID)) {
-            Log.w(MoPubMediationAdapter.TAG, "An ad has already been requested "
-                    + "for the MoPub Ad Unit ID: " + adUnitID);
-            listener.onRewardedVideoLoadFailure(adUnitID, MoPubErrorCode.CANCELLED);
+        if (TextUtils.isEmpty(adUnitID)) {
+            loadClaimedRewardedAd(context, adUnitID, requestParameters);
             return;
         }
 
-        mListeners.put(adUnitID, new WeakReference<>(listener));
+        mListeners.claimOrWait(adUnitID, listener, new PlacementRegistry.ClaimCallback() {
+            @Override
+            public void onClaimed() {
+                loadClaimedRewardedAd(context, adUnitID, requestParameters);
+            }
+
+            @Override
+            public void onClaimFailed(String errorMessage) {
+                Log.w(MoPubMediationAdapter.TAG, errorMessage);
+                listener.onRewardedVideoLoadFailure(adUnitID, MoPubErrorCode.CANCELLED);
+            }
+        });
+    }
 
+    private void loadClaimedRewardedAd(
+            Context context,
+            final String adUnitID,
+            final MoPubRewardedVideoManager.RequestParameters requestParameters) {
         SdkConfiguration configuration = new SdkConfiguration.Builder(adUnitID).build();
-        initializeMoPubSDK(context, configuration, new SdkInitializationListener() {
+        initializeMoPubSDK(context, configuration, new InitializationListener() {
             @Override
             public void onInitializationFinished() {
                 MoPubRewardedVideos.loadRewardedVideo(adUnitID, requestParameters);
             }
+
+            @Override
+            public void onInitializationFailed(String message) {
+                onRewardedVideoLoadFailure(adUnitID, MoPubErrorCode.NETWORK_TIMEOUT);
+            }
         });
     }
 
@@ -144,40 +211,45 @@ public class MoPubSingleton implements MoPubRewardedVideoListener {
      */
     @Override
     public void onRewardedVideoLoadSuccess(@NonNull String adUnitId) {
-        if (hasListener(adUnitId)) {
-            mListeners.get(adUnitId).get().onRewardedVideoLoadSuccess(adUnitId);
+        MoPubRewardedVideoListener listener = getListener(adUnitId);
+        if (listener != null) {
+            listener.onRewardedVideoLoadSuccess(adUnitId);
         }
     }
 
     @Override
     public void onRewardedVideoLoadFailure(@NonNull String adUnitId,
                                            @NonNull MoPubErrorCode errorCode) {
-        if (hasListener(adUnitId)) {
-            mListeners.get(adUnitId).get().onRewardedVideoLoadFailure(adUnitId, errorCode);
+        MoPubRewardedVideoListener listener = getListener(adUnitId);
+        if (listener != null) {
+            listener.onRewardedVideoLoadFailure(adUnitId, errorCode);
+            mListeners.release(adUnitId, listener);
         }
-        mListeners.remove(adUnitId);
     }
 
     @Override
     public void onRewardedVideoStarted(@NonNull String adUnitId) {
-        if (hasListener(adUnitId)) {
-            mListeners.get(adUnitId).get().onRewardedVideoStarted(adUnitId);
+        MoPubRewardedVideoListener listener = getListener(adUnitId);
+        if (listener != null) {
+            listener.onRewardedVideoStarted(adUnitId);
         }
     }
 
     @Override
     public void onRewardedVideoPlaybackError(@NonNull String adUnitId,
                                              @NonNull MoPubErrorCode errorCode) {
-        if (hasListener(adUnitId)) {
-            mListeners.get(adUnitId).get().onRewardedVideoPlaybackError(adUnitId, errorCode);
+        MoPubRewardedVideoListener listener = getListener(adUnitId);
+        if (listener != null) {
+            listener.onRewardedVideoPlaybackError(adUnitId, errorCode);
+            mListeners.release(adUnitId, listener);
         }
-        mListeners.remove(adUnitId);
     }
 
     @Override
     public void onRewardedVideoClicked(@NonNull String adUnitId) {
-        if (hasListener(adUnitId)) {
-            mListeners.get(adUnitId).get().onRewardedVideoClicked(adUnitId);
+        MoPubRewardedVideoListener listener = getListener(adUnitId);
+        if (listener != null) {
+            listener.onRewardedVideoClicked(adUnitId);
         }
     }
 
@@ -185,19 +257,28 @@ public class MoPubSingleton implements MoPubRewardedVideoListener {
     public void onRewardedVideoCompleted(@NonNull Set<String> adUnitIds,
                                          @NonNull MoPubReward reward) {
         for (String adUnitId : adUnitIds) {
-            if (hasListener(adUnitId)) {
+            MoPubRewardedVideoListener listener = getListener(adUnitId);
+            if (listener != null) {
                 HashSet<String> set = new HashSet<>();
                 set.add(adUnitId);
-                mListeners.get(adUnitId).get().onRewardedVideoCompleted(set, reward);
+                listener.onRewardedVideoCompleted(set, reward);
             }
         }
     }
 
     @Override
     public void onRewardedVideoClosed(@NonNull String adUnitId) {
-        if (hasListener(adUnitId)) {
-            mListeners.get(adUnitId).get().onRewardedVideoClosed(adUnitId);
+        MoPubRewardedVideoListener listener = getListener(adUnitId);
+        if (listener != null) {
+            listener.onRewardedVideoClosed(adUnitId);
+            mListeners.release(adUnitId, listener);
         }
-        mListeners.remove(adUnitId);
+    }
+
+    /**
+     * Listener notified of the MoPub SDK initialization result.
+     */
+    public interface InitializationListener extends SdkInitializationListener {
+        void onInitializationFailed(String message);
     }
 }
@@ -1,22 +1,26 @@
 package com.mopub.mobileads.dfp.adapters;
 
+import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.os.AsyncTask;
 import android.util.DisplayMetrics;
 import android.util.Log;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.HashMap;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -28,53 +32,132 @@ public class DownloadDrawablesAsync extends AsyncTask<Object, Void, HashMap<Stri
     public static final String KEY_IMAGE = "image_key";
     public static final String KEY_ICON = "icon_key";
     private static final long DRAWABLE_FUTURE_TIMEOUT_SECONDS = 10;
+    private static final int CONNECTION_TIMEOUT_MILLIS =
+            (int) TimeUnit.SECONDS.toMillis(DRAWABLE_FUTURE_TIMEOUT_SECONDS);
+    static final int DEFAULT_MAX_ICON_SIZE_DP = 128;
 
     private DrawableDownloadListener mListener;
+    private final SampledBitmapDecoder mImageDecoder;
+    private final SampledBitmapDecoder mIconDecoder;
+    private final ImageDiskCache mDiskCache;
 
     public DownloadDrawablesAsync(DrawableDownloadListener listener) {
+        this(null, listener, 0, DEFAULT_MAX_ICON_SIZE_DP, false);
+    }
+
+    /**
+     * @param context        used to locate the disk cache. If {@code null}, images are always
+     *                       downloaded.
+     * @param maxImageSizeDp the largest size the main image is displayed at, in dp. If not
+     *                       positive, the main image is bounded by the screen size.
+     * @param maxIconSizeDp  the largest size the icon is displayed at, in dp.
+     * @param preferRgb565   whether opaque images should be decoded to
+     *                       {@link Bitmap.Config#RGB_565}.
+     */
+    public DownloadDrawablesAsync(Context context,
+                                  DrawableDownloadListener listener,
+                                  int maxImageSizeDp,
+                                  int maxIconSizeDp,
+                                  boolean preferRgb565) {
         mListener = listener;
+        mDiskCache = context != null ? ImageDiskCache.getInstance(context) : null;
+        mImageDecoder = SampledBitmapDecoder.forMaxSizeDp(maxImageSizeDp, preferRgb565);
+        mIconDecoder = SampledBitmapDecoder.forMaxSizeDp(maxIconSizeDp, preferRgb565);
     }
 
     @Override
     protected HashMap<String, Drawable> doInBackground(Object... params) {
 
         HashMap<String, URL> urlsMap = (HashMap<String, URL>) params[0];
-        ExecutorService executorService = Executors.newCachedThreadPool();
-
-        Future<Drawable> imageDrawableFuture =
-                getDrawableFuture(urlsMap.get(KEY_IMAGE), executorService);
-        Future<Drawable> iconDrawableFuture =
-                getDrawableFuture(urlsMap.get(KEY_ICON), executorService);
+        ExecutorService executorService = ImageDecodeExecutor.getInstance();
+        if (isCancelled()) {
+            return null;
+        }
 
+        Future<Bitmap> imageBitmapFuture = null;
+        Future<Bitmap> iconBitmapFuture = null;
+        Bitmap imageBitmap = null;
         try {
-            Drawable imageDrawable =
-                    imageDrawableFuture.get(DRAWABLE_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            Drawable iconDrawable =
-                    iconDrawableFuture.get(DRAWABLE_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            imageBitmapFuture =
+                    getBitmapFuture(urlsMap.get(KEY_IMAGE), mImageDecoder, executorService);
+            iconBitmapFuture =
+                    getBitmapFuture(urlsMap.get(KEY_ICON), mIconDecoder, executorService);
+
+            // The bitmaps come retained in the bitmap pool on behalf of this ad, and stay out of
+            // the pool until the ad releases them.
+            imageBitmap =
+                    imageBitmapFuture.get(DRAWABLE_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Bitmap iconBitmap =
+                    iconBitmapFuture.get(DRAWABLE_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             HashMap<String, Drawable> drawablesMap = new HashMap<>();
-            drawablesMap.put(KEY_IMAGE, imageDrawable);
-            drawablesMap.put(KEY_ICON, iconDrawable);
+            drawablesMap.put(KEY_IMAGE, createDrawable(imageBitmap));
+            drawablesMap.put(KEY_ICON, createDrawable(iconBitmap));
             return drawablesMap;
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        } catch (InterruptedException | ExecutionException | TimeoutException
+                | RejectedExecutionException | CancellationException e) {
             Log.d(MoPubAdapter.TAG, "Native ad images failed to download");
+            if (e instanceof TimeoutException) {
+                ImagePipelineMetrics.recordTimeout();
+            }
+            // Free up the shared executor for other ads.
+            cancelQuietly(imageBitmapFuture);
+            cancelQuietly(iconBitmapFuture);
+            // The main image may have loaded already, and will never be used.
+            BitmapPool.getInstance().release(imageBitmap);
             return null;
         }
     }
 
-    private Future<Drawable> getDrawableFuture(final URL url, ExecutorService executorService) {
+    private static void cancelQuietly(Future<Bitmap> future) {
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Each ad gets its own {@link Drawable} since drawable state such as bounds and alpha is not
+     * shared safely between views, while the underlying {@link Bitmap} is.
+     */
+    private static Drawable createDrawable(Bitmap bitmap) {
+        return new BitmapDrawable(Resources.getSystem(), bitmap);
+    }
+
+    private Future<Bitmap> getBitmapFuture(URL url,
+                                           SampledBitmapDecoder decoder,
+                                           ExecutorService executorService) {
+        ImagePipelineMetrics.recordRequest();
         // The call() will be executed as the threads in executorService's thread pool become
-        // available.
-        return executorService.submit(new Callable<Drawable>() {
-            @Override
-            public Drawable call() throws Exception {
-                InputStream in = url.openStream();
-                Bitmap bitmap = BitmapFactory.decodeStream(in);
-
-                // Defaulting to a scale of 1.
-                bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
-                return new BitmapDrawable(Resources.getSystem(), bitmap);
-            }
-        });
+        // available. Concurrent requests for the same image share a single call().
+        return ImageRequestCoalescer.submit(decoder.getKey(url.toString()),
+                new BitmapLoader(url, decoder, mDiskCache), executorService);
+    }
+
+    /**
+     * Cancels the download. Pending image work no longer needed by any other ad is dropped, open
+     * connections are closed and the {@link DrawableDownloadListener} is not called.
+     */
+    public void cancelDownload() {
+        cancel(true);
+    }
+
+    @Override
+    protected void onCancelled(HashMap<String, Drawable> drawablesMap) {
+        Log.d(MoPubAdapter.TAG, "Native ad image download cancelled.");
+        if (drawablesMap != null) {
+            // The ad will never use the images.
+            releaseBitmaps(drawablesMap);
+        }
+    }
+
+    /**
+     * Returns the bitmaps behind {@code drawablesMap} to the {@link BitmapPool} once no other ad
+     * uses them.
+     */
+    static void releaseBitmaps(HashMap<String, Drawable> drawablesMap) {
+        BitmapPool bitmapPool = BitmapPool.getInstance();
+        for (Drawable drawable : drawablesMap.values()) {
+            bitmapPool.release(drawable);
+        }
     }
 
     @Override
@@ -87,5 +170,103 @@ public class DownloadDrawablesAsync extends AsyncTask<Object, Void, HashMap<Stri
             mListener.onDownloadFailure();
         }
     }
-}
 
+    /**
+     * Loads a single image from the disk cache or the network, and decodes it. Aborting the
+     * loader closes its connection so that a blocked read returns immediately.
+     */
+    private static class BitmapLoader extends ImageRequestCoalescer.Loader {
+        private final URL mUrl;
+        private final SampledBitmapDecoder mDecoder;
+        private final ImageDiskCache mDiskCache;
+        private volatile HttpURLConnection mConnection;
+        private volatile boolean mIsAborted;
+
+        BitmapLoader(URL url, SampledBitmapDecoder decoder, ImageDiskCache diskCache) {
+            mUrl = url;
+            mDecoder = decoder;
+            mDiskCache = diskCache;
+        }
+
+        @Override
+        public Bitmap call() throws Exception {
+            Bitmap bitmap = decodeFromDiskCache();
+            if (bitmap == null) {
+                byte[] data = download();
+                bitmap = decode(data);
+                if (mDiskCache != null) {
+                    mDiskCache.put(mUrl.toString(), data);
+                }
+            }
+
+            // Defaulting to a scale of 1.
+            bitmap.setDensity(DisplayMetrics.DENSITY_DEFAULT);
+            return bitmap;
+        }
+
+        @Override
+        void abort() {
+            mIsAborted = true;
+            HttpURLConnection connection = mConnection;
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+        private Bitmap decodeFromDiskCache() {
+            if (mDiskCache == null) {
+                return null;
+            }
+            byte[] data = mDiskCache.get(mUrl.toString());
+            if (data == null) {
+                ImagePipelineMetrics.recordDiskCacheMiss();
+                return null;
+            }
+            ImagePipelineMetrics.recordDiskCacheHit();
+            try {
+                return decode(data);
+            } catch (IOException e) {
+                // The cached copy is unusable, download the image again.
+                mDiskCache.remove(mUrl.toString());
+                return null;
+            }
+        }
+
+        private Bitmap decode(byte[] data) throws IOException {
+            long startNanos = System.nanoTime();
+            Bitmap bitmap = mDecoder.decode(data);
+            ImagePipelineMetrics.recordDecode(
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), bitmap);
+            return bitmap;
+        }
+
+        private byte[] download() throws IOException {
+            long startNanos = System.nanoTime();
+            URLConnection connection = mUrl.openConnection();
+            connection.setConnectTimeout(CONNECTION_TIMEOUT_MILLIS);
+            connection.setReadTimeout(CONNECTION_TIMEOUT_MILLIS);
+            if (connection instanceof HttpURLConnection) {
+                mConnection = (HttpURLConnection) connection;
+            }
+            try {
+                if (mIsAborted) {
+                    throw new InterruptedIOException("Native ad image download aborted.");
+                }
+                InputStream in = connection.getInputStream();
+                ImagePipelineMetrics.recordTimeToFirstByte(
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                try {
+                    byte[] data = SampledBitmapDecoder.readFully(in);
+                    ImagePipelineMetrics.recordBytesRead(data.length);
+                    return data;
+                } finally {
+                    in.close();
+                }
+            } finally {
+                if (mConnection != null) {
+                    mConnection.disconnect();
+                }
+            }
+        }
+    }
+}
@@ -24,7 +24,6 @@ import com.google.android.gms.ads.mediation.MediationNativeListener;
 import com.google.android.gms.ads.mediation.NativeMediationAdRequest;
 import com.mopub.common.MoPub;
 import com.mopub.common.SdkConfiguration;
-import com.mopub.common.SdkInitializationListener;
 import com.mopub.common.logging.MoPubLog;
 import com.mopub.mobileads.MoPubErrorCode;
 import com.mopub.mobileads.MoPubInterstitial;
@@ -75,9 +74,19 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
 
     private NativeAd.MoPubNativeEventListener mMoPubNativeEventListener;
     private RequestParameters requestParameters;
+    private DownloadDrawablesAsync mDownloadDrawablesTask;
+    private MoPubNativeAppInstallAdMapper mNativeAdMapper;
 
     @Override
     public void onDestroy() {
+        if (mDownloadDrawablesTask != null) {
+            mDownloadDrawablesTask.cancelDownload();
+            mDownloadDrawablesTask = null;
+        }
+        if (mNativeAdMapper != null) {
+            mNativeAdMapper.destroy();
+            mNativeAdMapper = null;
+        }
         if (mMoPubInterstitial != null) {
             mMoPubInterstitial.destroy();
             mMoPubInterstitial = null;
@@ -130,6 +139,21 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
             mPrivacyIconSize = DEFAULT_MOPUB_PRIVACY_ICON_SIZE_DP;
         }
 
+        final int maxImageSizeDp;
+        final int maxIconSizeDp;
+        final boolean preferRgb565;
+        if (mediationExtras != null) {
+            maxImageSizeDp = mediationExtras.getInt(BundleBuilder.ARG_MAX_IMAGE_SIZE_DP);
+            int iconSizeDp = mediationExtras.getInt(BundleBuilder.ARG_MAX_ICON_SIZE_DP);
+            maxIconSizeDp = iconSizeDp > 0
+                    ? iconSizeDp : DownloadDrawablesAsync.DEFAULT_MAX_ICON_SIZE_DP;
+            preferRgb565 = mediationExtras.getBoolean(BundleBuilder.ARG_PREFER_RGB_565);
+        } else {
+            maxImageSizeDp = 0;
+            maxIconSizeDp = DownloadDrawablesAsync.DEFAULT_MAX_ICON_SIZE_DP;
+            preferRgb565 = false;
+        }
+
         MoPubNative.MoPubNativeNetworkListener moPubNativeNetworkListener =
                 new MoPubNative.MoPubNativeNetworkListener() {
 
@@ -156,7 +180,8 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
                                             AdRequest.ERROR_CODE_INTERNAL_ERROR);
                                 }
 
-                                new DownloadDrawablesAsync(new DrawableDownloadListener() {
+                                mDownloadDrawablesTask = new DownloadDrawablesAsync(context,
+                                        new DrawableDownloadListener() {
                                     @Override
                                     public void onDownloadSuccess(
                                             HashMap<String, Drawable> drawableMap) {
@@ -177,12 +202,16 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
 
                                             moPubNativeAppInstallAdMapper.setMediaView(imageView);
 
+                                            mNativeAdMapper = moPubNativeAppInstallAdMapper;
                                             listener.onAdLoaded(MoPubAdapter.this,
                                                     moPubNativeAppInstallAdMapper);
 
                                         } catch (Exception e) {
                                             Log.d(TAG, "Exception trying to download native ad "
                                                     + "drawables");
+                                            if (mNativeAdMapper == null) {
+                                                DownloadDrawablesAsync.releaseBitmaps(drawableMap);
+                                            }
                                             listener.onAdFailedToLoad(MoPubAdapter.this,
                                                     AdRequest.ERROR_CODE_INTERNAL_ERROR);
                                         }
@@ -194,7 +223,8 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
                                         listener.onAdFailedToLoad(MoPubAdapter.this,
                                                 AdRequest.ERROR_CODE_INTERNAL_ERROR);
                                     }
-                                }).execute(map);
+                                }, maxImageSizeDp, maxIconSizeDp, preferRgb565);
+                                mDownloadDrawablesTask.execute(map);
                             } catch (Exception e) {
                                 Log.d(TAG, "Exception constructing the native ad");
                                 listener.onAdFailedToLoad(
@@ -252,11 +282,17 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
 
         SdkConfiguration sdkConfiguration = new SdkConfiguration.Builder(adUnit).build();
         MoPubSingleton.getInstance().initializeMoPubSDK(context, sdkConfiguration,
-                new SdkInitializationListener() {
+                new MoPubSingleton.InitializationListener() {
             @Override
             public void onInitializationFinished() {
                 moPubNative.makeRequest(requestParameters);
             }
+
+            @Override
+            public void onInitializationFailed(String message) {
+                Log.w(TAG, message);
+                listener.onAdFailedToLoad(MoPubAdapter.this, AdRequest.ERROR_CODE_NETWORK_ERROR);
+            }
         });
 
         // Forwarding MoPub's impression and click events to AdMob.
@@ -280,7 +316,7 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
 
     @Override
     public void requestBannerAd(Context context,
-                                MediationBannerListener mediationBannerListener,
+                                final MediationBannerListener mediationBannerListener,
                                 Bundle bundle,
                                 AdSize adSize,
                                 MediationAdRequest mediationAdRequest,
@@ -320,11 +356,18 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
 
         SdkConfiguration sdkConfiguration = new SdkConfiguration.Builder(adUnit).build();
         MoPubSingleton.getInstance().initializeMoPubSDK(context, sdkConfiguration,
-                new SdkInitializationListener() {
+                new MoPubSingleton.InitializationListener() {
             @Override
             public void onInitializationFinished() {
                mMoPubView.loadAd();
             }
+
+            @Override
+            public void onInitializationFailed(String message) {
+                Log.w(TAG, message);
+                mediationBannerListener.onAdFailedToLoad(MoPubAdapter.this,
+                        AdRequest.ERROR_CODE_NETWORK_ERROR);
+            }
         });
     }
 
@@ -559,11 +602,18 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
 
         SdkConfiguration sdkConfiguration = new SdkConfiguration.Builder(adUnit).build();
         MoPubSingleton.getInstance().initializeMoPubSDK(context, sdkConfiguration,
-                new SdkInitializationListener() {
+                new MoPubSingleton.InitializationListener() {
             @Override
             public void onInitializationFinished() {
                 mMoPubInterstitial.load();
             }
+
+            @Override
+            public void onInitializationFailed(String message) {
+                Log.w(TAG, message);
+                mMediationInterstitialListener.onAdFailedToLoad(MoPubAdapter.this,
+                        AdRequest.ERROR_CODE_NETWORK_ERROR);
+            }
         });
     }
 
@@ -653,11 +703,41 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
          */
         private static final String ARG_PRIVACY_ICON_SIZE_DP = "privacy_icon_size_dp";
 
+        /**
+         * Key to add and obtain {@link #mMaxImageSizeDp}.
+         */
+        private static final String ARG_MAX_IMAGE_SIZE_DP = "max_image_size_dp";
+
+        /**
+         * Key to add and obtain {@link #mMaxIconSizeDp}.
+         */
+        private static final String ARG_MAX_ICON_SIZE_DP = "max_icon_size_dp";
+
+        /**
+         * Key to add and obtain {@link #mPreferRgb565}.
+         */
+        private static final String ARG_PREFER_RGB_565 = "prefer_rgb_565";
+
         /**
          * MoPub's privacy icon size in dp.
          */
         private int mPrivacyIconSizeDp;
 
+        /**
+         * Largest size the native ad main image is displayed at, in dp.
+         */
+        private int mMaxImageSizeDp;
+
+        /**
+         * Largest size the native ad icon is displayed at, in dp.
+         */
+        private int mMaxIconSizeDp;
+
+        /**
+         * Whether opaque native ad images should be decoded with 16 bits per pixel.
+         */
+        private boolean mPreferRgb565;
+
         /**
          * Sets the privacy icon size in dp.
          */
@@ -666,6 +746,33 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
             return BundleBuilder.this;
         }
 
+        /**
+         * Sets the largest size the native ad main image is displayed at, in dp. Larger images
+         * are downsampled when decoded. Defaults to the screen size.
+         */
+        public BundleBuilder setMaxImageSize(int imageSizeDp) {
+            mMaxImageSizeDp = imageSizeDp;
+            return BundleBuilder.this;
+        }
+
+        /**
+         * Sets the largest size the native ad icon is displayed at, in dp. Larger icons are
+         * downsampled when decoded.
+         */
+        public BundleBuilder setMaxIconSize(int iconSizeDp) {
+            mMaxIconSizeDp = iconSizeDp;
+            return BundleBuilder.this;
+        }
+
+        /**
+         * Sets whether opaque native ad images should be decoded to
+         * {@link android.graphics.Bitmap.Config#RGB_565}, halving their memory use.
+         */
+        public BundleBuilder setPreferRgb565(boolean preferRgb565) {
+            mPreferRgb565 = preferRgb565;
+            return BundleBuilder.this;
+        }
+
         /**
          * Constructs a Bundle with the specified extras.
          *
@@ -674,6 +781,9 @@ public class MoPubAdapter implements MediationNativeAdapter, MediationBannerAdap
         public Bundle build() {
             Bundle bundle = new Bundle();
             bundle.putInt(ARG_PRIVACY_ICON_SIZE_DP, mPrivacyIconSizeDp);
+            bundle.putInt(ARG_MAX_IMAGE_SIZE_DP, mMaxImageSizeDp);
+            bundle.putInt(ARG_MAX_ICON_SIZE_DP, mMaxIconSizeDp);
+            bundle.putBoolean(ARG_PREFER_RGB_565, mPreferRgb565);
             return bundle;
         }
     }
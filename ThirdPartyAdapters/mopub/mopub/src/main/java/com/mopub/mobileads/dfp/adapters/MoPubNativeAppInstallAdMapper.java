@@ -32,10 +32,12 @@ public class MoPubNativeAppInstallAdMapper extends NativeAppInstallAdMapper {
     private int privacyIconPlacement;
     private ImageView privacyInformationIconImageView;
     private int mPrivacyIconSize;
+    private HashMap<String, Drawable> mDrawableMap;
 
     public MoPubNativeAppInstallAdMapper(StaticNativeAd ad, HashMap<String, Drawable>
             drawableMap, int privacyIconPlacementParam, int privacyIconSize) {
         mMopubNativeAdData = ad;
+        mDrawableMap = drawableMap;
         setHeadline(mMopubNativeAdData.getTitle());
         setBody(mMopubNativeAdData.getText());
         setCallToAction(mMopubNativeAdData.getCallToAction());
@@ -80,6 +82,18 @@ public class MoPubNativeAppInstallAdMapper extends NativeAppInstallAdMapper {
         }
     }
 
+    /**
+     * Lets the decoded images be reused for other ads. Called once the ad is destroyed rather than
+     * from {@link #untrackView}, since the ad may be tracked again and its views may still draw
+     * the images.
+     */
+    void destroy() {
+        if (mDrawableMap != null) {
+            DownloadDrawablesAsync.releaseBitmaps(mDrawableMap);
+            mDrawableMap = null;
+        }
+    }
+
     public void trackView(View view) {
 
         mMopubNativeAdData.prepare(view);
@@ -0,0 +1,139 @@
+package com.google.ads.mediation.mopub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Tests for {@link InitializationWatchdog}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class InitializationWatchdogTest {
+
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    private RecordingCallback mCallback;
+
+    private InitializationWatchdog mWatchdog;
+
+    @Before
+    public void setUp() {
+        mCallback = new RecordingCallback();
+        mWatchdog = new InitializationWatchdog("Test", TIMEOUT_MILLIS, mCallback);
+    }
+
+    @Test
+    public void start_timesOutAtDeadline() {
+        mWatchdog.start();
+
+        advance(TIMEOUT_MILLIS - 1);
+        assertEquals(0, mCallback.mTimeoutCount);
+        assertFalse(mWatchdog.isDegraded());
+
+        advance(1);
+        assertEquals(1, mCallback.mTimeoutCount);
+        assertTrue(mWatchdog.isDegraded());
+    }
+
+    @Test
+    public void stop_beforeDeadlineCancelsTimeout() {
+        mWatchdog.start();
+        advance(TIMEOUT_MILLIS / 2);
+
+        mWatchdog.stop();
+        advance(InitializationWatchdog.MAX_BACKOFF_MILLIS);
+
+        assertEquals(0, mCallback.mTimeoutCount);
+        assertEquals(0, mCallback.mRetryCount);
+        assertFalse(mWatchdog.isDegraded());
+    }
+
+    @Test
+    public void start_restartsDeadline() {
+        mWatchdog.start();
+        advance(TIMEOUT_MILLIS / 2);
+
+        mWatchdog.start();
+        advance(TIMEOUT_MILLIS / 2);
+        assertEquals(0, mCallback.mTimeoutCount);
+
+        advance(TIMEOUT_MILLIS / 2);
+        assertEquals(1, mCallback.mTimeoutCount);
+    }
+
+    @Test
+    public void timeout_retriesWithExponentialBackoffUpToMax() {
+        mCallback.mIsRestarting = true;
+        mWatchdog.start();
+
+        long expectedBackoff = InitializationWatchdog.INITIAL_BACKOFF_MILLIS;
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            advance(TIMEOUT_MILLIS);
+            assertEquals(attempt, mCallback.mTimeoutCount);
+            assertTrue(mWatchdog.isDegraded());
+
+            advance(expectedBackoff - 1);
+            assertEquals(attempt - 1, mCallback.mRetryCount);
+            advance(1);
+            assertEquals(attempt, mCallback.mRetryCount);
+
+            expectedBackoff =
+                    Math.min(expectedBackoff * 2, InitializationWatchdog.MAX_BACKOFF_MILLIS);
+        }
+        assertEquals(InitializationWatchdog.MAX_BACKOFF_MILLIS, expectedBackoff);
+    }
+
+    @Test
+    public void stop_whileDegradedCancelsRetryAndResetsBackoff() {
+        mCallback.mIsRestarting = true;
+        mWatchdog.start();
+        advance(TIMEOUT_MILLIS);
+        advance(InitializationWatchdog.INITIAL_BACKOFF_MILLIS);
+        advance(TIMEOUT_MILLIS);
+        assertEquals(2, mCallback.mTimeoutCount);
+
+        mWatchdog.stop();
+        assertFalse(mWatchdog.isDegraded());
+        advance(InitializationWatchdog.MAX_BACKOFF_MILLIS);
+        assertEquals(1, mCallback.mRetryCount);
+
+        // The next timeout backs off from the initial delay again.
+        mWatchdog.start();
+        advance(TIMEOUT_MILLIS);
+        advance(InitializationWatchdog.INITIAL_BACKOFF_MILLIS);
+        assertEquals(2, mCallback.mRetryCount);
+    }
+
+    private static void advance(long millis) {
+        ShadowLooper.idleMainLooper(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private class RecordingCallback implements InitializationWatchdog.Callback {
+        int mTimeoutCount;
+        int mRetryCount;
+        boolean mIsRestarting;
+
+        @Override
+        public void onTimeout() {
+            mTimeoutCount++;
+        }
+
+        @Override
+        public void onRetry() {
+            mRetryCount++;
+            if (mIsRestarting) {
+                mWatchdog.start();
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.mopub.mobileads.dfp.adapters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests for {@link ImageDiskCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ImageDiskCacheTest {
+
+    private static final int ENTRY_SIZE = 10;
+
+    private static final long MAX_SIZE = 3 * ENTRY_SIZE;
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private File mDirectory;
+
+    @Before
+    public void setUp() {
+        mDirectory = new File(mTemporaryFolder.getRoot(), "images");
+    }
+
+    @Test
+    public void get_returnsStoredBytes() {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", data('a'));
+
+        assertArrayEquals(data('a'), cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedEntry() {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", data('a'));
+        cache.put("b", data('b'));
+        cache.put("c", data('c'));
+        // Reading "a" makes "b" the least recently used entry.
+        cache.get("a");
+
+        cache.put("d", data('d'));
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+        assertEquals(MAX_SIZE, cache.size());
+        // One file per entry, plus the journal.
+        assertEquals(4, mDirectory.list().length);
+    }
+
+    @Test
+    public void put_largerThanCacheIsIgnored() {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", new byte[(int) MAX_SIZE + 1]);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void reopen_replaysEntriesFromJournal() {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", data('a'));
+        cache.put("b", data('b'));
+        cache.remove("a");
+
+        ImageDiskCache reopened = new ImageDiskCache(mDirectory, MAX_SIZE);
+
+        assertNull(reopened.get("a"));
+        assertArrayEquals(data('b'), reopened.get("b"));
+        assertEquals(ENTRY_SIZE, reopened.size());
+    }
+
+    @Test
+    public void reopen_replaysAccessOrderFromJournal() {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", data('a'));
+        cache.put("b", data('b'));
+        cache.put("c", data('c'));
+        cache.get("a");
+
+        ImageDiskCache reopened = new ImageDiskCache(mDirectory, MAX_SIZE);
+        reopened.put("d", data('d'));
+
+        assertNull(reopened.get("b"));
+        assertNotNull(reopened.get("a"));
+    }
+
+    @Test
+    public void reopen_keepsEntriesBeforeTruncatedRecord() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", data('a'));
+        // A crash while appending a record leaves a partial line behind.
+        appendToJournal("P 0123");
+
+        ImageDiskCache reopened = new ImageDiskCache(mDirectory, MAX_SIZE);
+
+        assertArrayEquals(data('a'), reopened.get("a"));
+        assertEquals(ENTRY_SIZE, reopened.size());
+    }
+
+    @Test
+    public void reopen_dropsEntriesWithMissingFiles() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", data('a'));
+        cache.put("b", data('b'));
+        for (File file : mDirectory.listFiles()) {
+            if (Arrays.equals(data('a'), Files.readAllBytes(file.toPath()))) {
+                file.delete();
+            }
+        }
+
+        ImageDiskCache reopened = new ImageDiskCache(mDirectory, MAX_SIZE);
+
+        assertNull(reopened.get("a"));
+        assertArrayEquals(data('b'), reopened.get("b"));
+        assertEquals(ENTRY_SIZE, reopened.size());
+    }
+
+    @Test
+    public void reopen_deletesFilesNotInJournal() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(mDirectory, MAX_SIZE);
+        cache.put("a", data('a'));
+        File leftover = new File(mDirectory, "0123.42.tmp");
+        new FileWriter(leftover).close();
+
+        ImageDiskCache reopened = new ImageDiskCache(mDirectory, MAX_SIZE);
+        reopened.get("a");
+
+        assertFalse(leftover.exists());
+    }
+
+    private void appendToJournal(String line) throws IOException {
+        Writer writer = new FileWriter(new File(mDirectory, "journal"), true);
+        try {
+            writer.write(line);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static byte[] data(char fill) {
+        byte[] data = new byte[ENTRY_SIZE];
+        Arrays.fill(data, (byte) fill);
+        return data;
+    }
+}
@@ -0,0 +1,59 @@
+package com.google.ads.mediation.tapjoy;
+
+/**
+ * Placements held by the renderers in {@code com.google.ads.mediation.tapjoy.rtb}, which cannot
+ * use the package-private {@link PlacementRegistry} directly.
+ */
+public final class RtbPlacements {
+
+    /**
+     * Callback for {@link #claimOrWait}.
+     */
+    public interface ClaimCallback {
+        /**
+         * The placement is now held by the holder that asked for it.
+         */
+        void onClaimed();
+
+        /**
+         * The placement could not be claimed, and is not held by the holder that asked for it.
+         */
+        void onClaimFailed(String errorMessage);
+    }
+
+    private static final PlacementRegistry<Object> sPlacementsInUse = new PlacementRegistry<>();
+
+    private RtbPlacements() {
+    }
+
+    /**
+     * Claims {@code placementName} for {@code holder}, waiting for its current holder to release
+     * it if needed. See {@link PlacementRegistry#claimOrWait}.
+     */
+    public static void claimOrWait(String placementName,
+                                   Object holder,
+                                   final ClaimCallback callback) {
+        sPlacementsInUse.claimOrWait(placementName, holder,
+                new PlacementRegistry.ClaimCallback() {
+                    @Override
+                    public void onClaimed() {
+                        callback.onClaimed();
+                    }
+
+                    @Override
+                    public void onClaimFailed(String errorMessage) {
+                        callback.onClaimFailed(errorMessage);
+                    }
+                });
+    }
+
+    /**
+     * Frees {@code placementName} if it is held by {@code holder}. See
+     * {@link PlacementRegistry#release}.
+     *
+     * @return {@code true} if the placement was freed.
+     */
+    public static boolean release(String placementName, Object holder) {
+        return sPlacementsInUse.release(placementName, holder);
+    }
+}
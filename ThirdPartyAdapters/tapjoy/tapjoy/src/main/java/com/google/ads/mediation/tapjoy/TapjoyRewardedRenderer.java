@@ -24,8 +24,6 @@ import com.tapjoy.TapjoyAuctionFlags;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
 import java.util.Hashtable;
 
 import static com.google.ads.mediation.tapjoy.TapjoyMediationAdapter.MEDIATION_AGENT;
@@ -50,8 +48,8 @@ public class TapjoyRewardedRenderer implements MediationRewardedAd, TJPlacementV
 
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
-    private static HashMap<String, WeakReference<TapjoyRewardedRenderer>> mPlacementsInUse =
-            new HashMap<>();
+    private static final PlacementRegistry<TapjoyRewardedRenderer> mPlacementsInUse =
+            new PlacementRegistry<>();
 
     public TapjoyRewardedRenderer(
             MediationRewardedAdConfiguration adConfiguration,
@@ -107,18 +105,21 @@ public class TapjoyRewardedRenderer implements MediationRewardedAd, TJPlacementV
                 new TapjoyInitializer.Listener() {
             @Override
             public void onInitializeSucceeded() {
-                if (mPlacementsInUse.containsKey(placementName) &&
-                        mPlacementsInUse.get(placementName).get() != null) {
-                    String logMessage =
-                            "An ad has already been requested for placement: " + placementName;
-                    Log.w(TAG, logMessage);
-                    mAdLoadCallback.onFailure(logMessage);
-                    return;
-                }
+                // If an ad has already been requested for the placement, wait for it to be
+                // consumed first.
+                mPlacementsInUse.claimOrWait(placementName, TapjoyRewardedRenderer.this,
+                        new PlacementRegistry.ClaimCallback() {
+                            @Override
+                            public void onClaimed() {
+                                createVideoPlacementAndRequestContent(placementName);
+                            }
 
-                mPlacementsInUse.put(placementName,
-                        new WeakReference<>(TapjoyRewardedRenderer.this));
-                createVideoPlacementAndRequestContent(placementName);
+                            @Override
+                            public void onClaimFailed(String errorMessage) {
+                                Log.w(TAG, errorMessage);
+                                mAdLoadCallback.onFailure(errorMessage);
+                            }
+                        });
             }
 
             @Override
@@ -141,7 +142,7 @@ public class TapjoyRewardedRenderer implements MediationRewardedAd, TJPlacementV
                     @Override
                     public void run() {
                         if (!videoPlacement.isContentAvailable()) {
-                            mPlacementsInUse.remove(placementName);
+                            mPlacementsInUse.release(placementName, TapjoyRewardedRenderer.this);
 
                             String logMessage =
                                     "Failed to request rewarded ad from Tapjoy: No Fill.";
@@ -159,7 +160,7 @@ public class TapjoyRewardedRenderer implements MediationRewardedAd, TJPlacementV
                 mainHandler.post(new Runnable() {
                     @Override
                     public void run() {
-                        mPlacementsInUse.remove(placementName);
+                        mPlacementsInUse.release(placementName, TapjoyRewardedRenderer.this);
 
                         String logMessage =
                                 "Failed to request rewarded ad from Tapjoy: " + tjError.message;
@@ -207,7 +208,7 @@ public class TapjoyRewardedRenderer implements MediationRewardedAd, TJPlacementV
                         if (mMediationRewardedAdCallback != null) {
                             mMediationRewardedAdCallback.onAdClosed();
                         }
-                        mPlacementsInUse.remove(placementName);
+                        mPlacementsInUse.release(placementName, TapjoyRewardedRenderer.this);
                     }
                 });
             }
@@ -295,7 +296,7 @@ public class TapjoyRewardedRenderer implements MediationRewardedAd, TJPlacementV
         mainHandler.post(new Runnable() {
             @Override
             public void run() {
-                mPlacementsInUse.remove(tjPlacement.getName());
+                mPlacementsInUse.release(tjPlacement.getName(), TapjoyRewardedRenderer.this);
                 Log.w(TAG, "Tapjoy Rewarded Ad has failed to play: " + errorMessage);
                 if (mMediationRewardedAdCallback != null) {
                     mMediationRewardedAdCallback.onAdFailedToShow(errorMessage);
@@ -5,6 +5,7 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import com.google.ads.mediation.tapjoy.RtbPlacements;
 import com.google.android.gms.ads.mediation.MediationAdConfiguration;
 import com.google.android.gms.ads.mediation.MediationAdLoadCallback;
 import com.google.android.gms.ads.mediation.MediationInterstitialAd;
@@ -18,8 +19,6 @@ import com.tapjoy.TapjoyAuctionFlags;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
 
 public class TapjoyRtbInterstitialRenderer implements MediationInterstitialAd {
     private final String TAG = "TapjoyRTB Interstitial";
@@ -40,8 +39,6 @@ public class TapjoyRtbInterstitialRenderer implements MediationInterstitialAd {
     private static final String TAPJOY_INTERNAL_ADAPTER_VERSION =
             "2.0.0";
 
-    private static HashMap<String, WeakReference<TapjoyRtbInterstitialRenderer>> placementsInUse =
-            new HashMap<>();
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     /**
@@ -66,17 +63,21 @@ public class TapjoyRtbInterstitialRenderer implements MediationInterstitialAd {
         Log.i(TAG,"Rendering interstitial placement for AdMob adapter");
 
         if (checkParams()) {
-            if (placementsInUse.containsKey(interstitialPlacementName) &&
-                    placementsInUse.get(interstitialPlacementName).get() != null) {
-                String logMessage =
-                        "An ad has already been requested for placement: " + interstitialPlacementName;
-                Log.w(TAG, logMessage);
-                callback.onFailure(logMessage);
-                return;
-            }
-            placementsInUse.put(interstitialPlacementName,
-                    new WeakReference<>(TapjoyRtbInterstitialRenderer.this));
-            createInterstitialPlacementAndRequestContent();
+            // If an ad has already been requested for the placement, wait for it to be consumed
+            // first.
+            RtbPlacements.claimOrWait(interstitialPlacementName,
+                    TapjoyRtbInterstitialRenderer.this, new RtbPlacements.ClaimCallback() {
+                        @Override
+                        public void onClaimed() {
+                            createInterstitialPlacementAndRequestContent();
+                        }
+
+                        @Override
+                        public void onClaimFailed(String errorMessage) {
+                            Log.w(TAG, errorMessage);
+                            callback.onFailure(errorMessage);
+                        }
+                    });
         } else {
             callback.onFailure("Invalid server parameters specified in the UI");
         }
@@ -113,7 +114,8 @@ public class TapjoyRtbInterstitialRenderer implements MediationInterstitialAd {
                     @Override
                     public void run() {
                         if (!interstitialPlacement.isContentAvailable()) {
-                            placementsInUse.remove(interstitialPlacementName);
+                            RtbPlacements.release(interstitialPlacementName,
+                                TapjoyRtbInterstitialRenderer.this);
                             callback.onFailure("NO_FILL");
                             Log.d(TAG,"Interstitial Content isn't available");
                         }
@@ -126,7 +128,8 @@ public class TapjoyRtbInterstitialRenderer implements MediationInterstitialAd {
                 mainHandler.post(new Runnable() {
                     @Override
                     public void run() {
-                        placementsInUse.remove(interstitialPlacementName);
+                        RtbPlacements.release(interstitialPlacementName,
+                                TapjoyRtbInterstitialRenderer.this);
                         callback.onFailure(tjError.message);
                     }
                 });
@@ -164,7 +167,8 @@ public class TapjoyRtbInterstitialRenderer implements MediationInterstitialAd {
                         if(listener != null){
                             listener.onAdClosed();
                         }
-                        placementsInUse.remove(interstitialPlacementName);
+                        RtbPlacements.release(interstitialPlacementName,
+                                TapjoyRtbInterstitialRenderer.this);
                     }
                 });
             }
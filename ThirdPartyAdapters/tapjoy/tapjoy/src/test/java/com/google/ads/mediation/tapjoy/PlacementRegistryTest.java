@@ -0,0 +1,226 @@
+package com.google.ads.mediation.tapjoy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Tests for {@link PlacementRegistry}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PlacementRegistryTest {
+
+    private static final String PLACEMENT = "placement";
+
+    private static final int MAX_WAITERS = 2;
+
+    private static final long WAIT_TIMEOUT_MILLIS = 1000;
+
+    private PlacementRegistry<Object> mRegistry;
+
+    /**
+     * Claim results, in the order they were notified.
+     */
+    private List<String> mEvents;
+
+    @Before
+    public void setUp() {
+        mRegistry = new PlacementRegistry<>(MAX_WAITERS, WAIT_TIMEOUT_MILLIS);
+        mEvents = new ArrayList<>();
+    }
+
+    @Test
+    public void claim_heldPlacementRejectsOtherHolders() {
+        Object first = new Object();
+        Object second = new Object();
+
+        assertTrue(mRegistry.claim(PLACEMENT, first));
+        assertTrue(mRegistry.claim(PLACEMENT, first));
+        assertFalse(mRegistry.claim(PLACEMENT, second));
+        assertFalse(mRegistry.release(PLACEMENT, second));
+
+        assertTrue(mRegistry.release(PLACEMENT, first));
+        assertTrue(mRegistry.claim(PLACEMENT, second));
+    }
+
+    @Test
+    public void claimOrWait_freePlacementClaimedRightAway() {
+        claimOrWait(new Holder("first"));
+
+        assertEquals("first claimed", mEvents.get(0));
+    }
+
+    @Test
+    public void claimOrWait_waitersServedInFifoOrder() {
+        Holder first = new Holder("first");
+        Holder second = new Holder("second");
+        Holder third = new Holder("third");
+        claimOrWait(first);
+        claimOrWait(second);
+        claimOrWait(third);
+
+        mRegistry.release(PLACEMENT, first);
+        ShadowLooper.idleMainLooper();
+        assertSame(second, mRegistry.get(PLACEMENT));
+
+        mRegistry.release(PLACEMENT, second);
+        ShadowLooper.idleMainLooper();
+        assertSame(third, mRegistry.get(PLACEMENT));
+
+        assertEquals(3, mEvents.size());
+        assertEquals("first claimed", mEvents.get(0));
+        assertEquals("second claimed", mEvents.get(1));
+        assertEquals("third claimed", mEvents.get(2));
+    }
+
+    @Test
+    public void claimOrWait_fullQueueFailsRightAway() {
+        claimOrWait(new Holder("first"));
+        claimOrWait(new Holder("second"));
+        claimOrWait(new Holder("third"));
+
+        claimOrWait(new Holder("fourth"));
+
+        assertEquals("fourth failed", mEvents.get(1));
+    }
+
+    @Test
+    public void claimOrWait_failsAfterTimeout() {
+        Holder first = new Holder("first");
+        claimOrWait(first);
+        claimOrWait(new Holder("second"));
+
+        advance(WAIT_TIMEOUT_MILLIS - 1);
+        assertEquals(1, mEvents.size());
+        advance(1);
+
+        assertEquals("second failed", mEvents.get(1));
+        assertSame(first, mRegistry.get(PLACEMENT));
+        mRegistry.release(PLACEMENT, first);
+        ShadowLooper.idleMainLooper();
+        assertNull(mRegistry.get(PLACEMENT));
+    }
+
+    @Test
+    public void cancelWait_cancelledWaiterIsSkipped() {
+        Holder first = new Holder("first");
+        Holder second = new Holder("second");
+        Holder third = new Holder("third");
+        claimOrWait(first);
+        claimOrWait(second);
+        claimOrWait(third);
+
+        assertTrue(mRegistry.cancelWait(PLACEMENT, second));
+        assertFalse(mRegistry.cancelWait(PLACEMENT, second));
+        mRegistry.release(PLACEMENT, first);
+        advance(WAIT_TIMEOUT_MILLIS);
+
+        assertSame(third, mRegistry.get(PLACEMENT));
+        assertEquals(2, mEvents.size());
+        assertEquals("third claimed", mEvents.get(1));
+    }
+
+    @Test
+    public void cancelWait_afterHandOverSkipsNotificationButKeepsPlacement() {
+        Holder first = new Holder("first");
+        Holder second = new Holder("second");
+        claimOrWait(first);
+        claimOrWait(second);
+
+        // The placement is handed over right away, the notification is posted.
+        mRegistry.release(PLACEMENT, first);
+        assertTrue(mRegistry.cancelWait(PLACEMENT, second));
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(1, mEvents.size());
+        assertSame(second, mRegistry.get(PLACEMENT));
+    }
+
+    @Test
+    public void claim_collectedHolderFreesPlacement() {
+        claimWithUnreferencedHolder();
+        waitForCollection();
+
+        assertFalse(mRegistry.isClaimed(PLACEMENT));
+        assertTrue(mRegistry.claim(PLACEMENT, new Object()));
+    }
+
+    @Test
+    public void claimOrWait_collectedHolderServesWaiter() {
+        claimWithUnreferencedHolder();
+        Holder waiter = new Holder("waiter");
+        claimOrWait(waiter);
+        assertEquals(0, mEvents.size());
+
+        waitForCollection();
+        ShadowLooper.idleMainLooper();
+
+        assertSame(waiter, mRegistry.get(PLACEMENT));
+        assertEquals("waiter claimed", mEvents.get(0));
+    }
+
+    private void claimWithUnreferencedHolder() {
+        assertTrue(mRegistry.claim(PLACEMENT, new Object()));
+    }
+
+    /**
+     * Runs the garbage collector until the holder of {@link #PLACEMENT} was collected. Reading
+     * the registry purges the collected holder and hands the placement over to its next waiter.
+     */
+    private void waitForCollection() {
+        for (int i = 0; i < 100 && isHeldByUnreferencedHolder(); i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean isHeldByUnreferencedHolder() {
+        Object holder = mRegistry.get(PLACEMENT);
+        return holder != null && !(holder instanceof Holder);
+    }
+
+    private void claimOrWait(final Holder holder) {
+        mRegistry.claimOrWait(PLACEMENT, holder, new PlacementRegistry.ClaimCallback() {
+            @Override
+            public void onClaimed() {
+                mEvents.add(holder.mName + " claimed");
+            }
+
+            @Override
+            public void onClaimFailed(String errorMessage) {
+                mEvents.add(holder.mName + " failed");
+            }
+        });
+    }
+
+    private static void advance(long millis) {
+        ShadowLooper.idleMainLooper(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private static class Holder {
+        final String mName;
+
+        Holder(String name) {
+            mName = name;
+        }
+    }
+}
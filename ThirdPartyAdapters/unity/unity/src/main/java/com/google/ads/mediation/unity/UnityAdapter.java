@@ -273,7 +273,9 @@ public class UnityAdapter extends UnityMediationAdapter
     }
 
     @Override
-    public void onDestroy() {}
+    public void onDestroy() {
+        UnitySingleton.getInstance().removeDelegate(mUnityAdapterDelegate);
+    }
 
     @Override
     public void onPause() {}
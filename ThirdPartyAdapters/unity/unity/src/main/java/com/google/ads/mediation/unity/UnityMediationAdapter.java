@@ -16,6 +16,7 @@ import com.google.android.gms.ads.mediation.MediationRewardedAdConfiguration;
 import com.google.android.gms.ads.mediation.VersionInfo;
 import com.unity3d.ads.UnityAds;
 
+import java.lang.ref.WeakReference;
 import java.util.HashSet;
 import java.util.List;
 
@@ -39,6 +40,22 @@ public class UnityMediationAdapter extends Adapter implements MediationRewardedA
      */
     static final String KEY_PLACEMENT_ID = "zoneId";
 
+    /**
+     * Whether {@link #initialize} defers starting the Unity Ads SDK until it is needed.
+     */
+    private static volatile boolean sInitializeOnFirstRequest;
+
+    /**
+     * Game ID recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     * Written after {@link #sDeferredActivity} and read before it.
+     */
+    private static volatile String sDeferredGameId;
+
+    /**
+     * Activity recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     */
+    private static volatile WeakReference<Activity> sDeferredActivity;
+
     /**
      * Mediation rewarded video ad listener used to forward ad load status
      * from {@link UnitySingleton} to the Google Mobile Ads SDK.
@@ -131,21 +148,62 @@ public class UnityMediationAdapter extends Adapter implements MediationRewardedA
         }
     };
 
+    /**
+     * Sets whether the Unity Ads SDK is started lazily. When enabled, {@link #initialize} only
+     * records the Game ID and reports success. The SDK is started by the first ad request, or by
+     * {@link #warmUp()} if it is called earlier. Must be set before the Google Mobile Ads SDK is
+     * initialized.
+     */
+    public static void setInitializeOnFirstRequest(boolean initializeOnFirstRequest) {
+        sInitializeOnFirstRequest = initializeOnFirstRequest;
+    }
+
+    /**
+     * Starts the Unity Ads SDK if its initialization was deferred by
+     * {@link #setInitializeOnFirstRequest(boolean)}, for example once the app is idle. Does
+     * nothing otherwise.
+     */
+    public static void warmUp() {
+        String gameId = sDeferredGameId;
+        Activity activity = sDeferredActivity != null ? sDeferredActivity.get() : null;
+        sDeferredGameId = null;
+        sDeferredActivity = null;
+        if (gameId == null || activity == null) {
+            return;
+        }
+        UnitySingleton.getInstance().initializeUnityAds(activity, gameId);
+    }
+
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     /**
      * {@link Adapter} implementation
      */
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = UnityAds.getVersion();
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
@@ -193,6 +251,14 @@ public class UnityMediationAdapter extends Adapter implements MediationRewardedA
             return;
         }
 
+        if (sInitializeOnFirstRequest) {
+            // Unity Ads is started by the first ad request or by warmUp().
+            sDeferredActivity = new WeakReference<>((Activity) context);
+            sDeferredGameId = gameID;
+            initializationCompleteCallback.onInitializationSucceeded();
+            return;
+        }
+
         UnitySingleton.getInstance().initializeUnityAds((Activity) context, gameID);
         initializationCompleteCallback.onInitializationSucceeded();
     }
@@ -27,7 +27,6 @@ import com.unity3d.services.banners.IUnityBannerListener;
 import com.unity3d.services.banners.UnityBanners;
 
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
 
 /**
  * The {@link UnitySingleton} class is used to load {@link UnityAds}, handle multiple
@@ -39,7 +38,8 @@ public final class UnitySingleton {
      * A list of adapter listeners with their respective placement IDs to prevent duplicate
      * requests.
      */
-    private HashMap<String, WeakReference<UnityAdapterDelegate>> mPlacementsInUse;
+    private final PlacementRegistry<UnityAdapterDelegate> mPlacementsInUse =
+            new PlacementRegistry<>();
 
     /**
      * A weak reference to the {@link UnityAdapterDelegate} of the {@link UnityAdapter} that is
@@ -80,7 +80,6 @@ public final class UnitySingleton {
     }
 
     private UnitySingleton() {
-        mPlacementsInUse = new HashMap<>();
     }
 
     /**
@@ -145,8 +144,8 @@ public final class UnitySingleton {
                                        Activity activity,
                                        String gameId,
                                        @NonNull String placementId) {
-        if (!TextUtils.isEmpty(placementId) && !mPlacementsInUse.containsKey(placementId)) {
-            mPlacementsInUse.put(placementId, new WeakReference<>(delegate));
+        if (!TextUtils.isEmpty(placementId)) {
+            mPlacementsInUse.claim(placementId, delegate);
         }
 
         return initializeUnityAds(activity, gameId);
@@ -178,30 +177,46 @@ public final class UnitySingleton {
      *
      * @param delegate Used to forward Unity Ads events to the adapter.
      */
-    protected void loadAd(UnityAdapterDelegate delegate) {
-
-        // Calling load before UnityAds.initialize() will cause the placement to load on init
-        UnityAds.load(delegate.getPlacementId());
-
-        if (UnityAds.isInitialized()) {
-            //If ads are currently being loaded, wait for the callbacks from
-            // unitySingletonListenerInstance.
-            // Check if an AdMob Ad request has already loaded or is in progress of requesting
-            // an Ad from Unity Ads for a single placement, and fail if there's any.
-            if (mPlacementsInUse.containsKey(delegate.getPlacementId()) &&
-                    mPlacementsInUse.get(delegate.getPlacementId()).get() != null) {
-                Log.e(UnityMediationAdapter.TAG,
-                        "An ad is already loading for placement ID: " + delegate.getPlacementId());
-                delegate.onUnityAdsError(UnityAds.UnityAdsError.INTERNAL_ERROR,
-                        delegate.getPlacementId());
-                return;
-            }
+    protected void loadAd(final UnityAdapterDelegate delegate) {
+        // If an AdMob Ad request has already loaded or is in progress of requesting an Ad from
+        // Unity Ads for a single placement, wait for it to finish before loading, and fail if there
+        // are already too many requests waiting or it takes too long.
+        final String placementId = delegate.getPlacementId();
+        mPlacementsInUse.claimOrWait(placementId, delegate,
+                new PlacementRegistry.ClaimCallback() {
+                    @Override
+                    public void onClaimed() {
+                        // Calling load before UnityAds.initialize() will cause the placement to
+                        // load on init.
+                        UnityAds.load(placementId);
+
+                        // If ads are currently being loaded, wait for the callbacks from
+                        // unitySingletonListenerInstance.
+                        if (UnityAds.isInitialized() && UnityAds.isReady(placementId)) {
+                            delegate.onUnityAdsReady(placementId);
+                        }
+                    }
+
+                    @Override
+                    public void onClaimFailed(String errorMessage) {
+                        Log.e(UnityMediationAdapter.TAG, errorMessage);
+                        delegate.onUnityAdsError(UnityAds.UnityAdsError.INTERNAL_ERROR,
+                                placementId);
+                    }
+                });
+    }
 
-            mPlacementsInUse.put(delegate.getPlacementId(), new WeakReference<>(delegate));
-            if (UnityAds.isReady(delegate.getPlacementId())) {
-                delegate.onUnityAdsReady(delegate.getPlacementId());
-            }
-        }
+    /**
+     * Stops forwarding Unity Ads events to {@code delegate}, for example once its adapter is
+     * destroyed. If the delegate is waiting for its placement, it leaves the queue, and if it holds
+     * the placement, the placement is handed over to the next request waiting for it.
+     *
+     * @param delegate Delegate to the adapter that no longer loads or shows ads.
+     */
+    void removeDelegate(UnityAdapterDelegate delegate) {
+        String placementId = delegate.getPlacementId();
+        mPlacementsInUse.cancelWait(placementId, delegate);
+        mPlacementsInUse.release(placementId, delegate);
     }
 
     /**
@@ -264,9 +279,9 @@ public final class UnitySingleton {
         public void onUnityAdsReady(String placementId) {
             // Unity Ads is ready to show ads for the given placementId. Send ready callback to the
             // appropriate delegate.
-            if (mPlacementsInUse.containsKey(placementId) &&
-                    mPlacementsInUse.get(placementId).get() != null) {
-                mPlacementsInUse.get(placementId).get().onUnityAdsReady(placementId);
+            UnityAdapterDelegate delegate = mPlacementsInUse.get(placementId);
+            if (delegate != null) {
+                delegate.onUnityAdsReady(placementId);
             }
         }
 
@@ -310,7 +325,7 @@ public final class UnitySingleton {
                 UnityAdapterDelegate delegate = mAdShowingAdapterDelegate.get();
                 if (delegate != null) {
                     delegate.onUnityAdsFinish(placementId, finishState);
-                    mPlacementsInUse.remove(placementId);
+                    mPlacementsInUse.release(placementId, delegate);
                 }
             }
         }
@@ -318,11 +333,10 @@ public final class UnitySingleton {
         @Override
         public void onUnityAdsError(UnityAds.UnityAdsError unityAdsError, String placementId) {
             // An error occurred with Unity Ads. Send error event to the appropriate delegate.
-            if (mPlacementsInUse.containsKey(placementId) &&
-                    mPlacementsInUse.get(placementId).get() != null) {
-                mPlacementsInUse.get(placementId).get()
-                        .onUnityAdsError(unityAdsError, placementId);
-                mPlacementsInUse.remove(placementId);
+            UnityAdapterDelegate delegate = mPlacementsInUse.get(placementId);
+            if (delegate != null) {
+                delegate.onUnityAdsError(unityAdsError, placementId);
+                mPlacementsInUse.release(placementId, delegate);
             }
         }
 
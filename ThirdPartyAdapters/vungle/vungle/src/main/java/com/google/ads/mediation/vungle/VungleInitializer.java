@@ -12,18 +12,19 @@ import com.vungle.warren.Vungle;
 import com.vungle.warren.VungleApiClient;
 import com.vungle.warren.VungleSettings;
 
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class VungleInitializer implements InitCallback {
 
     private static VungleInitializer instance;
-    private boolean mIsInitializing = false;
 
-    private ArrayList<VungleInitializationListener> mInitListeners;
+    private final InitializationCoordinator mCoordinator = new InitializationCoordinator();
 
     private Handler mHandler = new Handler(Looper.getMainLooper());
 
-    public static VungleInitializer getInstance() {
+    private final VungleSettingsApplier mSettingsApplier = new VungleSettingsApplier(this);
+
+    public static synchronized VungleInitializer getInstance() {
         if (instance == null) {
             instance = new VungleInitializer();
         }
@@ -31,11 +32,10 @@ public class VungleInitializer implements InitCallback {
     }
 
     private VungleInitializer() {
-        mInitListeners = new ArrayList<>();
     }
 
     boolean isInitializing() {
-        return mIsInitializing;
+        return mCoordinator.getState() == InitializationCoordinator.State.INITIALIZING;
     }
 
     public boolean isInitialized() {
@@ -43,46 +43,53 @@ public class VungleInitializer implements InitCallback {
     }
 
     public void initialize(final String appId, final Context context,
-                           VungleInitializationListener listener) {
-        if (isInitializing()) {
-            mInitListeners.add(listener);
-            return;
-        }
-
-        if (isInitialized()) {
+                           final VungleInitializationListener listener) {
+        if (!isInitializing() && isInitialized()) {
             listener.onInitializeSuccess();
             return;
         }
 
-        mIsInitializing = true;
-
-        Plugin.addWrapperInfo(VungleApiClient.WrapperFramework.admob,
-                com.vungle.warren.BuildConfig.VERSION_NAME.replace('.', '_'));
-
-        //Keep monitoring VungleSettings in case of any changes we need to re-init SDK to apply
-        // updated settings.
-        VungleNetworkSettings.setVungleSettingsChangedListener(new VungleNetworkSettings.VungleSettingsChangedListener() {
+        boolean shouldInitialize = mCoordinator.register(new InitializationCoordinator.Callback() {
             @Override
-            public void onVungleSettingsChanged(VungleSettings updatedSettings) {
-                //Ignore if sdk is yet to initialize, it will get considered while init
-                if (!Vungle.isInitialized()) {
-                    return;
-                }
+            public void onSuccess() {
+                listener.onInitializeSuccess();
+            }
 
-                VungleSettings settings = (updatedSettings != null) ? updatedSettings :
-                        new VungleSettings.Builder().build();
-                //Pass new settings to SDK.
-                Vungle.init(appId, context.getApplicationContext(), VungleInitializer.this,
-                        settings);
+            @Override
+            public void onFailure(String message) {
+                listener.onInitializeError(message);
             }
         });
-
-        VungleSettings vungleSettings = VungleNetworkSettings.getVungleSettings();
-        if (vungleSettings == null) {
-            vungleSettings = new VungleSettings.Builder().build();
+        if (!shouldInitialize) {
+            return;
         }
+
+        Plugin.addWrapperInfo(VungleApiClient.WrapperFramework.admob,
+                com.vungle.warren.BuildConfig.VERSION_NAME.replace('.', '_'));
+
+        // Keep monitoring VungleSettings, changes that need the SDK to be initialized again to
+        // apply are deferred until no ad is loading or playing.
+        VungleNetworkSettings.setVungleSettingsChangedListener(
+                new VungleNetworkSettings.VungleSettingsChangedListener() {
+                    @Override
+                    public void onVungleSettingsChanged(VungleSettings updatedSettings) {
+                        mSettingsApplier.onSettingsChanged();
+                    }
+                });
+
+        VungleSettings vungleSettings = mSettingsApplier.onInitialize(appId, context);
         Vungle.init(appId, context.getApplicationContext(), VungleInitializer.this, vungleSettings);
-        mInitListeners.add(listener);
+    }
+
+    /**
+     * Marks the start of an ad load or play. Settings changes that need the Vungle SDK to be
+     * initialized again are held back until every started {@link AdActivity} has ended.
+     *
+     * @return the activity to end once the load or play completed.
+     */
+    public AdActivity startAdActivity() {
+        mSettingsApplier.onAdActivityStarted();
+        return new AdActivity(mSettingsApplier);
     }
 
     @Override
@@ -94,13 +101,11 @@ public class VungleInitializer implements InitCallback {
                     Vungle.updateConsentStatus(VungleConsent.getCurrentVungleConsent(),
                             VungleConsent.getCurrentVungleConsentMessageVersion());
                 }
-                for (VungleInitializationListener listener : mInitListeners) {
-                    listener.onInitializeSuccess();
-                }
-                mInitListeners.clear();
+                // Listeners registering until now are still queued and notified here.
+                mCoordinator.succeed();
+                mSettingsApplier.onInitialized();
             }
         });
-        mIsInitializing = false;
     }
 
     @Override
@@ -108,13 +113,9 @@ public class VungleInitializer implements InitCallback {
         mHandler.post(new Runnable() {
             @Override
             public void run() {
-                for (VungleInitializationListener listener : mInitListeners) {
-                    listener.onInitializeError(throwable.getLocalizedMessage());
-                }
-                mInitListeners.clear();
+                mCoordinator.fail(throwable.getLocalizedMessage());
             }
         });
-        mIsInitializing = false;
     }
 
     @Override
@@ -122,6 +123,27 @@ public class VungleInitializer implements InitCallback {
         // Unused
     }
 
+    /**
+     * An ad load or play started with {@link #startAdActivity()}.
+     */
+    public static final class AdActivity {
+        private final VungleSettingsApplier mSettingsApplier;
+        private final AtomicBoolean mIsEnded = new AtomicBoolean();
+
+        private AdActivity(VungleSettingsApplier settingsApplier) {
+            mSettingsApplier = settingsApplier;
+        }
+
+        /**
+         * Ends the activity. Has no effect if it was already ended.
+         */
+        public void end() {
+            if (!mIsEnded.getAndSet(true)) {
+                mSettingsApplier.onAdActivityEnded();
+            }
+        }
+    }
+
     public interface VungleInitializationListener {
         void onInitializeSuccess();
 
@@ -26,8 +26,6 @@ import com.vungle.warren.LoadAdCallback;
 import com.vungle.warren.PlayAdCallback;
 import com.vungle.warren.Vungle;
 
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 
@@ -43,26 +41,99 @@ public class VungleMediationAdapter extends Adapter
     private String mPlacement;
     private Handler mHandler = new Handler(Looper.getMainLooper());
 
-    private static HashMap<String, WeakReference<VungleMediationAdapter>> mPlacementsInUse =
-            new HashMap<>();
+    private static final PlacementRegistry<VungleMediationAdapter> mPlacementsInUse =
+            new PlacementRegistry<>();
+
+    /**
+     * Whether {@link #initialize} defers starting the Vungle SDK until it is needed.
+     */
+    private static volatile boolean sInitializeOnFirstRequest;
+
+    /**
+     * App ID recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     * Written after {@link #sDeferredContext} and read before it.
+     */
+    private static volatile String sDeferredAppId;
+
+    /**
+     * Application context recorded by a deferred {@link #initialize}, used by {@link #warmUp()}.
+     */
+    private static volatile Context sDeferredContext;
 
     private InitializationCompleteCallback mInitializationCallback;
     private MediationAdLoadCallback<MediationRewardedAd, MediationRewardedAdCallback>
             mMediationAdLoadCallback;
     private MediationRewardedAdCallback mMediationRewardedAdCallback;
 
+    /**
+     * The ad load or play in progress, if any.
+     */
+    private volatile VungleInitializer.AdActivity mAdActivity;
+
+    /**
+     * Sets whether the Vungle SDK is started lazily. When enabled, {@link #initialize} only
+     * records the App ID and reports success. The SDK is started by the first ad request, or by
+     * {@link #warmUp()} if it is called earlier. Must be set before the Google Mobile Ads SDK is
+     * initialized.
+     */
+    public static void setInitializeOnFirstRequest(boolean initializeOnFirstRequest) {
+        sInitializeOnFirstRequest = initializeOnFirstRequest;
+    }
+
+    /**
+     * Starts the Vungle SDK if its initialization was deferred by
+     * {@link #setInitializeOnFirstRequest(boolean)}, for example once the app is idle. Does
+     * nothing otherwise.
+     */
+    public static void warmUp() {
+        String appId = sDeferredAppId;
+        Context context = sDeferredContext;
+        sDeferredAppId = null;
+        sDeferredContext = null;
+        if (appId == null || context == null) {
+            return;
+        }
+        VungleInitializer.getInstance().initialize(appId, context,
+                new VungleInitializer.VungleInitializationListener() {
+                    @Override
+                    public void onInitializeSuccess() {
+                        // Ad requests register their own listeners.
+                    }
+
+                    @Override
+                    public void onInitializeError(String errorMessage) {
+                        Log.w(TAG, "Failed to warm up the Vungle SDK: " + errorMessage);
+                    }
+                });
+    }
+
+    /**
+     * The adapter version, pre-parsed at build time.
+     */
+    private static final VersionInfo ADAPTER_VERSION_INFO = new VersionInfo(
+            BuildConfig.ADAPTER_VERSION_MAJOR,
+            BuildConfig.ADAPTER_VERSION_MINOR,
+            BuildConfig.ADAPTER_VERSION_MICRO);
+
+    /**
+     * The SDK version, parsed the first time it is requested.
+     */
+    private static volatile VersionInfo sSdkVersionInfo;
+
     @Override
     public VersionInfo getVersionInfo() {
-        String versionString = BuildConfig.VERSION_NAME;
-        String splits[] = versionString.split("\\.");
-        int major = Integer.parseInt(splits[0]);
-        int minor = Integer.parseInt(splits[1]);
-        int micro = Integer.parseInt(splits[2]) * 100 + Integer.parseInt(splits[3]);
-        return new VersionInfo(major, minor, micro);
+        return ADAPTER_VERSION_INFO;
     }
 
     @Override
     public VersionInfo getSDKVersionInfo() {
+        if (sSdkVersionInfo == null) {
+            sSdkVersionInfo = parseSDKVersionInfo();
+        }
+        return sSdkVersionInfo;
+    }
+
+    private static VersionInfo parseSDKVersionInfo() {
         String versionString = com.vungle.warren.BuildConfig.VERSION_NAME;
         String splits[] = versionString.split("\\.");
         int major = Integer.parseInt(splits[0]);
@@ -108,6 +179,14 @@ public class VungleMediationAdapter extends Adapter
                 Log.w(TAG, logMessage);
             }
 
+            if (sInitializeOnFirstRequest) {
+                // Vungle is started by the first ad request or by warmUp().
+                sDeferredContext = context.getApplicationContext();
+                sDeferredAppId = appID;
+                initializationCompleteCallback.onInitializationSucceeded();
+                return;
+            }
+
             mInitializationCallback = initializationCompleteCallback;
             VungleInitializer.getInstance().initialize(appID, context.getApplicationContext(),
                     VungleMediationAdapter.this);
@@ -124,7 +203,7 @@ public class VungleMediationAdapter extends Adapter
                     MediationRewardedAdCallback> mediationAdLoadCallback) {
         mMediationAdLoadCallback = mediationAdLoadCallback;
 
-        Context context = mediationRewardedAdConfiguration.getContext();
+        final Context context = mediationRewardedAdConfiguration.getContext();
         if (!(context instanceof Activity)){
             mediationAdLoadCallback.onFailure(
                     "Vungle SDK requires an Activity context to initialize");
@@ -132,7 +211,7 @@ public class VungleMediationAdapter extends Adapter
         }
 
         Bundle mediationExtras = mediationRewardedAdConfiguration.getMediationExtras();
-        Bundle serverParameters = mediationRewardedAdConfiguration.getServerParameters();
+        final Bundle serverParameters = mediationRewardedAdConfiguration.getServerParameters();
 
         if (mediationExtras != null) {
             mUserID = mediationExtras.getString(VungleExtrasBuilder.EXTRA_USER_ID);
@@ -146,22 +225,33 @@ public class VungleMediationAdapter extends Adapter
             return;
         }
 
-        if (mPlacementsInUse.containsKey(mPlacement) &&
-                mPlacementsInUse.get(mPlacement).get() != null){
-            String logMessage = "Only a maximum of one ad can be loaded per placement.";
-            Log.w(TAG, logMessage);
-            mediationAdLoadCallback.onFailure(logMessage);
-            return;
-        }
-
         mAdConfig = VungleExtrasBuilder.adConfigWithNetworkExtras(mediationExtras);
 
+        // Only a maximum of one ad can be loaded per placement. If an ad has already been
+        // requested for it, wait for that ad to be consumed first.
+        mPlacementsInUse.claimOrWait(mPlacement, VungleMediationAdapter.this,
+                new PlacementRegistry.ClaimCallback() {
+                    @Override
+                    public void onClaimed() {
+                        loadClaimedRewardedAd(context, serverParameters);
+                    }
+
+                    @Override
+                    public void onClaimFailed(String errorMessage) {
+                        Log.w(TAG, errorMessage);
+                        mMediationAdLoadCallback.onFailure(errorMessage);
+                    }
+                });
+    }
+
+    private void loadClaimedRewardedAd(Context context, Bundle serverParameters) {
         if (!VungleInitializer.getInstance().isInitialized()) {
             String appID = serverParameters.getString(KEY_APP_ID);
             if (TextUtils.isEmpty(appID)) {
                 String logMessage = "Failed to load ad from Vungle: Missing or Invalid App ID.";
                 Log.w(TAG, logMessage);
-                mediationAdLoadCallback.onFailure(logMessage);
+                mPlacementsInUse.release(mPlacement, VungleMediationAdapter.this);
+                mMediationAdLoadCallback.onFailure(logMessage);
                 return;
             }
 
@@ -169,12 +259,12 @@ public class VungleMediationAdapter extends Adapter
                     VungleMediationAdapter.this);
         } else {
             Vungle.setIncentivizedFields(mUserID, null, null, null, null);
-            mPlacementsInUse.put(mPlacement, new WeakReference<>(VungleMediationAdapter.this));
 
             if (Vungle.canPlayAd(mPlacement)) {
                 mMediationRewardedAdCallback =
                         mMediationAdLoadCallback.onSuccess(VungleMediationAdapter.this);
             } else {
+                startAdActivity();
                 Vungle.loadAd(mPlacement, VungleMediationAdapter.this);
             }
         }
@@ -194,7 +284,6 @@ public class VungleMediationAdapter extends Adapter
         // If mPlacement has a value, then an Ad Request is pending.
         if (!TextUtils.isEmpty(mPlacement)) {
             Vungle.setIncentivizedFields(mUserID, null, null, null, null);
-            mPlacementsInUse.put(mPlacement, new WeakReference<>(VungleMediationAdapter.this));
 
             if (Vungle.canPlayAd(mPlacement)) {
                 if (mMediationAdLoadCallback != null) {
@@ -202,6 +291,7 @@ public class VungleMediationAdapter extends Adapter
                             mMediationAdLoadCallback.onSuccess(VungleMediationAdapter.this);
                 }
             } else {
+                startAdActivity();
                 Vungle.loadAd(mPlacement, VungleMediationAdapter.this);
             }
         }
@@ -217,19 +307,20 @@ public class VungleMediationAdapter extends Adapter
         // If 'mMediationAdLoadCallback' has a value, then an Ad Request is pending and has failed.
         if (mMediationAdLoadCallback != null) {
             mMediationAdLoadCallback.onFailure("Failed to load ad from Vungle: " + errorMessage);
-            mPlacementsInUse.remove(mPlacement);
+            mPlacementsInUse.release(mPlacement, VungleMediationAdapter.this);
         }
     }
 
     @Override
     public void showAd(Context context) {
         if (Vungle.canPlayAd(mPlacement)) {
+            startAdActivity();
             Vungle.playAd(mPlacement, mAdConfig, VungleMediationAdapter.this);
         } else {
             if (mMediationRewardedAdCallback != null) {
                 mMediationRewardedAdCallback.onAdFailedToShow("Not ready.");
             }
-            mPlacementsInUse.remove(mPlacement);
+            mPlacementsInUse.release(mPlacement, VungleMediationAdapter.this);
         }
     }
 
@@ -238,6 +329,7 @@ public class VungleMediationAdapter extends Adapter
      */
     @Override
     public void onAdLoad(final String placementID) {
+        endAdActivity();
         mHandler.post(new Runnable() {
             @Override
             public void run() {
@@ -245,7 +337,6 @@ public class VungleMediationAdapter extends Adapter
                     mMediationRewardedAdCallback =
                             mMediationAdLoadCallback.onSuccess(VungleMediationAdapter.this);
                 }
-                mPlacementsInUse.put(mPlacement, new WeakReference<>(VungleMediationAdapter.this));
             }
         });
     }
@@ -271,6 +362,7 @@ public class VungleMediationAdapter extends Adapter
     public void onAdEnd(final String placementID,
                         final boolean wasSuccessfulView,
                         final boolean wasCallToActionClicked) {
+        endAdActivity();
         mHandler.post(new Runnable() {
             @Override
             public void run() {
@@ -287,7 +379,7 @@ public class VungleMediationAdapter extends Adapter
                     }
                     mMediationRewardedAdCallback.onAdClosed();
                 }
-                mPlacementsInUse.remove(placementID);
+                mPlacementsInUse.release(placementID, VungleMediationAdapter.this);
             }
         });
     }
@@ -297,6 +389,7 @@ public class VungleMediationAdapter extends Adapter
     @Override
     public void onError(final String placementID,
                         final Throwable throwable) {
+        endAdActivity();
         mHandler.post(new Runnable() {
             @Override
             public void run() {
@@ -308,11 +401,23 @@ public class VungleMediationAdapter extends Adapter
                 if (mMediationRewardedAdCallback != null) {
                     mMediationRewardedAdCallback.onAdFailedToShow(throwable.getLocalizedMessage());
                 }
-                mPlacementsInUse.remove(placementID);
+                mPlacementsInUse.release(placementID, VungleMediationAdapter.this);
             }
         });
     }
 
+    private void startAdActivity() {
+        endAdActivity();
+        mAdActivity = VungleInitializer.getInstance().startAdActivity();
+    }
+
+    private void endAdActivity() {
+        VungleInitializer.AdActivity adActivity = mAdActivity;
+        if (adActivity != null) {
+            adActivity.end();
+        }
+    }
+
     /**
      * This class is used to map Vungle rewarded video ad rewards to Google Mobile Ads SDK rewards.
      */
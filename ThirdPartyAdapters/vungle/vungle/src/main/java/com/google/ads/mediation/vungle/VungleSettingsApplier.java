@@ -0,0 +1,152 @@
+package com.google.ads.mediation.vungle;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.vungle.mediation.VungleNetworkSettings;
+import com.vungle.warren.InitCallback;
+import com.vungle.warren.Vungle;
+import com.vungle.warren.VungleSettings;
+
+/**
+ * Applies changes of {@link VungleNetworkSettings} to an initialized Vungle SDK with as few
+ * initializations as possible.
+ *
+ * <p>The Vungle SDK only reads its settings in {@link Vungle#init}, and initializing it again in
+ * the middle of a session stalls the loads that are in flight. Changes are therefore diffed
+ * against the settings the SDK was last initialized with:
+ * <ul>
+ * <li>The minimum space for init is only checked while initializing, so a change to it is kept
+ * for the next initialization and does not need one by itself.</li>
+ * <li>The minimum space for ad loads and the Android ID opt-out can only be changed by
+ * initializing again. Such changes are coalesced into a single initialization, deferred until no
+ * ad is loading or playing.</li>
+ * </ul>
+ * Setting a value back before the deferred initialization ran cancels it.
+ *
+ * <p>Thread-safe. The SDK is initialized again on the main thread.
+ */
+final class VungleSettingsApplier {
+
+    private static final String TAG = VungleSettingsApplier.class.getSimpleName();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final InitCallback mInitCallback;
+
+    private String mAppId;
+    private Context mContext;
+
+    /**
+     * Settings the SDK was last initialized with, that cannot be changed without initializing it
+     * again.
+     */
+    private long mInitializedMinSpaceForAdLoad;
+    private boolean mInitializedAndroidIdOptOut;
+
+    private int mActiveAdActivityCount;
+    private boolean mIsReinitializationPending;
+    private boolean mIsReinitializationPosted;
+
+    private final Runnable mReinitializeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            reinitialize();
+        }
+    };
+
+    VungleSettingsApplier(InitCallback initCallback) {
+        mInitCallback = initCallback;
+    }
+
+    /**
+     * Returns the settings to initialize the SDK with, and records them as the ones the SDK is
+     * initialized with.
+     */
+    synchronized VungleSettings onInitialize(String appId, Context context) {
+        mAppId = appId;
+        mContext = context.getApplicationContext();
+        mIsReinitializationPending = false;
+        return snapshotSettings();
+    }
+
+    /**
+     * Called whenever {@link VungleNetworkSettings} changed.
+     */
+    void onSettingsChanged() {
+        synchronized (this) {
+            if (mAppId == null) {
+                // Picked up by the first initialization.
+                return;
+            }
+            mIsReinitializationPending =
+                    mInitializedMinSpaceForAdLoad != VungleNetworkSettings.getMinSpaceForAdLoad()
+                    || mInitializedAndroidIdOptOut != VungleNetworkSettings.isAndroidIdOptedOut();
+            if (!mIsReinitializationPending) {
+                Log.d(TAG, "Vungle settings changed without needing to initialize again.");
+                return;
+            }
+            Log.d(TAG, "Vungle settings changed, initializing again once no ad is active.");
+        }
+        postReinitializationIfIdle();
+    }
+
+    /**
+     * Called once an initialization succeeded. Settings that changed while it was running are
+     * applied from here.
+     */
+    void onInitialized() {
+        postReinitializationIfIdle();
+    }
+
+    synchronized void onAdActivityStarted() {
+        mActiveAdActivityCount++;
+    }
+
+    void onAdActivityEnded() {
+        synchronized (this) {
+            mActiveAdActivityCount--;
+        }
+        postReinitializationIfIdle();
+    }
+
+    private void postReinitializationIfIdle() {
+        synchronized (this) {
+            if (!mIsReinitializationPending || mActiveAdActivityCount > 0
+                    || mIsReinitializationPosted) {
+                return;
+            }
+            mIsReinitializationPosted = true;
+        }
+        mHandler.post(mReinitializeRunnable);
+    }
+
+    private void reinitialize() {
+        String appId;
+        Context context;
+        VungleSettings settings;
+        synchronized (this) {
+            mIsReinitializationPosted = false;
+            if (!mIsReinitializationPending || mActiveAdActivityCount > 0
+                    || !Vungle.isInitialized()) {
+                // Cancelled, an ad became active since this was posted, or an initialization is
+                // still running and will post this again once it succeeded.
+                return;
+            }
+            mIsReinitializationPending = false;
+            appId = mAppId;
+            context = mContext;
+            settings = snapshotSettings();
+        }
+        Log.d(TAG, "Initializing Vungle again to apply updated settings.");
+        Vungle.init(appId, context, mInitCallback, settings);
+    }
+
+    private VungleSettings snapshotSettings() {
+        mInitializedMinSpaceForAdLoad = VungleNetworkSettings.getMinSpaceForAdLoad();
+        mInitializedAndroidIdOptOut = VungleNetworkSettings.isAndroidIdOptedOut();
+        VungleSettings settings = VungleNetworkSettings.getVungleSettings();
+        return settings != null ? settings : new VungleSettings.Builder().build();
+    }
+}
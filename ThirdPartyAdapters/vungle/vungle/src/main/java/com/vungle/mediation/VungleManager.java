@@ -1,5 +1,6 @@
 package com.vungle.mediation;
 
+import android.content.Context;
 import android.os.Bundle;
 
 import androidx.annotation.NonNull;
@@ -7,6 +8,8 @@ import androidx.annotation.Nullable;
 
 import android.util.Log;
 
+import com.google.ads.mediation.vungle.VungleInitializer;
+import com.google.android.gms.ads.mediation.InitializationCompleteCallback;
 import com.vungle.warren.AdConfig;
 import com.vungle.warren.LoadAdCallback;
 import com.vungle.warren.PlayAdCallback;
@@ -28,6 +31,16 @@ public class VungleManager {
 
     private ConcurrentHashMap<String, VungleNativeAd> activeBannerAds;
 
+    /**
+     * Ad activities of the banner ads in {@link #activeBannerAds}, keyed by placement.
+     */
+    private ConcurrentHashMap<String, VungleInitializer.AdActivity> activeBannerActivities;
+
+    /**
+     * Callback of the running warm-up, if any.
+     */
+    private InitializationCompleteCallback mWarmUpCallback;
+
     public static synchronized VungleManager getInstance() {
         if (sInstance == null) {
             sInstance = new VungleManager();
@@ -37,6 +50,7 @@ public class VungleManager {
 
     private VungleManager() {
         activeBannerAds = new ConcurrentHashMap<>();
+        activeBannerActivities = new ConcurrentHashMap<>();
     }
 
     @Nullable
@@ -59,10 +73,92 @@ public class VungleManager {
         return placement;
     }
 
+    /**
+     * Initializes the Vungle SDK if needed and pre-loads an ad for {@code placement}, so that the
+     * first ad request for it is served from the SDK's cache. An ad request for the same
+     * placement made while the ad is loading is served by the same load.
+     *
+     * <p>Only one warm-up runs at a time. Starting a new one cancels the previous one.
+     *
+     * @param callback notified once the ad is loaded or failed to load, unless the warm-up is
+     *                 cancelled first.
+     */
+    public void warmUp(Context context,
+                       String appId,
+                       final String placement,
+                       final InitializationCompleteCallback callback) {
+        synchronized (this) {
+            mWarmUpCallback = callback;
+        }
+        VungleInitializer.getInstance().initialize(appId, context.getApplicationContext(),
+                new VungleInitializer.VungleInitializationListener() {
+                    @Override
+                    public void onInitializeSuccess() {
+                        if (!isWarmingUp(callback)) {
+                            return;
+                        }
+                        if (isAdPlayable(placement)) {
+                            finishWarmUp(callback, null);
+                        } else if (isValidPlacement(placement)) {
+                            loadAd(placement, new VungleListener() {
+                                @Override
+                                void onAdAvailable() {
+                                    finishWarmUp(callback, null);
+                                }
+
+                                @Override
+                                void onAdFailedToLoad() {
+                                    finishWarmUp(callback, "Failed to load an ad for placement: "
+                                            + placement);
+                                }
+                            });
+                        } else {
+                            finishWarmUp(callback, "Invalid placement: " + placement);
+                        }
+                    }
+
+                    @Override
+                    public void onInitializeError(String errorMessage) {
+                        finishWarmUp(callback, errorMessage);
+                    }
+                });
+    }
+
+    /**
+     * Cancels the running warm-up, if any. An ad that is already loading stays in the SDK's cache
+     * once loaded, but the warm-up callback is not notified.
+     */
+    public synchronized void cancelWarmUp() {
+        mWarmUpCallback = null;
+    }
+
+    private synchronized boolean isWarmingUp(InitializationCompleteCallback callback) {
+        return mWarmUpCallback == callback;
+    }
+
+    private void finishWarmUp(InitializationCompleteCallback callback,
+                              @Nullable String errorMessage) {
+        synchronized (this) {
+            if (mWarmUpCallback != callback) {
+                return;
+            }
+            mWarmUpCallback = null;
+        }
+        if (errorMessage != null) {
+            Log.w(TAG, "Failed to warm up Vungle: " + errorMessage);
+            callback.onInitializationFailed(errorMessage);
+        } else {
+            callback.onInitializationSucceeded();
+        }
+    }
+
     void loadAd(String placement, @Nullable final VungleListener listener) {
+        final VungleInitializer.AdActivity activity =
+                VungleInitializer.getInstance().startAdActivity();
         Vungle.loadAd(placement, new LoadAdCallback() {
             @Override
             public void onAdLoad(String placement) {
+                activity.end();
                 if (listener != null) {
                     listener.onAdAvailable();
                 }
@@ -70,6 +166,7 @@ public class VungleManager {
 
             @Override
             public void onError(String placement, Throwable cause) {
+                activity.end();
                 if (listener != null) {
                     listener.onAdFailedToLoad();
                 }
@@ -78,10 +175,15 @@ public class VungleManager {
     }
 
     void playAd(String placement, AdConfig cfg, @Nullable VungleListener listener) {
-        Vungle.playAd(placement, cfg, playAdCallback(listener));
+        Vungle.playAd(placement, cfg,
+                playAdCallback(listener, VungleInitializer.getInstance().startAdActivity()));
     }
 
-    private PlayAdCallback playAdCallback(@Nullable final VungleListener listener) {
+    /**
+     * @param activity ended once the ad ended or failed to play.
+     */
+    private PlayAdCallback playAdCallback(@Nullable final VungleListener listener,
+                                          final VungleInitializer.AdActivity activity) {
         return new PlayAdCallback() {
             @Override
             public void onAdStart(String id) {
@@ -92,6 +194,7 @@ public class VungleManager {
 
             @Override
             public void onAdEnd(String id, boolean completed, boolean isCTAClicked) {
+                activity.end();
                 if (listener != null) {
                     listener.onAdEnd(id, completed, isCTAClicked);
                 }
@@ -99,6 +202,7 @@ public class VungleManager {
 
             @Override
             public void onError(String id, Throwable error) {
+                activity.end();
                 if (listener != null) {
                     listener.onAdFail(id);
                 }
@@ -127,10 +231,18 @@ public class VungleManager {
         Log.d(TAG, "getVungleNativeAd");
 
         //Fetch new ad
+        VungleInitializer.AdActivity activity = VungleInitializer.getInstance().startAdActivity();
         VungleNativeAd bannerAd = Vungle.getNativeAd(placement, adConfig,
-                playAdCallback(vungleListener));
+                playAdCallback(vungleListener, activity));
         if (bannerAd != null) {
             activeBannerAds.put(placement, bannerAd);
+            VungleInitializer.AdActivity previousActivity =
+                    activeBannerActivities.put(placement, activity);
+            if (previousActivity != null) {
+                previousActivity.end();
+            }
+        } else {
+            activity.end();
         }
 
         return bannerAd;
@@ -144,6 +256,10 @@ public class VungleManager {
             Log.d(TAG, "cleanUpBanner # finishDisplayingAd");
             bannerAd.finishDisplayingAd();
             activeBannerAds.remove(placementId);
+            VungleInitializer.AdActivity activity = activeBannerActivities.remove(placementId);
+            if (activity != null) {
+                activity.end();
+            }
         }
     }
 
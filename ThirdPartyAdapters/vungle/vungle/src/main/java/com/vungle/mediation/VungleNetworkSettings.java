@@ -30,8 +30,8 @@ public class VungleNetworkSettings {
     }
 
     /**
-     * To pass Vungle network setting to SDK. this method must be called before first loadAd.
-     * if called after first loading an ad, settings will not be applied.
+     * To pass Vungle network setting to SDK. If the SDK is already initialized, settings that
+     * need it to be initialized again are applied once no ad is loading or playing.
      */
     private static void applySettings() {
         vungleSettings = new VungleSettings.Builder()
@@ -44,6 +44,14 @@ public class VungleNetworkSettings {
         }
     }
 
+    public static long getMinSpaceForAdLoad() {
+        return minimumSpaceForAd;
+    }
+
+    public static boolean isAndroidIdOptedOut() {
+        return androidIdOptedOut;
+    }
+
     public static VungleSettings getVungleSettings() {
         return vungleSettings;
     }
@@ -0,0 +1,41 @@
+package com.google.ads.mediation.vungle;
+
+import android.content.Context;
+
+import com.vungle.warren.InitCallback;
+import com.vungle.warren.Vungle;
+import com.vungle.warren.VungleSettings;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.Resetter;
+
+/**
+ * Counts calls to {@link Vungle#init} instead of starting the Vungle SDK.
+ */
+@Implements(Vungle.class)
+public class ShadowVungle {
+
+    static int sInitCount;
+
+    static boolean sIsInitialized;
+
+    @Implementation
+    protected static void init(String appId,
+                               Context context,
+                               InitCallback callback,
+                               VungleSettings settings) {
+        sInitCount++;
+    }
+
+    @Implementation
+    protected static boolean isInitialized() {
+        return sIsInitialized;
+    }
+
+    @Resetter
+    public static void reset() {
+        sInitCount = 0;
+        sIsInitialized = false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.google.ads.mediation.vungle;
+
+import static org.junit.Assert.assertEquals;
+
+import com.vungle.mediation.VungleNetworkSettings;
+import com.vungle.warren.Plugin;
+import com.vungle.warren.VungleApiClient;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Tests for {@link VungleInitializer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28,
+        shadows = {ShadowVungle.class, VungleInitializerTest.ShadowPlugin.class},
+        instrumentedPackages = "com.vungle.warren")
+public class VungleInitializerTest {
+
+    private static final int REQUEST_COUNT = 5;
+
+    /**
+     * Uses the {@link VungleInitializer} singleton, so this is the only test of the class.
+     */
+    @Test
+    public void initialize_burstOfRequestsAndSettingsChangesInitializesOnceEach() {
+        VungleInitializer initializer = VungleInitializer.getInstance();
+        RecordingListener[] listeners = new RecordingListener[REQUEST_COUNT];
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            listeners[i] = new RecordingListener();
+            initializer.initialize("app", RuntimeEnvironment.application, listeners[i]);
+        }
+        assertEquals(1, ShadowVungle.sInitCount);
+
+        ShadowVungle.sIsInitialized = true;
+        initializer.onSuccess();
+        ShadowLooper.idleMainLooper();
+        for (RecordingListener listener : listeners) {
+            assertEquals(1, listener.mSuccessCount);
+        }
+
+        // Settings changed by the publisher at runtime are applied in a single initialization.
+        VungleNetworkSettings.setMinSpaceForAdLoad(VungleNetworkSettings.getMinSpaceForAdLoad() + 1);
+        VungleNetworkSettings.setAndroidIdOptOut(!VungleNetworkSettings.isAndroidIdOptedOut());
+        VungleNetworkSettings.setMinSpaceForAdLoad(VungleNetworkSettings.getMinSpaceForAdLoad() + 1);
+        ShadowLooper.idleMainLooper();
+        assertEquals(2, ShadowVungle.sInitCount);
+
+        // Requests after the initialization do not initialize again.
+        RecordingListener lateListener = new RecordingListener();
+        initializer.initialize("app", RuntimeEnvironment.application, lateListener);
+        assertEquals(1, lateListener.mSuccessCount);
+        assertEquals(2, ShadowVungle.sInitCount);
+    }
+
+    /**
+     * Skips the wrapper info the Vungle SDK reports to its servers.
+     */
+    @Implements(Plugin.class)
+    public static class ShadowPlugin {
+        @Implementation
+        protected static void addWrapperInfo(VungleApiClient.WrapperFramework framework,
+                                             String version) {
+        }
+    }
+
+    private static class RecordingListener
+            implements VungleInitializer.VungleInitializationListener {
+        int mSuccessCount;
+
+        @Override
+        public void onInitializeSuccess() {
+            mSuccessCount++;
+        }
+
+        @Override
+        public void onInitializeError(String errorMessage) {
+        }
+    }
+}
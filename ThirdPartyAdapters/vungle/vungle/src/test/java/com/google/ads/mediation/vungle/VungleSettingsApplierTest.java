@@ -0,0 +1,155 @@
+package com.google.ads.mediation.vungle;
+
+import static org.junit.Assert.assertEquals;
+
+import com.vungle.mediation.VungleNetworkSettings;
+import com.vungle.warren.InitCallback;
+import com.vungle.warren.VungleSettings;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Tests for {@link VungleSettingsApplier}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, shadows = ShadowVungle.class, instrumentedPackages = "com.vungle.warren")
+public class VungleSettingsApplierTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private VungleSettingsApplier mApplier;
+
+    @Before
+    public void setUp() {
+        VungleNetworkSettings.setVungleSettingsChangedListener(null);
+        VungleNetworkSettings.setMinSpaceForInit(50 * MEGABYTE);
+        VungleNetworkSettings.setMinSpaceForAdLoad(51 * MEGABYTE);
+        VungleNetworkSettings.setAndroidIdOptOut(false);
+
+        mApplier = new VungleSettingsApplier(new NoOpInitCallback());
+        VungleNetworkSettings.setVungleSettingsChangedListener(
+                new VungleNetworkSettings.VungleSettingsChangedListener() {
+                    @Override
+                    public void onVungleSettingsChanged(VungleSettings vungleSettings) {
+                        mApplier.onSettingsChanged();
+                    }
+                });
+    }
+
+    @After
+    public void tearDown() {
+        VungleNetworkSettings.setVungleSettingsChangedListener(null);
+    }
+
+    @Test
+    public void onSettingsChanged_beforeFirstInitializationDoesNotInitialize() {
+        VungleNetworkSettings.setMinSpaceForAdLoad(100 * MEGABYTE);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(0, ShadowVungle.sInitCount);
+    }
+
+    @Test
+    public void onSettingsChanged_severalChangesInitializeOnce() {
+        initialize();
+
+        VungleNetworkSettings.setMinSpaceForInit(10 * MEGABYTE);
+        VungleNetworkSettings.setMinSpaceForAdLoad(100 * MEGABYTE);
+        VungleNetworkSettings.setMinSpaceForAdLoad(200 * MEGABYTE);
+        VungleNetworkSettings.setAndroidIdOptOut(true);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(1, ShadowVungle.sInitCount);
+    }
+
+    @Test
+    public void onSettingsChanged_minSpaceForInitDoesNotInitialize() {
+        initialize();
+
+        VungleNetworkSettings.setMinSpaceForInit(10 * MEGABYTE);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(0, ShadowVungle.sInitCount);
+    }
+
+    @Test
+    public void onSettingsChanged_sameValuesDoNotInitialize() {
+        initialize();
+
+        VungleNetworkSettings.setMinSpaceForAdLoad(51 * MEGABYTE);
+        VungleNetworkSettings.setAndroidIdOptOut(false);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(0, ShadowVungle.sInitCount);
+    }
+
+    @Test
+    public void onSettingsChanged_setBackBeforeAppliedDoesNotInitialize() {
+        initialize();
+
+        VungleNetworkSettings.setAndroidIdOptOut(true);
+        VungleNetworkSettings.setAndroidIdOptOut(false);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(0, ShadowVungle.sInitCount);
+    }
+
+    @Test
+    public void onSettingsChanged_waitsUntilNoAdIsActive() {
+        initialize();
+        mApplier.onAdActivityStarted();
+        mApplier.onAdActivityStarted();
+
+        VungleNetworkSettings.setAndroidIdOptOut(true);
+        ShadowLooper.idleMainLooper();
+        mApplier.onAdActivityEnded();
+        ShadowLooper.idleMainLooper();
+        assertEquals(0, ShadowVungle.sInitCount);
+
+        mApplier.onAdActivityEnded();
+        ShadowLooper.idleMainLooper();
+        assertEquals(1, ShadowVungle.sInitCount);
+    }
+
+    @Test
+    public void onSettingsChanged_duringInitializationAppliedOnceInitialized() {
+        mApplier.onInitialize("app", RuntimeEnvironment.application);
+
+        VungleNetworkSettings.setMinSpaceForAdLoad(100 * MEGABYTE);
+        ShadowLooper.idleMainLooper();
+        assertEquals(0, ShadowVungle.sInitCount);
+
+        ShadowVungle.sIsInitialized = true;
+        mApplier.onInitialized();
+        ShadowLooper.idleMainLooper();
+        assertEquals(1, ShadowVungle.sInitCount);
+    }
+
+    private void initialize() {
+        mApplier.onInitialize("app", RuntimeEnvironment.application);
+        ShadowVungle.sIsInitialized = true;
+        mApplier.onInitialized();
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static class NoOpInitCallback implements InitCallback {
+        @Override
+        public void onSuccess() {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onAutoCacheAdAvailable(String placementId) {
+        }
+    }
+}